@@ -52,6 +52,7 @@ import org.sosy_lab.cpachecker.core.CPAchecker;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult;
 import org.sosy_lab.cpachecker.core.algorithm.pcc.ProofGenerator;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 
 import com.google.common.base.Strings;
@@ -99,6 +100,7 @@ public class CPAMain {
     CPAchecker cpachecker = null;
     ProofGenerator proofGenerator = null;
     ResourceLimitChecker limits = null;
+    MemoryGovernor memoryGovernor = null;
     MainOptions options = new MainOptions();
     try {
       cpaConfig.inject(options);
@@ -110,6 +112,11 @@ public class CPAMain {
       limits = ResourceLimitChecker.fromConfiguration(cpaConfig, logManager, shutdownManager);
       limits.start();
 
+      memoryGovernor = MemoryGovernor.fromConfiguration(cpaConfig, logManager, shutdownManager);
+      if (memoryGovernor != null) {
+        memoryGovernor.start();
+      }
+
       cpachecker = new CPAchecker(cpaConfig, logManager, shutdownManager);
       if (options.doPCC) {
         proofGenerator = new ProofGenerator(cpaConfig, logManager, shutdownNotifier);
@@ -144,6 +151,9 @@ public class CPAMain {
     shutdownNotifier.unregister(forcedExitOnShutdown);
     ForceTerminationOnShutdown.cancelPendingTermination();
     limits.cancel();
+    if (memoryGovernor != null) {
+      memoryGovernor.cancel();
+    }
     Thread.interrupted(); // clear interrupted flag
 
     try {
@@ -32,6 +32,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 
@@ -66,8 +67,12 @@ import org.sosy_lab.cpachecker.core.interfaces.Property;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Targetable;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonState;
+import org.sosy_lab.cpachecker.cpa.automaton.ControlAutomatonCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
 import org.sosy_lab.cpachecker.util.automaton.TargetLocationProvider;
@@ -77,6 +82,7 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
 import com.google.common.base.StandardSystemProperty;
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.Sets;
@@ -118,6 +124,15 @@ public class CPAchecker {
   @Option(secure=true, description="stop after the first error has been found")
   private boolean stopAfterError = true;
 
+  @Option(secure=true,
+      description="check all specification automata in a single analysis:"
+          + " once a property is violated, its error states are no longer treated as targets"
+          + " and the analysis continues for the remaining properties"
+          + " (implies analysis.stopAfterError=false)."
+          + " A verdict is logged for each property, and with counterexample export enabled,"
+          + " a counterexample is written for each violated property.")
+  private boolean checkMultipleProperties = false;
+
   @Option(secure=true, name="disable",
       description="stop CPAchecker after startup (internal option, not intended for users)")
   private boolean disableAnalysis = false;
@@ -224,6 +239,7 @@ public class CPAchecker {
     ReachedSet reached = null;
     Result result = Result.NOT_YET_STARTED;
     String violatedPropertyDescription = "";
+    List<ControlAutomatonCPA> specificationCPAs = ImmutableList.of();
 
     final ShutdownRequestListener interruptThreadOnShutdown = interruptCurrentThreadOnShutdown();
     shutdownNotifier.register(interruptThreadOnShutdown);
@@ -256,6 +272,7 @@ public class CPAchecker {
             cfa, stats,
             speComposition);
         GlobalInfo.getInstance().setUpInfoFromCPA(cpa);
+        specificationCPAs = CPAs.asIterable(cpa).filter(ControlAutomatonCPA.class).toList();
 
         algorithm = factory.createAlgorithm(cpa, programDenotation, cfa, stats);
 
@@ -281,7 +298,7 @@ public class CPAchecker {
       // run analysis
       result = Result.UNKNOWN; // set to unknown so that the result is correct in case of exception
 
-      AlgorithmStatus status = runAlgorithm(algorithm, reached, stats);
+      AlgorithmStatus status = runAlgorithm(algorithm, reached, specificationCPAs, stats);
 
       stats.resultAnalysisTime.start();
       Set<Property> violatedProperties = findViolatedProperties(algorithm, reached);
@@ -299,6 +316,9 @@ public class CPAchecker {
           result = Result.TRUE;
         }
       }
+      if (checkMultipleProperties) {
+        logPropertyVerdicts(specificationCPAs, reached, status);
+      }
       stats.resultAnalysisTime.stop();
 
     } catch (IOException e) {
@@ -379,6 +399,7 @@ public class CPAchecker {
 
   private AlgorithmStatus runAlgorithm(final Algorithm algorithm,
       final ReachedSet reached,
+      final List<ControlAutomatonCPA> specificationCPAs,
       final MainCPAStatistics stats) throws CPAException, InterruptedException {
 
     logger.log(Level.INFO, "Starting analysis ...");
@@ -389,14 +410,19 @@ public class CPAchecker {
     CPAcheckerBean mxbean = new CPAcheckerBean(reached, logger, shutdownManager);
 
     stats.startAnalysisTimer();
+    stats.startStatisticsSnapshots(reached);
     try {
 
       do {
         status = status.update(algorithm.run(reached));
 
+        if (checkMultipleProperties) {
+          disableViolatedProperties(reached, specificationCPAs);
+        }
+
         // either run only once (if stopAfterError == true)
         // or until the waitlist is empty
-      } while (!stopAfterError && reached.hasWaitingState());
+      } while ((!stopAfterError || checkMultipleProperties) && reached.hasWaitingState());
 
       logger.log(Level.INFO, "Stopping analysis ...");
       return status;
@@ -409,6 +435,50 @@ public class CPAchecker {
     }
   }
 
+  /**
+   * Disable the specification automata that have a target state in the reached set,
+   * such that their error states do not stop the analysis of the remaining properties.
+   * Violations of other properties (which are not specified by automata)
+   * cannot be disabled and are handled as with analysis.stopAfterError=false.
+   */
+  private void disableViolatedProperties(final ReachedSet reached,
+      final List<ControlAutomatonCPA> specificationCPAs) {
+
+    for (AbstractState e : from(reached).filter(IS_TARGET_STATE)) {
+      for (AutomatonState automatonState :
+          AbstractStates.asIterable(e).filter(AutomatonState.class)) {
+        if (!automatonState.isTarget()) {
+          continue;
+        }
+        for (ControlAutomatonCPA specification : specificationCPAs) {
+          if (!specification.areTargetsDisabled()
+              && specification.getAutomaton() == automatonState.getOwningAutomaton()) {
+            specification.disableTargets();
+            logger.log(Level.INFO, "Property", automatonState.getOwningAutomatonName(),
+                "is violated, continuing analysis for the remaining properties.");
+          }
+        }
+      }
+    }
+  }
+
+  private void logPropertyVerdicts(final List<ControlAutomatonCPA> specificationCPAs,
+      final ReachedSet reached, final AlgorithmStatus status) {
+
+    for (ControlAutomatonCPA specification : specificationCPAs) {
+      final Result verdict;
+      if (specification.areTargetsDisabled()) {
+        verdict = status.isPrecise() ? Result.FALSE : Result.UNKNOWN;
+      } else if (reached.hasWaitingState() || !status.isSound()) {
+        verdict = Result.UNKNOWN;
+      } else {
+        verdict = Result.TRUE;
+      }
+      logger.log(Level.INFO, "Verification result for property",
+          specification.getAutomaton().getName() + ":", verdict);
+    }
+  }
+
   private Set<Property> findViolatedProperties(final Algorithm pAlgorithm,
       final ReachedSet reached) {
 
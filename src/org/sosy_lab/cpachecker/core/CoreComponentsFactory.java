@@ -36,12 +36,14 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
+import org.sosy_lab.cpachecker.core.algorithm.AnalysisEventLog;
 import org.sosy_lab.cpachecker.core.algorithm.AnalysisWithRefinableEnablerCPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.AssumptionCollectorAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.BDDCPARestrictionAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CEGARAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.CustomInstructionRequirementsExtractingAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.ParallelAbstractionAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.RestartAlgorithmWithARGReplay;
 import org.sosy_lab.cpachecker.core.algorithm.RestartWithConditionsAlgorithm;
@@ -85,6 +87,11 @@ public class CoreComponentsFactory {
         + "\nCurrently all refiner require the use of the ARGCPA.")
   private boolean useCEGAR = false;
 
+  @Option(secure=true, name="algorithm.parallelAbstraction",
+      description="compute the abstractions of PredicateCPA in parallel to the state-space exploration"
+        + "\nThe number of threads is set with the cpa.predicate.abstraction.parallel.threads option.")
+  private boolean useParallelAbstraction = false;
+
   @Option(secure=true, description="use a second model checking run (e.g., with CBMC or a different CPAchecker configuration) to double-check counter-examples")
   private boolean checkCounterexamples = false;
 
@@ -188,7 +195,15 @@ public class CoreComponentsFactory {
       algorithm = new RestartAlgorithmWithARGReplay(config, logger, shutdownNotifier, cfa);
 
     } else {
-      algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier, stats);
+      // Only the main analysis (the one with statistics) gets the event log,
+      // all other CPA algorithms (e.g., of sub-analyses) would overwrite its file.
+      // The log does not keep the file open, so it needs not be closed.
+      AnalysisEventLog eventLog = stats == null ? null : AnalysisEventLog.create(config, logger);
+      algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier, stats, eventLog);
+
+      if (useParallelAbstraction) {
+        algorithm = new ParallelAbstractionAlgorithm(algorithm, cpa, config, logger, shutdownNotifier);
+      }
 
       if (useAnalysisWithEnablerCPAAlgorithm) {
         algorithm = new AnalysisWithRefinableEnablerCPAAlgorithm(algorithm, cpa, cfa, logger, config, shutdownNotifier);
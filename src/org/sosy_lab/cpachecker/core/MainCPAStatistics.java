@@ -46,6 +46,7 @@ import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
@@ -67,10 +68,12 @@ import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.LocationMappedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.PartitionedReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGToBinaryWriter;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.coverage.CoverageReport;
 import org.sosy_lab.cpachecker.util.resources.MemoryStatistics;
 import org.sosy_lab.cpachecker.util.resources.ProcessCpuTime;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsSnapshotExporter;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 
 import com.google.common.base.Function;
@@ -104,15 +107,44 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path reachedSetGraphDumpPath = Paths.get("reached.dot");
 
+  @Option(secure=true, name="reachedSet.binaryFile",
+      description="print reached set to a compact binary file, "
+        + "which can be converted to .dot with ARGBinaryReader")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path reachedSetBinaryFile = null;
+
+  @Option(secure=true, name="reachedSet.binaryFile.compress",
+      description="compress the binary reached-set file with GZIP")
+  private boolean compressReachedSetBinaryFile = true;
+
+  @Option(secure=true, name="reachedSet.binaryFile.payload",
+      description="include the string representation of each state in the binary reached-set file")
+  private boolean reachedSetBinaryPayload = false;
+
   @Option(secure=true, name="statistics.memory",
     description="track memory usage of JVM during runtime")
   private boolean monitorMemoryUsage = true;
 
+  @Option(secure=true, name="statistics.snapshots.file",
+      description="periodically write a snapshot of all statistics (as one line of JSON)"
+          + " to this file while the analysis is running")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path snapshotFile = null;
+
+  @Option(secure=true, name="statistics.snapshots.interval",
+      description="interval between two statistics snapshots"
+          + " (use milliseconds or specify a unit)")
+  @TimeSpanOption(codeUnit=TimeUnit.MILLISECONDS,
+      defaultUserUnit=TimeUnit.SECONDS,
+      min=100)
+  private TimeSpan snapshotInterval = TimeSpan.ofSeconds(60);
+
   private final LogManager logger;
   private final Collection<Statistics> subStats;
   private final MemoryStatistics memStats;
   private final CoverageReport coverageReport;
   private Thread memStatsThread;
+  private Thread snapshotThread;
 
   private Collection<IterationStatistics> iterationStats;
 
@@ -194,9 +226,35 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
     }
   }
 
+  /**
+   * Start writing periodic statistics snapshots (if enabled).
+   * This should be called after all statistics have been registered.
+   */
+  void startStatisticsSnapshots(ReachedSet reached) {
+    if (snapshotFile != null && snapshotThread == null) {
+      StatisticsSnapshotExporter exporter = new StatisticsSnapshotExporter(
+          subStats, reached, snapshotFile, snapshotInterval, logger);
+      snapshotThread = Threads.newThread(exporter, "CPAchecker statistics snapshot writer", true);
+      snapshotThread.start();
+    }
+  }
+
+  private void stopStatisticsSnapshots() {
+    if (snapshotThread != null) {
+      snapshotThread.interrupt(); // writes a last snapshot and terminates
+      try {
+        snapshotThread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      snapshotThread = null;
+    }
+  }
+
   void stopAnalysisTimer() {
     analysisTime.stop();
     programTime.stop();
+    stopStatisticsSnapshots();
 
     try {
       long stopCpuTime = ProcessCpuTime.read();
@@ -239,6 +297,7 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
     if (memStats != null) {
       memStatsThread.interrupt(); // stop memory statistics collection
     }
+    stopStatisticsSnapshots();
 
     final Timer statisticsTime = new Timer();
     statisticsTime.start();
@@ -280,6 +339,17 @@ class MainCPAStatistics implements Statistics, AlgorithmIterationListener {
   private void dumpReachedSet(ReachedSet reached) {
     dumpReachedSet(reached, reachedSetFile, false);
     dumpReachedSet(reached, reachedSetGraphDumpPath, true);
+
+    if (exportReachedSet && reachedSetBinaryFile != null) {
+      try (ARGToBinaryWriter w = new ARGToBinaryWriter(
+          reachedSetBinaryFile, compressReachedSetBinaryFile, reachedSetBinaryPayload)) {
+        for (AbstractState state : reached) {
+          w.writeState(state);
+        }
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write reached set to file");
+      }
+    }
   }
 
   private void dumpReachedSet(ReachedSet reached, Path pOutputFile, boolean writeDotFormat){
@@ -0,0 +1,296 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+
+/**
+ * A log of the events of an analysis (e.g., the computation of successors of a state)
+ * together with their durations, for finding out after the analysis
+ * in which parts of the state space the time was spent
+ * (cf. {@link AnalysisEventLogProfile}).
+ *
+ * Events are stored in a buffer of preallocated primitive arrays,
+ * which is written to the file in one go whenever it is full.
+ * Besides this, recording an event only needs to find the ARG state and the location
+ * in the recorded state.
+ * The file is opened only while the buffer is written,
+ * so the log does not need to be closed to keep its content
+ * as long as {@link #flush()} is called at the end of the analysis.
+ *
+ * There should be only one log per analysis (cf. {@link #create(Configuration, LogManager)}),
+ * because each log overwrites its file.
+ *
+ * The file starts with a header (magic number and format version),
+ * followed by the events, each consisting of
+ * <pre>
+ *   type       byte (cf. the constants of this class)
+ *   state id   int (id of the ARG state, -1 if there is none)
+ *   node       int (number of the CFA node of the state, -1 if there is none)
+ *   timestamp  long (nanoseconds since the log was created)
+ *   duration   long (nanoseconds, 0 for events without duration)
+ * </pre>
+ * The first event for each CFA node is preceded by an event of type {@link #NODE},
+ * where the timestamp and duration are replaced by the name of the function of the node
+ * (length as short, followed by the UTF-8 bytes).
+ *
+ * All methods are synchronized, so the log may be shared between threads,
+ * but then the order of the events in the file does not follow their timestamps.
+ */
+public final class AnalysisEventLog implements Closeable {
+
+  @Options(prefix="cpa.eventLog")
+  private static class AnalysisEventLogOptions {
+
+    @Option(secure=true, name="file",
+        description="Record the durations of transfer relation, precision adjustment, merge, and stop "
+        + "for each state of the main analysis in a binary log file, "
+        + "which can be aggregated into a profile per location "
+        + "with AnalysisEventLogProfile (empty for no log).")
+    @FileOption(FileOption.Type.OUTPUT_FILE)
+    private Path file = null;
+
+    @Option(secure=true, name="bufferSize",
+        description="Number of events that are buffered before they are written to the event log.")
+    @IntegerOption(min=2)
+    private int bufferSize = 1 << 16;
+  }
+
+  static final int MAGIC = 0x43504145; // "CPAE"
+  static final int VERSION = 1;
+
+  /** Declaration of a CFA node and its function. */
+  public static final byte NODE = 0;
+  /** A state was expanded by the transfer relation. */
+  public static final byte TRANSFER = 1;
+  /** The precision adjustment was applied to a new successor. */
+  public static final byte PRECISION_ADJUSTMENT = 2;
+  /** A successor was merged with the states of the reached set. */
+  public static final byte MERGE = 3;
+  /** A state of the reached set was replaced by the result of a merge. */
+  public static final byte MERGED = 4;
+  /** The stop operator was applied to a successor. */
+  public static final byte STOP = 5;
+  /** A successor was covered by the reached set. */
+  public static final byte COVERED = 6;
+  /** A successor was added to the reached set. */
+  public static final byte ADDED = 7;
+
+  static final int EVENT_SIZE = 1 + 4 + 4 + 8 + 8;
+
+  private final LogManager logger;
+  private final long startTime = System.nanoTime();
+
+  // the buffered events
+  private final byte[] types;
+  private final int[] stateIds;
+  private final int[] nodes;
+  private final long[] timestamps;
+  private final long[] durations;
+  private final String[] functionNames;
+  private int size = 0;
+
+  private final BitSet knownNodes = new BitSet();
+
+  private final ByteBuffer buffer;
+  private final java.nio.file.Path file;
+  private boolean closed = false;
+
+  /**
+   * Create the log for an analysis as configured by the user.
+   * @return The log, or null if no log should be written or the file could not be created.
+   */
+  public static @Nullable AnalysisEventLog create(Configuration pConfig, LogManager pLogger)
+      throws InvalidConfigurationException {
+    AnalysisEventLogOptions options = new AnalysisEventLogOptions();
+    pConfig.inject(options);
+    if (options.file == null) {
+      return null;
+    }
+    try {
+      return new AnalysisEventLog(options.file, options.bufferSize, pLogger);
+    } catch (IOException e) {
+      pLogger.logUserException(Level.WARNING, e, "Could not create analysis event log");
+      return null;
+    }
+  }
+
+  /**
+   * Create a new log.
+   * @param pFile The output file, which is overwritten.
+   * @param pCapacity The number of events that are kept in memory before they are written.
+   */
+  public AnalysisEventLog(Path pFile, int pCapacity, LogManager pLogger) throws IOException {
+    checkArgument(pCapacity > 1);
+    logger = pLogger;
+
+    types = new byte[pCapacity];
+    stateIds = new int[pCapacity];
+    nodes = new int[pCapacity];
+    timestamps = new long[pCapacity];
+    durations = new long[pCapacity];
+    functionNames = new String[pCapacity];
+    buffer = ByteBuffer.allocate(Math.max(pCapacity * EVENT_SIZE, 1 << 16));
+
+    Files.createParentDirs(pFile);
+    file = pFile.toFile().toPath();
+    // create or truncate the file now, such that problems are reported early
+    FileChannel.open(file,
+        StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING).close();
+
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+  }
+
+  public void record(byte pType, AbstractState pState, TimeSpan pDuration) {
+    record(pType, pState, pDuration.asNanos());
+  }
+
+  public void record(byte pType, AbstractState pState) {
+    record(pType, pState, 0);
+  }
+
+  private synchronized void record(byte pType, AbstractState pState, long pDurationNanos) {
+    if (closed) {
+      return;
+    }
+
+    ARGState argState = AbstractStates.extractStateByType(pState, ARGState.class);
+    CFANode location = AbstractStates.extractLocation(pState);
+    int node = location == null ? -1 : location.getNodeNumber();
+
+    if (location != null && !knownNodes.get(node)) {
+      knownNodes.set(node);
+      add(NODE, -1, node, 0, 0, location.getFunctionName());
+    }
+    add(pType, argState == null ? -1 : argState.getStateId(), node,
+        System.nanoTime() - startTime, pDurationNanos, null);
+  }
+
+  private void add(byte pType, int pStateId, int pNode, long pTimestamp, long pDuration,
+      String pFunctionName) {
+    if (size == types.length) {
+      flush();
+      if (closed) {
+        return;
+      }
+    }
+
+    types[size] = pType;
+    stateIds[size] = pStateId;
+    nodes[size] = pNode;
+    timestamps[size] = pTimestamp;
+    durations[size] = pDuration;
+    functionNames[size] = pFunctionName;
+    size++;
+  }
+
+  /**
+   * Append all buffered events to the file.
+   * If this fails, a warning is logged and no further events are recorded.
+   */
+  public synchronized void flush() {
+    if (closed || (size == 0 && buffer.position() == 0)) {
+      return;
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      for (int i = 0; i < size; i++) {
+        if (buffer.remaining() < EVENT_SIZE) {
+          writeBuffer(channel);
+        }
+        buffer.put(types[i]);
+        buffer.putInt(stateIds[i]);
+        buffer.putInt(nodes[i]);
+
+        if (types[i] == NODE) {
+          byte[] name = functionNames[i].getBytes(StandardCharsets.UTF_8);
+          int length = Math.min(name.length, Short.MAX_VALUE);
+          if (buffer.remaining() < 2 + length) {
+            writeBuffer(channel);
+          }
+          buffer.putShort((short) length);
+          buffer.put(name, 0, length);
+          functionNames[i] = null;
+        } else {
+          buffer.putLong(timestamps[i]);
+          buffer.putLong(durations[i]);
+        }
+      }
+      size = 0;
+      writeBuffer(channel);
+
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write analysis event log, stopping it");
+      closed = true;
+      size = 0;
+    }
+  }
+
+  private void writeBuffer(FileChannel channel) throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Write all buffered events and stop the log.
+   * Events that are recorded afterwards are ignored.
+   * Calling this method several times has no further effect.
+   */
+  @Override
+  public synchronized void close() {
+    flush();
+    closed = true;
+    size = 0;
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static org.sosy_lab.cpachecker.core.algorithm.AnalysisEventLog.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+
+/**
+ * Aggregates the events of an {@link AnalysisEventLog} per CFA node and per function,
+ * and prints the locations where the analysis spent most of its time ("hot locations").
+ *
+ * Can also be used from the command line:
+ * <pre>
+ *   AnalysisEventLogProfile FILE [LIMIT]
+ * </pre>
+ * prints the LIMIT (default: 20) most expensive nodes and functions.
+ *
+ * The time of the transfer relation is attributed to the location of the expanded state,
+ * the time of precision adjustment, merge, and stop to the location of the successor.
+ */
+public class AnalysisEventLogProfile {
+
+  private static final int DEFAULT_LIMIT = 20;
+
+  private static final int TYPES = ADDED + 1;
+
+  /**
+   * Counts and durations of all events for one node or function.
+   */
+  public static final class Entry {
+
+    private final String name;
+    private final String function;
+    private final int[] counts = new int[TYPES];
+    private final long[] durations = new long[TYPES];
+
+    private Entry(String pName, String pFunction) {
+      name = pName;
+      function = pFunction;
+    }
+
+    private void add(int pType, long pDuration) {
+      counts[pType]++;
+      durations[pType] += pDuration;
+    }
+
+    private void addAll(Entry pOther) {
+      for (int i = 0; i < TYPES; i++) {
+        counts[i] += pOther.counts[i];
+        durations[i] += pOther.durations[i];
+      }
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getFunction() {
+      return function;
+    }
+
+    /** The number of events of the given type (cf. the constants of {@link AnalysisEventLog}). */
+    public int getCount(byte pType) {
+      return counts[pType];
+    }
+
+    /** The sum of the durations of the events of the given type in nanoseconds. */
+    public long getDuration(byte pType) {
+      return durations[pType];
+    }
+
+    /** The sum of the durations of all events in nanoseconds. */
+    public long getTotalDuration() {
+      long sum = 0;
+      for (long duration : durations) {
+        sum += duration;
+      }
+      return sum;
+    }
+  }
+
+  private static final Comparator<Entry> BY_TOTAL_DURATION = new Comparator<Entry>() {
+    @Override
+    public int compare(Entry pA, Entry pB) {
+      return Long.compare(pB.getTotalDuration(), pA.getTotalDuration());
+    }
+  };
+
+  private final Map<Integer, Entry> nodes = new HashMap<>();
+  private final Map<String, Entry> functions = new HashMap<>();
+  private final Entry unknownLocation = new Entry("unknown", "unknown");
+  private long events = 0;
+  private long lastTimestamp = 0;
+
+  private AnalysisEventLogProfile() { }
+
+  /**
+   * Read and aggregate all events of a log file.
+   */
+  public static AnalysisEventLogProfile read(Path pFile) throws IOException {
+    AnalysisEventLogProfile profile = new AnalysisEventLogProfile();
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(pFile.toFile())))) {
+
+      if (in.readInt() != MAGIC) {
+        throw new IOException("File is not an analysis event log");
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported version " + version + " of analysis event log");
+      }
+
+      int type;
+      while ((type = in.read()) != -1) {
+        in.readInt(); // state id, not needed for the profile
+        int node = in.readInt();
+
+        if (type == NODE) {
+          byte[] name = new byte[in.readShort()];
+          in.readFully(name);
+          String function = new String(name, StandardCharsets.UTF_8);
+          profile.nodes.put(node, new Entry("N" + node, function));
+
+        } else if (type < TYPES) {
+          long timestamp = in.readLong();
+          long duration = in.readLong();
+          Entry entry = profile.nodes.get(node);
+          if (entry == null) {
+            entry = profile.unknownLocation;
+          }
+          entry.add(type, duration);
+          profile.events++;
+          profile.lastTimestamp = Math.max(profile.lastTimestamp, timestamp);
+
+        } else {
+          throw new IOException("Unknown event type " + type + " in analysis event log");
+        }
+      }
+    }
+
+    for (Entry node : profile.nodes.values()) {
+      Entry function = profile.functions.get(node.function);
+      if (function == null) {
+        function = new Entry(node.function, node.function);
+        profile.functions.put(node.function, function);
+      }
+      function.addAll(node);
+    }
+    return profile;
+  }
+
+  /** All nodes, the most expensive ones first. */
+  public List<Entry> getNodes() {
+    return sorted(nodes.values());
+  }
+
+  /** All functions, the most expensive ones first. */
+  public List<Entry> getFunctions() {
+    return sorted(functions.values());
+  }
+
+  private static List<Entry> sorted(Iterable<Entry> pEntries) {
+    List<Entry> result = new ArrayList<>();
+    for (Entry entry : pEntries) {
+      result.add(entry);
+    }
+    Collections.sort(result, BY_TOTAL_DURATION);
+    return result;
+  }
+
+  public void print(PrintStream out, int pLimit) {
+    out.println("Number of events:                " + events);
+    out.println("Time span of the log:            "
+        + TimeUnit.NANOSECONDS.toMillis(lastTimestamp) + "ms");
+    if (unknownLocation.getTotalDuration() > 0) {
+      out.println("Time for states without location: "
+          + TimeUnit.NANOSECONDS.toMillis(unknownLocation.getTotalDuration()) + "ms");
+    }
+    out.println();
+
+    out.println("Hot locations:");
+    printTable(out, getNodes(), pLimit);
+    out.println();
+    out.println("Hot functions:");
+    printTable(out, getFunctions(), pLimit);
+  }
+
+  private static void printTable(PrintStream out, List<Entry> pEntries, int pLimit) {
+    out.println(String.format("  %-10s %-24s %10s %10s %10s %10s %10s %9s %9s %9s",
+        "Location", "Function", "Total(ms)", "Transfer", "Prec", "Merge", "Stop",
+        "Expanded", "Covered", "Added"));
+    for (Entry entry : pEntries.subList(0, Math.min(pLimit, pEntries.size()))) {
+      out.println(String.format("  %-10s %-24s %10d %10d %10d %10d %10d %9d %9d %9d",
+          entry.name.equals(entry.function) ? "" : entry.name,
+          entry.function,
+          TimeUnit.NANOSECONDS.toMillis(entry.getTotalDuration()),
+          TimeUnit.NANOSECONDS.toMillis(entry.getDuration(TRANSFER)),
+          TimeUnit.NANOSECONDS.toMillis(entry.getDuration(PRECISION_ADJUSTMENT)),
+          TimeUnit.NANOSECONDS.toMillis(entry.getDuration(MERGE)),
+          TimeUnit.NANOSECONDS.toMillis(entry.getDuration(STOP)),
+          entry.getCount(TRANSFER),
+          entry.getCount(COVERED),
+          entry.getCount(ADDED)));
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: AnalysisEventLogProfile FILE [LIMIT]");
+      System.exit(1);
+    }
+
+    int limit = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_LIMIT;
+    read(Paths.get(args[0])).print(System.out, limit);
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Files.DeleteOnCloseFile;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.algorithm.AnalysisEventLogProfile.Entry;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithLocation;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+
+import com.google.common.collect.ImmutableList;
+
+public class AnalysisEventLogTest {
+
+  /** A wrapped state with a location. */
+  private static class TestState implements AbstractStateWithLocation {
+
+    private final CFANode location;
+
+    private TestState(CFANode pLocation) {
+      location = pLocation;
+    }
+
+    @Override
+    public CFANode getLocationNode() {
+      return location;
+    }
+
+    @Override
+    public Iterable<CFANode> getLocationNodes() {
+      return ImmutableList.of(location);
+    }
+
+    @Override
+    public Iterable<CFAEdge> getOutgoingEdges() {
+      return ImmutableList.of();
+    }
+  }
+
+  private DeleteOnCloseFile logFile;
+
+  private CFANode mainNode;
+  private CFANode fNode;
+  private ARGState mainState;
+  private ARGState fState;
+
+  @Before
+  public void setUp() throws Exception {
+    logFile = Files.createTempFile("events", ".bin");
+
+    mainNode = new CFANode("main");
+    fNode = new CFANode("f");
+    mainState = new ARGState(new TestState(mainNode), null);
+    fState = new ARGState(new TestState(fNode), mainState);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    logFile.close();
+  }
+
+  private AnalysisEventLog createLog() throws Exception {
+    Configuration config = Configuration.builder()
+        .setOption("cpa.eventLog.file", logFile.toPath().toString())
+        // small buffer such that it is written several times
+        .setOption("cpa.eventLog.bufferSize", "2")
+        .build();
+    return AnalysisEventLog.create(config, TestLogManager.getInstance());
+  }
+
+  @Test
+  public void testNoLog() throws Exception {
+    assertThat(AnalysisEventLog.create(Configuration.defaultConfiguration(), TestLogManager.getInstance()))
+        .isNull();
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    AnalysisEventLog log = createLog();
+    log.record(AnalysisEventLog.TRANSFER, mainState, TimeSpan.ofNanos(1000));
+    log.record(AnalysisEventLog.PRECISION_ADJUSTMENT, fState, TimeSpan.ofNanos(10));
+    log.record(AnalysisEventLog.STOP, fState, TimeSpan.ofNanos(20));
+    log.record(AnalysisEventLog.ADDED, fState);
+    // end of the first run of the algorithm
+    log.flush();
+
+    log.record(AnalysisEventLog.TRANSFER, fState, TimeSpan.ofNanos(200));
+    log.record(AnalysisEventLog.STOP, mainState, TimeSpan.ofNanos(30));
+    log.record(AnalysisEventLog.COVERED, mainState);
+    log.close();
+
+    // ignored after close
+    log.record(AnalysisEventLog.TRANSFER, mainState, TimeSpan.ofNanos(5000));
+    log.close();
+
+    AnalysisEventLogProfile profile = AnalysisEventLogProfile.read(logFile.toPath());
+
+    List<Entry> nodes = profile.getNodes();
+    assertThat(nodes).hasSize(2);
+    Entry main = nodes.get(0);
+    assertThat(main.getName()).isEqualTo("N" + mainNode.getNodeNumber());
+    assertThat(main.getFunction()).isEqualTo("main");
+    assertThat(main.getCount(AnalysisEventLog.TRANSFER)).isEqualTo(1);
+    assertThat(main.getDuration(AnalysisEventLog.TRANSFER)).isEqualTo(1000);
+    assertThat(main.getCount(AnalysisEventLog.COVERED)).isEqualTo(1);
+    assertThat(main.getTotalDuration()).isEqualTo(1030);
+
+    Entry f = nodes.get(1);
+    assertThat(f.getName()).isEqualTo("N" + fNode.getNodeNumber());
+    assertThat(f.getFunction()).isEqualTo("f");
+    assertThat(f.getCount(AnalysisEventLog.TRANSFER)).isEqualTo(1);
+    assertThat(f.getCount(AnalysisEventLog.STOP)).isEqualTo(1);
+    assertThat(f.getCount(AnalysisEventLog.ADDED)).isEqualTo(1);
+    assertThat(f.getTotalDuration()).isEqualTo(230);
+
+    List<Entry> functions = profile.getFunctions();
+    assertThat(functions).hasSize(2);
+    assertThat(functions.get(0).getName()).isEqualTo("main");
+    assertThat(functions.get(1).getName()).isEqualTo("f");
+  }
+
+  @Test
+  public void testNewLogOverwritesFile() throws Exception {
+    AnalysisEventLog first = createLog();
+    first.record(AnalysisEventLog.TRANSFER, mainState, TimeSpan.ofNanos(1000));
+    first.close();
+
+    AnalysisEventLog second = createLog();
+    second.record(AnalysisEventLog.TRANSFER, fState, TimeSpan.ofNanos(10));
+    second.close();
+
+    List<Entry> nodes = AnalysisEventLogProfile.read(logFile.toPath()).getNodes();
+    assertThat(nodes).hasSize(1);
+    assertThat(nodes.get(0).getFunction()).isEqualTo("f");
+  }
+}
@@ -139,6 +139,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     private boolean reportFalseAsUnknown = false;
 
     private final ForcedCovering forcedCovering;
+    private final @Nullable AnalysisEventLog eventLog;
 
     private final ConfigurableProgramAnalysis cpa;
     private final LogManager logger;
@@ -148,12 +149,23 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     public CPAAlgorithmFactory(ConfigurableProgramAnalysis cpa, LogManager logger,
         Configuration config, ShutdownNotifier pShutdownNotifier,
         @Nullable AlgorithmIterationListener pIterationListener) throws InvalidConfigurationException {
+      this(cpa, logger, config, pShutdownNotifier, pIterationListener, null);
+    }
+
+    /**
+     * @param pEventLog The event log of the analysis, which is not closed by the algorithm.
+     */
+    public CPAAlgorithmFactory(ConfigurableProgramAnalysis cpa, LogManager logger,
+        Configuration config, ShutdownNotifier pShutdownNotifier,
+        @Nullable AlgorithmIterationListener pIterationListener,
+        @Nullable AnalysisEventLog pEventLog) throws InvalidConfigurationException {
 
       config.inject(this);
       this.cpa = cpa;
       this.logger = logger;
       this.shutdownNotifier = pShutdownNotifier;
       this.iterationListener = pIterationListener;
+      this.eventLog = pEventLog;
 
       if (forcedCoveringClass != null) {
         forcedCovering = Classes.createInstance(ForcedCovering.class, forcedCoveringClass,
@@ -162,11 +174,11 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       } else {
         forcedCovering = null;
       }
-
     }
 
     public CPAAlgorithm newInstance() {
-      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, iterationListener, reportFalseAsUnknown);
+      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, iterationListener,
+          eventLog, reportFalseAsUnknown);
     }
   }
 
@@ -177,6 +189,15 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     return new CPAAlgorithmFactory(cpa, logger, config, pShutdownNotifier, pIterationListener).newInstance();
   }
 
+  public static CPAAlgorithm create(ConfigurableProgramAnalysis cpa, LogManager logger,
+      Configuration config, ShutdownNotifier pShutdownNotifier,
+      AlgorithmIterationListener pIterationListener, @Nullable AnalysisEventLog pEventLog)
+      throws InvalidConfigurationException {
+
+    return new CPAAlgorithmFactory(cpa, logger, config, pShutdownNotifier, pIterationListener, pEventLog)
+        .newInstance();
+  }
+
   public static CPAAlgorithm create(ConfigurableProgramAnalysis cpa, LogManager logger,
       Configuration config, ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
 
@@ -196,12 +217,15 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
   private final AlgorithmIterationListener  iterationListener;
 
+  private final @Nullable AnalysisEventLog eventLog;
+
   private final AlgorithmStatus status;
 
   private CPAAlgorithm(ConfigurableProgramAnalysis cpa, LogManager logger,
       ShutdownNotifier pShutdownNotifier,
       ForcedCovering pForcedCovering,
       AlgorithmIterationListener pIterationListener,
+      @Nullable AnalysisEventLog pEventLog,
       boolean pIsImprecise) {
 
     this.cpa = cpa;
@@ -209,6 +233,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     this.shutdownNotifier = pShutdownNotifier;
     this.forcedCovering = pForcedCovering;
     this.iterationListener = pIterationListener;
+    this.eventLog = pEventLog;
     status = AlgorithmStatus.SOUND_AND_PRECISE.withPrecise(!pIsImprecise);
   }
 
@@ -226,6 +251,11 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       stats.stopTimer.stopIfRunning();
       stats.addTimer.stopIfRunning();
       stats.forcedCoveringTimer.stopIfRunning();
+
+      if (eventLog != null) {
+        // the analysis may end after any run, and statistics are not always printed
+        eventLog.flush();
+      }
     }
   }
 
@@ -279,6 +309,9 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       } finally {
         stats.transferTimer.stop();
       }
+      if (eventLog != null) {
+        eventLog.record(AnalysisEventLog.TRANSFER, state, stats.transferTimer.getLengthOfLastInterval());
+      }
       // TODO When we have a nice way to mark the analysis result as incomplete,
       // we could continue analysis on a CPATransferException with the next state from waitlist.
 
@@ -306,6 +339,10 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
           precAdjustmentResult = precAdjustmentOptional.get();
         } finally {
           stats.precisionTimer.stop();
+          if (eventLog != null) {
+            eventLog.record(AnalysisEventLog.PRECISION_ADJUSTMENT, successor,
+                stats.precisionTimer.getLengthOfLastInterval());
+          }
         }
 
         successor = precAdjustmentResult.abstractState();
@@ -320,6 +357,9 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
           } finally {
             stats.stopTimer.stop();
           }
+          if (eventLog != null) {
+            eventLog.record(AnalysisEventLog.STOP, successor, stats.stopTimer.getLengthOfLastInterval());
+          }
 
           if (AbstractStates.isTargetState(successor) && stop) {
             // don't signal BREAK for covered states
@@ -336,6 +376,9 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
             // add the new state
             reachedSet.add(successor, successorPrecision);
+            if (eventLog != null) {
+              eventLog.record(AnalysisEventLog.ADDED, successor);
+            }
 
             if (!successors.isEmpty()) {
               // re-add the old state to the waitlist, there are unhandled
@@ -371,6 +414,9 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
                 logger.log(Level.ALL, "Merged", successor, "\nand",
                     reachedState, "\n-->", mergedState);
                 stats.countMerge++;
+                if (eventLog != null) {
+                  eventLog.record(AnalysisEventLog.MERGED, reachedState);
+                }
 
                 toRemove.add(reachedState);
                 toAdd.add(Pair.of(mergedState, successorPrecision));
@@ -386,6 +432,9 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
           } finally {
             stats.mergeTimer.stop();
           }
+          if (eventLog != null) {
+            eventLog.record(AnalysisEventLog.MERGE, successor, stats.mergeTimer.getLengthOfLastInterval());
+          }
         }
 
         stats.stopTimer.start();
@@ -395,11 +444,17 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         } finally {
           stats.stopTimer.stop();
         }
+        if (eventLog != null) {
+          eventLog.record(AnalysisEventLog.STOP, successor, stats.stopTimer.getLengthOfLastInterval());
+        }
 
         if (stop) {
           logger.log(Level.FINER,
               "Successor is covered or unreachable, not adding to waitlist");
           stats.countStop++;
+          if (eventLog != null) {
+            eventLog.record(AnalysisEventLog.COVERED, successor);
+          }
 
         } else {
           logger.log(Level.FINER,
@@ -408,6 +463,9 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
           stats.addTimer.start();
           reachedSet.add(successor, successorPrecision);
           stats.addTimer.stop();
+          if (eventLog != null) {
+            eventLog.record(AnalysisEventLog.ADDED, successor);
+          }
         }
       }
 
@@ -0,0 +1,360 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.reachedset.ForwardingReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
+import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeCPA;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeState;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState.ComputeAbstractionState;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecisionAdjustment;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+
+import com.google.common.base.Optional;
+
+/**
+ * Algorithm that lets the predicate abstractions at the ends of blocks
+ * be computed in parallel by a pool of solvers,
+ * while the wrapped algorithm continues to explore the rest of the state space.
+ *
+ * States that wait for their abstraction ("pending" states) are kept in the reached set
+ * but not in the waitlist.
+ * Whenever the wrapped algorithm has run out of states to explore
+ * (typically when all states on the frontier are pending),
+ * the finished abstractions are integrated into the ARG:
+ * the pending state is replaced with a state containing the abstraction,
+ * which is then merged, checked for coverage, and added to the waitlist as usual.
+ *
+ * When this algorithm returns, there are no pending states left,
+ * so algorithms like CEGAR that wrap this algorithm see a regular reached set.
+ */
+@Options(prefix="cpa.predicate.abstraction.parallel")
+public class ParallelAbstractionAlgorithm implements Algorithm, StatisticsProvider {
+
+  private static class ParallelAbstractionStatistics extends AbstractStatistics {
+
+    private final StatCounter completedAbstractions = new StatCounter("Number of parallel abstractions");
+    private final StatCounter falseAbstractions = new StatCounter("Number of abstractions that were false");
+    private final StatCounter discardedAbstractions = new StatCounter("Number of discarded abstractions");
+    private final StatInt pendingStates = new StatInt(StatKind.MAX, "Number of pending states");
+    private final StatTimer waitTime = new StatTimer("Time waiting for abstractions");
+
+    @Override
+    public String getName() {
+      return "Parallel abstraction";
+    }
+
+    @Override
+    public void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+      put(pOut, 0, completedAbstractions);
+      put(pOut, 1, falseAbstractions);
+      put(pOut, 0, discardedAbstractions);
+      put(pOut, 0, pendingStates);
+      put(pOut, 0, waitTime);
+    }
+  }
+
+  @Option(secure=true, description="number of threads (and solver instances) "
+      + "that compute abstractions in parallel")
+  @IntegerOption(min=1)
+  private int threads = 2;
+
+  private final Algorithm algorithm;
+  private final LogManager logger;
+  private final MergeOperator mergeOperator;
+  private final StopOperator stopOperator;
+  private final PredicatePrecisionAdjustment precisionAdjustment;
+
+  private final Map<ComputeAbstractionState, ARGState> pendingStates = new HashMap<>();
+
+  private final ParallelAbstractionStatistics stats = new ParallelAbstractionStatistics();
+
+  public ParallelAbstractionAlgorithm(Algorithm pAlgorithm, ConfigurableProgramAnalysis pCpa,
+      Configuration pConfig, LogManager pLogger, ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    algorithm = pAlgorithm;
+    logger = pLogger;
+
+    if (!(pCpa instanceof ARGCPA)
+        || !(((ARGCPA) pCpa).getWrappedCPAs().get(0) instanceof CompositeCPA)) {
+      throw new InvalidConfigurationException(
+          "ParallelAbstractionAlgorithm needs an ARGCPA that wraps a CompositeCPA");
+    }
+    ARGCPA argCpa = (ARGCPA) pCpa;
+    PredicateCPA predicateCpa = argCpa.retrieveWrappedCpa(PredicateCPA.class);
+    if (predicateCpa == null) {
+      throw new InvalidConfigurationException("PredicateCPA needed for ParallelAbstractionAlgorithm");
+    }
+
+    mergeOperator = argCpa.getMergeOperator();
+    stopOperator = argCpa.getStopOperator();
+    precisionAdjustment = predicateCpa.getPrecisionAdjustment();
+    precisionAdjustment.enableParallelAbstraction(threads, pConfig, pShutdownNotifier);
+  }
+
+  @Override
+  public AlgorithmStatus run(ReachedSet pReached) throws CPAException, InterruptedException {
+    final ReachedSet reached = new PendingStatesReachedSet(pReached);
+    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+
+    try {
+      while (true) {
+        status = status.update(algorithm.run(reached));
+
+        if (pendingStates.isEmpty()) {
+          return status;
+        }
+
+        AbstractState lastState = pReached.getLastState();
+        if (pReached.hasWaitingState() && !pendingStates.containsValue(lastState)) {
+          // The wrapped algorithm signalled BREAK for a state that is complete.
+          // Callers expect this state to be the last one.
+          integrateAbstractions(pReached, true);
+          if (pReached.contains(lastState)) {
+            Precision precision = pReached.getPrecision(lastState);
+            pReached.remove(lastState);
+            pReached.add(lastState, precision);
+          }
+          return status;
+        }
+
+        // If the wrapped algorithm signalled BREAK for a pending target state,
+        // we need to know whether it really is reachable, thus we wait for all abstractions.
+        boolean pendingTarget = pendingStates.containsValue(lastState)
+            && AbstractStates.isTargetState(lastState);
+        if (integrateAbstractions(pReached, pendingTarget)) {
+          return status;
+        }
+      }
+
+    } finally {
+      // only non-empty if there was an exception
+      for (ComputeAbstractionState state : pendingStates.keySet()) {
+        precisionAdjustment.cancelAbstraction(state);
+      }
+      pendingStates.clear();
+    }
+  }
+
+  /**
+   * Integrate the results of finished abstraction computations into the reached set.
+   * Waits for at least one result, and for all if pAll is true or a target state was found.
+   * Target states are added last, such that they are the last state of the reached set.
+   * @return Whether a target state was added to the reached set.
+   */
+  private boolean integrateAbstractions(ReachedSet pReached, boolean pAll)
+      throws CPAException, InterruptedException {
+    List<Pair<ARGState, Precision>> targetStates = new ArrayList<>();
+
+    ComputeAbstractionState state = waitForAbstraction();
+    while (state != null) {
+      Pair<ARGState, Precision> target = integrateAbstraction(pReached, state);
+      if (target != null) {
+        targetStates.add(target);
+      }
+
+      if (pendingStates.isEmpty()) {
+        break;
+      }
+      if (pAll || !targetStates.isEmpty()) {
+        state = waitForAbstraction();
+      } else {
+        state = precisionAdjustment.pollFinishedAbstraction(false);
+      }
+    }
+
+    for (Pair<ARGState, Precision> target : targetStates) {
+      pReached.add(target.getFirst(), target.getSecond());
+    }
+    return !targetStates.isEmpty();
+  }
+
+  private ComputeAbstractionState waitForAbstraction() throws InterruptedException {
+    stats.waitTime.start();
+    try {
+      return precisionAdjustment.pollFinishedAbstraction(true);
+    } finally {
+      stats.waitTime.stop();
+    }
+  }
+
+  /**
+   * Replace a pending state with the state containing its abstraction,
+   * and handle it like the CPA algorithm handles new successors.
+   * @return The new state and its precision if it is a target state that still needs to be added.
+   */
+  private Pair<ARGState, Precision> integrateAbstraction(ReachedSet pReached,
+      ComputeAbstractionState pState) throws CPAException, InterruptedException {
+    ARGState pendingState = pendingStates.remove(pState);
+    if (pendingState == null || !pReached.contains(pendingState)) {
+      // state was removed in the meantime (e.g., by merging its predecessor)
+      precisionAdjustment.cancelAbstraction(pState);
+      stats.discardedAbstractions.inc();
+      return null;
+    }
+
+    Precision precision = pReached.getPrecision(pendingState);
+    pReached.remove(pendingState);
+
+    Optional<PredicateAbstractState> abstractionState = precisionAdjustment.completeAbstraction(pState);
+    stats.completedAbstractions.inc();
+    if (!abstractionState.isPresent()) {
+      stats.falseAbstractions.inc();
+      pendingState.removeFromARG();
+      return null;
+    }
+
+    List<AbstractState> components =
+        new ArrayList<>(((CompositeState) pendingState.getWrappedState()).getWrappedStates());
+    for (int i = 0; i < components.size(); i++) {
+      if (components.get(i) == pState) {
+        components.set(i, abstractionState.get());
+      }
+    }
+    ARGState successor = new ARGState(new CompositeState(components), null);
+    pendingState.replaceInARGWith(successor);
+
+    if (successor.isTarget()) {
+      if (stopOperator.stop(successor, pReached.getReached(successor), precision)) {
+        return null;
+      }
+      return Pair.of(successor, precision);
+    }
+
+    Collection<AbstractState> reached = pReached.getReached(successor);
+
+    if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
+      List<AbstractState> toRemove = new ArrayList<>();
+      List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
+
+      for (AbstractState reachedState : reached) {
+        AbstractState mergedState = mergeOperator.merge(successor, reachedState, precision);
+
+        if (!mergedState.equals(reachedState)) {
+          logger.log(Level.ALL, "Merged", successor, "\nand", reachedState, "\n-->", mergedState);
+          toRemove.add(reachedState);
+          toAdd.add(Pair.of(mergedState, precision));
+        }
+      }
+      pReached.removeAll(toRemove);
+      pReached.addAll(toAdd);
+
+      if (mergeOperator instanceof ARGMergeJoinCPAEnabledAnalysis) {
+        ((ARGMergeJoinCPAEnabledAnalysis) mergeOperator).cleanUp(pReached);
+      }
+    }
+
+    if (!stopOperator.stop(successor, reached, precision)) {
+      pReached.add(successor, precision);
+    }
+    return null;
+  }
+
+  /**
+   * Reached set given to the wrapped algorithm, which keeps pending states out of the waitlist.
+   */
+  private class PendingStatesReachedSet extends ForwardingReachedSet {
+
+    private PendingStatesReachedSet(ReachedSet pDelegate) {
+      super(pDelegate);
+    }
+
+    @Override
+    public void add(AbstractState pState, Precision pPrecision) {
+      super.add(pState, pPrecision);
+      removeIfPending(pState);
+    }
+
+    @Override
+    public void addAll(Iterable<Pair<AbstractState, Precision>> pToAdd) {
+      super.addAll(pToAdd);
+      for (Pair<AbstractState, Precision> pair : pToAdd) {
+        removeIfPending(pair.getFirst());
+      }
+    }
+
+    @Override
+    public void reAddToWaitlist(AbstractState pState) {
+      if (!pendingStates.containsValue(pState)) {
+        super.reAddToWaitlist(pState);
+      }
+    }
+
+    private void removeIfPending(AbstractState pState) {
+      PredicateAbstractState predicateState =
+          AbstractStates.extractStateByType(pState, PredicateAbstractState.class);
+      if (predicateState instanceof ComputeAbstractionState
+          && precisionAdjustment.isPendingAbstraction(predicateState)) {
+        removeOnlyFromWaitlist(pState);
+        pendingStates.put((ComputeAbstractionState) predicateState, (ARGState) pState);
+        stats.pendingStates.setNextValue(pendingStates.size());
+      }
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (algorithm instanceof StatisticsProvider) {
+      ((StatisticsProvider) algorithm).collectStatistics(pStatsCollection);
+    }
+    pStatsCollection.add(stats);
+  }
+}
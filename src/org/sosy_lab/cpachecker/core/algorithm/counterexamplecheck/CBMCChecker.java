@@ -35,7 +35,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
-import org.sosy_lab.common.Appender;
+import org.sosy_lab.common.Appenders;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -103,38 +103,46 @@ public class CBMCChecker implements CounterexampleChecker, Statistics {
   @Override
   public boolean checkCounterexample(ARGState pRootState, ARGState pErrorState,
       Set<ARGState> pErrorPathStates) throws CPAException, InterruptedException {
+    return prepareCheck(pRootState, pErrorState, pErrorPathStates).check();
+  }
 
-    if (cbmcFile != null) {
-      return checkCounterexample(pRootState, pErrorPathStates, cbmcFile);
-
-    } else {
-
-      // This temp file will be automatically deleted when the try block terminates.
-      // Suffix .i tells CBMC to not call the pre-processor on this file.
-      try (DeleteOnCloseFile tempFile = Files.createTempFile("path", ".i")) {
-        return checkCounterexample(pRootState, pErrorPathStates, tempFile.toPath());
-
-      } catch (IOException e) {
-        throw new CounterexampleAnalysisFailed("Could not create temporary file " + e.getMessage(), e);
+  @Override
+  public PreparedCheck prepareCheck(ARGState pRootState, ARGState pErrorState,
+      Set<ARGState> pErrorPathStates) {
+    final String pathProgram =
+        Appenders.toString(PathToCTranslator.translatePaths(pRootState, pErrorPathStates));
+    final String mainFunctionName = extractLocation(pRootState).getFunctionName();
+
+    return new PreparedCheck() {
+      @Override
+      public boolean check() throws CPAException, InterruptedException {
+        if (cbmcFile != null) {
+          return checkPathProgram(pathProgram, mainFunctionName, cbmcFile);
+        }
+
+        // This temp file will be automatically deleted when the try block terminates.
+        // Suffix .i tells CBMC to not call the pre-processor on this file.
+        try (DeleteOnCloseFile tempFile = Files.createTempFile("path", ".i")) {
+          return checkPathProgram(pathProgram, mainFunctionName, tempFile.toPath());
+
+        } catch (IOException e) {
+          throw new CounterexampleAnalysisFailed("Could not create temporary file " + e.getMessage(), e);
+        }
       }
-    }
+    };
   }
 
-  private boolean checkCounterexample(ARGState pRootState,
-      Set<ARGState> pErrorPathStates, Path cFile) throws CPAException, InterruptedException {
+  private boolean checkPathProgram(String pathProgram, String mainFunctionName, Path cFile)
+      throws CPAException, InterruptedException {
     assert cFile != null;
 
-    Appender pathProgram = PathToCTranslator.translatePaths(pRootState, pErrorPathStates);
-
     // write program to disk
     try (Writer w = Files.openOutputFile(cFile)) {
-      pathProgram.appendTo(w);
+      w.write(pathProgram);
     } catch (IOException e) {
       throw new CounterexampleAnalysisFailed("Could not write path program to file " + e.getMessage(), e);
     }
 
-    String mainFunctionName = extractLocation(pRootState).getFunctionName();
-
     // run CBMC
     logger.log(Level.FINE, "Starting CBMC verification.");
     cbmcTime.start();
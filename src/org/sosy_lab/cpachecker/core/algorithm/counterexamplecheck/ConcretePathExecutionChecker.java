@@ -31,7 +31,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
-import org.sosy_lab.common.Appender;
+import org.sosy_lab.common.Appenders;
 import org.sosy_lab.common.ProcessExecutor;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -100,20 +100,32 @@ public class ConcretePathExecutionChecker implements CounterexampleChecker, Stat
   @Override
   public boolean checkCounterexample(ARGState pRootState, ARGState pErrorState,
       Set<ARGState> pErrorPathStates) throws CPAException, InterruptedException {
+    return prepareCheck(pRootState, pErrorState, pErrorPathStates).check();
+  }
 
-    if (dumpFile != null) {
-      return checkCounterexample(pRootState, pErrorState, pErrorPathStates, dumpFile);
-
-    } else {
-
-      // This temp file will be automatically deleted when the try block terminates.
-      try (DeleteOnCloseFile tempFile = Files.createTempFile("concretePath", ".c")) {
-        return checkCounterexample(pRootState, pErrorState, pErrorPathStates, tempFile.toPath());
-
-      } catch (IOException e) {
-        throw new CounterexampleAnalysisFailed("Could not create temporary file " + e.getMessage(), e);
+  @Override
+  public PreparedCheck prepareCheck(ARGState pRootState, ARGState pErrorState,
+      Set<ARGState> pErrorPathStates) {
+    CounterexampleInfo ceInfo = cpa.getCounterexamples().get(pErrorState);
+    final String pathProgram = Appenders.toString(PathToConcreteProgramTranslator.translatePaths(
+        pRootState, pErrorPathStates, ceInfo.getTargetPathModel()));
+
+    return new PreparedCheck() {
+      @Override
+      public boolean check() throws CPAException, InterruptedException {
+        if (dumpFile != null) {
+          return checkPathProgram(pathProgram, dumpFile);
+        }
+
+        // This temp file will be automatically deleted when the try block terminates.
+        try (DeleteOnCloseFile tempFile = Files.createTempFile("concretePath", ".c")) {
+          return checkPathProgram(pathProgram, tempFile.toPath());
+
+        } catch (IOException e) {
+          throw new CounterexampleAnalysisFailed("Could not create temporary file " + e.getMessage(), e);
+        }
       }
-    }
+    };
   }
 
   /**
@@ -159,18 +171,15 @@ public class ConcretePathExecutionChecker implements CounterexampleChecker, Stat
     }
   }
 
-  private boolean checkCounterexample(ARGState pRootState, ARGState pErrorState,
-      Set<ARGState> pErrorPathStates, Path cFile) throws CPAException, InterruptedException {
+  private boolean checkPathProgram(String pathProgram, Path cFile)
+      throws CPAException, InterruptedException {
     assert cFile != null;
 
     timer.start();
-    CounterexampleInfo ceInfo = cpa.getCounterexamples().get(pErrorState);
-
-    Appender pathProgram = PathToConcreteProgramTranslator.translatePaths(pRootState, pErrorPathStates, ceInfo.getTargetPathModel());
 
     // write program to disk
     try (Writer w = Files.openOutputFile(cFile)) {
-      pathProgram.appendTo(w);
+      w.write(pathProgram);
     } catch (IOException e) {
       throw new CounterexampleAnalysisFailed("Could not write path program to file " + e.getMessage(), e);
     }
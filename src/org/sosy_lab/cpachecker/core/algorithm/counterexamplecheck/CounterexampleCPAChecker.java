@@ -119,33 +119,49 @@ public class CounterexampleCPAChecker implements CounterexampleChecker {
   public boolean checkCounterexample(ARGState pRootState,
       ARGState pErrorState, Set<ARGState> pErrorPathStates)
       throws CPAException, InterruptedException {
+    return prepareCheck(pRootState, pErrorState, pErrorPathStates).check();
+  }
 
+  @Override
+  public PreparedCheck prepareCheck(ARGState pRootState,
+      ARGState pErrorState, Set<ARGState> pErrorPathStates)
+      throws CPAException {
+    final StringBuilder automaton = new StringBuilder();
     try {
-      if (specFile != null) {
-        return checkCounterexample(pRootState, pErrorState, pErrorPathStates, specFile);
-      }
-
-      // This temp file will be automatically deleted when the try block terminates.
-      try (DeleteOnCloseFile automatonFile = Files.createTempFile("counterexample-automaton", ".txt")) {
-
-        return checkCounterexample(pRootState, pErrorState, pErrorPathStates,
-            automatonFile.toPath());
-      }
-
+      ARGUtils.producePathAutomaton(automaton, pRootState, pErrorPathStates,
+          "CounterexampleToCheck", cpa.getCounterexamples().get(pErrorState));
     } catch (IOException e) {
-      throw new CounterexampleAnalysisFailed("Could not write path automaton to file " + e.getMessage(), e);
+      throw new CounterexampleAnalysisFailed("Could not create path automaton " + e.getMessage(), e);
     }
+    final CFANode entryNode = extractLocation(pRootState);
+
+    return new PreparedCheck() {
+      @Override
+      public boolean check() throws CPAException, InterruptedException {
+        try {
+          if (specFile != null) {
+            return checkCounterexample(automaton, entryNode, specFile);
+          }
+
+          // This temp file will be automatically deleted when the try block terminates.
+          try (DeleteOnCloseFile automatonFile = Files.createTempFile("counterexample-automaton", ".txt")) {
+            return checkCounterexample(automaton, entryNode, automatonFile.toPath());
+          }
+
+        } catch (IOException e) {
+          throw new CounterexampleAnalysisFailed("Could not write path automaton to file " + e.getMessage(), e);
+        }
+      }
+    };
   }
 
-  private boolean checkCounterexample(ARGState pRootState, ARGState pErrorState, Set<ARGState> pErrorPathStates,
+  private boolean checkCounterexample(CharSequence automaton, CFANode entryNode,
       Path automatonFile) throws IOException, CPAException, InterruptedException {
 
     try (Writer w = Files.openOutputFile(automatonFile)) {
-      ARGUtils.producePathAutomaton(w, pRootState, pErrorPathStates,
-          "CounterexampleToCheck", cpa.getCounterexamples().get(pErrorState));
+      w.append(automaton);
     }
 
-    CFANode entryNode = extractLocation(pRootState);
     LogManager lLogger = logger.withComponentName("CounterexampleCheck");
 
     try {
@@ -33,22 +33,38 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
+import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.counterexamplecheck.CounterexampleChecker.PreparedCheck;
+import org.sosy_lab.cpachecker.core.defaults.MergeSepOperator;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
@@ -62,7 +78,9 @@ import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException.Reason;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 
+import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 
@@ -79,6 +97,8 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
   private final ARGCPA cpa;
 
   private final Timer checkTime = new Timer();
+  private final Timer waitTime = new Timer();
+  private final Timer prepareTime = new Timer();
   private int numberOfInfeasiblePaths = 0;
 
   private final Set<ARGState> checkedTargetStates = Collections.newSetFromMap(new WeakHashMap<ARGState, Boolean>());
@@ -96,6 +116,15 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
               + "Setting this to false may prevent a lot of similar infeasible counterexamples to get discovered, but is unsound")
   private boolean removeInfeasibleErrors = false;
 
+  @Option(secure=true, description="Check counterexamples asynchronously in a background thread "
+      + "while the analysis continues to explore the rest of the state space. "
+      + "The analysis stops as soon as a counterexample is confirmed, "
+      + "infeasible counterexamples are removed from the ARG when their check finishes.\n"
+      + "Only supported if the wrapped algorithm is the plain CPA algorithm with merge-sep, "
+      + "so CEGAR and other algorithms that refine or otherwise remove states from the ARG "
+      + "are rejected.")
+  private boolean async = false;
+
   public CounterexampleCheckAlgorithm(Algorithm algorithm,
       ConfigurableProgramAnalysis pCpa, Configuration config, LogManager logger,
       ShutdownNotifier pShutdownNotifier, CFA cfa, String filename) throws InvalidConfigurationException, CPAException {
@@ -121,10 +150,23 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
     default:
       throw new AssertionError("Unhandled case statement: " + checkerType);
     }
+
+    if (async && !(algorithm instanceof CPAAlgorithm
+        && cpa.getMergeOperator() == MergeSepOperator.getInstance())) {
+      // The background thread reads the states on the error path.
+      // Merge-join and refinement remove states from the ARG in the main thread,
+      // which may be exactly the states the background thread is reading.
+      throw new InvalidConfigurationException("Asynchronous counterexample check (counterexample.async)"
+          + " is only supported for the CPA algorithm with merge-sep, not with CEGAR.");
+    }
   }
 
   @Override
   public AlgorithmStatus run(ReachedSet reached) throws CPAException, InterruptedException {
+    if (async) {
+      return runAsync(reached);
+    }
+
     AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
 
     while (reached.hasWaitingState()) {
@@ -178,6 +220,191 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
     return status;
   }
 
+  /**
+   * A counterexample that was submitted for checking in the background thread.
+   * The set of states on the error path is computed by the main thread before submitting,
+   * and only used by the main thread.
+   */
+  private static class PendingCheck {
+    private final ARGState errorState;
+    private final Set<ARGState> statesOnErrorPath;
+
+    private PendingCheck(ARGState pErrorState, Set<ARGState> pStatesOnErrorPath) {
+      errorState = pErrorState;
+      statesOnErrorPath = pStatesOnErrorPath;
+    }
+  }
+
+  /**
+   * Run the analysis and check the found counterexamples in the background thread,
+   * while the analysis continues.
+   * Found target states are taken out of the waitlist while their check is pending.
+   * The ARG and the reached set are only accessed by this thread:
+   * the path program of each counterexample is created here
+   * (cf. {@link CounterexampleChecker#prepareCheck(ARGState, ARGState, Set)}),
+   * and the background thread only checks this snapshot.
+   */
+  private AlgorithmStatus runAsync(ReachedSet reached) throws CPAException, InterruptedException {
+    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+    final ARGState rootState = (ARGState)reached.getFirstState();
+
+    // single-threaded because the checkers are not thread-safe,
+    // daemon thread because a cancelled check may not react to the interrupt
+    ExecutorService checkExecutor =
+        Executors.newSingleThreadExecutor(Threads.threadFactoryBuilder().setDaemon(true).build());
+    CompletionService<Boolean> completionService = new ExecutorCompletionService<>(checkExecutor);
+    Map<Future<Boolean>, PendingCheck> pendingChecks = new HashMap<>();
+    try {
+      while (reached.hasWaitingState() || !pendingChecks.isEmpty()) {
+        if (reached.hasWaitingState()) {
+          status = status.update(algorithm.run(reached));
+          assert ARGUtils.checkARG(reached);
+
+          List<ARGState> errorStates = from(reached)
+              .transform(AbstractStates.toState(ARGState.class))
+              .filter(AbstractStates.IS_TARGET_STATE)
+              .filter(Predicates.not(Predicates.in(checkedTargetStates)))
+              .toList();
+
+          for (final ARGState errorState : errorStates) {
+            // do not explore beyond the error state while its check is pending
+            reached.removeOnlyFromWaitlist(errorState);
+            checkedTargetStates.add(errorState);
+
+            Set<ARGState> statesOnErrorPath = ImmutableSet.copyOf(ARGUtils.getAllStatesOnPathsTo(errorState));
+            final PreparedCheck preparedCheck;
+            prepareTime.start();
+            try {
+              preparedCheck = checker.prepareCheck(rootState, errorState, statesOnErrorPath);
+            } finally {
+              prepareTime.stop();
+            }
+
+            logger.log(Level.INFO, "Error path found, submitting counterexample check with " + checkerType + ".");
+            Future<Boolean> future = completionService.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws CPAException, InterruptedException {
+                  checkTime.start();
+                  try {
+                    return preparedCheck.check();
+                  } finally {
+                    checkTime.stop();
+                  }
+                }
+              });
+            pendingChecks.put(future, new PendingCheck(errorState, statesOnErrorPath));
+          }
+        }
+
+        Future<Boolean> finished;
+        if (reached.hasWaitingState()) {
+          // do not wait, continue exploring instead
+          finished = completionService.poll();
+        } else if (!pendingChecks.isEmpty()) {
+          // nothing else to do
+          waitTime.start();
+          try {
+            finished = completionService.take();
+          } finally {
+            waitTime.stop();
+          }
+        } else {
+          break;
+        }
+
+        while (finished != null) {
+          PendingCheck check = pendingChecks.remove(finished);
+          if (getCheckResult(finished)) {
+            logger.log(Level.INFO, "Error path found and confirmed by counterexample check with " + checkerType + ".");
+            // the error state is still in the reached set
+            return status;
+          }
+          status = status.withSound(handleInfeasibleCounterexampleAsync(reached, check, status.isSound()));
+          finished = completionService.poll();
+        }
+      }
+      return status;
+
+    } finally {
+      // the analysis is finished (or aborted), so the remaining checks are not needed
+      for (Future<Boolean> future : pendingChecks.keySet()) {
+        future.cancel(true);
+      }
+      checkExecutor.shutdownNow();
+    }
+  }
+
+  private boolean getCheckResult(Future<Boolean> pFuture) throws CPAException, InterruptedException {
+    try {
+      return pFuture.get();
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      if (t instanceof CPAException) {
+        logger.logUserException(Level.WARNING, t, "Counterexample found, but feasibility could not be verified");
+      }
+      Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("counterexample check", t);
+    }
+  }
+
+  /**
+   * Handle a counterexample that was identified as infeasible by the background thread.
+   * In contrast to {@link #removeErrorState(ReachedSet, ARGState)},
+   * the parent of the error state and its siblings may already have been expanded further,
+   * so only the error state itself is removed.
+   * It was never expanded, because it was taken out of the waitlist before submitting its check.
+   */
+  private boolean handleInfeasibleCounterexampleAsync(ReachedSet reached, PendingCheck check,
+      boolean sound) throws RefinementFailedException {
+    ARGState errorState = check.errorState;
+    numberOfInfeasiblePaths++;
+    logger.log(Level.INFO, "Error path found, but identified as infeasible by counterexample check with " + checkerType + ".");
+
+    if (!continueAfterInfeasibleError) {
+      ARGPath path = ARGUtils.getOnePathTo(errorState);
+      throw new RefinementFailedException(Reason.InfeasibleCounterexample, path);
+    }
+
+    if (errorState.isDestroyed() || !reached.contains(errorState)) {
+      // already removed from the ARG in the meantime
+      return sound;
+    }
+
+    // see the comment in checkCounterexample()
+    if (removeInfeasibleErrors) {
+      // states on the path may have been removed by earlier handled checks
+      Set<ARGState> remainingStatesOnErrorPath = from(check.statesOnErrorPath)
+          .filter(Predicates.not(IS_DESTROYED))
+          .toSet();
+      sound &= handleInfeasibleCounterexample(reached, remainingStatesOnErrorPath);
+    } else if (sound) {
+      logger.log(Level.WARNING, "Infeasible counterexample found, but could not remove it from the ARG. Therefore, we cannot prove safety.");
+      sound = false;
+    }
+
+    assert errorState.getChildren().isEmpty();
+    if (!errorState.getCoveredByThis().isEmpty()) {
+      // the covered states would be lost by removing the error state
+      sound = false;
+    }
+
+    // The parent of the error state stays in the reached set.
+    // It was already expanded, so the error state does not get re-discovered
+    // unless the parent is re-added to the waitlist.
+    cpa.clearCounterexamples(ImmutableSet.of(errorState));
+    reached.remove(errorState);
+    errorState.removeFromARG();
+    assert ARGUtils.checkARG(reached);
+    return sound;
+  }
+
+  private static final Predicate<ARGState> IS_DESTROYED = new Predicate<ARGState>() {
+      @Override
+      public boolean apply(ARGState pState) {
+        return pState.isDestroyed();
+      }
+    };
+
   private boolean checkCounterexample(ARGState errorState, ReachedSet reached,
       boolean sound) throws InterruptedException, CPAException, RefinementFailedException {
     ARGState rootState = (ARGState)reached.getFirstState();
@@ -375,6 +602,14 @@ public class CounterexampleCheckAlgorithm implements Algorithm, StatisticsProvid
     if (checkTime.getNumberOfIntervals() > 0) {
       out.println("Number of infeasible paths:         " + numberOfInfeasiblePaths + " (" + toPercent(numberOfInfeasiblePaths, checkTime.getNumberOfIntervals()) +")" );
       out.println("Time for counterexample checks:     " + checkTime);
+      if (async) {
+        // the checks overlap with the analysis except for the time the analysis had to wait
+        long overlap = Math.max(0, checkTime.getSumTime().asMillis() - waitTime.getSumTime().asMillis());
+        out.println("  Time for preparing checks:        " + prepareTime);
+        out.println("  Time waiting for checks:          " + waitTime);
+        out.println("  Time overlapping with analysis:   " + TimeSpan.ofMillis(overlap).formatAs(TimeUnit.SECONDS)
+            + " (" + toPercent(overlap, checkTime.getSumTime().asMillis()) + ")");
+      }
       if (checker instanceof Statistics) {
         ((Statistics)checker).printStatistics(out, pResult, pReached);
       }
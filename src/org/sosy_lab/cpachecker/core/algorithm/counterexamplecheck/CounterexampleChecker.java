@@ -50,4 +50,28 @@ public interface CounterexampleChecker {
             Set<ARGState> errorPathStates)
             throws CPAException, InterruptedException;
 
+  /**
+   * Read everything from the ARG that is needed for checking the feasibility of a counterexample,
+   * and return the check itself, which does not access the ARG anymore.
+   * This method needs to be called by the thread that modifies the ARG,
+   * but the returned check may be run by another thread.
+   * The parameters are the same as for {@link #checkCounterexample(ARGState, ARGState, Set)}.
+   */
+  PreparedCheck prepareCheck(ARGState rootState, ARGState errorState,
+            Set<ARGState> errorPathStates)
+            throws CPAException, InterruptedException;
+
+  /**
+   * The check of one counterexample, independent of the ARG.
+   */
+  interface PreparedCheck {
+
+    /**
+     * Check feasibility of the counterexample.
+     * @return True if the counterexample is feasible.
+     * @throws CPAException If something goes wrong.
+     * @throws InterruptedException If the thread was interrupted.
+     */
+    boolean check() throws CPAException, InterruptedException;
+  }
 }
@@ -79,7 +79,7 @@ import com.google.common.collect.Lists;
  * paper "Lazy Abstraction with Interpolants" and implemented in the tool IMPACT.
  */
 @Options(prefix="impact")
-public class ImpactAlgorithm implements Algorithm, StatisticsProvider {
+public class ImpactAlgorithm implements Algorithm, StatisticsProvider, AutoCloseable {
 
   private final LogManager logger;
 
@@ -511,4 +511,13 @@ public class ImpactAlgorithm implements Algorithm, StatisticsProvider {
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(new Stats());
   }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      imgr.close();
+    } finally {
+      solver.close();
+    }
+  }
 }
@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.AbstractCollection;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Set;
@@ -151,9 +152,24 @@ class DefaultReachedSet implements ReachedSet {
 
   @Override
   public void removeAll(Iterable<? extends AbstractState> toRemove) {
+    // Removing a single state from the waitlist may be linear in its size,
+    // so we collect the states first and update the waitlist in one sweep.
+    Set<AbstractState> removed = new HashSet<>();
     for (AbstractState state : toRemove) {
-      remove(state);
+      removed.add(checkNotNull(state));
+      reached.remove(state);
     }
+    if (removed.isEmpty()) {
+      return;
+    }
+
+    if (firstState != null && removed.contains(firstState)) {
+      firstState = null;
+    }
+    if (lastState != null && removed.contains(lastState)) {
+      lastState = null;
+    }
+    waitlist.removeAll(removed);
   }
 
   @Override
@@ -35,6 +35,7 @@ import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
 
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 
 /**
  * Special implementation of the reached set that partitions the set by keys that
@@ -73,6 +74,17 @@ public class PartitionedReachedSet extends DefaultReachedSet {
     partitionedReached.remove(getPartitionKey(pState), pState);
   }
 
+  @Override
+  public void removeAll(Iterable<? extends AbstractState> pToRemove) {
+    // the iterable may be a lazy view, so iterate over it only once
+    Set<AbstractState> toRemove = Sets.newHashSet(pToRemove);
+    super.removeAll(toRemove);
+
+    for (AbstractState state : toRemove) {
+      partitionedReached.remove(getPartitionKey(state), state);
+    }
+  }
+
   @Override
   public void clear() {
     super.clear();
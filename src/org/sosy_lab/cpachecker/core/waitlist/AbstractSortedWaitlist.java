@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.core.waitlist;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
+import java.util.Set;
 import java.util.TreeMap;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -147,6 +148,21 @@ public abstract class AbstractSortedWaitlist<K extends Comparable<K>> implements
     return result;
   }
 
+  @Override
+  public void removeAll(Set<? extends AbstractState> pStates) {
+    size = 0;
+    Iterator<Waitlist> localWaitlists = waitlist.values().iterator();
+    while (localWaitlists.hasNext()) {
+      Waitlist localWaitlist = localWaitlists.next();
+      localWaitlist.removeAll(pStates);
+      if (localWaitlist.isEmpty()) {
+        localWaitlists.remove();
+      } else {
+        size += localWaitlist.size();
+      }
+    }
+  }
+
   @Override
   public int size() {
     return size;
@@ -25,6 +25,7 @@ package org.sosy_lab.cpachecker.core.waitlist;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Set;
 
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 
@@ -74,6 +75,12 @@ public abstract class AbstractWaitlist<T extends Collection<AbstractState>> impl
     return waitlist.remove(pState);
   }
 
+  @Override
+  public void removeAll(Set<? extends AbstractState> pStates) {
+    // checks the given set for each element of the waitlist
+    waitlist.removeAll(pStates);
+  }
+
   @Override
   public int size() {
     return waitlist.size();
@@ -23,6 +23,8 @@
  */
 package org.sosy_lab.cpachecker.core.waitlist;
 
+import java.util.Set;
+
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 
 /**
@@ -77,6 +79,13 @@ public interface Waitlist extends Iterable<AbstractState> {
    */
   boolean remove(AbstractState state);
 
+  /**
+   * Removes all abstract states that are contained in the given set.
+   * In contrast to calling {@link #remove(AbstractState)} for each state,
+   * implementations should do this in a single pass over the waitlist.
+   */
+  void removeAll(Set<? extends AbstractState> states);
+
   /**
    * Returns the number of states in the waitlist.
    */
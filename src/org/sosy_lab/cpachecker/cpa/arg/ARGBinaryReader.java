@@ -0,0 +1,325 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static org.sosy_lab.cpachecker.cpa.arg.ARGToBinaryWriter.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.cpachecker.cfa.export.DOTBuilder;
+
+/**
+ * Reads files written by {@link ARGToBinaryWriter}
+ * and converts selected parts of them to the DOT format of Graphviz.
+ *
+ * Can also be used from the command line:
+ * <pre>
+ *   ARGBinaryReader FILE [ROOT-ID [DEPTH]]
+ * </pre>
+ * writes the subgraph below the given state (default: the first state of the file)
+ * up to the given depth (default: unbounded) to stdout.
+ */
+public class ARGBinaryReader {
+
+  private static final int GZIP_MAGIC = 0x8b1f;
+
+  /**
+   * The information about one state as stored in the file.
+   */
+  public static final class StateRecord {
+
+    private final int id;
+    private final int flags;
+    private final int location;
+    private final int coveredBy;
+    private final int[] parents;
+    private final int[] children;
+    private final @Nullable String payload;
+
+    private StateRecord(int pId, int pFlags, int pLocation, int pCoveredBy,
+        int[] pParents, int[] pChildren, @Nullable String pPayload) {
+      id = pId;
+      flags = pFlags;
+      location = pLocation;
+      coveredBy = pCoveredBy;
+      parents = pParents;
+      children = pChildren;
+      payload = pPayload;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public boolean isTarget() {
+      return (flags & FLAG_TARGET) != 0;
+    }
+
+    public boolean isCovered() {
+      return (flags & FLAG_COVERED) != 0;
+    }
+
+    public boolean wasExpanded() {
+      return (flags & FLAG_NOT_EXPANDED) == 0;
+    }
+
+    /**
+     * The number of the CFA node of this state, or -1 if it has none.
+     */
+    public int getLocation() {
+      return location;
+    }
+
+    /**
+     * The id of the covering state, or -1 if the state is not covered.
+     */
+    public int getCoveredBy() {
+      return coveredBy;
+    }
+
+    public int[] getParents() {
+      return parents.clone();
+    }
+
+    public int[] getChildren() {
+      return children.clone();
+    }
+
+    /**
+     * The string representation of the state, if it was written.
+     */
+    public @Nullable String getPayload() {
+      return payload;
+    }
+  }
+
+  private final Map<Integer, StateRecord> states;
+
+  private ARGBinaryReader(Map<Integer, StateRecord> pStates) {
+    states = pStates;
+  }
+
+  /**
+   * Read all states from a file, which may be compressed.
+   */
+  public static ARGBinaryReader read(Path pFile) throws IOException {
+    try (InputStream fileStream = new FileInputStream(pFile.toFile())) {
+      InputStream in = new BufferedInputStream(fileStream);
+
+      // the writer compresses the whole file, including the header
+      in.mark(2);
+      int magic = in.read() | (in.read() << 8);
+      in.reset();
+      if (magic == GZIP_MAGIC) {
+        in = new BufferedInputStream(new GZIPInputStream(in));
+      }
+
+      return read(new DataInputStream(in));
+    }
+  }
+
+  private static ARGBinaryReader read(DataInputStream pIn) throws IOException {
+    if (pIn.readInt() != MAGIC) {
+      throw new IOException("File is not a binary ARG");
+    }
+    int version = pIn.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported version " + version + " of binary ARG");
+    }
+
+    Map<Integer, StateRecord> states = new LinkedHashMap<>();
+    int first;
+    while ((first = pIn.read()) != -1) {
+      int id = readVarInt(pIn, first);
+      int flags = pIn.readUnsignedByte();
+      int location = readVarInt(pIn) - 1;
+      int coveredBy = (flags & FLAG_COVERED) != 0 ? readVarInt(pIn) : -1;
+      int[] parents = readIds(pIn);
+      int[] children = readIds(pIn);
+      String payload = null;
+      if ((flags & FLAG_PAYLOAD) != 0) {
+        byte[] bytes = new byte[readVarInt(pIn)];
+        pIn.readFully(bytes);
+        payload = new String(bytes, StandardCharsets.UTF_8);
+      }
+
+      states.put(id, new StateRecord(id, flags, location, coveredBy, parents, children, payload));
+    }
+    return new ARGBinaryReader(states);
+  }
+
+  private static int[] readIds(DataInputStream pIn) throws IOException {
+    int[] ids = new int[readVarInt(pIn)];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = readVarInt(pIn);
+    }
+    return ids;
+  }
+
+  private static int readVarInt(DataInputStream pIn) throws IOException {
+    return readVarInt(pIn, pIn.readUnsignedByte());
+  }
+
+  private static int readVarInt(DataInputStream pIn, int pFirstByte) throws IOException {
+    int value = pFirstByte & 0x7F;
+    int b = pFirstByte;
+    int shift = 7;
+    while ((b & 0x80) != 0) {
+      if (shift > 28) {
+        throw new IOException("Malformed binary ARG");
+      }
+      b = pIn.readUnsignedByte();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    }
+    return value;
+  }
+
+  /**
+   * All states of the file, in the order in which they were written.
+   */
+  public Collection<StateRecord> getStates() {
+    return Collections.unmodifiableCollection(states.values());
+  }
+
+  public @Nullable StateRecord getState(int pId) {
+    return states.get(pId);
+  }
+
+  /**
+   * Write the subgraph of all states that are reachable from the given root
+   * with at most the given number of edges in the DOT format of Graphviz.
+   * States that are referenced but not contained in the file are omitted.
+   *
+   * @param pMaxDepth The maximal distance of states from the root, or -1 for no limit.
+   */
+  public void writeDot(Appendable sb, int pRootId, int pMaxDepth) throws IOException {
+    sb.append("digraph ARG {\n");
+    // default style for nodes
+    sb.append("node [style=\"filled\" shape=\"box\" color=\"white\"]\n");
+
+    StringBuilder edges = new StringBuilder();
+    Map<Integer, Integer> depths = new HashMap<>();
+    Deque<StateRecord> worklist = new ArrayDeque<>();
+
+    StateRecord root = states.get(pRootId);
+    if (root != null) {
+      depths.put(pRootId, 0);
+      worklist.add(root);
+    }
+
+    while (!worklist.isEmpty()) {
+      StateRecord state = worklist.removeFirst();
+      int depth = depths.get(state.id);
+      writeNode(sb, state);
+
+      if (state.isCovered() && states.containsKey(state.coveredBy)) {
+        edges.append(state.id);
+        edges.append(" -> ");
+        edges.append(state.coveredBy);
+        edges.append(" [style=\"dashed\" weight=\"0\" label=\"covered by\"]\n");
+      }
+
+      if (pMaxDepth >= 0 && depth >= pMaxDepth) {
+        continue;
+      }
+      for (int childId : state.children) {
+        StateRecord child = states.get(childId);
+        if (child == null) {
+          continue;
+        }
+        edges.append(state.id).append(" -> ").append(childId).append("\n");
+        if (!depths.containsKey(childId)) {
+          depths.put(childId, depth + 1);
+          worklist.add(child);
+        }
+      }
+    }
+
+    sb.append(edges);
+    sb.append("}\n");
+  }
+
+  private static void writeNode(Appendable sb, StateRecord pState) throws IOException {
+    sb.append(Integer.toString(pState.id));
+    sb.append(" [");
+    if (pState.isCovered()) {
+      sb.append("fillcolor=\"green\" ");
+    } else if (pState.isTarget()) {
+      sb.append("fillcolor=\"red\" ");
+    } else if (!pState.wasExpanded()) {
+      sb.append("fillcolor=\"orange\" ");
+    }
+
+    sb.append("label=\"").append(Integer.toString(pState.id));
+    if (pState.location >= 0) {
+      sb.append(" @ N").append(Integer.toString(pState.location));
+    }
+    if (pState.payload != null) {
+      sb.append("\\n");
+      sb.append(DOTBuilder.escapeGraphvizLabel(pState.payload, "\\\\n"));
+    }
+    sb.append("\" id=\"").append(Integer.toString(pState.id)).append("\"]\n");
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 3) {
+      System.err.println("Usage: ARGBinaryReader FILE [ROOT-ID [DEPTH]]");
+      System.exit(1);
+    }
+
+    ARGBinaryReader reader = read(Paths.get(args[0]));
+    if (reader.states.isEmpty()) {
+      throw new EOFException("File contains no states");
+    }
+    int rootId = args.length > 1
+        ? Integer.parseInt(args[1])
+        : reader.states.keySet().iterator().next();
+    int maxDepth = args.length > 2 ? Integer.parseInt(args[2]) : -1;
+
+    Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+    reader.writeDot(out, rootId, maxDepth);
+    out.flush();
+  }
+}
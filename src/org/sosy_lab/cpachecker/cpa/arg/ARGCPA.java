@@ -71,6 +71,7 @@ import org.sosy_lab.cpachecker.cpa.arg.counterexamples.NullCounterexampleFilter;
 import org.sosy_lab.cpachecker.cpa.arg.counterexamples.PathEqualityCounterexampleFilter;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
@@ -273,6 +274,14 @@ public class ARGCPA extends AbstractSingleWrapperCPA implements
     return stats.getRefinementGraphWriter();
   }
 
+  ARGStatistics getARGStatistics() {
+    return stats;
+  }
+
+  public void printSubtreeRemovalStatistics(StatisticsWriter pWriter) {
+    stats.printSubtreeRemovalStatistics(pWriter);
+  }
+
   @Override
   public boolean areAbstractSuccessors(AbstractState pElement, CFAEdge pCfaEdge,
       Collection<? extends AbstractState> pSuccessors) throws CPATransferException, InterruptedException {
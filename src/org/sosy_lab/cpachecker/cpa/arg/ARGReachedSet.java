@@ -27,6 +27,8 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -41,6 +43,7 @@ import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSetWrapper;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.Precisions;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 
 import com.google.common.base.Functions;
 import com.google.common.base.Preconditions;
@@ -50,6 +53,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.SetMultimap;
+import com.google.common.collect.TreeMultimap;
 
 /**
  * This class is a modifiable live view of a reached set, which shows the ARG
@@ -164,6 +168,67 @@ public class ARGReachedSet {
     }
   }
 
+  /**
+   * Remove several subtrees at once.
+   * This has the same effect as calling {@link #removeSubtree(ARGState)}
+   * for each of the given roots, but the reached set and the waitlist are
+   * updated only once for all of them.
+   * Roots that are part of a subtree of another given root are ignored.
+   *
+   * @param pRoots The roots of the removed subtrees, may not contain the initial element.
+   */
+  public void removeSubtrees(Collection<ARGState> pRoots) {
+    for (ARGState ae : removeSubtrees0(pRoots).keySet()) {
+      mReached.reAddToWaitlist(ae);
+    }
+  }
+
+  /**
+   * Like {@link #removeSubtrees(Collection)}, but when re-adding elements to the
+   * waitlist adapts precisions with respect to the precisions given for the
+   * root whose subtree contained the removed children of the element
+   * (c.f. {@link #removeSubtree(ARGState, List, List)}).
+   * The precision updates are cached, so that each distinct precision
+   * is adapted only once per root.
+   *
+   * @param pRootsWithPrecisions The roots of the removed subtrees with their new precisions.
+   * @param pPrecTypes The types of the new precisions.
+   */
+  public void removeSubtrees(Map<ARGState, List<Precision>> pRootsWithPrecisions,
+      List<Predicate<? super Precision>> pPrecTypes) {
+
+    Preconditions.checkNotNull(pPrecTypes);
+    for (List<Precision> precisions : pRootsWithPrecisions.values()) {
+      Preconditions.checkArgument(precisions.size() == pPrecTypes.size());
+    }
+
+    SetMultimap<ARGState, ARGState> toWaitlist = removeSubtrees0(pRootsWithPrecisions.keySet());
+
+    Map<ARGState, Map<Precision, Precision>> precisionUpdateCache = new HashMap<>();
+    for (ARGState waitingState : toWaitlist.keySet()) {
+      Precision waitingStatePrec = mReached.getPrecision(waitingState);
+      Preconditions.checkState(waitingStatePrec != null);
+
+      for (ARGState root : toWaitlist.get(waitingState)) {
+        Map<Precision, Precision> cache = precisionUpdateCache.get(root);
+        if (cache == null) {
+          cache = Maps.newIdentityHashMap();
+          precisionUpdateCache.put(root, cache);
+        }
+
+        Precision adaptedPrec = cache.get(waitingStatePrec);
+        if (adaptedPrec == null) {
+          adaptedPrec = adaptPrecision(waitingStatePrec, pRootsWithPrecisions.get(root), pPrecTypes);
+          cache.put(waitingStatePrec, adaptedPrec);
+        }
+        waitingStatePrec = adaptedPrec;
+      }
+
+      mReached.updatePrecision(waitingState, waitingStatePrec);
+      mReached.reAddToWaitlist(waitingState);
+    }
+  }
+
   /**
    * Safely remove a port of the ARG which has been proved as completely
    * unreachable. This method takes care of the coverage relationships of the
@@ -255,6 +320,24 @@ public class ARGReachedSet {
     return Precisions.replaceByType(pOldPrecision, pNewPrecision, pPrecisionType);
   }
 
+  /**
+   * Adapts a precision with several new precisions,
+   * c.f. {@link #adaptPrecision(Precision, Precision, Predicate)}.
+   */
+  private Precision adaptPrecision(Precision pOldPrecision, List<Precision> pNewPrecisions,
+      List<Predicate<? super Precision>> pPrecisionTypes) {
+    Precision result = pOldPrecision;
+    for (int i = 0; i < pNewPrecisions.size(); i++) {
+      Precision adaptedPrec = adaptPrecision(result, pNewPrecisions.get(i), pPrecisionTypes.get(i));
+
+      // adaptedPrec == null, if the precision component was not changed
+      if (adaptedPrec != null) {
+        result = adaptedPrec;
+      }
+    }
+    return result;
+  }
+
   private Set<ARGState> removeSubtree0(ARGState e) {
     Preconditions.checkNotNull(e);
     Preconditions.checkArgument(!e.getParents().isEmpty(), "May not remove the initial element from the ARG/reached set");
@@ -276,6 +359,62 @@ public class ARGReachedSet {
     return toWaitlist;
   }
 
+  /**
+   * Remove the subtrees of all given roots and the elements covered by them
+   * in a single pass over the reached set.
+   *
+   * @return the elements to re-add to the waitlist (oldest-first),
+   *         each mapped to the roots whose subtrees contained its removed children
+   */
+  private SetMultimap<ARGState, ARGState> removeSubtrees0(Collection<ARGState> pRoots) {
+    StatTimer removalTime = cpa == null ? new StatTimer("") : cpa.getARGStatistics().getSubtreeRemovalTime();
+    removalTime.start();
+
+    // mark all elements that should be removed together with the root of their subtree
+    Map<ARGState, ARGState> toUnreach = new HashMap<>();
+    for (ARGState root : pRoots) {
+      Preconditions.checkNotNull(root);
+      Preconditions.checkArgument(!root.getParents().isEmpty(), "May not remove the initial element from the ARG/reached set");
+      if (toUnreach.containsKey(root)) {
+        continue; // already removed as part of another subtree
+      }
+
+      dumpSubgraph(root);
+
+      for (ARGState ae : root.getSubgraph()) {
+        if (!toUnreach.containsKey(ae)) {
+          toUnreach.put(ae, root);
+        }
+        for (ARGState covered : ae.getCoveredByThis()) {
+          if (!toUnreach.containsKey(covered)) {
+            toUnreach.put(covered, root);
+          }
+        }
+      }
+    }
+
+    SetMultimap<ARGState, ARGState> toWaitlist = TreeMultimap.create();
+    for (Map.Entry<ARGState, ARGState> removed : toUnreach.entrySet()) {
+      for (ARGState parent : removed.getKey().getParents()) {
+        if (!toUnreach.containsKey(parent)) {
+          toWaitlist.put(parent, removed.getValue());
+        }
+      }
+    }
+
+    Set<ARGState> parentsOfRemovedStates = removeSet(toUnreach.keySet());
+    assert parentsOfRemovedStates.equals(toWaitlist.keySet());
+
+    removalTime.stop();
+    if (cpa != null) {
+      cpa.getARGStatistics().getRemovedSubtreeStates().setNextValue(toUnreach.size());
+      cpa.getLogger().log(Level.FINE, "Removed", toUnreach.size(), "states in", pRoots.size(),
+          "subtrees from the ARG");
+    }
+
+    return toWaitlist;
+  }
+
   private void dumpSubgraph(ARGState e) {
     if (cpa == null) {
       return;
@@ -483,5 +622,16 @@ public class ARGReachedSet {
         Predicate<? super Precision> pPrecisionType) {
       delegate.removeSubtree(pE, pP, pPrecisionType);
     }
+
+    @Override
+    public void removeSubtrees(Collection<ARGState> pRoots) {
+      delegate.removeSubtrees(pRoots);
+    }
+
+    @Override
+    public void removeSubtrees(Map<ARGState, List<Precision>> pRootsWithPrecisions,
+        List<Predicate<? super Precision>> pPrecTypes) {
+      delegate.removeSubtrees(pRootsWithPrecisions, pPrecTypes);
+    }
   }
 }
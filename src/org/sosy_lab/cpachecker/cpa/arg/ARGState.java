@@ -27,12 +27,14 @@ import static com.google.common.base.Preconditions.*;
 import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.util.AbstractStates.extractLocations;
 
+import java.util.AbstractCollection;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -47,27 +49,41 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 
 import com.google.common.base.Function;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 
 public class ARGState extends AbstractSingleWrapperState implements Comparable<ARGState>, Graphable {
 
-  private static final long serialVersionUID = 2608287648397165040L;
+  private static final long serialVersionUID = 2608287648397165041L;
 
-  // We use a List here although we would like to have a Set
-  // because ArrayList is much more memory efficient than e.g. LinkedHashSet.
+  private static final ARGState[] NO_STATES = new ARGState[0];
+
+  // arrays up to this size have no unused slots
+  private static final int EXACT_SIZE_LIMIT = 4;
+
+  // We use arrays here although we would like to have a Set
+  // because they are much more memory efficient than e.g. LinkedHashSet or even ArrayList
+  // (there are millions of states, and most of them have one parent and few children).
   // Also these collections are small and so a slow contains() method won't hurt.
+  // The elements are stored at the start of the array, the remaining slots are null.
+  // Small arrays have the exact size (leaf states share an empty array),
+  // larger arrays grow geometrically, such that adding many parents is not quadratic.
+  // Elements are only appended in place, removing elements replaces the array,
+  // so iterators over the views returned by the getters never see inconsistent arrays.
   // To enforce set semantics, do not add elements except through addparent()!
-  private final Collection<ARGState> children = new ArrayList<>(1);
-  private final Collection<ARGState> parents = new ArrayList<>(1);
+  private ARGState[] children = NO_STATES;
+  private ARGState[] parents = NO_STATES;
 
   private ARGState mCoveredBy = null;
   private Set<ARGState> mCoveredByThis = null; // lazy initialization because rarely needed
 
-  // boolean which keeps track of which elements have already had their successors computed
-  private boolean wasExpanded = false;
-  private boolean mayCover = true;
-  private boolean destroyed = false;
-  private boolean hasCoveredParent = false;
+  // flags, packed into a single field
+  // WAS_EXPANDED keeps track of which elements have already had their successors computed
+  private static final byte WAS_EXPANDED = 1;
+  private static final byte MAY_COVER = 1 << 1;
+  private static final byte DESTROYED = 1 << 2;
+  private static final byte HAS_COVERED_PARENT = 1 << 3;
+  private byte flags = MAY_COVER;
 
   private ARGState mergedWith = null;
 
@@ -87,33 +103,35 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
 
   /**
    * Get the parent elements of this state.
-   * @return A unmodifiable collection of ARGStates without duplicates.
+   * @return A unmodifiable view of the parents without duplicates,
+   *    which reflects later changes of the ARG.
    */
   public Collection<ARGState> getParents() {
-    return Collections.unmodifiableCollection(parents);
+    return new RelationView(false);
   }
 
   public void addParent(ARGState pOtherParent) {
     checkNotNull(pOtherParent);
-    assert !destroyed : "Don't use destroyed ARGState " + this;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
 
     // Manually enforce set semantics.
-    if (!parents.contains(pOtherParent)) {
-      assert !pOtherParent.children.contains(this);
-      parents.add(pOtherParent);
-      pOtherParent.children.add(this);
+    if (!contains(parents, pOtherParent)) {
+      assert !contains(pOtherParent.children, this);
+      parents = with(parents, pOtherParent);
+      pOtherParent.children = with(pOtherParent.children, this);
     } else {
-      assert pOtherParent.children.contains(this);
+      assert contains(pOtherParent.children, this);
     }
   }
 
   /**
    * Get the child elements of this state.
-   * @return An unmodifiable collection of ARGStates without duplicates.
+   * @return An unmodifiable view of the children without duplicates,
+   *    which reflects later changes of the ARG.
    */
   public Collection<ARGState> getChildren() {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
-    return Collections.unmodifiableCollection(children);
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
+    return new RelationView(true);
   }
 
   /**
@@ -166,7 +184,7 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
   }
 
   public Set<ARGState> getSubgraph() {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
     Set<ARGState> result = new HashSet<>();
     Deque<ARGState> workList = new ArrayDeque<>();
 
@@ -176,7 +194,7 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
       ARGState currentElement = workList.removeFirst();
       if (result.add(currentElement)) {
         // currentElement was not in result
-        workList.addAll(currentElement.children);
+        workList.addAll(currentElement.new RelationView(true));
       }
     }
     return result;
@@ -187,7 +205,7 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
   public void setCovered(@Nonnull ARGState pCoveredBy) {
     checkState(!isCovered(), "Cannot cover already covered element %s", this);
     checkNotNull(pCoveredBy);
-    checkArgument(pCoveredBy.mayCover, "Trying to cover with non-covering element %s", pCoveredBy);
+    checkArgument(pCoveredBy.hasFlag(MAY_COVER), "Trying to cover with non-covering element %s", pCoveredBy);
 
     mCoveredBy = pCoveredBy;
     if (pCoveredBy.mCoveredByThis == null) {
@@ -206,7 +224,7 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
   }
 
   public boolean isCovered() {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
     return mCoveredBy != null;
   }
 
@@ -216,7 +234,7 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
   }
 
   public Set<ARGState> getCoveredByThis() {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
     if (mCoveredByThis == null) {
       return Collections.emptySet();
     } else {
@@ -225,23 +243,23 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
   }
 
   public boolean mayCover() {
-    return mayCover && !hasCoveredParent && !isCovered();
+    return hasFlag(MAY_COVER) && !hasFlag(HAS_COVERED_PARENT) && !isCovered();
   }
 
   public void setNotCovering() {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
-    mayCover = false;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
+    setFlag(MAY_COVER, false);
   }
 
   void setHasCoveredParent(boolean pHasCoveredParent) {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
-    hasCoveredParent = pHasCoveredParent;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
+    setFlag(HAS_COVERED_PARENT, pHasCoveredParent);
   }
 
   // merged-with marker so that stop can return true for merged elements
 
   void setMergedWith(ARGState pMergedWith) {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
     assert mergedWith == null : "Second merging of element " + this;
 
     mergedWith = pMergedWith;
@@ -254,17 +272,17 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
   // was-expanded marker so we can identify open leafs
 
   boolean wasExpanded() {
-    return wasExpanded;
+    return hasFlag(WAS_EXPANDED);
   }
 
   void markExpanded() {
-    wasExpanded = true;
+    setFlag(WAS_EXPANDED, true);
   }
 
   void deleteChild(ARGState child) {
-    assert (children.contains(child));
-    children.remove(child);
-    child.parents.remove(this);
+    assert contains(children, child);
+    children = without(children, child);
+    child.parents = without(child.parents, this);
   }
 
   // small and less important stuff
@@ -274,7 +292,115 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
   }
 
   public boolean isDestroyed() {
-    return destroyed;
+    return hasFlag(DESTROYED);
+  }
+
+  private boolean hasFlag(byte flag) {
+    return (flags & flag) != 0;
+  }
+
+  private void setFlag(byte flag, boolean value) {
+    if (value) {
+      flags |= flag;
+    } else {
+      flags &= ~flag;
+    }
+  }
+
+  // helper methods for the arrays of parents and children
+
+  /**
+   * A live and unmodifiable view of the parents or children of this state.
+   */
+  private final class RelationView extends AbstractCollection<ARGState> {
+
+    private final boolean ofChildren;
+
+    private RelationView(boolean pOfChildren) {
+      ofChildren = pOfChildren;
+    }
+
+    private ARGState[] states() {
+      return ofChildren ? children : parents;
+    }
+
+    @Override
+    public int size() {
+      return sizeOf(states());
+    }
+
+    @Override
+    public boolean isEmpty() {
+      ARGState[] states = states();
+      return states.length == 0 || states[0] == null;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof ARGState && ARGState.contains(states(), (ARGState) o);
+    }
+
+    @Override
+    public Iterator<ARGState> iterator() {
+      // the first elements of the current array never change, even if elements are added later
+      ARGState[] states = states();
+      return Iterators.unmodifiableIterator(
+          Arrays.asList(states).subList(0, sizeOf(states)).iterator());
+    }
+  }
+
+  private static int sizeOf(ARGState[] states) {
+    // binary search for the first unused slot
+    int low = 0;
+    int high = states.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (states[mid] == null) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  private static boolean contains(ARGState[] states, ARGState state) {
+    for (ARGState s : states) {
+      if (s == null) {
+        break;
+      } else if (s == state) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static ARGState[] with(ARGState[] states, ARGState state) {
+    int size = sizeOf(states);
+    if (size < states.length) {
+      states[size] = state;
+      return states;
+    }
+    int capacity = size < EXACT_SIZE_LIMIT ? size + 1 : size + (size >> 1);
+    ARGState[] result = Arrays.copyOf(states, capacity);
+    result[size] = state;
+    return result;
+  }
+
+  private static ARGState[] without(ARGState[] states, ARGState state) {
+    int size = sizeOf(states);
+    for (int i = 0; i < size; i++) {
+      if (states[i] == state) {
+        if (size == 1) {
+          return NO_STATES;
+        }
+        ARGState[] result = new ARGState[size - 1];
+        System.arraycopy(states, 0, result, 0, i);
+        System.arraycopy(states, i + 1, result, i, size - i - 1);
+        return result;
+      }
+    }
+    return states;
   }
 
   /**
@@ -305,13 +431,13 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
 
   @Override
   public boolean isTarget() {
-    return !hasCoveredParent && !isCovered() && super.isTarget();
+    return !hasFlag(HAS_COVERED_PARENT) && !isCovered() && super.isTarget();
   }
 
   @Override
   public String toString() {
     StringBuilder sb = new StringBuilder();
-    if (destroyed) {
+    if (isDestroyed()) {
       sb.append("Destroyed ");
     }
     if (mCoveredBy != null) {
@@ -319,11 +445,11 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
     }
     sb.append("ARG State (Id: ");
     sb.append(stateId);
-    if (!destroyed) {
+    if (!isDestroyed()) {
       sb.append(", Parents: ");
-      sb.append(stateIdsOf(parents));
+      sb.append(stateIdsOf(new RelationView(false)));
       sb.append(", Children: ");
-      sb.append(stateIdsOf(children));
+      sb.append(stateIdsOf(new RelationView(true)));
 
       if (mCoveredBy != null) {
         sb.append(", Covered by: ");
@@ -377,13 +503,13 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
    * elements will not be removed from the covered set.
    */
   public void removeFromARG() {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
 
     detachFromARG();
 
     clearCoverageRelation();
 
-    destroyed = true;
+    setFlag(DESTROYED, true);
   }
 
   /**
@@ -412,21 +538,21 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
    * parents' children list and from its children's parents list.
    */
   void detachFromARG() {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
 
     // clear children
-    for (ARGState child : children) {
-      assert (child.parents.contains(this));
-      child.parents.remove(this);
+    for (ARGState child : new RelationView(true)) {
+      assert contains(child.parents, this);
+      child.parents = without(child.parents, this);
     }
-    children.clear();
+    children = NO_STATES;
 
     // clear parents
-    for (ARGState parent : parents) {
-      assert (parent.children.contains(this));
-      parent.children.remove(this);
+    for (ARGState parent : new RelationView(false)) {
+      assert contains(parent.children, this);
+      parent.children = without(parent.children, this);
     }
-    parents.clear();
+    parents = NO_STATES;
   }
 
   /**
@@ -439,25 +565,25 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
    * @param replacement
    */
   public void replaceInARGWith(ARGState replacement) {
-    assert !destroyed : "Don't use destroyed ARGState " + this;
-    assert !replacement.destroyed : "Don't use destroyed ARGState " + replacement;
+    assert !isDestroyed() : "Don't use destroyed ARGState " + this;
+    assert !replacement.isDestroyed() : "Don't use destroyed ARGState " + replacement;
     assert !isCovered() : "Not implemented: Replacement of covered element " + this;
     assert !replacement.isCovered() : "Cannot replace with covered element " + replacement;
 
     // copy children
-    for (ARGState child : children) {
-      assert (child.parents.contains(this)) : "Inconsistent ARG at " + this;
-      child.parents.remove(this);
+    for (ARGState child : new RelationView(true)) {
+      assert contains(child.parents, this) : "Inconsistent ARG at " + this;
+      child.parents = without(child.parents, this);
       child.addParent(replacement);
     }
-    children.clear();
+    children = NO_STATES;
 
-    for (ARGState parent : parents) {
-      assert (parent.children.contains(this)) : "Inconsistent ARG at " + this;
-      parent.children.remove(this);
+    for (ARGState parent : new RelationView(false)) {
+      assert contains(parent.children, this) : "Inconsistent ARG at " + this;
+      parent.children = without(parent.children, this);
       replacement.addParent(parent);
     }
-    parents.clear();
+    parents = NO_STATES;
 
     if (mCoveredByThis != null) {
       if (replacement.mCoveredByThis == null) {
@@ -475,6 +601,6 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
       mCoveredByThis = null;
     }
 
-    destroyed = true;
+    setFlag(DESTROYED, true);
   }
 }
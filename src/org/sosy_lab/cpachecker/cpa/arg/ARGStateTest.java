@@ -0,0 +1,85 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ARGStateTest {
+
+  @Test
+  public void testManyParents() {
+    ARGState child = new ARGState(null, null);
+    List<ARGState> parents = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      ARGState parent = new ARGState(null, null);
+      child.addParent(parent);
+      child.addParent(parent); // no duplicates
+      parents.add(parent);
+      assertThat(parent.getChildren()).containsExactly(child);
+    }
+    assertThat(child.getParents()).containsExactlyElementsIn(parents).inOrder();
+
+    ARGState removed = parents.remove(50);
+    removed.deleteChild(child);
+    assertThat(child.getParents()).containsExactlyElementsIn(parents).inOrder();
+    assertThat(removed.getChildren()).isEmpty();
+  }
+
+  @Test
+  public void testViewsAreLive() {
+    ARGState parent = new ARGState(null, null);
+    Collection<ARGState> children = parent.getChildren();
+    assertThat(children).isEmpty();
+
+    ARGState child1 = new ARGState(null, parent);
+    ARGState child2 = new ARGState(null, parent);
+    assertThat(children).containsExactly(child1, child2).inOrder();
+    assertThat(child1.getParents()).containsExactly(parent);
+
+    child1.removeFromARG();
+    assertThat(children).containsExactly(child2);
+  }
+
+  @Test
+  public void testReplaceInARG() {
+    ARGState root = new ARGState(null, null);
+    ARGState state = new ARGState(null, root);
+    ARGState child = new ARGState(null, state);
+    ARGState replacement = new ARGState(null, null);
+
+    state.replaceInARGWith(replacement);
+
+    assertThat(state.isDestroyed()).isTrue();
+    assertThat(root.getChildren()).containsExactly(replacement);
+    assertThat(replacement.getParents()).containsExactly(root);
+    assertThat(replacement.getChildren()).containsExactly(child);
+    assertThat(child.getParents()).containsExactly(replacement);
+  }
+}
@@ -65,6 +65,10 @@ import org.sosy_lab.cpachecker.cpa.arg.counterexamples.CEXExporter;
 import org.sosy_lab.cpachecker.cpa.partitioning.PartitioningCPA.PartitionState;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
@@ -98,6 +102,20 @@ public class ARGStatistics implements IterationStatistics {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private Path simplifiedArgFile = Paths.get("ARGSimplified.dot");
 
+  @Option(secure=true, name="binaryFile",
+      description="export final ARG into a compact binary file, "
+        + "which can be converted to .dot with ARGBinaryReader")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path binaryArgFile = null;
+
+  @Option(secure=true, name="binaryFile.compress",
+      description="compress the binary ARG file with GZIP")
+  private boolean compressBinaryArg = true;
+
+  @Option(secure=true, name="binaryFile.payload",
+      description="include the string representation of each state in the binary ARG file")
+  private boolean binaryArgPayload = false;
+
   @Option(secure=true, name="refinements.file",
       description="export simplified ARG that shows all refinements to .dot file")
   @FileOption(FileOption.Type.OUTPUT_FILE)
@@ -113,6 +131,9 @@ public class ARGStatistics implements IterationStatistics {
 
   private final LogManager logger;
 
+  private final StatTimer subtreeRemovalTime = new StatTimer("Time for removing ARG subtrees");
+  private final StatInt removedSubtreeStates = new StatInt(StatKind.SUM, "Number of states in removed ARG subtrees");
+
   public ARGStatistics(Configuration config, LogManager pLogger, ARGCPA pCpa,
       MachineModel pMachineModel, Language pLanguage,
       @Nullable CEXExporter pCexExporter,
@@ -125,7 +146,8 @@ public class ARGStatistics implements IterationStatistics {
     cexExporter = pCexExporter;
     argPathExporter = pARGPathExporter;
 
-    if (argFile == null && simplifiedArgFile == null && refinementGraphFile == null && proofWitness == null) {
+    if (argFile == null && simplifiedArgFile == null && refinementGraphFile == null && proofWitness == null
+        && binaryArgFile == null) {
       exportARG = false;
     }
   }
@@ -165,6 +187,24 @@ public class ARGStatistics implements IterationStatistics {
     return refinementGraphWriter;
   }
 
+  StatTimer getSubtreeRemovalTime() {
+    return subtreeRemovalTime;
+  }
+
+  StatInt getRemovedSubtreeStates() {
+    return removedSubtreeStates;
+  }
+
+  /**
+   * Print the statistics about batched removals of ARG subtrees.
+   * They are not printed by this class (cf. {@link #getName()}),
+   * but by the refiners that remove the subtrees.
+   */
+  void printSubtreeRemovalStatistics(StatisticsWriter pWriter) {
+    pWriter.putIfUpdatedAtLeastOnce(subtreeRemovalTime)
+        .putIfUpdatedAtLeastOnce(removedSubtreeStates);
+  }
+
   @Override
   public String getName() {
     return null; // return null because we do not print statistics
@@ -250,6 +290,15 @@ public class ARGStatistics implements IterationStatistics {
       }
     }
 
+    if (binaryArgFile != null) {
+      try (ARGToBinaryWriter w = new ARGToBinaryWriter(
+          adjustPathNameForPartitioning(rootState, binaryArgFile), compressBinaryArg, binaryArgPayload)) {
+        w.writeARG(rootState);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write ARG to file");
+      }
+    }
+
     if (simplifiedArgFile != null) {
       try (Writer w = Files.openOutputFile(adjustPathNameForPartitioning(rootState, simplifiedArgFile))) {
         ARGToDotWriter.write(w, rootState,
@@ -0,0 +1,249 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+
+/**
+ * Writes ARGs (or plain reached sets) into a file in a compact binary format,
+ * which can be read with {@link ARGBinaryReader}.
+ *
+ * The file starts with a header (magic number and format version),
+ * followed by one record per state in the order in which the states are written:
+ * <pre>
+ *   id          varint
+ *   flags       byte (cf. the FLAG_* constants)
+ *   location    varint, node number + 1 (0 if the state has no location)
+ *   covered-by  varint (only if FLAG_COVERED is set)
+ *   parents     varint count, followed by the ids
+ *   children    varint count, followed by the ids
+ *   payload     varint length, followed by the UTF-8 bytes (only if FLAG_PAYLOAD is set)
+ * </pre>
+ * The payload is the string representation of the wrapped state,
+ * which is costly to create, and is thus only written if requested.
+ *
+ * Records are written into a fixed-size buffer that is flushed to the file whenever it is full,
+ * so the memory needed for the export does not depend on the size of the ARG.
+ * If compression is enabled, the whole file (including the header) is compressed with GZIP.
+ */
+public class ARGToBinaryWriter implements Closeable {
+
+  static final int MAGIC = 0x43504147; // "CPAG"
+  static final int VERSION = 1;
+
+  static final int FLAG_TARGET = 1;
+  static final int FLAG_COVERED = 2;
+  static final int FLAG_NOT_EXPANDED = 4;
+  static final int FLAG_PAYLOAD = 8;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_VARINT_SIZE = 5;
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private final boolean writePayload;
+
+  // ids for states of reached sets that are not ARGs
+  private int nextId = 0;
+
+  /**
+   * Create a writer for the given file.
+   * @param pFile The output file, which is overwritten.
+   * @param pCompress Whether to compress the output with GZIP.
+   * @param pWritePayload Whether to include the string representation of each state.
+   */
+  public ARGToBinaryWriter(Path pFile, boolean pCompress, boolean pWritePayload) throws IOException {
+    writePayload = pWritePayload;
+
+    Files.createParentDirs(pFile);
+    FileChannel fileChannel = FileChannel.open(pFile.toFile().toPath(),
+        StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    if (pCompress) {
+      try {
+        channel = Channels.newChannel(
+            new GZIPOutputStream(Channels.newOutputStream(fileChannel), BUFFER_SIZE));
+      } catch (IOException e) {
+        fileChannel.close();
+        throw e;
+      }
+    } else {
+      channel = fileChannel;
+    }
+
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+  }
+
+  /**
+   * Write all states of the ARG that are reachable from the given root
+   * via the children relation.
+   */
+  public void writeARG(ARGState pRoot) throws IOException {
+    Set<ARGState> visited = new HashSet<>();
+    Deque<ARGState> worklist = new ArrayDeque<>();
+    visited.add(pRoot);
+    worklist.push(pRoot);
+
+    while (!worklist.isEmpty()) {
+      ARGState state = worklist.pop();
+      writeState(state);
+
+      for (ARGState child : state.getChildren()) {
+        if (visited.add(child)) {
+          worklist.push(child);
+        }
+      }
+    }
+  }
+
+  /**
+   * Write a single state.
+   * States that are not {@link ARGState}s get a consecutive id and have no parents or children.
+   */
+  public void writeState(AbstractState pState) throws IOException {
+    if (pState instanceof ARGState) {
+      writeState((ARGState) pState);
+      return;
+    }
+
+    int flags = AbstractStates.isTargetState(pState) ? FLAG_TARGET : 0;
+    if (writePayload) {
+      flags |= FLAG_PAYLOAD;
+    }
+
+    writeHead(nextId++, flags, AbstractStates.extractLocation(pState));
+    putVarInt(0);
+    putVarInt(0);
+    if (writePayload) {
+      putString(pState.toString());
+    }
+  }
+
+  private void writeState(ARGState pState) throws IOException {
+    int flags = 0;
+    if (pState.isTarget()) {
+      flags |= FLAG_TARGET;
+    }
+    if (pState.isCovered()) {
+      flags |= FLAG_COVERED;
+    }
+    if (!pState.wasExpanded()) {
+      flags |= FLAG_NOT_EXPANDED;
+    }
+    if (writePayload) {
+      flags |= FLAG_PAYLOAD;
+    }
+
+    writeHead(pState.getStateId(), flags, AbstractStates.extractLocation(pState));
+    if (pState.isCovered()) {
+      putVarInt(pState.getCoveringState().getStateId());
+    }
+    putIds(pState.getParents());
+    putIds(pState.getChildren());
+    if (writePayload) {
+      putString(String.valueOf(pState.getWrappedState()));
+    }
+  }
+
+  private void writeHead(int pId, int pFlags, CFANode pLocation) throws IOException {
+    putVarInt(pId);
+    ensureRemaining(1);
+    buffer.put((byte) pFlags);
+    putVarInt(pLocation == null ? 0 : pLocation.getNodeNumber() + 1);
+  }
+
+  private void putIds(Collection<ARGState> pStates) throws IOException {
+    putVarInt(pStates.size());
+    for (ARGState state : pStates) {
+      putVarInt(state.getStateId());
+    }
+  }
+
+  private void putString(String pString) throws IOException {
+    byte[] bytes = pString.getBytes(StandardCharsets.UTF_8);
+    putVarInt(bytes.length);
+
+    int offset = 0;
+    while (offset < bytes.length) {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      int length = Math.min(buffer.remaining(), bytes.length - offset);
+      buffer.put(bytes, offset, length);
+      offset += length;
+    }
+  }
+
+  private void putVarInt(int pValue) throws IOException {
+    ensureRemaining(MAX_VARINT_SIZE);
+    int value = pValue;
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private void ensureRemaining(int pBytes) throws IOException {
+    if (buffer.remaining() < pBytes) {
+      flush();
+    }
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Files.DeleteOnCloseFile;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithLocation;
+import org.sosy_lab.cpachecker.core.interfaces.Property;
+import org.sosy_lab.cpachecker.core.interfaces.Targetable;
+import org.sosy_lab.cpachecker.cpa.arg.ARGBinaryReader.StateRecord;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+
+public class ARGToBinaryWriterTest {
+
+  /** A wrapped state with a location and a name as string representation. */
+  private static class TestState implements AbstractStateWithLocation, Targetable {
+
+    private final String name;
+    private final CFANode location;
+    private final boolean target;
+
+    private TestState(String pName, boolean pTarget) {
+      name = pName;
+      location = new CFANode("main");
+      target = pTarget;
+    }
+
+    @Override
+    public CFANode getLocationNode() {
+      return location;
+    }
+
+    @Override
+    public Iterable<CFANode> getLocationNodes() {
+      return ImmutableList.of(location);
+    }
+
+    @Override
+    public Iterable<CFAEdge> getOutgoingEdges() {
+      return ImmutableList.of();
+    }
+
+    @Override
+    public boolean isTarget() {
+      return target;
+    }
+
+    @Override
+    public Set<Property> getViolatedProperties() {
+      return ImmutableSet.of();
+    }
+
+    @Override
+    public String toString() {
+      return "state " + name;
+    }
+  }
+
+  private ARGState root;
+  private ARGState a;
+  private ARGState b;
+  private ARGState c;
+  private ARGState d;
+  private List<ARGState> allStates;
+
+  /**
+   * Builds the ARG
+   * <pre>
+   *   root -> a, b
+   *   a -> c, d
+   *   b -> d
+   *   c covered by d
+   * </pre>
+   * where b is a target state and only root and a were expanded.
+   */
+  @Before
+  public void setUp() {
+    root = new ARGState(new TestState("root", false), null);
+    a = new ARGState(new TestState("a", false), root);
+    b = new ARGState(new TestState("b", true), root);
+    c = new ARGState(new TestState("c", false), a);
+    d = new ARGState(new TestState("d", false), a);
+    d.addParent(b);
+    c.setCovered(d);
+    root.markExpanded();
+    a.markExpanded();
+    allStates = ImmutableList.of(root, a, b, c, d);
+  }
+
+  private ARGBinaryReader writeAndRead(boolean compress, boolean payload) throws IOException {
+    try (DeleteOnCloseFile file = Files.createTempFile("arg", ".bin")) {
+      try (ARGToBinaryWriter writer = new ARGToBinaryWriter(file.toPath(), compress, payload)) {
+        writer.writeARG(root);
+      }
+      return ARGBinaryReader.read(file.toPath());
+    }
+  }
+
+  private static List<Integer> ids(Iterable<ARGState> states) {
+    List<Integer> ids = new ArrayList<>();
+    for (ARGState state : states) {
+      ids.add(state.getStateId());
+    }
+    return ids;
+  }
+
+  private static void assertRecordMatches(StateRecord record, ARGState state, boolean payload) {
+    assertThat(record.getId()).isEqualTo(state.getStateId());
+    assertThat(record.isTarget()).isEqualTo(state.isTarget());
+    assertThat(record.isCovered()).isEqualTo(state.isCovered());
+    assertThat(record.wasExpanded()).isEqualTo(state.wasExpanded());
+    assertThat(record.getLocation())
+        .isEqualTo(((TestState) state.getWrappedState()).getLocationNode().getNodeNumber());
+    assertThat(record.getCoveredBy())
+        .isEqualTo(state.isCovered() ? state.getCoveringState().getStateId() : -1);
+    assertThat(Ints.asList(record.getParents())).containsExactlyElementsIn(ids(state.getParents())).inOrder();
+    assertThat(Ints.asList(record.getChildren())).containsExactlyElementsIn(ids(state.getChildren())).inOrder();
+    if (payload) {
+      assertThat(record.getPayload()).isEqualTo(state.getWrappedState().toString());
+    } else {
+      assertThat(record.getPayload()).isNull();
+    }
+  }
+
+  private void checkRecords(boolean compress, boolean payload) throws IOException {
+    ARGBinaryReader reader = writeAndRead(compress, payload);
+
+    assertThat(reader.getStates()).hasSize(allStates.size());
+    for (ARGState state : allStates) {
+      StateRecord record = reader.getState(state.getStateId());
+      assertThat(record).isNotNull();
+      assertRecordMatches(record, state, payload);
+    }
+  }
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    checkRecords(false, false);
+  }
+
+  @Test
+  public void testRoundTripCompressed() throws IOException {
+    checkRecords(true, false);
+  }
+
+  @Test
+  public void testRoundTripWithPayload() throws IOException {
+    checkRecords(true, true);
+  }
+
+  private static String node(ARGState state, String fillcolor) {
+    TestState wrapped = (TestState) state.getWrappedState();
+    int id = state.getStateId();
+    return id + " [" + (fillcolor.isEmpty() ? "" : "fillcolor=\"" + fillcolor + "\" ")
+        + "label=\"" + id + " @ N" + wrapped.getLocationNode().getNodeNumber()
+        + "\\n" + wrapped + "\" id=\"" + id + "\"]\n";
+  }
+
+  private static String edge(ARGState from, ARGState to) {
+    return from.getStateId() + " -> " + to.getStateId() + "\n";
+  }
+
+  @Test
+  public void testDot() throws IOException {
+    ARGBinaryReader reader = writeAndRead(true, true);
+    StringBuilder sb = new StringBuilder();
+    reader.writeDot(sb, root.getStateId(), -1);
+
+    assertThat(sb.toString()).isEqualTo("digraph ARG {\n"
+        + "node [style=\"filled\" shape=\"box\" color=\"white\"]\n"
+        + node(root, "")
+        + node(a, "")
+        + node(b, "red")
+        + node(c, "green")
+        + node(d, "orange")
+        + edge(root, a)
+        + edge(root, b)
+        + edge(a, c)
+        + edge(a, d)
+        + edge(b, d)
+        + c.getStateId() + " -> " + d.getStateId()
+        + " [style=\"dashed\" weight=\"0\" label=\"covered by\"]\n"
+        + "}\n");
+  }
+
+  @Test
+  public void testDotWithDepth() throws IOException {
+    ARGBinaryReader reader = writeAndRead(false, true);
+    StringBuilder sb = new StringBuilder();
+    reader.writeDot(sb, root.getStateId(), 1);
+
+    assertThat(sb.toString()).isEqualTo("digraph ARG {\n"
+        + "node [style=\"filled\" shape=\"box\" color=\"white\"]\n"
+        + node(root, "")
+        + node(a, "")
+        + node(b, "red")
+        + edge(root, a)
+        + edge(root, b)
+        + "}\n");
+  }
+}
@@ -118,6 +118,9 @@ public class AutomatonState implements AbstractQueryableState, Targetable, Seria
   private int failedMatches = 0;
   private Set<Integer> tokensSinceLastMatch = null;
   private final AutomatonSafetyProperty violatedPropertyDescription;
+  // whether the state was a target when it was created,
+  // the automaton may stop treating its error states as targets later on
+  private final boolean isTarget;
 
   static AutomatonState automatonStateFactory(Map<String, AutomatonVariable> pVars,
       AutomatonInternalState pInternalState, ControlAutomatonCPA pAutomatonCPA,
@@ -155,8 +158,9 @@ public class AutomatonState implements AbstractQueryableState, Targetable, Seria
     this.matches = successfulMatches;
     this.failedMatches = failedMatches;
     this.assumptions = pAssumptions;
+    this.isTarget = pAutomatonCPA.isTreatingErrorsAsTargets() && pInternalState.isTarget();
 
-    if (isTarget()) {
+    if (isTarget) {
       checkNotNull(pViolatedPropertyDescription);
       violatedPropertyDescription = pViolatedPropertyDescription;
     } else {
@@ -166,7 +170,7 @@ public class AutomatonState implements AbstractQueryableState, Targetable, Seria
 
   @Override
   public boolean isTarget() {
-    return this.automatonCPA.isTreatingErrorsAsTargets() && internalState.isTarget();
+    return isTarget;
   }
 
   @Override
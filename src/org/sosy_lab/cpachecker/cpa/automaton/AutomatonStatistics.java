@@ -67,5 +67,8 @@ class AutomatonStatistics extends AbstractStatistics {
         - trans.automatonSuccessors.getTimesWithValue(1);
     put(out, 0, "Automaton transfers with branching", stateBranchings);
     put(out, 0, "Automaton transfer successors", trans.automatonSuccessors);
+    if (trans.skippedTransitions.getValueCount() > 0) {
+      put(out, 0, trans.skippedTransitions);
+    }
   }
 }
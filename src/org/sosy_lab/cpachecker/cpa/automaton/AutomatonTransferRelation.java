@@ -55,6 +55,7 @@ import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonState.AutomatonUnknownState;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.SourceLocationMapper;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatIntHist;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 
@@ -73,8 +74,14 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
   @Option(secure=true, description = "Collect information about matched (and traversed) tokens.")
   private boolean collectTokenInformation = false;
 
+  @Option(secure=true, description = "Index for each automaton state and CFA edge which transitions"
+      + " can possibly match, based on the parts of the triggers that depend only on the edge,"
+      + " and evaluate only these transitions.")
+  private boolean useTransitionIndex = true;
+
   private final ControlAutomatonCPA cpa;
   private final LogManager logger;
+  private final AutomatonTransitionIndex transitionIndex;
 
   Timer totalPostTime = new Timer();
   Timer matchTime = new Timer();
@@ -82,12 +89,14 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
   Timer actionTime = new Timer();
   Timer totalStrengthenTime = new Timer();
   StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
+  StatInt skippedTransitions = new StatInt(StatKind.SUM, "Transitions skipped by index");
 
   public AutomatonTransferRelation(ControlAutomatonCPA pCpa, Configuration config,
       LogManager pLogger) throws InvalidConfigurationException {
     config.inject(this);
     this.cpa = pCpa;
     this.logger = pLogger;
+    transitionIndex = useTransitionIndex ? new AutomatonTransitionIndex(pLogger) : null;
   }
 
   @Override
@@ -209,6 +218,11 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
 
     if (state.getInternalState().getTransitions().isEmpty()) {
       // shortcut
+      if (state.isTarget() && !cpa.isTreatingErrorsAsTargets()) {
+        // the property was disabled after the state was created, the successor is no target anymore
+        return Collections.singleton(AutomatonState.automatonStateFactory(
+            state.getVars(), state.getInternalState(), cpa, state.getMatches(), state.getFailedMatches(), null));
+      }
       return Collections.singleton(state);
     }
 
@@ -223,7 +237,17 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
     // the list holds a Transition and the TransitionVariables generated during its match
     List<Pair<AutomatonTransition, Map<Integer, String>>> transitionsToBeTaken = new ArrayList<>(2);
 
-    for (AutomatonTransition t : state.getInternalState().getTransitions()) {
+    List<AutomatonTransition> transitions = state.getInternalState().getTransitions();
+    int[] candidates = getCandidateTransitions(state.getInternalState(), edge);
+    skippedTransitions.setNextValue(transitions.size() - candidates.length);
+    int nextPosition = 0;
+
+    for (int position : candidates) {
+      // the transitions that were skipped by the index do not match
+      failedMatches += position - nextPosition;
+      nextPosition = position + 1;
+
+      AutomatonTransition t = transitions.get(position);
       exprArgs.clearTransitionVariables();
 
       matchTime.start();
@@ -284,6 +308,7 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
         }
       }
     }
+    failedMatches += transitions.size() - nextPosition;
 
     if (edgeMatched) {
       // execute Transitions
@@ -327,6 +352,20 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
     }
   }
 
+  /**
+   * Get the positions of the transitions of the given state that need to be evaluated on the edge.
+   */
+  private int[] getCandidateTransitions(AutomatonInternalState pState, CFAEdge pEdge) {
+    if (transitionIndex != null) {
+      return transitionIndex.getCandidates(pState, pEdge);
+    }
+    int[] allPositions = new int[pState.getTransitions().size()];
+    for (int i = 0; i < allPositions.length; i++) {
+      allPositions[i] = i;
+    }
+    return allPositions;
+  }
+
   private static Map<String, AutomatonVariable> deepCloneVars(Map<String, AutomatonVariable> pOld) {
     Map<String, AutomatonVariable> result = Maps.newHashMapWithExpectedSize(pOld.size());
     for (Entry<String, AutomatonVariable> e : pOld.entrySet()) {
@@ -0,0 +1,174 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.And;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeCase;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeASTComparison;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeRegEx;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchJavaAssert;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLabelExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLabelRegEx;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLocationDescriptor;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchProgramEntry;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchProgramExit;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.Negation;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.Or;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * Index of the transitions of an automaton that can possibly match a given CFA edge.
+ *
+ * Many triggers only depend on the CFA edge and not on the automaton state,
+ * the automaton variables, or the states of other CPAs
+ * (e.g., matches of the source code, of line numbers, or of labels).
+ * For each pair of internal state and CFA edge, these triggers are evaluated once,
+ * and all transitions whose trigger is known to be false on the edge are excluded.
+ * The remaining candidates still need to be evaluated as usual,
+ * because they may depend on the current state or bind transition variables.
+ *
+ * The index is filled lazily for the pairs that are actually visited by the analysis.
+ */
+class AutomatonTransitionIndex {
+
+  private static final int[] NO_CANDIDATES = new int[0];
+
+  private final LogManager logger;
+
+  private final ConcurrentMap<Pair<AutomatonInternalState, CFAEdge>, int[]> candidates =
+      new ConcurrentHashMap<>();
+
+  AutomatonTransitionIndex(LogManager pLogger) {
+    logger = pLogger;
+  }
+
+  /**
+   * Get the positions of the transitions of the given state
+   * whose trigger can possibly match the given edge, in ascending order.
+   */
+  int[] getCandidates(AutomatonInternalState pState, CFAEdge pEdge) {
+    Pair<AutomatonInternalState, CFAEdge> key = Pair.of(pState, pEdge);
+    int[] result = candidates.get(key);
+    if (result == null) {
+      result = computeCandidates(pState.getTransitions(), pEdge);
+      candidates.putIfAbsent(key, result);
+    }
+    return result;
+  }
+
+  private int[] computeCandidates(List<AutomatonTransition> pTransitions, CFAEdge pEdge) {
+    int[] result = new int[pTransitions.size()];
+    int count = 0;
+    for (int i = 0; i < pTransitions.size(); i++) {
+      if (!Boolean.FALSE.equals(evalOnEdge(pTransitions.get(i).getTrigger(), pEdge))) {
+        result[count++] = i;
+      }
+    }
+
+    if (count == 0) {
+      return NO_CANDIDATES;
+    }
+    if (count < result.length) {
+      int[] shortResult = new int[count];
+      System.arraycopy(result, 0, shortResult, 0, count);
+      return shortResult;
+    }
+    return result;
+  }
+
+  /**
+   * Evaluate an expression as far as it depends only on the given edge.
+   * @return the value of the expression,
+   *    or <code>null</code> if it depends on more than the edge or cannot be evaluated
+   */
+  private Boolean evalOnEdge(AutomatonBoolExpr pExpr, CFAEdge pEdge) {
+    if (pExpr == AutomatonBoolExpr.TRUE) {
+      return Boolean.TRUE;
+
+    } else if (pExpr == AutomatonBoolExpr.FALSE) {
+      return Boolean.FALSE;
+
+    } else if (pExpr instanceof And) {
+      // And evaluates its second operand only if the first one can be evaluated
+      Boolean a = evalOnEdge(((And) pExpr).getA(), pEdge);
+      if (Boolean.FALSE.equals(a)) {
+        return Boolean.FALSE;
+      } else if (a == null) {
+        return null;
+      }
+      return evalOnEdge(((And) pExpr).getB(), pEdge);
+
+    } else if (pExpr instanceof Or) {
+      Boolean a = evalOnEdge(((Or) pExpr).getA(), pEdge);
+      Boolean b = evalOnEdge(((Or) pExpr).getB(), pEdge);
+      if (Boolean.TRUE.equals(a) || Boolean.TRUE.equals(b)) {
+        return Boolean.TRUE;
+      } else if (Boolean.FALSE.equals(a) && Boolean.FALSE.equals(b)) {
+        return Boolean.FALSE;
+      }
+      return null;
+
+    } else if (pExpr instanceof Negation) {
+      Boolean a = evalOnEdge(((Negation) pExpr).getA(), pEdge);
+      return a == null ? null : !a;
+
+    } else if (dependsOnlyOnEdge(pExpr)) {
+      // The arguments contain no state, variables, or other states,
+      // thus transition variables bound during the match are discarded.
+      AutomatonExpressionArguments args = new AutomatonExpressionArguments(null, null, null, pEdge, logger);
+      try {
+        ResultValue<Boolean> value = pExpr.eval(args);
+        return value.canNotEvaluate() ? null : value.getValue();
+      } catch (CPATransferException e) {
+        // let the regular evaluation report the problem
+        return null;
+      }
+    }
+    return null;
+  }
+
+  private static boolean dependsOnlyOnEdge(AutomatonBoolExpr pExpr) {
+    return pExpr instanceof MatchProgramExit
+        || pExpr instanceof MatchProgramEntry
+        || pExpr instanceof MatchLabelExact
+        || pExpr instanceof MatchLabelRegEx
+        || pExpr instanceof MatchCFAEdgeASTComparison
+        || pExpr instanceof MatchCFAEdgeRegEx
+        || pExpr instanceof MatchCFAEdgeExact
+        || pExpr instanceof MatchJavaAssert
+        || pExpr instanceof MatchAssumeEdge
+        || pExpr instanceof MatchAssumeCase
+        || pExpr instanceof MatchLocationDescriptor;
+  }
+}
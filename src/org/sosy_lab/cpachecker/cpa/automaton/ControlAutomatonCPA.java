@@ -110,6 +110,9 @@ public class ControlAutomatonCPA implements ConfigurableProgramAnalysis, Statist
   @Option(secure=true, description="Merge two automata states if one of them is TOP.")
   private boolean mergeOnTop  = false;
 
+  /** Set once the property of this automaton was found to be violated in multi-property mode. */
+  private volatile boolean targetsDisabled = false;
+
   private final Automaton automaton;
   private final AutomatonState topState = new AutomatonState.TOP(this);
   private final AutomatonState bottomState = new AutomatonState.BOTTOM(this);
@@ -200,7 +203,7 @@ public class ControlAutomatonCPA implements ConfigurableProgramAnalysis, Statist
     return new ControlAutomatonPrecisionAdjustment(pConfig, topState, lPrecisionAdjustment);
   }
 
-  Automaton getAutomaton() {
+  public Automaton getAutomaton() {
     return this.automaton;
   }
 
@@ -281,6 +284,21 @@ public class ControlAutomatonCPA implements ConfigurableProgramAnalysis, Statist
   }
 
   boolean isTreatingErrorsAsTargets() {
-    return treatErrorsAsTargets;
+    return treatErrorsAsTargets && !targetsDisabled;
+  }
+
+  /**
+   * Stop treating the error states of this automaton as targets.
+   * This is used if several properties are checked in one analysis:
+   * once a property is known to be violated, its error states should no longer
+   * stop the exploration of the state space for the remaining properties.
+   * Existing target states are not affected.
+   */
+  public void disableTargets() {
+    targetsDisabled = true;
+  }
+
+  public boolean areTargetsDisabled() {
+    return targetsDisabled;
   }
 }
@@ -44,6 +44,9 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CacheHandle;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CachePriority;
 
 import com.google.common.base.Preconditions;
 
@@ -74,6 +77,10 @@ public class BAMCache {
   private final Map<AbstractStateHash, Collection<AbstractState>> returnCache = new HashMap<>();
   private final Map<AbstractStateHash, ARGState> blockARGCache = new HashMap<>();
 
+  // Only the unprecise cache is cleared under memory pressure,
+  // the others are needed for refinement and cannot be recomputed.
+  private final CacheHandle unpreciseCacheHandle = MemoryGovernor.createCacheHandle(CachePriority.CHEAP);
+
   private ARGState lastAnalyzedBlock = null;
   private final Reducer reducer;
 
@@ -128,6 +135,9 @@ public class BAMCache {
    * Both members of the returned Pair are NULL, if there is a cache miss.
    * For a partial cache hit we return the partly computed reached-set and NULL as returnStates. */
   public Pair<ReachedSet, Collection<AbstractState>> get(final AbstractState stateKey, final Precision precisionKey, final Block context) {
+    if (unpreciseCacheHandle.shouldClear()) {
+      unpreciseReachedCache.clear();
+    }
 
     final Pair<ReachedSet, Collection<AbstractState>> pair = get0(stateKey, precisionKey, context);
     Preconditions.checkNotNull(pair);
@@ -185,6 +185,24 @@ public class BAMReachedSet extends ARGReachedSet.ForwardingARGReachedSet {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public void removeSubtrees(Collection<ARGState> pRoots) {
+    // the subtrees have to be removed from the cached sub-reached-sets one after another
+    for (ARGState root : pRoots) {
+      removeSubtree(root, Collections.<Precision>emptyList(),
+          Collections.<Predicate<? super Precision>>emptyList());
+    }
+  }
+
+  @Override
+  public void removeSubtrees(Map<ARGState, List<Precision>> pRootsWithPrecisions,
+      List<Predicate<? super Precision>> pPrecisionTypes) {
+    // the subtrees have to be removed from the cached sub-reached-sets one after another
+    for (Map.Entry<ARGState, List<Precision>> root : pRootsWithPrecisions.entrySet()) {
+      removeSubtree(root.getKey(), root.getValue(), pPrecisionTypes);
+    }
+  }
+
   @Override
   public String toString(){
     return "BAMReachedSet {{" + delegate.asReachedSet().asCollection().toString() + "}}";
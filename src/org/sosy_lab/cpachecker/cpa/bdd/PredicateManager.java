@@ -23,8 +23,10 @@
  */
 package org.sosy_lab.cpachecker.cpa.bdd;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.sosy_lab.common.configuration.Configuration;
@@ -41,8 +43,10 @@ import org.sosy_lab.cpachecker.util.VariableClassification;
 import org.sosy_lab.cpachecker.util.predicates.regions.NamedRegionManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.Region;
 
-/** This class guarantees a fixed order of variables in the BDD,
- * that should be good for the operations in the BitvectorManager. */
+/** This class guarantees a fixed initial order of variables in the BDD,
+ * that should be good for the operations in the BitvectorManager.
+ * If the BDD package reorders variables dynamically,
+ * the variables of a partition are moved only together as a block. */
 @Options(prefix = "cpa.bdd")
 public class PredicateManager {
 
@@ -58,6 +62,11 @@ public class PredicateManager {
   @Option(secure=true, description = "declare vars partitionwise")
   private boolean initPartitions = true;
 
+  @Option(secure=true, description = "keep the variables of each partition together as one block "
+      + "if the BDD package reorders variables dynamically (cf. option bdd.javabdd.dynamicReordering), "
+      + "such that reordering changes the order of whole partitions and the order inside each partition")
+  private boolean reorderPartitionsAsBlocks = true;
+
   protected static final String TMP_VARIABLE = "__CPAchecker_tmp_var";
   private final Map<Collection<String>, String> varsToTmpVar = new HashMap<>();
 
@@ -111,15 +120,20 @@ public class PredicateManager {
     MachineModel machineModel = cfa.getMachineModel();
     for (VariableClassification.Partition partition : partitions) {
       // maxBitSize is too much for most variables. we only create an order here, so this should not matter.
-      createPredicates(partition.getVars(), machineModel.getSizeofLongLongInt() * machineModel.getSizeofCharInBits());
+      List<Region> predicates = createPredicates(partition.getVars(),
+          machineModel.getSizeofLongLongInt() * machineModel.getSizeofCharInBits());
+      if (reorderPartitionsAsBlocks) {
+        rmgr.addVarBlock(predicates, false);
+      }
     }
   }
 
   /** This function declares variables for a given collection of vars.
    *
    * The value 'bitsize' chooses how much bits are used for each var.
-   * The varname is build as "varname@pos". */
-  public void createPredicates(final Collection<String> vars, final int bitsize) {
+   * The varname is build as "varname@pos".
+   * Returns the declared regions in the order of declaration. */
+  public List<Region> createPredicates(final Collection<String> vars, final int bitsize) {
 
     assert bitsize >= 1 : "you need at least one bit for a variable.";
 
@@ -127,6 +141,8 @@ public class PredicateManager {
     String tmpVar = TMP_VARIABLE + "_" + varsToTmpVar.size();
     varsToTmpVar.put(vars, tmpVar);
 
+    final List<Region> declared = new ArrayList<>();
+
     // bitvectors [a2, a1, a0]
     // 'initBitwise' chooses between initialing each var separately or bitwise overlapped.
     if (initBitwise) {
@@ -136,11 +152,11 @@ public class PredicateManager {
       for (int i = 0; i < bitsize; i++) {
         int index = initBitsIncreasing ? i : (bitsize - i - 1);
         for (String var : vars) {
-          createPredicateDirectly(var, index);
+          declared.add(createPredicateDirectly(var, index));
           isTrackingSomething = true;
         }
         if (isTrackingSomething) {
-          createPredicateDirectly(tmpVar, index);
+          declared.add(createPredicateDirectly(tmpVar, index));
         }
       }
 
@@ -150,17 +166,19 @@ public class PredicateManager {
       for (String var : vars) { // different loop order!
         for (int i = 0; i < bitsize; i++) {
           int index = initBitsIncreasing ? i : (bitsize - i - 1);
-          createPredicateDirectly(var, index);
+          declared.add(createPredicateDirectly(var, index));
           isTrackingSomething = true;
         }
       }
       if (isTrackingSomething) {
         for (int i = 0; i < bitsize; i++) {
           int index = initBitsIncreasing ? i : (bitsize - i - 1);
-          createPredicateDirectly(tmpVar, index);
+          declared.add(createPredicateDirectly(tmpVar, index));
         }
       }
     }
+
+    return declared;
   }
 
   /** This function returns a region for a variable.
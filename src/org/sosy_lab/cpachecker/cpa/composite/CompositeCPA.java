@@ -27,6 +27,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -73,6 +75,17 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
     description="inform Composite CPA if it is run in a CPA enabled analysis because then it must "
       + "behave differntly during merge.")
     private boolean inCPAEnabledAnalysis = false;
+
+    @Option(secure=true,
+        description="Measure time, number of calls, and number of successors "
+          + "of the operators of each component CPA and print them as a ranked table. "
+          + "This adds a small overhead to every operator call.")
+    private boolean profiling = false;
+
+    @Option(secure=true, name="profiling.allocations",
+        description="Also measure the memory allocated by the operators of each component CPA "
+          + "(requires that the JVM supports measuring allocations per thread).")
+    private boolean profileAllocations = false;
   }
 
   private static class CompositeCPAFactory extends AbstractCPAFactory {
@@ -100,6 +113,11 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
 
       PredicateAbstractionManager abmgr = null;
 
+      CompositeProfiler profiler = null;
+      if (options.profiling) {
+        profiler = new CompositeProfiler(cpas, options.profileAllocations, getLogger());
+      }
+
       for (ConfigurableProgramAnalysis sp : cpas) {
         if (sp instanceof org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA) {
           abmgr = ((org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA)sp).getPredicateManager();
@@ -138,7 +156,7 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
           }
         } else {
           if (options.merge.equals("AGREE")) {
-            compositeMerge = new CompositeMergeAgreeOperator(mergeOperators.build(), stopOps);
+            compositeMerge = new CompositeMergeAgreeOperator(mergeOperators.build(), stopOps, profiler);
           } else if (options.merge.equals("PLAIN")) {
             compositeMerge = new CompositeMergePlainOperator(mergeOperators.build());
           } else {
@@ -148,19 +166,19 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
       }
 
       CompositeDomain compositeDomain = new CompositeDomain(domains.build());
-      CompositeTransferRelation compositeTransfer = new CompositeTransferRelation(transferRelations.build(), getConfiguration(), cfa);
-      CompositeStopOperator compositeStop = new CompositeStopOperator(stopOps);
+      CompositeTransferRelation compositeTransfer = new CompositeTransferRelation(transferRelations.build(), getConfiguration(), cfa, profiler);
+      CompositeStopOperator compositeStop = new CompositeStopOperator(stopOps, profiler);
 
       PrecisionAdjustment compositePrecisionAdjustment;
-      if (simplePrec) {
+      if (simplePrec && profiler == null) {
         compositePrecisionAdjustment = new CompositeSimplePrecisionAdjustment(simplePrecisionAdjustments.build());
       } else {
         compositePrecisionAdjustment =
-            new CompositePrecisionAdjustment(precisionAdjustments.build());
+            new CompositePrecisionAdjustment(precisionAdjustments.build(), profiler);
       }
 
       return new CompositeCPA(compositeDomain, compositeTransfer, compositeMerge, compositeStop,
-          compositePrecisionAdjustment, cpas);
+          compositePrecisionAdjustment, cpas, profiler);
     }
 
     @Override
@@ -198,6 +216,7 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
   private final CompositeStopOperator stopOperator;
   private final PrecisionAdjustment precisionAdjustment;
   private final Reducer reducer;
+  private final @Nullable CompositeProfiler profiler;
 
   private final ImmutableList<ConfigurableProgramAnalysis> cpas;
 
@@ -206,13 +225,15 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
       MergeOperator mergeOperator,
       CompositeStopOperator stopOperator,
       PrecisionAdjustment precisionAdjustment,
-      ImmutableList<ConfigurableProgramAnalysis> cpas) {
+      ImmutableList<ConfigurableProgramAnalysis> cpas,
+      @Nullable CompositeProfiler profiler) {
     this.abstractDomain = abstractDomain;
     this.transferRelation = transferRelation;
     this.mergeOperator = mergeOperator;
     this.stopOperator = stopOperator;
     this.precisionAdjustment = precisionAdjustment;
     this.cpas = cpas;
+    this.profiler = profiler;
 
     List<Reducer> wrappedReducers = new ArrayList<>();
     for (ConfigurableProgramAnalysis cpa : cpas) {
@@ -294,6 +315,10 @@ public class CompositeCPA implements ConfigurableProgramAnalysis, StatisticsProv
     if (precisionAdjustment instanceof StatisticsProvider) {
       ((StatisticsProvider)precisionAdjustment).collectStatistics(pStatsCollection);
     }
+
+    if (profiler != null) {
+      pStatsCollection.add(profiler);
+    }
   }
 
   @Override
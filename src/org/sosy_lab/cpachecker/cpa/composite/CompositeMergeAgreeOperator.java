@@ -29,11 +29,14 @@ import static com.google.common.collect.FluentIterable.from;
 import java.util.Collections;
 import java.util.Iterator;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.NonMergeableAbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeProfiler.Operator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 import com.google.common.base.Predicate;
@@ -58,10 +61,17 @@ public class CompositeMergeAgreeOperator implements MergeOperator {
 
   private final ImmutableList<MergeOperator> mergeOperators;
   private final ImmutableList<StopOperator> stopOperators;
+  private final @Nullable CompositeProfiler profiler;
 
   public CompositeMergeAgreeOperator(ImmutableList<MergeOperator> mergeOperators, ImmutableList<StopOperator> stopOperators) {
+    this(mergeOperators, stopOperators, null);
+  }
+
+  CompositeMergeAgreeOperator(ImmutableList<MergeOperator> mergeOperators, ImmutableList<StopOperator> stopOperators,
+      @Nullable CompositeProfiler pProfiler) {
     this.mergeOperators = mergeOperators;
     this.stopOperators  = stopOperators;
+    this.profiler = pProfiler;
   }
 
   @Override
@@ -89,6 +99,7 @@ public class CompositeMergeAgreeOperator implements MergeOperator {
     Iterator<Precision> precIter      = compPrecision.getPrecisions().iterator();
 
     boolean identicalStates = true;
+    int component = 0;
     for (MergeOperator mergeOp : mergeOperators) {
       AbstractState absSuccessorState = comp1Iter.next();
       AbstractState absReachedState   = comp2Iter.next();
@@ -96,11 +107,25 @@ public class CompositeMergeAgreeOperator implements MergeOperator {
       Precision prec      = precIter.next();
       StopOperator stopOp = stopIter.next();
 
+      long allocated = 0;
+      long start = 0;
+      if (profiler != null) {
+        allocated = profiler.getAllocatedBytes();
+        start = System.nanoTime();
+      }
+
       AbstractState mergedState = mergeOp.merge(absSuccessorState, absReachedState, prec);
 
       // Check if 'mergedState' also covers 'absSuccessorState', i.e., if 'mergeOp' performed a join.
       // By definition of MergeOperator, we know it covers 'absReachedState'.
-      if (!stopOp.stop(absSuccessorState, Collections.singleton(mergedState), prec)) {
+      boolean covered = stopOp.stop(absSuccessorState, Collections.singleton(mergedState), prec);
+
+      if (profiler != null) {
+        profiler.stop(Operator.MERGE, component, start, allocated);
+      }
+      component++;
+
+      if (!covered) {
         // the result of merge does not cover 'absSuccessorState'
         // (which is the successor state currently considered by the CPAAlgorithm
         // We prevent merging for all CPAs in this case, because the current successor
@@ -0,0 +1,206 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.composite;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Collects the time, the number of calls, the number of produced successors,
+ * and optionally the number of allocated bytes
+ * for each operator of each component CPA of a {@link CompositeCPA}.
+ *
+ * The composite operators remember the current time and {@link #getAllocatedBytes()}
+ * before delegating to a component, and call {@link #stop(Operator, int, long, long, int)} afterwards.
+ * Nothing is synchronized, so the numbers are only reliable
+ * if the analysis is single-threaded (like the {@link org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm}).
+ */
+class CompositeProfiler implements Statistics {
+
+  enum Operator {
+    TRANSFER("Transfer"),
+    STRENGTHEN("Strengthen"),
+    MERGE("Merge"),
+    STOP("Stop"),
+    PREC("Prec");
+
+    private final String title;
+
+    private Operator(String pTitle) {
+      title = pTitle;
+    }
+  }
+
+  private static final int OPERATORS = Operator.values().length;
+
+  private final ImmutableList<String> componentNames;
+
+  // indexed by component * OPERATORS + operator
+  private final long[] time;
+  private final long[] calls;
+  private final long[] successors;
+  private final long[] allocatedBytes;
+
+  private final com.sun.management.ThreadMXBean threadBean;
+
+  CompositeProfiler(List<ConfigurableProgramAnalysis> pCpas, boolean pTrackAllocations,
+      LogManager pLogger) {
+    ImmutableList.Builder<String> names = ImmutableList.builder();
+    for (ConfigurableProgramAnalysis cpa : pCpas) {
+      names.add(cpa.getClass().getSimpleName());
+    }
+    componentNames = names.build();
+
+    int size = componentNames.size() * OPERATORS;
+    time = new long[size];
+    calls = new long[size];
+    successors = new long[size];
+    allocatedBytes = new long[size];
+
+    com.sun.management.ThreadMXBean bean = null;
+    if (pTrackAllocations) {
+      java.lang.management.ThreadMXBean genericBean = ManagementFactory.getThreadMXBean();
+      if (genericBean instanceof com.sun.management.ThreadMXBean
+          && ((com.sun.management.ThreadMXBean)genericBean).isThreadAllocatedMemorySupported()) {
+        bean = (com.sun.management.ThreadMXBean)genericBean;
+        bean.setThreadAllocatedMemoryEnabled(true);
+      } else {
+        pLogger.log(Level.WARNING, "Your Java VM does not support measuring allocated memory per thread, "
+            + "profiling of the composite CPA will not report allocations.");
+      }
+    }
+    threadBean = bean;
+  }
+
+  /**
+   * Return the number of bytes allocated so far by the current thread
+   * (or 0 if allocations are not tracked),
+   * to be passed to {@link #stop(Operator, int, long, long, int)}.
+   */
+  long getAllocatedBytes() {
+    return threadBean != null ? threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+  }
+
+  /**
+   * Record one call to an operator of a component.
+   * @param op The operator.
+   * @param component The index of the component CPA.
+   * @param startTime The value of {@link System#nanoTime()} before the call.
+   * @param startAllocated The value of {@link #getAllocatedBytes()} before the call.
+   * @param produced The number of states produced by the call (0 for operators without successors).
+   */
+  void stop(Operator op, int component, long startTime, long startAllocated, int produced) {
+    long endTime = System.nanoTime();
+    int index = component * OPERATORS + op.ordinal();
+    time[index] += endTime - startTime;
+    calls[index]++;
+    successors[index] += produced;
+    if (threadBean != null) {
+      allocatedBytes[index] += threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - startAllocated;
+    }
+  }
+
+  void stop(Operator op, int component, long startTime, long startAllocated) {
+    stop(op, component, startTime, startAllocated, 0);
+  }
+
+  @Override
+  public String getName() {
+    return "CompositeCPA profiling";
+  }
+
+  @Override
+  public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
+    List<Integer> ranking = new ArrayList<>(componentNames.size());
+    for (int i = 0; i < componentNames.size(); i++) {
+      ranking.add(i);
+    }
+    Collections.sort(ranking, new Comparator<Integer>() {
+        @Override
+        public int compare(Integer pA, Integer pB) {
+          return Long.compare(totalTime(pB), totalTime(pA));
+        }
+      });
+
+    int nameWidth = "Component".length();
+    for (String name : componentNames) {
+      nameWidth = Math.max(nameWidth, name.length());
+    }
+
+    out.println("Time, number of calls, and successors per call of each operator:");
+    StringBuilder header = new StringBuilder(String.format("%-" + nameWidth + "s %10s", "Component", "Total"));
+    for (Operator op : Operator.values()) {
+      header.append(String.format(" | %-28s", op.title));
+    }
+    if (threadBean != null) {
+      header.append(String.format(" | %12s", "Allocated"));
+    }
+    out.println(header);
+
+    for (int component : ranking) {
+      StringBuilder line = new StringBuilder(String.format("%-" + nameWidth + "s %10s",
+          componentNames.get(component), formatTime(totalTime(component))));
+      long allocated = 0;
+      for (Operator op : Operator.values()) {
+        int index = component * OPERATORS + op.ordinal();
+        String fanOut = (op == Operator.TRANSFER || op == Operator.STRENGTHEN) && calls[index] > 0
+            ? String.format("%.2f", (double)successors[index] / calls[index])
+            : "-";
+        line.append(String.format(" | %10s %10d %6s", formatTime(time[index]), calls[index], fanOut));
+        allocated += allocatedBytes[index];
+      }
+      if (threadBean != null) {
+        line.append(String.format(" | %10dMB", allocated >> 20));
+      }
+      out.println(line);
+    }
+  }
+
+  private long totalTime(int component) {
+    long sum = 0;
+    for (int op = 0; op < OPERATORS; op++) {
+      sum += time[component * OPERATORS + op];
+    }
+    return sum;
+  }
+
+  private static String formatTime(long nanos) {
+    return TimeSpan.ofNanos(nanos).formatAs(TimeUnit.SECONDS);
+  }
+}
@@ -29,12 +29,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.ForcedCoveringStopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeProfiler.Operator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 import com.google.common.collect.ImmutableList;
@@ -42,9 +45,15 @@ import com.google.common.collect.ImmutableList;
 public class CompositeStopOperator implements StopOperator, ForcedCoveringStopOperator {
 
   protected final ImmutableList<StopOperator> stopOperators;
+  private final @Nullable CompositeProfiler profiler;
 
   public CompositeStopOperator(ImmutableList<StopOperator> stopOperators) {
+    this(stopOperators, null);
+  }
+
+  CompositeStopOperator(ImmutableList<StopOperator> stopOperators, @Nullable CompositeProfiler pProfiler) {
     this.stopOperators = stopOperators;
+    this.profiler = pProfiler;
   }
 
   @Override
@@ -74,7 +83,17 @@ public class CompositeStopOperator implements StopOperator, ForcedCoveringStopOp
       AbstractState absElem2 = compositeReachedStates.get(idx);
       Precision prec = compositePrecisions.get(idx);
 
-      if (!stopOp.stop(absElem1, Collections.singleton(absElem2), prec)) {
+      boolean stop;
+      if (profiler == null) {
+        stop = stopOp.stop(absElem1, Collections.singleton(absElem2), prec);
+      } else {
+        long allocated = profiler.getAllocatedBytes();
+        long start = System.nanoTime();
+        stop = stopOp.stop(absElem1, Collections.singleton(absElem2), prec);
+        profiler.stop(Operator.STOP, idx, start, allocated);
+      }
+
+      if (!stop) {
         return false;
       }
     }
@@ -35,6 +35,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -54,6 +56,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.cpa.assumptions.storage.AssumptionStorageTransferRelation;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeProfiler.Operator;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
@@ -84,13 +87,21 @@ public final class CompositeTransferRelation implements TransferRelation {
   private final int size;
   private int assumptionIndex = -1;
   private int predicatesIndex = -1;
+  private final @Nullable CompositeProfiler profiler;
 
   public CompositeTransferRelation(ImmutableList<TransferRelation> pTransferRelations,
       Configuration pConfig, CFA pCFA) throws InvalidConfigurationException {
+    this(pTransferRelations, pConfig, pCFA, null);
+  }
+
+  CompositeTransferRelation(ImmutableList<TransferRelation> pTransferRelations,
+      Configuration pConfig, CFA pCFA, @Nullable CompositeProfiler pProfiler)
+          throws InvalidConfigurationException {
     pConfig.inject(this);
     transferRelations = pTransferRelations;
     cfa = pCFA;
     size = pTransferRelations.size();
+    profiler = pProfiler;
 
     // prepare special case handling if both predicates and assumptions are used
     for (int i = 0; i < size; i++) {
@@ -306,8 +317,16 @@ public final class CompositeTransferRelation implements TransferRelation {
       Precision lCurrentPrecision = compositePrecision.get(i);
 
       Collection<? extends AbstractState> componentSuccessors;
-      componentSuccessors = lCurrentTransfer.getAbstractSuccessorsForEdge(
-          lCurrentElement, lCurrentPrecision, cfaEdge);
+      if (profiler == null) {
+        componentSuccessors = lCurrentTransfer.getAbstractSuccessorsForEdge(
+            lCurrentElement, lCurrentPrecision, cfaEdge);
+      } else {
+        long allocated = profiler.getAllocatedBytes();
+        long start = System.nanoTime();
+        componentSuccessors = lCurrentTransfer.getAbstractSuccessorsForEdge(
+            lCurrentElement, lCurrentPrecision, cfaEdge);
+        profiler.stop(Operator.TRANSFER, i, start, allocated, componentSuccessors.size());
+      }
       resultCount *= componentSuccessors.size();
 
       if (resultCount == 0) {
@@ -335,7 +354,15 @@ public final class CompositeTransferRelation implements TransferRelation {
       AbstractState lCurrentElement = reachedState.get(i);
       Precision lCurrentPrecision = compositePrecision.get(i);
 
-      Collection<? extends AbstractState> lResultsList = lCurrentTransfer.strengthen(lCurrentElement, reachedState, cfaEdge, lCurrentPrecision);
+      Collection<? extends AbstractState> lResultsList;
+      if (profiler == null) {
+        lResultsList = lCurrentTransfer.strengthen(lCurrentElement, reachedState, cfaEdge, lCurrentPrecision);
+      } else {
+        long allocated = profiler.getAllocatedBytes();
+        long start = System.nanoTime();
+        lResultsList = lCurrentTransfer.strengthen(lCurrentElement, reachedState, cfaEdge, lCurrentPrecision);
+        profiler.stop(Operator.STRENGTHEN, i, start, allocated, lResultsList == null ? 1 : lResultsList.size());
+      }
 
       if (lResultsList == null) {
         lStrengthenResults.add(Collections.singleton(lCurrentElement));
@@ -59,7 +59,7 @@ import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
  * Configurable Program Analysis that tracks constraints for analysis.
  */
 @Options(prefix = "cpa.constraints")
-public class ConstraintsCPA implements ConfigurableProgramAnalysis, StatisticsProvider {
+public class ConstraintsCPA implements ConfigurableProgramAnalysis, StatisticsProvider, AutoCloseable {
 
   public enum ComparisonType { SUBSET, ALIASED_SUBSET, IMPLICATION }
 
@@ -76,7 +76,7 @@ public class ConstraintsCPA implements ConfigurableProgramAnalysis, StatisticsPr
   private AbstractDomain abstractDomain;
   private MergeOperator mergeOperator;
   private StopOperator stopOperator;
-  private TransferRelation transferRelation;
+  private ConstraintsTransferRelation transferRelation;
   private ConstraintsPrecisionAdjustment precisionAdjustment;
   private ConstraintsPrecision precision;
 
@@ -182,9 +182,21 @@ public class ConstraintsCPA implements ConfigurableProgramAnalysis, StatisticsPr
   @Override
   public void collectStatistics(Collection<Statistics> statsCollection) {
     precisionAdjustment.collectStatistics(statsCollection);
+    solver.collectStatistics(statsCollection);
+    transferRelation.collectStatistics(statsCollection);
 
     if (mergeOperator instanceof Statistics) {
       statsCollection.add((Statistics) mergeOperator);
     }
   }
+
+  @Override
+  public void close() throws Exception {
+    // the prover of the transfer relation needs to be closed before the solver
+    try {
+      transferRelation.close();
+    } finally {
+      solver.close();
+    }
+  }
 }
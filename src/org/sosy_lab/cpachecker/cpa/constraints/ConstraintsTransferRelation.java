@@ -61,11 +61,15 @@ import org.sosy_lab.cpachecker.core.defaults.ForwardingTransferRelation;
 import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonState;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.ConstraintFactory;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.ConstraintTrivialityChecker;
 import org.sosy_lab.cpachecker.cpa.constraints.constraint.IdentifierAssignment;
+import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsCache;
+import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsProverStack;
 import org.sosy_lab.cpachecker.cpa.constraints.domain.ConstraintsState;
 import org.sosy_lab.cpachecker.cpa.constraints.util.StateSimplifier;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
@@ -87,7 +91,8 @@ import com.google.common.collect.Iterables;
  */
 @Options(prefix = "cpa.constraints")
 public class ConstraintsTransferRelation
-    extends ForwardingTransferRelation<ConstraintsState, ConstraintsState, SingletonPrecision> {
+    extends ForwardingTransferRelation<ConstraintsState, ConstraintsState, SingletonPrecision>
+    implements StatisticsProvider {
 
   private enum CheckStrategy { AT_ASSUME, AT_TARGET }
 
@@ -95,6 +100,16 @@ public class ConstraintsTransferRelation
       description = "When to check the satisfiability of constraints")
   private CheckStrategy checkStrategy = CheckStrategy.AT_ASSUME;
 
+  @Option(secure=true, description = "Check the satisfiability of constraints incrementally:"
+      + " all states share one prover stack and only the constraints not yet on it are pushed."
+      + " All satisfiability checks of constraints are serialized on this stack.")
+  private boolean incrementalSolving = false;
+
+  @Option(secure=true, description = "Split the constraints of a state into sets that share no"
+      + " symbolic identifiers and only solve the sets whose satisfiability is not yet known."
+      + " Known sets and unsat cores are cached for all states. Can not be combined with"
+      + " incremental solving.")
+  private boolean useCache = false;
 
   private final LogManagerWithoutDuplicates logger;
 
@@ -104,6 +119,8 @@ public class ConstraintsTransferRelation
   private FormulaManagerView formulaManager;
   private CtoFormulaConverter converter;
   private StateSimplifier simplifier;
+  private final ConstraintsProverStack proverStack;
+  private final ConstraintsCache cache;
 
   public ConstraintsTransferRelation(
       final Solver pSolver,
@@ -121,6 +138,12 @@ public class ConstraintsTransferRelation
 
     solver = pSolver;
     formulaManager = solver.getFormulaManager();
+    if (incrementalSolving && useCache) {
+      throw new InvalidConfigurationException(
+          "Incremental solving and caching of constraints can not be used together.");
+    }
+    proverStack = incrementalSolving ? new ConstraintsProverStack(solver) : null;
+    cache = useCache ? new ConstraintsCache() : null;
     initializeCToFormulaConverter(pLogger, pConfig, pShutdownNotifier);
   }
 
@@ -213,7 +236,7 @@ public class ConstraintsTransferRelation
 
     final IdentifierAssignment definiteAssignment = pOldState.getDefiniteAssignment();
     FormulaCreator formulaCreator = getFormulaCreator(pFunctionName);
-    newState.initialize(solver, formulaManager, formulaCreator);
+    newState.initialize(solver, formulaManager, formulaCreator, proverStack, cache);
 
     if (oNewConstraint.isPresent()) {
       final Constraint newConstraint = oNewConstraint.get();
@@ -241,6 +264,25 @@ public class ConstraintsTransferRelation
     return pOldState;
   }
 
+  /**
+   * Close the prover stack that is shared by all states, if incremental solving is used.
+   */
+  void close() {
+    if (proverStack != null) {
+      proverStack.close();
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (proverStack != null) {
+      pStatsCollection.add(proverStack);
+    }
+    if (cache != null) {
+      pStatsCollection.add(cache);
+    }
+  }
+
   private FormulaCreator getFormulaCreator(String pFunctionName) {
     return new FormulaCreatorUsingCConverter(formulaManager, getConverter(), pFunctionName);
   }
@@ -0,0 +1,227 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
+import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicIdentifier;
+import org.sosy_lab.cpachecker.cpa.value.symbolic.util.SymbolicIdentifierLocator;
+import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Cache for the satisfiability of independent sets of {@link Constraint}s,
+ * shared by all {@link ConstraintsState}s of an analysis.
+ *
+ * <p>The constraints of a state are split into independent sets,
+ * i.e., sets that do not share any {@link SymbolicIdentifier}
+ * (cf. {@link #getIndependentSets(Collection)}).
+ * The conjunction of all constraints is satisfiable iff each of these sets is satisfiable,
+ * and a new constraint only changes the set it belongs to,
+ * so all other sets of a successor state can be answered by this cache.</p>
+ *
+ * <p>Besides exact matches, the cache answers queries using subset relations:
+ * a set is satisfiable if a known satisfiable set contains it,
+ * and it is unsatisfiable if it contains a known unsat core.</p>
+ */
+public final class ConstraintsCache extends AbstractStatistics {
+
+  private final SymbolicIdentifierLocator locator = SymbolicIdentifierLocator.getInstance();
+
+  /** All known satisfiable sets, indexed by each of their constraints. */
+  private final Map<Constraint, List<Set<Constraint>>> satSets = new HashMap<>();
+
+  /** All known unsat cores, indexed by one of their constraints. */
+  private final Map<Constraint, List<Set<Constraint>>> unsatCores = new HashMap<>();
+
+  private final StatCounter queries = new StatCounter("Number of queries");
+  private final StatCounter exactSatHits = new StatCounter("Number of exact hits (sat)");
+  private final StatCounter supersetSatHits = new StatCounter("Number of hits by superset (sat)");
+  private final StatCounter unsatCoreHits = new StatCounter("Number of hits by unsat core (unsat)");
+  private final StatInt setSizes = new StatInt(StatKind.AVG, "Size of queried sets");
+  private final StatInt coreSizes = new StatInt(StatKind.AVG, "Size of unsat cores");
+
+  /**
+   * Splits the given constraints into sets that do not share any symbolic identifier.
+   * Constraints without identifiers form a set of their own.
+   *
+   * @param pConstraints the constraints to split
+   * @return the independent sets, in the order of the first constraint of each set
+   */
+  List<Set<Constraint>> getIndependentSets(Collection<Constraint> pConstraints) {
+    List<Set<Constraint>> sets = new ArrayList<>();
+    Map<SymbolicIdentifier, Set<Constraint>> setOfIdentifier = new HashMap<>();
+
+    for (Constraint constraint : pConstraints) {
+      Set<Constraint> set = new LinkedHashSet<>();
+      set.add(constraint);
+      Set<SymbolicIdentifier> ownIdentifiers = constraint.accept(locator);
+      Set<SymbolicIdentifier> identifiers = new HashSet<>(ownIdentifiers);
+
+      for (SymbolicIdentifier id : ownIdentifiers) {
+        Set<Constraint> other = setOfIdentifier.get(id);
+        if (other != null && other != set) {
+          // merge the other set into the current one
+          set.addAll(other);
+          for (Constraint c : other) {
+            identifiers.addAll(c.accept(locator));
+          }
+          removeByIdentity(sets, other);
+        }
+      }
+
+      for (SymbolicIdentifier id : identifiers) {
+        setOfIdentifier.put(id, set);
+      }
+      sets.add(set);
+    }
+    return sets;
+  }
+
+  private static void removeByIdentity(List<Set<Constraint>> pSets, Set<Constraint> pSet) {
+    for (int i = 0; i < pSets.size(); i++) {
+      if (pSets.get(i) == pSet) {
+        pSets.remove(i);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Looks up whether the given set of constraints is known to be unsatisfiable.
+   *
+   * @param pConstraints the set of constraints to check
+   * @return <code>true</code> if the set is known to be unsatisfiable,
+   *    <code>false</code> if it is known to be satisfiable,
+   *    and an absent value if this is not known
+   */
+  synchronized Optional<Boolean> isUnsat(Set<Constraint> pConstraints) {
+    queries.inc();
+    setSizes.setNextValue(pConstraints.size());
+
+    // a satisfiable set is contained in all satisfiable sets that are indexed by any of its elements,
+    // so it is enough to look at the shortest list
+    List<Set<Constraint>> candidates = null;
+    for (Constraint c : pConstraints) {
+      List<Set<Constraint>> sets = satSets.get(c);
+      if (sets == null) {
+        candidates = null;
+        break;
+      }
+      if (candidates == null || sets.size() < candidates.size()) {
+        candidates = sets;
+      }
+    }
+    if (candidates != null) {
+      for (Set<Constraint> satSet : candidates) {
+        if (satSet.containsAll(pConstraints)) {
+          if (satSet.size() == pConstraints.size()) {
+            exactSatHits.inc();
+          } else {
+            supersetSatHits.inc();
+          }
+          return Optional.of(false);
+        }
+      }
+    }
+
+    for (Constraint c : pConstraints) {
+      List<Set<Constraint>> cores = unsatCores.get(c);
+      if (cores != null) {
+        for (Set<Constraint> core : cores) {
+          if (pConstraints.containsAll(core)) {
+            unsatCoreHits.inc();
+            return Optional.of(true);
+          }
+        }
+      }
+    }
+
+    return Optional.absent();
+  }
+
+  /**
+   * Stores that the given set of constraints is satisfiable.
+   */
+  synchronized void putSat(Set<Constraint> pConstraints) {
+    Set<Constraint> set = ImmutableSet.copyOf(pConstraints);
+    for (Constraint c : set) {
+      List<Set<Constraint>> sets = satSets.get(c);
+      if (sets == null) {
+        sets = new ArrayList<>(1);
+        satSets.put(c, sets);
+      }
+      sets.add(set);
+    }
+  }
+
+  /**
+   * Stores an unsatisfiable subset of constraints.
+   *
+   * @param pCore a set of constraints that is unsatisfiable; must not be empty
+   */
+  synchronized void putUnsat(Set<Constraint> pCore) {
+    Set<Constraint> core = ImmutableSet.copyOf(pCore);
+    coreSizes.setNextValue(core.size());
+
+    Constraint key = core.iterator().next();
+    List<Set<Constraint>> cores = unsatCores.get(key);
+    if (cores == null) {
+      cores = new ArrayList<>(1);
+      unsatCores.put(key, cores);
+    }
+    cores.add(core);
+  }
+
+  @Override
+  public String getName() {
+    return "Constraints cache";
+  }
+
+  @Override
+  public synchronized void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+    put(pOut, 0, queries);
+    put(pOut, 1, exactSatHits);
+    put(pOut, 1, supersetSatHits);
+    put(pOut, 1, unsatCoreHits);
+    put(pOut, 0, setSizes);
+    put(pOut, 0, coreSizes);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.Type;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
+import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicExpression;
+import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicValueFactory;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Unit tests for {@link ConstraintsCache}
+ */
+public class ConstraintsCacheTest {
+
+  private final SymbolicValueFactory factory = SymbolicValueFactory.getInstance();
+  private final Type defType = CNumericTypes.INT;
+
+  private final SymbolicExpression idExp1 = factory.asConstant(factory.newIdentifier(), defType);
+  private final SymbolicExpression idExp2 = factory.asConstant(factory.newIdentifier(), defType);
+  private final SymbolicExpression idExp3 = factory.asConstant(factory.newIdentifier(), defType);
+  private final SymbolicExpression numExp1 = factory.asConstant(new NumericValue(1), defType);
+
+  private final Constraint id1GreaterOne = (Constraint) factory.greaterThan(idExp1, numExp1, defType, defType);
+  private final Constraint id2GreaterOne = (Constraint) factory.greaterThan(idExp2, numExp1, defType, defType);
+  private final Constraint id3GreaterOne = (Constraint) factory.greaterThan(idExp3, numExp1, defType, defType);
+  private final Constraint id1LessId3 = (Constraint) factory.lessThan(idExp1, idExp3, defType, defType);
+  private final Constraint id1EqualsOne = factory.equal(idExp1, numExp1, defType, defType);
+
+  @Test
+  public void testGetIndependentSets_merge() {
+    ConstraintsCache cache = new ConstraintsCache();
+
+    List<Set<Constraint>> sets = cache.getIndependentSets(
+        ImmutableList.of(id1GreaterOne, id2GreaterOne, id3GreaterOne, id1LessId3));
+
+    Assert.assertEquals(2, sets.size());
+    Assert.assertTrue(sets.contains(ImmutableSet.of(id2GreaterOne)));
+    Assert.assertTrue(sets.contains(ImmutableSet.of(id1GreaterOne, id3GreaterOne, id1LessId3)));
+  }
+
+  @Test
+  public void testIsUnsat_superset() {
+    ConstraintsCache cache = new ConstraintsCache();
+    cache.putSat(ImmutableSet.of(id1GreaterOne, id3GreaterOne, id1LessId3));
+
+    Assert.assertEquals(Optional.of(false), cache.isUnsat(ImmutableSet.of(id1GreaterOne, id1LessId3)));
+    Assert.assertEquals(Optional.absent(), cache.isUnsat(ImmutableSet.of(id1GreaterOne, id2GreaterOne)));
+  }
+
+  @Test
+  public void testIsUnsat_unsatCore() {
+    ConstraintsCache cache = new ConstraintsCache();
+    cache.putUnsat(ImmutableSet.of(id1GreaterOne, id1EqualsOne));
+
+    Assert.assertEquals(Optional.of(true),
+        cache.isUnsat(ImmutableSet.of(id1GreaterOne, id1LessId3, id1EqualsOne)));
+    Assert.assertEquals(Optional.absent(), cache.isUnsat(ImmutableSet.of(id1EqualsOne)));
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.cpa.constraints.FormulaCreator;
+import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
+import org.sosy_lab.cpachecker.exceptions.UnrecognizedCCodeException;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.solver.api.ProverEnvironment;
+
+/**
+ * A prover environment that is shared by all {@link ConstraintsState}s of an analysis.
+ * Each constraint of a state is pushed on its own level of the stack.
+ * Before checking a state, the stack is popped down to the longest prefix
+ * of constraints the state shares with the stack, and only the remaining constraints are pushed.
+ * Because successors only append constraints to the list of their predecessor,
+ * checking a successor usually requires exactly one push,
+ * and switching to a sibling branch one pop and one push.
+ *
+ * <p>The constraints are pushed without definite assignments,
+ * so that the formulas on the stack are valid for all states sharing them.</p>
+ *
+ * <p>Users have to synchronize on this object while they work with the prover.
+ * Thus all satisfiability checks of constraints states of one analysis are serialized,
+ * even if the analysis uses several threads.</p>
+ *
+ * <p>The prover is closed by {@link #close()} when the CPA is closed.</p>
+ */
+public final class ConstraintsProverStack extends AbstractStatistics implements AutoCloseable {
+
+  private final ProverEnvironment prover;
+
+  /** The constraints currently on the stack, one push level each. */
+  private final List<Constraint> pushedConstraints = new ArrayList<>();
+
+  private boolean closed = false;
+
+  private final StatCounter checks = new StatCounter("Number of checks");
+  private final StatCounter pushes = new StatCounter("Number of pushed constraints");
+  private final StatCounter pops = new StatCounter("Number of popped constraints");
+  private final StatInt reused = new StatInt(StatKind.SUM, "Number of reused constraints");
+
+  public ConstraintsProverStack(Solver pSolver) {
+    prover = pSolver.newProverEnvironmentWithModelGeneration();
+  }
+
+  /**
+   * Brings the stack to the given constraints and returns the prover.
+   * The caller may push further formulas on the returned prover,
+   * but has to pop them again before calling this method the next time.
+   *
+   * @param pConstraints the constraints of the state to check, in the order they were added
+   * @param pFormulaCreator the formula creator to use for constraints that are not yet on the stack
+   * @return the prover holding exactly the given constraints
+   */
+  ProverEnvironment setConstraints(List<Constraint> pConstraints, FormulaCreator pFormulaCreator)
+      throws UnrecognizedCCodeException, InterruptedException {
+    checkState(!closed, "Prover stack is already closed");
+    checks.inc();
+
+    int common = 0;
+    final int maxCommon = Math.min(pConstraints.size(), pushedConstraints.size());
+    while (common < maxCommon && pushedConstraints.get(common).equals(pConstraints.get(common))) {
+      common++;
+    }
+
+    while (pushedConstraints.size() > common) {
+      prover.pop();
+      pushedConstraints.remove(pushedConstraints.size() - 1);
+      pops.inc();
+    }
+    reused.setNextValue(common);
+
+    for (int i = common; i < pConstraints.size(); i++) {
+      Constraint constraint = pConstraints.get(i);
+      prover.push(pFormulaCreator.createFormula(constraint));
+      // only record the constraint after the push succeeded, so the stack stays consistent
+      pushedConstraints.add(constraint);
+      pushes.inc();
+    }
+
+    return prover;
+  }
+
+  /**
+   * Close the prover. The stack cannot be used anymore afterwards.
+   */
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      pushedConstraints.clear();
+      prover.close();
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "Incremental constraints solving";
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+    put(pOut, 0, checks);
+    put(pOut, 0, pushes);
+    put(pOut, 0, pops);
+    put(pOut, 0, reused);
+  }
+}
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cpa.constraints.domain;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
@@ -57,6 +58,7 @@ import org.sosy_lab.solver.api.BooleanFormula;
 import org.sosy_lab.solver.api.Formula;
 import org.sosy_lab.solver.api.ProverEnvironment;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 
 /**
@@ -80,6 +82,8 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
 
   private Solver solver;
   private ProverEnvironment prover;
+  private ConstraintsProverStack proverStack;
+  private ConstraintsCache cache;
   private FormulaCreator formulaCreator;
   private FormulaManagerView formulaManager;
   private SymbolicIdentifierLocator locator;
@@ -122,6 +126,8 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
     constraintFormulas = new HashMap<>(pState.constraintFormulas);
     solver = pState.solver;
     prover = pState.prover;
+    proverStack = pState.proverStack;
+    cache = pState.cache;
     formulaCreator = pState.formulaCreator;
     formulaManager = pState.formulaManager;
     locator = pState.locator;
@@ -268,6 +274,33 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
     formulaCreator = pFormulaCreator;
   }
 
+  /**
+   * Initializes this state like {@link #initialize(Solver, FormulaManagerView, FormulaCreator)},
+   * but lets SAT checks use the given shared helpers.
+   * With a prover stack, only the constraints that are not yet on the stack are pushed for a check,
+   * instead of solving the conjunction of all constraints from scratch.
+   * With a cache, the constraints are split into independent sets
+   * and only the sets unknown to the cache are solved.
+   * At most one of both may be given.
+   *
+   * @param pSolver the solver to use for SAT checks.
+   * @param pFormulaManager the formula manager to use for creating {@link Formula}s
+   * @param pFormulaCreator the formula creator to use for creating <code>Formula</code>s
+   * @param pProverStack the prover stack shared by all states of the analysis, or <code>null</code>
+   * @param pCache the cache shared by all states of the analysis, or <code>null</code>
+   */
+  public void initialize(
+      Solver pSolver,
+      FormulaManagerView pFormulaManager,
+      FormulaCreator pFormulaCreator,
+      ConstraintsProverStack pProverStack,
+      ConstraintsCache pCache) {
+    checkArgument(pProverStack == null || pCache == null);
+    initialize(pSolver, pFormulaManager, pFormulaCreator);
+    proverStack = pProverStack;
+    cache = pCache;
+  }
+
   /**
    * Returns whether this state is unsatisfiable.
    * A state without constraints (that is, an empty state), is always satisfiable.
@@ -277,6 +310,12 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
    * @throws InterruptedException
    */
   public boolean isUnsat() throws SolverException, InterruptedException, UnrecognizedCCodeException {
+    if (proverStack != null) {
+      return isUnsatIncrementally();
+    } else if (cache != null) {
+      return isUnsatUsingCache();
+    }
+
     boolean unsat = false;
 
     try {
@@ -304,6 +343,116 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
     return unsat;
   }
 
+  private boolean isUnsatIncrementally()
+      throws SolverException, InterruptedException, UnrecognizedCCodeException {
+    if (constraints.isEmpty()) {
+      return false;
+    }
+
+    synchronized (proverStack) {
+      try {
+        prover = proverStack.setConstraints(constraints, formulaCreator);
+        boolean unsat = prover.isUnsat();
+
+        if (!unsat) {
+          resolveDefiniteAssignments(getFullFormula());
+        } else {
+          definiteAssignment = null;
+        }
+        return unsat;
+
+      } finally {
+        // the prover is owned by the stack and stays open for the next state
+        prover = null;
+      }
+    }
+  }
+
+  private boolean isUnsatUsingCache()
+      throws SolverException, InterruptedException, UnrecognizedCCodeException {
+    createMissingConstraintFormulas();
+
+    for (Set<Constraint> independentSet : cache.getIndependentSets(constraints)) {
+      if (isUnsat(independentSet)) {
+        definiteAssignment = null;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isUnsat(Set<Constraint> pIndependentSet)
+      throws SolverException, InterruptedException, UnrecognizedCCodeException {
+    Optional<Boolean> cachedResult = cache.isUnsat(pIndependentSet);
+    if (cachedResult.isPresent()) {
+      return cachedResult.get();
+    }
+
+    List<BooleanFormula> formulas = new ArrayList<>(pIndependentSet.size());
+    for (Constraint c : pIndependentSet) {
+      formulas.add(constraintFormulas.get(c));
+    }
+    BooleanFormula setAsFormula = formulaManager.getBooleanFormulaManager().and(formulas);
+
+    boolean unsat;
+    try {
+      prover = solver.newProverEnvironmentWithModelGeneration();
+      prover.push(setAsFormula);
+      unsat = prover.isUnsat();
+
+      if (!unsat) {
+        // the set shares no identifiers with the other sets,
+        // so its definite assignments are definite for the whole state
+        resolveDefiniteAssignments(setAsFormula);
+      }
+    } finally {
+      closeProver();
+    }
+
+    if (unsat) {
+      Optional<Set<Constraint>> core = getUnsatCore(pIndependentSet);
+      if (core.isPresent()) {
+        cache.putUnsat(core.get());
+      }
+    } else {
+      cache.putSat(pIndependentSet);
+    }
+    return unsat;
+  }
+
+  /**
+   * Returns an unsatisfiable subset of the given constraints that were found to be unsatisfiable
+   * under this state's definite assignment.
+   * The core is computed without the definite assignment, so that it is valid for all states.
+   * If the constraints are satisfiable without the definite assignment, no core is returned.
+   */
+  private Optional<Set<Constraint>> getUnsatCore(Set<Constraint> pUnsatConstraints)
+      throws SolverException, InterruptedException, UnrecognizedCCodeException {
+
+    Map<BooleanFormula, Constraint> constraintOfFormula = new HashMap<>();
+    try (ProverEnvironment coreProver = solver.newProverEnvironmentWithUnsatCoreGeneration()) {
+      for (Constraint c : pUnsatConstraints) {
+        BooleanFormula formula = formulaCreator.createFormula(c);
+        constraintOfFormula.put(formula, c);
+        coreProver.push(formula);
+      }
+      if (!coreProver.isUnsat()) {
+        return Optional.absent();
+      }
+
+      Set<Constraint> core = new HashSet<>();
+      for (BooleanFormula formula : coreProver.getUnsatCore()) {
+        Constraint c = constraintOfFormula.get(formula);
+        if (c == null) {
+          // the solver returned something we can not map back, fall back to all constraints
+          return Optional.of(pUnsatConstraints);
+        }
+        core.add(c);
+      }
+      return Optional.of(core.isEmpty() ? pUnsatConstraints : core);
+    }
+  }
+
   private void closeProver() {
     if (prover != null) {
       prover.close();
@@ -401,13 +550,13 @@ public class ConstraintsState implements AbstractState, Set<Constraint> {
                                        .makeNot(formulaCreator.transformAssignment(pTerm, termAssignment, freeVariables));
 
     prover.push(prohibitAssignment);
-    boolean isUnsat = prover.isUnsat();
-
-    // remove the just added formula again so we return to the original constraint formula
-    // - other assignments will probably be tested before closing prover.
-    prover.pop();
-
-    return isUnsat;
+    try {
+      return prover.isUnsat();
+    } finally {
+      // remove the just added formula again so we return to the original constraint formula
+      // - other assignments will probably be tested before closing prover.
+      prover.pop();
+    }
   }
 
   private SymbolicIdentifier toSymbolicIdentifier(String pEncoding) {
@@ -74,6 +74,13 @@ public class PolicyCPA extends SingleEdgeTransferRelation
       description="Cache formulas produced by path formula manager")
   private boolean useCachingPathFormulaManager = true;
 
+  @Option(secure=true, description="Optimize all templates of an abstraction in a single"
+      + " multi-objective query, and only check satisfiability afterwards for each template"
+      + " to obtain a model for the policy. This is only sound with independent (box)"
+      + " prioritization of the objectives, so it is only supported with Z3,"
+      + " and the box prioritization is set for the solver.")
+  private boolean optimizeTemplatesTogether = false;
+
   private final Configuration config;
   private final IPolicyIterationManager policyIterationManager;
   private final LogManager logger;
@@ -96,11 +103,15 @@ public class PolicyCPA extends SingleEdgeTransferRelation
     logger = pLogger;
     config = pConfig;
 
+    Configuration solverConfig = pConfig;
+    if (optimizeTemplatesTogether) {
+      solverConfig = getSolverConfigForBoxOptimization(pConfig);
+    }
     FormulaManagerFactory formulaManagerFactory = new FormulaManagerFactory(
-        pConfig, pLogger, shutdownNotifier);
+        solverConfig, pLogger, shutdownNotifier);
 
     FormulaManager realFormulaManager = formulaManagerFactory.getFormulaManager();
-    Solver solver = new Solver(formulaManagerFactory, pConfig, pLogger);
+    Solver solver = new Solver(formulaManagerFactory, solverConfig, pLogger);
     FormulaManagerView formulaManager = solver.getFormulaManager();
     PathFormulaManager pathFormulaManager = new PathFormulaManagerImpl(
         formulaManager, pConfig, pLogger, shutdownNotifier, cfa,
@@ -158,10 +169,38 @@ public class PolicyCPA extends SingleEdgeTransferRelation
         formulaLinearizationManager,
         pCongruenceManager,
         pPwm,
-        invariantGenerator, stateFormulaConversionManager);
+        invariantGenerator, stateFormulaConversionManager,
+        optimizeTemplatesTogether);
     stopOperator = new StopSepOperator(this);
   }
 
+  /**
+   * Optimizing all templates in one query needs the optimum of each objective
+   * independently of the other objectives.
+   * With a lexicographic prioritization, the bounds of the later objectives
+   * would only hold for the optimum of the earlier ones, and the invariants would be unsound.
+   * Only the box prioritization of Z3 is known to be independent,
+   * so we reject other solvers and set it explicitly instead of relying on the default.
+   */
+  private static Configuration getSolverConfigForBoxOptimization(Configuration pConfig)
+      throws InvalidConfigurationException {
+    String solverName = pConfig.getProperty("solver.solver");
+    if (solverName == null || !solverName.equalsIgnoreCase("z3")) {
+      throw new InvalidConfigurationException("Optimizing all templates together"
+          + " is only supported with solver.solver=Z3, because other solvers"
+          + " may prioritize the objectives lexicographically");
+    }
+    String prioritization = pConfig.getProperty("solver.z3.objectivePrioritization");
+    if (prioritization != null && !prioritization.equals("box")) {
+      throw new InvalidConfigurationException("Optimizing all templates together requires"
+          + " solver.z3.objectivePrioritization=box, but it is " + prioritization);
+    }
+    return Configuration.builder()
+        .copyFrom(pConfig)
+        .setOption("solver.z3.objectivePrioritization", "box")
+        .build();
+  }
+
   @Override
   public AbstractState getInitialState(CFANode node, StateSpacePartition pPartition) {
     return policyIterationManager.getInitialState(node);
@@ -2,10 +2,12 @@ package org.sosy_lab.cpachecker.cpa.policyiteration;
 
 import static com.google.common.collect.Iterables.filter;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -29,6 +31,7 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.cpa.loopstack.LoopstackState;
+import org.sosy_lab.cpachecker.cpa.policyiteration.PolicyIterationStatistics.TemplateOptimizationStatistics;
 import org.sosy_lab.cpachecker.cpa.policyiteration.PolicyIterationStatistics.TemplateUpdateEvent;
 import org.sosy_lab.cpachecker.cpa.policyiteration.Template.Kind;
 import org.sosy_lab.cpachecker.cpa.policyiteration.ValueDeterminationManager.ValueDeterminationConstraints;
@@ -128,6 +131,12 @@ public class PolicyIterationManager implements IPolicyIterationManager {
   private final InvariantGenerator invariantGenerator;
   private final StateFormulaConversionManager stateFormulaConversionManager;
 
+  /**
+   * Optimize all templates of an abstraction in one multi-objective query.
+   * The solver has to use independent (box) prioritization of the objectives.
+   */
+  private final boolean optimizeTemplatesTogether;
+
   public PolicyIterationManager(
       Configuration config,
       FormulaManagerView pFormulaManager,
@@ -143,7 +152,8 @@ public class PolicyIterationManager implements IPolicyIterationManager {
       CongruenceManager pCongruenceManager,
       PolyhedraWideningManager pPwm,
       InvariantGenerator pInvariantGenerator,
-      StateFormulaConversionManager pStateFormulaConversionManager)
+      StateFormulaConversionManager pStateFormulaConversionManager,
+      boolean pOptimizeTemplatesTogether)
       throws InvalidConfigurationException {
     pwm = pPwm;
     stateFormulaConversionManager = pStateFormulaConversionManager;
@@ -161,6 +171,7 @@ public class PolicyIterationManager implements IPolicyIterationManager {
     linearizationManager = pLinearizationManager;
     congruenceManager = pCongruenceManager;
     invariantGenerator = pInvariantGenerator;
+    optimizeTemplatesTogether = pOptimizeTemplatesTogether;
 
     /** Compute the cache for loops */
     ImmutableMap.Builder<CFANode, LoopStructure.Loop> loopStructureBuilder =
@@ -685,6 +696,7 @@ public class PolicyIterationManager implements IPolicyIterationManager {
 
       Set<String> formulaVars = fmgr.extractFunctionNames(
           state.getPathFormula().getFormula(), true);
+      List<TemplateQuery> queries = new ArrayList<>();
       for (Template template : precision) {
         shutdownNotifier.shutdownIfNecessary();
 
@@ -729,17 +741,26 @@ public class PolicyIterationManager implements IPolicyIterationManager {
           }
         }
 
+        if (optimizeTemplatesTogether) {
+          queries.add(new TemplateQuery(template, objective, prevBound));
+          continue;
+        }
+
         optEnvironment.push();
         optEnvironment.addConstraint(prevStateConstraint);
 
         logger.log(Level.FINE, "Optimizing for ", objective);
         int handle = optEnvironment.maximize(objective);
 
+        TemplateOptimizationStatistics templateStats =
+            statistics.getTemplateStatistics(template);
         OptEnvironment.OptStatus status;
         try {
           statistics.startOPTTimer();
+          templateStats.timer.start();
           status = optEnvironment.check();
         } finally {
+          templateStats.timer.stop();
           statistics.stopOPTTimer();
         }
 
@@ -748,30 +769,19 @@ public class PolicyIterationManager implements IPolicyIterationManager {
             Optional<Rational> bound = optEnvironment.upper(handle, EPSILON);
             Map<AssignableTerm, Object> model = optEnvironment.getModel();
 
-            // Lower bound on unsigned variables is at least zero.
-            boolean unsignedAndLower = template.isUnsigned() &&
-                (template.getKind() == Kind.NEG_LOWER_BOUND ||
-                template.getKind() == Kind.NEG_SUM_LOWER_BOUND);
-            if (bound.isPresent() &&
-                      !templateManager.isOverflowing(template, bound.get())
-                    || unsignedAndLower) {
-              Rational boundValue;
-              if (bound.isPresent() && unsignedAndLower) {
-                boundValue = Rational.max(bound.get(), Rational.ZERO);
-              } else if (bound.isPresent()){
-                boundValue = bound.get();
-              } else {
-                boundValue = Rational.ZERO;
-              }
-
+            Optional<Rational> boundValue = getBoundValue(template, bound);
+            if (boundValue.isPresent()) {
               if (linearizePolicy) {
                 annotatedFormula = linearizationManager.convertToPolicy(
                     annotatedFormula, optEnvironment);
               }
 
               PolicyBound policyBound = modelToPolicyBound(
-                  objective, state, p, annotatedFormula, model, boundValue);
+                  objective, state, p, annotatedFormula, model, boundValue.get());
               abstraction.put(template, policyBound);
+              templateStats.bounded++;
+            } else {
+              templateStats.unbounded++;
             }
             logger.log(Level.FINE, "Got bound: ", bound);
             break;
@@ -782,6 +792,7 @@ public class PolicyIterationManager implements IPolicyIterationManager {
 
             // Use the previous bound.
             abstraction.put(template, prevBound);
+            templateStats.unchanged++;
             break;
 
           case UNDEF:
@@ -790,6 +801,11 @@ public class PolicyIterationManager implements IPolicyIterationManager {
         }
         optEnvironment.pop();
       }
+
+      if (!queries.isEmpty()) {
+        annotatedFormula = optimizeTogether(
+            optEnvironment, queries, state, annotatedFormula, abstraction);
+      }
     } catch (SolverException e) {
       throw new CPATransferException("Solver error: ", e);
     }
@@ -819,6 +835,173 @@ public class PolicyIterationManager implements IPolicyIterationManager {
 
 
 
+  /**
+   * Template whose optimization is postponed to {@link #optimizeTogether}.
+   */
+  private static final class TemplateQuery {
+    private final Template template;
+    private final Formula objective;
+    private final PolicyBound prevBound;
+
+    private TemplateQuery(Template pTemplate, Formula pObjective, PolicyBound pPrevBound) {
+      template = pTemplate;
+      objective = pObjective;
+      prevBound = pPrevBound;
+    }
+  }
+
+  /**
+   * Optimize all given templates with a single multi-objective query
+   * on the constraints of {@code optEnvironment}.
+   * The objectives are independent of each other,
+   * so the lemma that a template has to improve on its previous bound can not be added;
+   * instead, templates that do not improve keep their previous bound.
+   * Afterwards, a model reaching the bound is obtained for each template
+   * with a plain satisfiability check, which is much cheaper than an optimization query.
+   *
+   * @return the annotated formula, updated as for the sequential optimization
+   */
+  private BooleanFormula optimizeTogether(
+      OptEnvironment optEnvironment,
+      List<TemplateQuery> queries,
+      PolicyIntermediateState state,
+      BooleanFormula annotatedFormula,
+      Map<Template, PolicyBound> abstraction)
+      throws CPATransferException, SolverException, InterruptedException {
+    PathFormula p = state.getPathFormula();
+
+    List<Optional<Rational>> bounds = new ArrayList<>(queries.size());
+    OptEnvironment.OptStatus status;
+    optEnvironment.push();
+    try {
+      List<Integer> handles = new ArrayList<>(queries.size());
+      for (TemplateQuery query : queries) {
+        handles.add(optEnvironment.maximize(query.objective));
+      }
+
+      statistics.boxOptTimer.start();
+      try {
+        status = optEnvironment.check();
+      } finally {
+        statistics.boxOptTimer.stop();
+      }
+
+      if (status == OptEnvironment.OptStatus.OPT) {
+        for (int handle : handles) {
+          bounds.add(optEnvironment.upper(handle, EPSILON));
+        }
+      }
+    } finally {
+      optEnvironment.pop();
+    }
+
+    switch (status) {
+      case UNSAT:
+        // like for the sequential optimization, only previous bounds remain
+        for (TemplateQuery query : queries) {
+          assert query.prevBound != null : "Got UNSAT during abstraction, no previous value supplied";
+          if (query.prevBound != null) {
+            abstraction.put(query.template, query.prevBound);
+            statistics.getTemplateStatistics(query.template).unchanged++;
+          }
+        }
+        return annotatedFormula;
+
+      case UNDEF:
+        shutdownNotifier.shutdownIfNecessary();
+        throw new CPATransferException("Solver returned undefined status");
+
+      default:
+        break;
+    }
+
+    for (int i = 0; i < queries.size(); i++) {
+      shutdownNotifier.shutdownIfNecessary();
+      TemplateQuery query = queries.get(i);
+      Optional<Rational> bound = bounds.get(i);
+      TemplateOptimizationStatistics templateStats =
+          statistics.getTemplateStatistics(query.template);
+
+      if (query.prevBound != null && bound.isPresent()
+          && bound.get().compareTo(query.prevBound.getBound()) <= 0) {
+        // the sequential optimization would have got UNSAT
+        abstraction.put(query.template, query.prevBound);
+        templateStats.unchanged++;
+        continue;
+      }
+
+      Optional<Rational> boundValue = getBoundValue(query.template, bound);
+      if (!boundValue.isPresent()) {
+        templateStats.unbounded++;
+        continue;
+      }
+
+      // get a model in which the objective reaches the bound
+      BooleanFormula reachesBound;
+      if (bound.isPresent()) {
+        reachesBound = fmgr.makeGreaterOrEqual(
+            query.objective, fmgr.makeNumber(query.objective, bound.get()), true);
+      } else if (query.prevBound != null) {
+        reachesBound = fmgr.makeGreaterThan(
+            query.objective, fmgr.makeNumber(query.objective, query.prevBound.getBound()), true);
+      } else {
+        reachesBound = bfmgr.makeBoolean(true);
+      }
+
+      optEnvironment.push();
+      try {
+        optEnvironment.addConstraint(reachesBound);
+        templateStats.timer.start();
+        try {
+          status = optEnvironment.check();
+        } finally {
+          templateStats.timer.stop();
+        }
+        if (status != OptEnvironment.OptStatus.OPT) {
+          shutdownNotifier.shutdownIfNecessary();
+          throw new CPATransferException("Solver returned unexpected status " + status
+              + " when reaching the optimal value of " + query.template);
+        }
+
+        Map<AssignableTerm, Object> model = optEnvironment.getModel();
+        if (linearizePolicy) {
+          annotatedFormula = linearizationManager.convertToPolicy(
+              annotatedFormula, optEnvironment);
+        }
+        abstraction.put(query.template, modelToPolicyBound(
+            query.objective, state, p, annotatedFormula, model, boundValue.get()));
+        templateStats.bounded++;
+      } finally {
+        optEnvironment.pop();
+      }
+    }
+    return annotatedFormula;
+  }
+
+  /**
+   * @return the value to use as the bound of the template,
+   * given the (possibly unbounded) result of its optimization,
+   * or an absent value if the template should not be bounded.
+   */
+  private Optional<Rational> getBoundValue(Template template, Optional<Rational> bound) {
+    // Lower bound on unsigned variables is at least zero.
+    boolean unsignedAndLower = template.isUnsigned() &&
+        (template.getKind() == Kind.NEG_LOWER_BOUND ||
+        template.getKind() == Kind.NEG_SUM_LOWER_BOUND);
+    if (bound.isPresent() &&
+              !templateManager.isOverflowing(template, bound.get())
+            || unsignedAndLower) {
+      if (bound.isPresent() && unsignedAndLower) {
+        return Optional.of(Rational.max(bound.get(), Rational.ZERO));
+      } else if (bound.isPresent()){
+        return bound;
+      } else {
+        return Optional.of(Rational.ZERO);
+      }
+    }
+    return Optional.absent();
+  }
+
   /**
    * Use the auxiliary variables from the {@code model} to reconstruct the
    * policy which was used for abstracting the state.
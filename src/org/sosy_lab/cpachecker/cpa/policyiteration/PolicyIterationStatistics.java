@@ -2,6 +2,13 @@ package org.sosy_lab.cpachecker.cpa.policyiteration;
 
 import java.io.PrintStream;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.TimeUnit;
 
 import org.sosy_lab.common.time.Timer;
@@ -16,6 +23,8 @@ import com.google.common.collect.Multiset;
 
 public class PolicyIterationStatistics implements Statistics {
 
+  private static final int MAX_PRINTED_TEMPLATES = 10;
+
   final Multiset<TemplateUpdateEvent> templateUpdateCounter
       = HashMultiset.create();
   final Multiset<Integer> abstractMergeCounter = HashMultiset.create();
@@ -27,12 +36,16 @@ public class PolicyIterationStatistics implements Statistics {
   final Timer polyhedraWideningTimer = new Timer();
 
   final Timer optTimer = new Timer();
+  final Timer boxOptTimer = new Timer();
   final Timer checkIndependenceTimer = new Timer();
   final Timer simplifyTimer = new Timer();
   final Timer congruenceTimer = new Timer();
   final Timer comparisonTimer = new Timer();
   final Timer ackermannizationTimer = new Timer();
 
+  private final Map<Template, TemplateOptimizationStatistics> templateStatistics =
+      new HashMap<>();
+
   private final CFA cfa;
 
   private BigInteger wideningTemplatesGenerated = BigInteger.ZERO;
@@ -90,6 +103,15 @@ public class PolicyIterationStatistics implements Statistics {
     polyhedraWideningTimer.stop();
   }
 
+  TemplateOptimizationStatistics getTemplateStatistics(Template pTemplate) {
+    TemplateOptimizationStatistics stats = templateStatistics.get(pTemplate);
+    if (stats == null) {
+      stats = new TemplateOptimizationStatistics();
+      templateStatistics.put(pTemplate, stats);
+    }
+    return stats;
+  }
+
   public PolicyIterationStatistics(CFA pCFA) {
     cfa = pCFA;
   }
@@ -107,6 +129,10 @@ public class PolicyIterationStatistics implements Statistics {
     printTimer(out, optTimer, "optimization (OPT-SMT)");
     out.printf("Number of optimization queries sent: %d%n",
         optTimer.getNumberOfIntervals());
+    if (boxOptTimer.getNumberOfIntervals() > 0) {
+      printTimer(out, boxOptTimer, "optimization of all templates at once (OPT-SMT)");
+    }
+    printTemplateStatistics(out);
     printTimer(out, checkSATTimer, "checking bad states (SMT)");
     out.printf("Number of check-SAT calls sent: %d%n",
         checkSATTimer.getNumberOfIntervals());
@@ -134,6 +160,33 @@ public class PolicyIterationStatistics implements Statistics {
     out.printf("Number of loop heads: %d%n", cfa.getAllLoopHeads().get().size());
   }
 
+  private void printTemplateStatistics(PrintStream out) {
+    if (templateStatistics.isEmpty()) {
+      return;
+    }
+    List<Entry<Template, TemplateOptimizationStatistics>> entries =
+        new ArrayList<>(templateStatistics.entrySet());
+    Collections.sort(entries, new Comparator<Entry<Template, TemplateOptimizationStatistics>>() {
+      @Override
+      public int compare(Entry<Template, TemplateOptimizationStatistics> pA,
+          Entry<Template, TemplateOptimizationStatistics> pB) {
+        return pB.getValue().timer.getSumTime().compareTo(pA.getValue().timer.getSumTime());
+      }
+    });
+
+    out.printf("Number of optimized templates: %d%n", entries.size());
+    out.println("Most expensive templates (time, #queries, #bounded, #unbounded, #unchanged):");
+    for (Entry<Template, TemplateOptimizationStatistics> entry
+        : entries.subList(0, Math.min(MAX_PRINTED_TEMPLATES, entries.size()))) {
+      TemplateOptimizationStatistics stats = entry.getValue();
+      out.printf("  %s: %s, %d, %d, %d, %d%n",
+          entry.getKey(),
+          stats.timer.getSumTime().formatAs(TimeUnit.SECONDS),
+          stats.timer.getNumberOfIntervals(),
+          stats.bounded, stats.unbounded, stats.unchanged);
+    }
+  }
+
   private void printStats(PrintStream out, UpdateStats<?> stats, String description) {
     out.printf("Max number of %s: %d, for object: %s%n",
         description, stats.max, stats.maxObject);
@@ -195,6 +248,16 @@ public class PolicyIterationStatistics implements Statistics {
     return "PolicyIterationCPA";
   }
 
+  /**
+   * Time spent on the optimization queries for a template, and their results.
+   */
+  static final class TemplateOptimizationStatistics {
+    final Timer timer = new Timer();
+    int bounded = 0;
+    int unbounded = 0;
+    int unchanged = 0;
+  }
+
   static final class TemplateUpdateEvent {
     final int locationID;
     final Template template;
@@ -169,6 +169,13 @@ public class PolicyIterationTest {
             "precision.trackVariablesBesidesEqAddBool", "false"));
   }
 
+  @Test public void conflicting_templates_false_assert() throws Exception {
+    // The upper bounds of x and y are not reached in the same state,
+    // a lexicographic optimization would bound one of them too tightly.
+    check("conflicting_templates_false_assert.c",
+        ImmutableMap.of("cpa.stator.policy.optimizeTemplatesTogether", "true"));
+  }
+
   private void check(String filename) throws Exception {
     check(filename, new HashMap<String, String>());
   }
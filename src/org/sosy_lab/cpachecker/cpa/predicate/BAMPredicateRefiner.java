@@ -135,6 +135,7 @@ public final class BAMPredicateRefiner extends AbstractBAMBasedRefiner {
                                           predicateCpa.getConfiguration(),
                                           predicateCpa.getShutdownNotifier(),
                                           logger);
+    predicateCpa.registerResource(manager);
 
     PathChecker pathChecker = new PathChecker(
                                           predicateCpa.getConfiguration(),
@@ -0,0 +1,176 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverThreadPool;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverThreadPool.SolverTask;
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.ProverEnvironment;
+
+import com.google.common.base.Throwables;
+
+/**
+ * A pool of independent SMT solvers that determine the truth values of predicates
+ * for cartesian abstraction in parallel.
+ *
+ * The solvers are provided by a {@link SolverThreadPool}.
+ * Each solver gets the block formula on its stack and checks every N-th predicate.
+ */
+final class CartesianAbstractionProverPool implements AutoCloseable {
+
+  private final ShutdownNotifier shutdownNotifier;
+  private final FormulaManagerView fmgr;
+
+  private final SolverThreadPool solvers;
+
+  final Timer totalTimer = new Timer();
+
+  CartesianAbstractionProverPool(int pSize, FormulaManagerView pFmgr, Configuration pConfig,
+      LogManager pLogger, ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
+    checkArgument(pSize > 1);
+    shutdownNotifier = pShutdownNotifier;
+    fmgr = pFmgr;
+
+    solvers = new SolverThreadPool(pSize, pConfig, pLogger, pShutdownNotifier);
+  }
+
+  @Override
+  public void close() throws Exception {
+    solvers.close();
+  }
+
+  int size() {
+    return solvers.size();
+  }
+
+  /**
+   * Determine the truth value of each predicate under the given formula,
+   * which needs to be satisfiable.
+   *
+   * @param pFormula The (instantiated) block formula.
+   * @param pPredicates The instantiated predicates.
+   * @return For each predicate: -1 if it is false, 1 if it is true,
+   *    and 0 if it is neither (the same encoding as the cartesian-abstraction cache).
+   */
+  byte[] getPredicateValues(BooleanFormula pFormula, List<BooleanFormula> pPredicates)
+      throws SolverException, InterruptedException {
+
+    totalTimer.start();
+    try {
+      final String dumpedFormula = fmgr.dumpFormula(pFormula).toString();
+      final List<String> dumpedPredicates = new ArrayList<>(pPredicates.size());
+      for (BooleanFormula p : pPredicates) {
+        dumpedPredicates.add(fmgr.dumpFormula(p).toString());
+      }
+
+      final byte[] result = new byte[pPredicates.size()];
+      final int poolSize = Math.min(solvers.size(), pPredicates.size());
+      List<Future<Void>> futures = new ArrayList<>(poolSize);
+      for (int i = 0; i < poolSize; i++) {
+        final int firstPosition = i;
+        futures.add(solvers.submit(new SolverTask<Void>() {
+            @Override
+            public Void call(Solver pSolver) throws SolverException, InterruptedException {
+              // each thread writes to different positions of the result
+              checkPredicates(pSolver, dumpedFormula, dumpedPredicates, firstPosition, poolSize, result);
+              return null;
+            }
+          }));
+      }
+
+      try {
+        for (Future<Void> future : futures) {
+          future.get();
+        }
+      } catch (ExecutionException e) {
+        Throwable t = e.getCause();
+        Throwables.propagateIfPossible(t, SolverException.class, InterruptedException.class);
+        throw new UnexpectedCheckedException("cartesian abstraction", t);
+      } finally {
+        for (Future<Void> future : futures) {
+          future.cancel(true);
+        }
+      }
+
+      // Future.get() guarantees that the writes of the threads are visible here
+      return result;
+
+    } finally {
+      totalTimer.stop();
+    }
+  }
+
+  private void checkPredicates(Solver pSolver, String pDumpedFormula, List<String> pDumpedPredicates,
+      int pFirstPosition, int pStep, byte[] pResult) throws SolverException, InterruptedException {
+    FormulaManagerView localFmgr = pSolver.getFormulaManager();
+    BooleanFormulaManagerView localBfmgr = localFmgr.getBooleanFormulaManager();
+
+    try (ProverEnvironment thmProver = pSolver.newProverEnvironment()) {
+      thmProver.push(localFmgr.parse(pDumpedFormula));
+
+      for (int i = pFirstPosition; i < pDumpedPredicates.size(); i += pStep) {
+        shutdownNotifier.shutdownIfNecessary();
+        BooleanFormula predTrue = localFmgr.parse(pDumpedPredicates.get(i));
+        BooleanFormula predFalse = localBfmgr.not(predTrue);
+
+        byte predVal = 0; // pred is neither true nor false
+
+        thmProver.push(predFalse);
+        boolean isTrue = thmProver.isUnsat();
+        thmProver.pop();
+
+        if (isTrue) {
+          predVal = 1;
+        } else {
+          // check whether it's false...
+          thmProver.push(predTrue);
+          boolean isFalse = thmProver.isUnsat();
+          thmProver.pop();
+
+          if (isFalse) {
+            predVal = -1;
+          }
+        }
+        pResult[i] = predVal;
+      }
+    }
+  }
+}
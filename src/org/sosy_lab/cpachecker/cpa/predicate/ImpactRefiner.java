@@ -65,6 +65,7 @@ public abstract class ImpactRefiner implements Refiner {
         config,
         predicateCpa.getShutdownNotifier(),
         logger);
+    predicateCpa.registerResource(manager);
 
     PathChecker pathChecker = new PathChecker(
         config,
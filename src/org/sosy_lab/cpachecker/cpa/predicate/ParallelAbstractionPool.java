@@ -0,0 +1,245 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractionManager.AbstractionQuery;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView.DefaultBooleanFormulaVisitor;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverThreadPool;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverThreadPool.SolverTask;
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.ProverEnvironment;
+import org.sosy_lab.solver.api.ProverEnvironment.AllSatCallback;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A pool of independent SMT solvers that solve abstraction queries
+ * (cf. {@link PredicateAbstractionManager#prepareAbstraction}) asynchronously.
+ *
+ * The solvers are provided by a {@link SolverThreadPool}.
+ * The results are transferred back as cubes over the predicates of the query
+ * (cf. {@link PredicateAbstractionManager#finishAbstraction(AbstractionQuery, List)}),
+ * from which the calling thread builds the region.
+ */
+final class ParallelAbstractionPool implements AutoCloseable {
+
+  private static final String PREDICATE_VARIABLE_PREFIX = "ABSPRED";
+
+  private final ShutdownNotifier shutdownNotifier;
+  private final FormulaManagerView fmgr;
+  private final boolean cartesianAbstraction;
+  private final boolean booleanAbstraction;
+
+  private final SolverThreadPool solvers;
+  private final BlockingQueue<Future<List<byte[]>>> doneQueries = new LinkedBlockingQueue<>();
+
+  ParallelAbstractionPool(int pSize, FormulaManagerView pFmgr,
+      boolean pCartesianAbstraction, boolean pBooleanAbstraction,
+      Configuration pConfig, LogManager pLogger, ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    checkArgument(pSize > 0);
+    shutdownNotifier = pShutdownNotifier;
+    fmgr = pFmgr;
+    cartesianAbstraction = pCartesianAbstraction;
+    booleanAbstraction = pBooleanAbstraction;
+
+    solvers = new SolverThreadPool(pSize, pConfig, pLogger, pShutdownNotifier);
+  }
+
+  @Override
+  public void close() throws Exception {
+    solvers.close();
+  }
+
+  /**
+   * Start solving an abstraction query.
+   * The future can later be retrieved from {@link #poll()} or {@link #take()}, when it is done.
+   *
+   * @return A future for the cubes over the predicates of the query,
+   *    in the format expected by {@link PredicateAbstractionManager#finishAbstraction(AbstractionQuery, List)}.
+   */
+  Future<List<byte[]>> submit(AbstractionQuery pQuery) {
+    final String dumpedFormula = fmgr.dumpFormula(pQuery.getFormula()).toString();
+    final List<String> dumpedPredicates = new ArrayList<>(pQuery.getPredicates().size());
+    for (AbstractionPredicate p : pQuery.getPredicates()) {
+      BooleanFormula instantiated = fmgr.instantiate(p.getSymbolicAtom(), pQuery.getSsa());
+      dumpedPredicates.add(fmgr.dumpFormula(instantiated).toString());
+    }
+
+    return solvers.submit(new SolverTask<List<byte[]>>() {
+        @Override
+        public List<byte[]> call(Solver pSolver) throws SolverException, InterruptedException {
+          return solve(pSolver, dumpedFormula, dumpedPredicates);
+        }
+      }, doneQueries);
+  }
+
+  /**
+   * Retrieve the next future that is done, or null if there is none.
+   */
+  Future<List<byte[]>> poll() {
+    return doneQueries.poll();
+  }
+
+  /**
+   * Retrieve the next future that is done, waiting if necessary.
+   */
+  Future<List<byte[]>> take() throws InterruptedException {
+    return doneQueries.take();
+  }
+
+  private List<byte[]> solve(Solver pSolver, String pDumpedFormula, List<String> pDumpedPredicates)
+      throws SolverException, InterruptedException {
+    final FormulaManagerView localFmgr = pSolver.getFormulaManager();
+    final BooleanFormulaManagerView localBfmgr = localFmgr.getBooleanFormulaManager();
+    final int size = pDumpedPredicates.size();
+
+    try (ProverEnvironment thmProver = pSolver.newProverEnvironment()) {
+      thmProver.push(localFmgr.parse(pDumpedFormula));
+      if (thmProver.isUnsat()) {
+        return Collections.emptyList();
+      }
+
+      List<BooleanFormula> predicates = new ArrayList<>(size);
+      for (String dumpedPredicate : pDumpedPredicates) {
+        predicates.add(localFmgr.parse(dumpedPredicate));
+      }
+
+      // 0 means that the predicate is not decided by cartesian abstraction
+      byte[] cartesianCube = new byte[size];
+      if (cartesianAbstraction) {
+        for (int i = 0; i < size; i++) {
+          shutdownNotifier.shutdownIfNecessary();
+          BooleanFormula predTrue = predicates.get(i);
+
+          thmProver.push(localBfmgr.not(predTrue));
+          boolean isTrue = thmProver.isUnsat();
+          thmProver.pop();
+
+          if (isTrue) {
+            cartesianCube[i] = 1;
+          } else {
+            thmProver.push(predTrue);
+            boolean isFalse = thmProver.isUnsat();
+            thmProver.pop();
+
+            if (isFalse) {
+              cartesianCube[i] = -1;
+            }
+          }
+        }
+      }
+
+      if (!booleanAbstraction) {
+        return ImmutableList.of(cartesianCube);
+      }
+
+      // boolean abstraction of the remaining predicates
+      Map<BooleanFormula, Integer> positions = new HashMap<>(size);
+      List<BooleanFormula> predVars = new ArrayList<>(size);
+      BooleanFormula predDef = localBfmgr.makeBoolean(true);
+      for (int i = 0; i < size; i++) {
+        if (cartesianCube[i] == 0) {
+          BooleanFormula var = localFmgr.createPredicateVariable(PREDICATE_VARIABLE_PREFIX + i);
+          predDef = localBfmgr.and(predDef, localBfmgr.equivalence(var, predicates.get(i)));
+          positions.put(var, i);
+          predVars.add(var);
+        }
+      }
+
+      if (predVars.isEmpty()) {
+        return ImmutableList.of(cartesianCube);
+      }
+
+      thmProver.push(predDef);
+      return thmProver.allSat(new CubeCollector(localFmgr, positions, cartesianCube), predVars);
+    }
+  }
+
+  /**
+   * Collects the models of the all-sat loop as cubes over the predicates,
+   * each one extended by the values found with cartesian abstraction.
+   */
+  private static class CubeCollector
+      extends DefaultBooleanFormulaVisitor<BooleanFormula>
+      implements AllSatCallback<List<byte[]>> {
+
+    private final BooleanFormulaManagerView bfmgr;
+    private final Map<BooleanFormula, Integer> positions;
+    private final byte[] baseCube;
+    private final List<byte[]> cubes = new ArrayList<>();
+
+    private CubeCollector(FormulaManagerView pFmgr,
+        Map<BooleanFormula, Integer> pPositions, byte[] pBaseCube) {
+      super(pFmgr);
+      bfmgr = pFmgr.getBooleanFormulaManager();
+      positions = pPositions;
+      baseCube = pBaseCube;
+    }
+
+    @Override
+    public void apply(List<BooleanFormula> model) {
+      byte[] cube = Arrays.copyOf(baseCube, baseCube.length);
+      for (BooleanFormula f : model) {
+        if (bfmgr.isNot(f)) {
+          cube[positions.get(visit(f))] = -1;
+        } else {
+          cube[positions.get(f)] = 1;
+        }
+      }
+      cubes.add(cube);
+    }
+
+    @Override
+    public BooleanFormula visitNot(BooleanFormula negated) {
+      return negated;
+    }
+
+    @Override
+    public List<byte[]> getResult() {
+      return cubes;
+    }
+  }
+}
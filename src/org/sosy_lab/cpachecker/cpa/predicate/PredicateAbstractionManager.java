@@ -76,6 +76,9 @@ import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView.DefaultBooleanFormulaVisitor;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CacheHandle;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CachePriority;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.solver.SolverException;
 import org.sosy_lab.solver.api.BooleanFormula;
@@ -112,11 +115,13 @@ public class PredicateAbstractionManager {
     public int numTrivialPredicates = 0;
     public int numCartesianAbsPredicates = 0;
     public int numCartesianAbsPredicatesCached = 0;
+    public int numCartesianAbsPredicatesParallel = 0;
     public int numBooleanAbsPredicates = 0;
     public final Timer abstractionReuseTime = new Timer();
     public final StatTimer abstractionReuseImplicationTime = new StatTimer("Time for checking reusability of abstractions");
     public final Timer trivialPredicatesTime = new Timer();
     public final Timer cartesianAbstractionTime = new Timer();
+    public Timer cartesianAbstractionParallelTime = null; // only if parallel cartesian abstraction is used
     public final Timer quantifierEliminationTime = new Timer();
     public final Timer booleanAbstractionTime = new Timer();
     public final NestedTimer abstractionEnumTime = new NestedTimer(); // outer: solver time, inner: bdd time
@@ -154,6 +159,17 @@ public class PredicateAbstractionManager {
       description = "whether to use Boolean or Cartesian abstraction or both")
   private AbstractionType abstractionType = AbstractionType.BOOLEAN;
 
+  @Option(secure=true, name = "abstraction.cartesian.parallelProvers",
+      description = "Number of additional SMT solver instances that check the predicates "
+        + "of cartesian abstraction in parallel (0 or 1 to disable). "
+        + "Each instance has its own solver context, formulas are transferred in SMT-LIB format, "
+        + "so this pays off only for large numbers of predicates.")
+  private int cartesianAbstractionProvers = 0;
+
+  @Option(secure=true, name = "abstraction.cartesian.parallelMinPredicates",
+      description = "Minimal number of uncached predicates for using parallel cartesian abstraction.")
+  private int cartesianAbstractionParallelMinPredicates = 20;
+
   @Option(secure=true, name = "abstraction.dumpHardQueries",
       description = "dump the abstraction formulas if they took to long")
   private boolean dumpHardAbstractions = false;
@@ -199,6 +215,10 @@ public class PredicateAbstractionManager {
   // 1: predicate is true
   private final Map<Pair<BooleanFormula, AbstractionPredicate>, Byte> cartesianAbstractionCache;
 
+  private final CacheHandle cacheHandle = MemoryGovernor.createCacheHandle(CachePriority.EXPENSIVE);
+
+  private final @Nullable CartesianAbstractionProverPool cartesianProverPool;
+
   private final BooleanFormulaManagerView bfmgr;
 
   private final PredicateAbstractionsStorage abstractionStorage;
@@ -248,6 +268,16 @@ public class PredicateAbstractionManager {
       cartesianAbstractionCache = null;
     }
 
+    if (cartesianAbstractionProvers > 1
+        && abstractionType != AbstractionType.BOOLEAN
+        && abstractionType != AbstractionType.ELIMINATION) {
+      cartesianProverPool = new CartesianAbstractionProverPool(cartesianAbstractionProvers,
+          fmgr, config, logger, shutdownNotifier);
+      stats.cartesianAbstractionParallelTime = cartesianProverPool.totalTimer;
+    } else {
+      cartesianProverPool = null;
+    }
+
     abstractionStorage = new PredicateAbstractionsStorage(reuseAbstractionsFrom, logger, fmgr, null);
     SSAMap extractionSsa = SSAMap.emptySSAMap().withDefault(1);
     for (AbstractionNode an : abstractionStorage.getAbstractions().values()) {
@@ -256,6 +286,15 @@ public class PredicateAbstractionManager {
     }
   }
 
+  /**
+   * Stop the solvers for parallel cartesian abstraction, if there are any.
+   */
+  void close() throws Exception {
+    if (cartesianProverPool != null) {
+      cartesianProverPool.close();
+    }
+  }
+
   /**
    * Compute an abstraction of the conjunction of an AbstractionFormula and
    * a PathFormula. The AbstractionFormula will be used in its instantiated form,
@@ -271,6 +310,181 @@ public class PredicateAbstractionManager {
       AbstractionFormula abstractionFormula, PathFormula pathFormula,
       Collection<AbstractionPredicate> pPredicates) throws SolverException, InterruptedException {
 
+    AbstractionQuery query = prepareAbstraction(location, abstractionFormula, pathFormula, pPredicates);
+    if (query.result != null) {
+      return query.result;
+    }
+
+    BooleanFormula f = query.formula;
+    SSAMap ssa = query.ssa;
+    ImmutableSet<AbstractionPredicate> predicates = query.predicates;
+    Region abs = query.trivialAbstraction;
+
+    try (ProverEnvironment thmProver = solver.newProverEnvironment()) {
+      thmProver.push(f);
+
+      if (predicates.isEmpty() && (abstractionType != AbstractionType.ELIMINATION)) {
+        stats.numSatCheckAbstractions++;
+
+        stats.abstractionSolveTime.start();
+        boolean feasibility;
+        try {
+          feasibility = !thmProver.isUnsat();
+        } finally {
+          stats.abstractionSolveTime.stop();
+        }
+
+        if (!feasibility) {
+          abs = rmgr.makeFalse();
+        }
+
+      } else if (abstractionType == AbstractionType.ELIMINATION) {
+        stats.quantifierEliminationTime.start();
+        try {
+          abs = rmgr.makeAnd(abs,
+              eliminateIrrelevantVariablePropositions(f, location, ssa, thmProver, predicates));
+        } finally {
+          stats.quantifierEliminationTime.stop();
+        }
+      } else {
+        if (abstractionType != AbstractionType.BOOLEAN) {
+          // First do cartesian abstraction if desired
+          stats.cartesianAbstractionTime.start();
+          try {
+            abs = rmgr.makeAnd(abs,
+                buildCartesianAbstraction(f, ssa, thmProver, predicates));
+          } finally {
+            stats.cartesianAbstractionTime.stop();
+          }
+        }
+
+        if (abstractionType == AbstractionType.COMBINED) {
+          // Calculate the set of predicates that cartesian abstraction couldn't handle.
+          predicates = from(predicates)
+                         .filter(not(in(amgr.extractPredicates(abs))))
+                         .toSet();
+        }
+
+        if (abstractionType != AbstractionType.CARTESIAN
+            && !predicates.isEmpty()) {
+          // Last do boolean abstraction if desired and necessary
+          stats.numBooleanAbsPredicates += predicates.size();
+          stats.booleanAbstractionTime.start();
+          try {
+            abs = rmgr.makeAnd(abs,
+                buildBooleanAbstraction(ssa, thmProver, predicates));
+          } finally {
+            stats.booleanAbstractionTime.stop();
+          }
+
+          // Warning:
+          // buildBooleanAbstraction() does not clean up thmProver, so do not use it here.
+        }
+      }
+    }
+
+    AbstractionFormula result = finishAbstraction(query, abs);
+
+    long abstractionTime = TimeSpan.sum(stats.abstractionSolveTime.getLengthOfLastInterval(),
+                                        stats.abstractionEnumTime.getLengthOfLastOuterInterval())
+                                   .asMillis();
+    logger.log(Level.FINEST, "Computing abstraction took", abstractionTime, "ms");
+
+    if (dumpHardAbstractions && abstractionTime > 10000) {
+      // we want to dump "hard" problems...
+      Path dumpFile;
+
+      dumpFile = fmgr.formatFormulaOutputFile("abstraction", stats.numCallsAbstraction, "input", 0);
+      fmgr.dumpFormulaToFile(f, dumpFile);
+
+      dumpFile = fmgr.formatFormulaOutputFile("abstraction", stats.numCallsAbstraction, "predicates", 0);
+      try (Writer w = dumpFile.asCharSink(StandardCharsets.UTF_8).openBufferedStream()) {
+        Joiner.on('\n').appendTo(w, predicates);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Failed to wrote predicates to file");
+      }
+
+      dumpFile = fmgr.formatFormulaOutputFile("abstraction", stats.numCallsAbstraction, "result", 0);
+      fmgr.dumpFormulaToFile(result.asInstantiatedFormula(), dumpFile);
+    }
+
+    return result;
+  }
+
+  /**
+   * The input of an abstraction computation, after all steps that do not need a solver
+   * (caches, reuse of stored abstractions, trivial predicates) have been done.
+   */
+  static final class AbstractionQuery {
+
+    private final CFANode location;
+    private final PathFormula pathFormula;
+    private final BooleanFormula formula;
+    private final SSAMap ssa;
+    private final @Nullable Pair<BooleanFormula, ImmutableSet<AbstractionPredicate>> cacheKey;
+
+    /** The result, if it is already known without solving. */
+    private @Nullable AbstractionFormula result = null;
+
+    /** The predicates that still need to be checked by the solver. */
+    private ImmutableSet<AbstractionPredicate> predicates;
+
+    /** The part of the abstraction that is already known. */
+    private Region trivialAbstraction;
+
+    private AbstractionQuery(CFANode pLocation, PathFormula pPathFormula, BooleanFormula pFormula,
+        ImmutableSet<AbstractionPredicate> pPredicates,
+        @Nullable Pair<BooleanFormula, ImmutableSet<AbstractionPredicate>> pCacheKey) {
+      location = pLocation;
+      pathFormula = pPathFormula;
+      formula = pFormula;
+      ssa = pPathFormula.getSsa();
+      predicates = pPredicates;
+      cacheKey = pCacheKey;
+    }
+
+    /**
+     * The result of the abstraction computation,
+     * if it could be determined without solving.
+     */
+    Optional<AbstractionFormula> getResult() {
+      return Optional.fromNullable(result);
+    }
+
+    /**
+     * The formula to abstract (abstraction formula and block formula, instantiated).
+     */
+    BooleanFormula getFormula() {
+      return formula;
+    }
+
+    /**
+     * The predicates that need to be checked, in the order of the cubes
+     * passed to {@link PredicateAbstractionManager#finishAbstraction(AbstractionQuery, List)}.
+     */
+    ImmutableList<AbstractionPredicate> getPredicates() {
+      return predicates.asList();
+    }
+
+    SSAMap getSsa() {
+      return ssa;
+    }
+
+    CFANode getLocation() {
+      return location;
+    }
+  }
+
+  /**
+   * Do all steps of {@link #buildAbstraction(CFANode, AbstractionFormula, PathFormula, Collection)}
+   * that do not need a solver.
+   * If the result is not yet known after these steps,
+   * the returned query needs to be solved and passed to one of the finishAbstraction methods.
+   */
+  AbstractionQuery prepareAbstraction(CFANode location,
+      AbstractionFormula abstractionFormula, PathFormula pathFormula,
+      Collection<AbstractionPredicate> pPredicates) throws SolverException, InterruptedException {
+
     stats.numCallsAbstraction++;
 
     logger.log(Level.FINEST, "Computing abstraction", stats.numCallsAbstraction, "with", pPredicates.size(), "predicates");
@@ -285,13 +499,20 @@ public class PredicateAbstractionManager {
 
     ImmutableSet<AbstractionPredicate> predicates = getRelevantPredicates(pPredicates, f, ssa, location);
 
+    Pair<BooleanFormula, ImmutableSet<AbstractionPredicate>> absKey = null;
+    if (useCache) {
+      absKey = Pair.of(f, predicates);
+    }
+    AbstractionQuery query = new AbstractionQuery(location, pathFormula, f, predicates, absKey);
+
     // Try to reuse stored abstractions
     if (reuseAbstractionsFrom != null
         && !abstractionReuseDisabledBecauseOfAmbiguity) {
       AbstractionFormula reused =
           reuseAbstractionIfPossible(abstractionFormula, pathFormula, f, location);
       if (reused != null) {
-        return reused;
+        query.result = reused;
+        return query;
       }
     }
 
@@ -299,13 +520,16 @@ public class PredicateAbstractionManager {
     if (pPredicates.isEmpty() && (abstractionType != AbstractionType.ELIMINATION)) {
       logger.log(Level.FINEST, "Abstraction", stats.numCallsAbstraction, "with empty precision is true");
       stats.numSymbolicAbstractions++;
-      return makeTrueAbstractionFormula(pathFormula);
+      query.result = makeTrueAbstractionFormula(pathFormula);
+      return query;
+    }
+
+    if (cacheHandle.shouldClear()) {
+      clearCaches();
     }
 
     // caching
-    Pair<BooleanFormula, ImmutableSet<AbstractionPredicate>> absKey = null;
     if (useCache) {
-      absKey = Pair.of(f, predicates);
       AbstractionFormula result = abstractionCache.get(absKey);
 
       if (result != null) {
@@ -320,7 +544,8 @@ public class PredicateAbstractionManager {
         logger.log(Level.FINEST, "Abstraction", stats.numCallsAbstraction, "was cached");
         logger.log(Level.ALL, "Abstraction result is", result.asFormula());
         stats.numCallsAbstractionCached++;
-        return result;
+        query.result = result;
+        return query;
       }
 
       boolean unsatisfiable = unsatisfiabilityCache.contains(symbFormula)
@@ -329,9 +554,10 @@ public class PredicateAbstractionManager {
         // block is infeasible
         logger.log(Level.FINEST, "Block feasibility of abstraction", stats.numCallsAbstraction, "was cached and is false.");
         stats.numCallsAbstractionCached++;
-        return new AbstractionFormula(fmgr, rmgr.makeFalse(),
+        query.result = new AbstractionFormula(fmgr, rmgr.makeFalse(),
             bfmgr.makeBoolean(false), bfmgr.makeBoolean(false),
             pathFormula, noAbstractionReuse);
+        return query;
       }
     }
 
@@ -357,104 +583,101 @@ public class PredicateAbstractionManager {
       stats.trivialPredicatesTime.stop();
     }
 
-    try (ProverEnvironment thmProver = solver.newProverEnvironment()) {
-      thmProver.push(f);
-
-      if (predicates.isEmpty() && (abstractionType != AbstractionType.ELIMINATION)) {
-        stats.numSatCheckAbstractions++;
-
-        stats.abstractionSolveTime.start();
-        boolean feasibility;
-        try {
-          feasibility = !thmProver.isUnsat();
-        } finally {
-          stats.abstractionSolveTime.stop();
-        }
-
-        if (!feasibility) {
-          abs = rmgr.makeFalse();
-        }
-
-      } else if (abstractionType == AbstractionType.ELIMINATION) {
-        stats.quantifierEliminationTime.start();
-        try {
-          abs = rmgr.makeAnd(abs,
-              eliminateIrrelevantVariablePropositions(f, location, ssa, thmProver, predicates));
-        } finally {
-          stats.quantifierEliminationTime.stop();
-        }
-      } else {
-        if (abstractionType != AbstractionType.BOOLEAN) {
-          // First do cartesian abstraction if desired
-          stats.cartesianAbstractionTime.start();
-          try {
-            abs = rmgr.makeAnd(abs,
-                buildCartesianAbstraction(f, ssa, thmProver, predicates));
-          } finally {
-            stats.cartesianAbstractionTime.stop();
-          }
-        }
-
-        if (abstractionType == AbstractionType.COMBINED) {
-          // Calculate the set of predicates that cartesian abstraction couldn't handle.
-          predicates = from(predicates)
-                         .filter(not(in(amgr.extractPredicates(abs))))
-                         .toSet();
-        }
+    query.predicates = predicates;
+    query.trivialAbstraction = abs;
+    return query;
+  }
 
-        if (abstractionType != AbstractionType.CARTESIAN
-            && !predicates.isEmpty()) {
-          // Last do boolean abstraction if desired and necessary
-          stats.numBooleanAbsPredicates += predicates.size();
-          stats.booleanAbstractionTime.start();
-          try {
-            abs = rmgr.makeAnd(abs,
-                buildBooleanAbstraction(ssa, thmProver, predicates));
-          } finally {
-            stats.booleanAbstractionTime.stop();
+  /**
+   * Create the result of an abstraction computation
+   * whose predicates were checked outside of this class.
+   *
+   * @param query The query as returned by {@link #prepareAbstraction(CFANode, AbstractionFormula, PathFormula, Collection)}.
+   * @param cubes The satisfying assignments of the predicates of the query,
+   *    where each cube has one entry per predicate (in the order of {@link AbstractionQuery#getPredicates()})
+   *    that is 1 if the predicate is true, -1 if it is false, and 0 if it does not matter.
+   *    An empty list means that the formula of the query is unsatisfiable.
+   */
+  AbstractionFormula finishAbstraction(AbstractionQuery query, List<byte[]> cubes)
+      throws InterruptedException {
+    checkArgument(query.result == null);
+    ImmutableList<AbstractionPredicate> predicates = query.getPredicates();
+
+    Region abs;
+    if (cubes.isEmpty()) {
+      abs = rmgr.makeFalse();
+    } else {
+      try (RegionBuilder builder = rmgr.builder(shutdownNotifier)) {
+        for (byte[] cube : cubes) {
+          checkArgument(cube.length == predicates.size());
+          builder.startNewConjunction();
+          for (int i = 0; i < cube.length; i++) {
+            if (cube[i] > 0) {
+              builder.addPositiveRegion(predicates.get(i).getAbstractVariable());
+            } else if (cube[i] < 0) {
+              builder.addNegativeRegion(predicates.get(i).getAbstractVariable());
+            }
           }
-
-          // Warning:
-          // buildBooleanAbstraction() does not clean up thmProver, so do not use it here.
+          builder.finishConjunction();
         }
+        abs = rmgr.makeAnd(query.trivialAbstraction, builder.getResult());
       }
     }
 
-    AbstractionFormula result = makeAbstractionFormula(abs, ssa, pathFormula);
+    return finishAbstraction(query, abs);
+  }
+
+  private AbstractionFormula finishAbstraction(AbstractionQuery query, Region abs) {
+    AbstractionFormula result = makeAbstractionFormula(abs, query.ssa, query.pathFormula);
 
     if (useCache) {
-      abstractionCache.put(absKey, result);
+      abstractionCache.put(query.cacheKey, result);
 
       if (result.isFalse()) {
-        unsatisfiabilityCache.add(f);
+        unsatisfiabilityCache.add(query.formula);
       }
     }
 
-    long abstractionTime = TimeSpan.sum(stats.abstractionSolveTime.getLengthOfLastInterval(),
-                                        stats.abstractionEnumTime.getLengthOfLastOuterInterval())
-                                   .asMillis();
-    logger.log(Level.FINEST, "Computing abstraction took", abstractionTime, "ms");
     logger.log(Level.ALL, "Abstraction result is", result.asFormula());
+    return result;
+  }
 
-    if (dumpHardAbstractions && abstractionTime > 10000) {
-      // we want to dump "hard" problems...
-      Path dumpFile;
+  /**
+   * Whether the predicates of an {@link AbstractionQuery} should be checked
+   * with cartesian abstraction (each predicate on its own) first.
+   */
+  boolean usesCartesianAbstraction() {
+    return abstractionType == AbstractionType.CARTESIAN || abstractionType == AbstractionType.COMBINED;
+  }
 
-      dumpFile = fmgr.formatFormulaOutputFile("abstraction", stats.numCallsAbstraction, "input", 0);
-      fmgr.dumpFormulaToFile(f, dumpFile);
+  /**
+   * Whether the predicates of an {@link AbstractionQuery} that are not decided by
+   * cartesian abstraction should be checked with boolean abstraction (all-sat).
+   */
+  boolean usesBooleanAbstraction() {
+    return abstractionType == AbstractionType.BOOLEAN || abstractionType == AbstractionType.COMBINED;
+  }
 
-      dumpFile = fmgr.formatFormulaOutputFile("abstraction", stats.numCallsAbstraction, "predicates", 0);
-      try (Writer w = dumpFile.asCharSink(StandardCharsets.UTF_8).openBufferedStream()) {
-        Joiner.on('\n').appendTo(w, predicates);
-      } catch (IOException e) {
-        logger.logUserException(Level.WARNING, e, "Failed to wrote predicates to file");
-      }
+  /**
+   * Whether the abstraction can be computed by checking the predicates
+   * of an {@link AbstractionQuery} outside of this class.
+   * This is not possible for abstraction by quantifier elimination.
+   */
+  boolean supportsExternalAbstraction() {
+    return abstractionType != AbstractionType.ELIMINATION;
+  }
 
-      dumpFile = fmgr.formatFormulaOutputFile("abstraction", stats.numCallsAbstraction, "result", 0);
-      fmgr.dumpFormulaToFile(result.asInstantiatedFormula(), dumpFile);
+  /**
+   * Clear all caches of this class (if enabled), e.g., when the heap is nearly exhausted.
+   */
+  private void clearCaches() {
+    if (abstractionCache != null) {
+      abstractionCache.clear();
+      unsatisfiabilityCache.clear();
+    }
+    if (cartesianAbstractionCache != null) {
+      cartesianAbstractionCache.clear();
     }
-
-    return result;
   }
 
   private @Nullable AbstractionFormula reuseAbstractionIfPossible(
@@ -823,6 +1046,11 @@ public class PredicateAbstractionManager {
 
       // check whether each of the predicate is implied in the next state...
 
+      Map<AbstractionPredicate, Byte> parallelPredVals = null;
+      if (cartesianProverPool != null) {
+        parallelPredVals = computeCartesianPredicateValuesInParallel(f, ssa, predicates);
+      }
+
       for (AbstractionPredicate p : predicates) {
         Pair<BooleanFormula, AbstractionPredicate> cacheKey = Pair.of(f, p);
         if (useCache && cartesianAbstractionCache.containsKey(cacheKey)) {
@@ -844,45 +1072,50 @@ public class PredicateAbstractionManager {
           stats.abstractionEnumTime.getCurentInnerTimer().stop();
 
         } else {
-          logger.log(Level.ALL, "DEBUG_1",
-              "CHECKING VALUE OF PREDICATE: ", p.getSymbolicAtom());
+          byte predVal; // -1: pred is false, 0: pred is neither true nor false, 1: pred is true
 
-          // instantiate the definition of the predicate
-          BooleanFormula predTrue = fmgr.instantiate(p.getSymbolicAtom(), ssa);
-          BooleanFormula predFalse = bfmgr.not(predTrue);
+          if (parallelPredVals != null) {
+            predVal = parallelPredVals.get(p);
 
-          // check whether this predicate has a truth value in the next
-          // state
-          byte predVal = 0; // pred is neither true nor false
+          } else {
+            logger.log(Level.ALL, "DEBUG_1",
+                "CHECKING VALUE OF PREDICATE: ", p.getSymbolicAtom());
 
-          thmProver.push(predFalse);
-          boolean isTrue = thmProver.isUnsat();
-          thmProver.pop();
+            // instantiate the definition of the predicate
+            BooleanFormula predTrue = fmgr.instantiate(p.getSymbolicAtom(), ssa);
+            BooleanFormula predFalse = bfmgr.not(predTrue);
 
-          if (isTrue) {
-            stats.numCartesianAbsPredicates++;
-            stats.abstractionEnumTime.getCurentInnerTimer().start();
-            Region v = p.getAbstractVariable();
-            absbdd = rmgr.makeAnd(absbdd, v);
-            stats.abstractionEnumTime.getCurentInnerTimer().stop();
+            // check whether this predicate has a truth value in the next
+            // state
+            predVal = 0; // pred is neither true nor false
 
-            predVal = 1;
-          } else {
-            // check whether it's false...
-            thmProver.push(predTrue);
-            boolean isFalse = thmProver.isUnsat();
+            thmProver.push(predFalse);
+            boolean isTrue = thmProver.isUnsat();
             thmProver.pop();
 
-            if (isFalse) {
-              stats.numCartesianAbsPredicates++;
-              stats.abstractionEnumTime.getCurentInnerTimer().start();
-              Region v = p.getAbstractVariable();
-              v = rmgr.makeNot(v);
-              absbdd = rmgr.makeAnd(absbdd, v);
-              stats.abstractionEnumTime.getCurentInnerTimer().stop();
+            if (isTrue) {
+              predVal = 1;
+            } else {
+              // check whether it's false...
+              thmProver.push(predTrue);
+              boolean isFalse = thmProver.isUnsat();
+              thmProver.pop();
+
+              if (isFalse) {
+                predVal = -1;
+              }
+            }
+          }
 
-              predVal = -1;
+          if (predVal != 0) {
+            stats.numCartesianAbsPredicates++;
+            stats.abstractionEnumTime.getCurentInnerTimer().start();
+            Region v = p.getAbstractVariable();
+            if (predVal == -1) {
+              v = rmgr.makeNot(v);
             }
+            absbdd = rmgr.makeAnd(absbdd, v);
+            stats.abstractionEnumTime.getCurentInnerTimer().stop();
           }
 
           if (useCache) {
@@ -898,6 +1131,41 @@ public class PredicateAbstractionManager {
     }
   }
 
+  /**
+   * Check the values of all predicates that are not in the cartesian-abstraction cache
+   * with the prover pool.
+   * @return A map from each of these predicates to its value,
+   *    or null if there are too few such predicates for parallelization.
+   */
+  private @Nullable Map<AbstractionPredicate, Byte> computeCartesianPredicateValuesInParallel(
+      final BooleanFormula f, final SSAMap ssa, Collection<AbstractionPredicate> predicates)
+          throws SolverException, InterruptedException {
+
+    List<AbstractionPredicate> uncachedPredicates = new ArrayList<>();
+    for (AbstractionPredicate p : predicates) {
+      if (!useCache || !cartesianAbstractionCache.containsKey(Pair.of(f, p))) {
+        uncachedPredicates.add(p);
+      }
+    }
+    if (uncachedPredicates.size() < Math.max(cartesianAbstractionParallelMinPredicates, 2)) {
+      return null;
+    }
+
+    List<BooleanFormula> instantiatedPredicates = new ArrayList<>(uncachedPredicates.size());
+    for (AbstractionPredicate p : uncachedPredicates) {
+      instantiatedPredicates.add(fmgr.instantiate(p.getSymbolicAtom(), ssa));
+    }
+
+    byte[] values = cartesianProverPool.getPredicateValues(f, instantiatedPredicates);
+    stats.numCartesianAbsPredicatesParallel += uncachedPredicates.size();
+
+    Map<AbstractionPredicate, Byte> result = new HashMap<>(uncachedPredicates.size());
+    for (int i = 0; i < uncachedPredicates.size(); i++) {
+      result.put(uncachedPredicates.get(i), values[i]);
+    }
+    return result;
+  }
+
   private BooleanFormula buildFormula(BooleanFormula symbFormula) {
 
     if (fmgr.useBitwiseAxioms()) {
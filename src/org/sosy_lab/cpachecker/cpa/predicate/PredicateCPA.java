@@ -23,7 +23,9 @@
  */
 package org.sosy_lab.cpachecker.cpa.predicate;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -135,6 +137,9 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
   private final AbstractionManager abstractionManager;
   private final InvariantGenerator invariantGenerator;
 
+  // components that were created for this CPA by others (e.g., refiners)
+  private final List<AutoCloseable> registeredResources = new ArrayList<>();
+
   protected PredicateCPA(Configuration config, LogManager logger,
       BlockOperator blk, CFA pCfa, ReachedSetFactory reachedSetFactory,
       ShutdownNotifier pShutdownNotifier)
@@ -303,14 +308,32 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(stats);
     precisionBootstraper.collectStatistics(pStatsCollection);
+    solver.collectStatistics(pStatsCollection);
     if (invariantGenerator instanceof StatisticsProvider) {
       ((StatisticsProvider)invariantGenerator).collectStatistics(pStatsCollection);
     }
   }
 
+  /**
+   * Register a component that was created for this CPA outside of it (e.g., by a refiner)
+   * and that needs to be closed together with the CPA.
+   */
+  public void registerResource(AutoCloseable pResource) {
+    registeredResources.add(pResource);
+  }
+
   @Override
   public void close() throws Exception {
-    solver.close();
+    // the additional solvers of the components need to be stopped before the main solver
+    try {
+      for (AutoCloseable resource : registeredResources) {
+        resource.close();
+      }
+      prec.close();
+      predicateManager.close();
+    } finally {
+      solver.close();
+    }
   }
 
   @Override
@@ -55,6 +55,7 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.LoopInvariantsWriter;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsWriter;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateMapWriter;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePrecisionStore;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
 import org.sosy_lab.cpachecker.util.predicates.BlockOperator;
@@ -131,6 +132,7 @@ class PredicateCPAStatistics extends AbstractStatistics {
   private final PredicateMapWriter precisionWriter;
   private final LoopInvariantsWriter loopInvariantsWriter;
   private final PredicateAbstractionsWriter abstractionsWriter;
+  private final PredicatePrecisionStore precisionStore;
 
   public PredicateCPAStatistics(PredicateCPA pCpa, BlockOperator pBlk,
       RegionManager pRmgr, AbstractionManager pAbsmgr, CFA pCfa,
@@ -147,6 +149,7 @@ class PredicateCPAStatistics extends AbstractStatistics {
     final FormulaManagerView fmgr = cpa.getSolver().getFormulaManager();
     loopInvariantsWriter = new LoopInvariantsWriter(pCfa, cpa.getLogger(), pAbsmgr, fmgr, pRmgr);
     abstractionsWriter = new PredicateAbstractionsWriter(cpa.getLogger(), fmgr);
+    precisionStore = new PredicatePrecisionStore(pConfig, pCfa, cpa.getLogger(), fmgr, pAbsmgr);
 
     if (exportPredmap && predmapFile != null) {
       precisionWriter = new PredicateMapWriter(cpa.getConfiguration(), fmgr);
@@ -210,7 +213,7 @@ class PredicateCPAStatistics extends AbstractStatistics {
     int maxPredsPerLocation = -1;
     int allLocs = -1;
     int avgPredsPerLocation = -1;
-    if (precisionStatistics) {
+    if (precisionStatistics || precisionStore.isEnabled()) {
       MutablePredicateSets predicates = new MutablePredicateSets();
       {
         Set<Precision> seenPrecisions = Collections.newSetFromMap(new IdentityHashMap<Precision, Boolean>());
@@ -231,6 +234,15 @@ class PredicateCPAStatistics extends AbstractStatistics {
         exportPredmapToFile(predmapFile, predicates);
       }
 
+      if (precisionStore.isEnabled()) {
+        try {
+          precisionStore.store(predicates.locationInstance, predicates.location,
+              predicates.function, predicates.global);
+        } catch (IOException e) {
+          cpa.getLogger().logUserException(Level.WARNING, e, "Could not store precision");
+        }
+      }
+
       maxPredsPerLocation = 0;
       for (Collection<AbstractionPredicate> p : predicates.location.asMap().values()) {
         maxPredsPerLocation = Math.max(maxPredsPerLocation, p.size());
@@ -323,6 +335,9 @@ class PredicateCPAStatistics extends AbstractStatistics {
       if (as.cartesianAbstractionTime.getNumberOfIntervals() > 0) {
         out.println("Number of preds cached for cartesian abs: " + valueWithPercentage(as.numCartesianAbsPredicatesCached, as.numTotalPredicates));
         out.println("Number of preds solved by cartesian abs:  " + valueWithPercentage(as.numCartesianAbsPredicates, as.numTotalPredicates));
+        if (as.numCartesianAbsPredicatesParallel > 0) {
+          out.println("Number of preds checked in parallel:      " + valueWithPercentage(as.numCartesianAbsPredicatesParallel, as.numTotalPredicates));
+        }
       }
       if (as.booleanAbstractionTime.getNumberOfIntervals() > 0) {
         out.println("Number of preds handled by boolean abs:   " + valueWithPercentage(as.numBooleanAbsPredicates, as.numTotalPredicates));
@@ -365,6 +380,9 @@ class PredicateCPAStatistics extends AbstractStatistics {
       }
       if (as.cartesianAbstractionTime.getNumberOfIntervals() > 0) {
         out.println("    Cartesian abstraction:           " + as.cartesianAbstractionTime);
+        if (as.cartesianAbstractionParallelTime != null) {
+          out.println("      Parallel checks of predicates: " + as.cartesianAbstractionParallelTime);
+        }
       }
       if (as.booleanAbstractionTime.getNumberOfIntervals() > 0) {
         out.println("    Boolean abstraction:             " + as.booleanAbstractionTime);
@@ -131,6 +131,7 @@ public class PredicateForcedCovering implements ForcedCovering, StatisticsProvid
                                                    config,
                                                    predicateCpa.getShutdownNotifier(),
                                                    pLogger);
+    predicateCpa.registerResource(imgr);
     fmgr = predicateCpa.getSolver().getFormulaManager();
     predAbsMgr = predicateCpa.getPredicateManager();
     impact = new ImpactUtility(config, fmgr, predAbsMgr);
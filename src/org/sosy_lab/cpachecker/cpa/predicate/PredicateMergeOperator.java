@@ -32,6 +32,7 @@ import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState.ComputeAbstractionState;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 
@@ -68,6 +69,12 @@ public class PredicateMergeOperator implements MergeOperator {
     if (elem1.isAbstractionState() || elem2.isAbstractionState()) {
       // we don't merge if this is an abstraction location
       merged = elem2;
+    } else if (elem1 instanceof ComputeAbstractionState || elem2 instanceof ComputeAbstractionState) {
+      // This is also an abstraction location, but the abstraction is still computed
+      // in the background (cf. PredicatePrecisionAdjustment).
+      // Merging would replace the pending state by a non-abstraction state,
+      // which would then be expanded past the end of the block without an abstraction.
+      merged = elem2;
     } else {
       // don't merge if the elements are in different blocks (they have different abstraction formulas)
       if (!elem1.getAbstractionFormula().equals(elem2.getAbstractionFormula())) {
@@ -23,11 +23,17 @@
  */
 package org.sosy_lab.cpachecker.cpa.predicate;
 
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
 
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
@@ -40,6 +46,7 @@ import com.google.common.base.Functions;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
@@ -65,6 +72,10 @@ public class PredicatePrecision implements Precision {
   private final ImmutableSetMultimap<String, AbstractionPredicate> mFunctionPredicates;
   private final ImmutableSet<AbstractionPredicate> mGlobalPredicates;
 
+  // index for getPredicates(), created lazily
+  private volatile PredicateIndex index = null;
+  private volatile boolean indexUnavailable = false;
+
   public PredicatePrecision(
       Multimap<Pair<CFANode, Integer>, AbstractionPredicate> pLocationInstancePredicates,
       Multimap<CFANode, AbstractionPredicate> pLocalPredicates,
@@ -132,12 +143,31 @@ public class PredicatePrecision implements Precision {
    * @param locInstance How often this location has appeared in the current path.
    */
   public Set<AbstractionPredicate> getPredicates(CFANode loc, Integer locInstance) {
+    PredicateIndex currentIndex = getIndex();
+    if (currentIndex != null) {
+      return currentIndex.getPredicates(loc, locInstance);
+    }
+
     Set<AbstractionPredicate> result = getLocationInstancePredicates().get(Pair.of(loc, locInstance));
     result = Sets.union(result, getLocalPredicates().get(loc));
     result = Sets.union(result, getFunctionPredicates().get(loc.getFunctionName()));
     return Sets.union(result, getGlobalPredicates());
   }
 
+  private @Nullable PredicateIndex getIndex() {
+    PredicateIndex result = index;
+    if (result == null && !indexUnavailable) {
+      // concurrent threads may create the index twice, but this does not matter
+      result = PredicateIndex.create(this);
+      if (result == null) {
+        indexUnavailable = true;
+      } else {
+        index = result;
+      }
+    }
+    return result;
+  }
+
   /**
    * Create a new precision which is a copy of the current one with some
    * additional global predicates.
@@ -223,6 +253,14 @@ public class PredicatePrecision implements Precision {
    * and a second one.
    */
   public PredicatePrecision mergeWith(PredicatePrecision prec) {
+    // avoid rebuilding all multimaps in the common cases
+    // (this class is immutable, so sharing instances is safe)
+    if ((prec == this || prec.isEmpty()) && this.getClass().equals(PredicatePrecision.class)) {
+      return this;
+    } else if (this.isEmpty() && prec.getClass().equals(PredicatePrecision.class)) {
+      return prec;
+    }
+
     // create new set of global predicates
     Collection<AbstractionPredicate> newGlobalPredicates = Lists.newArrayList(getGlobalPredicates());
     newGlobalPredicates.addAll(prec.getGlobalPredicates());
@@ -266,6 +304,13 @@ public class PredicatePrecision implements Precision {
         newLocalPredicates, newFunctionPredicates, newGlobalPredicates);
   }
 
+  private boolean isEmpty() {
+    return getGlobalPredicates().isEmpty()
+        && getFunctionPredicates().isEmpty()
+        && getLocalPredicates().isEmpty()
+        && getLocationInstancePredicates().isEmpty();
+  }
+
   /**
    * Calculates a "difference" from this precision to another precision.
    * The difference is the number of predicates which are present in this precision,
@@ -353,6 +398,115 @@ public class PredicatePrecision implements Precision {
     }
   }
 
+  /**
+   * An index for fast lookups of the predicates of a location.
+   * Each predicate is identified by its (dense) variable number,
+   * and the predicates for each key of the multimaps are stored as a {@link BitSet},
+   * such that the predicates of a location can be computed with a few bitwise ORs.
+   * The results are cached, because the same locations are queried over and over again.
+   */
+  private static final class PredicateIndex {
+
+    private final AbstractionPredicate[] predicatesById;
+
+    private final Map<Pair<CFANode, Integer>, BitSet> locationInstancePredicates;
+    private final Map<CFANode, BitSet> localPredicates;
+    private final Map<String, BitSet> functionPredicates;
+    private final BitSet globalPredicates;
+
+    private final ConcurrentMap<Pair<CFANode, Integer>, ImmutableSet<AbstractionPredicate>> cache =
+        new ConcurrentHashMap<>();
+
+    private PredicateIndex(AbstractionPredicate[] pPredicatesById,
+        Map<Pair<CFANode, Integer>, BitSet> pLocationInstancePredicates,
+        Map<CFANode, BitSet> pLocalPredicates,
+        Map<String, BitSet> pFunctionPredicates,
+        BitSet pGlobalPredicates) {
+      predicatesById = pPredicatesById;
+      locationInstancePredicates = pLocationInstancePredicates;
+      localPredicates = pLocalPredicates;
+      functionPredicates = pFunctionPredicates;
+      globalPredicates = pGlobalPredicates;
+    }
+
+    /**
+     * Create an index for the given precision.
+     * @return The index, or null if the variable numbers of the predicates are not unique
+     *    (this may happen if predicates of several AbstractionManagers are mixed).
+     */
+    private static @Nullable PredicateIndex create(PredicatePrecision pPrecision) {
+      Map<Integer, AbstractionPredicate> predicates = new HashMap<>();
+      int maxId = -1;
+      for (AbstractionPredicate p : Iterables.concat(
+          pPrecision.getLocationInstancePredicates().values(),
+          pPrecision.getLocalPredicates().values(),
+          pPrecision.getFunctionPredicates().values(),
+          pPrecision.getGlobalPredicates())) {
+        int id = p.getVariableNumber();
+        AbstractionPredicate previous = predicates.put(id, p);
+        if (id < 0 || (previous != null && !previous.equals(p))) {
+          return null;
+        }
+        maxId = Math.max(maxId, id);
+      }
+
+      AbstractionPredicate[] predicatesById = new AbstractionPredicate[maxId + 1];
+      for (Map.Entry<Integer, AbstractionPredicate> entry : predicates.entrySet()) {
+        predicatesById[entry.getKey()] = entry.getValue();
+      }
+
+      return new PredicateIndex(predicatesById,
+          toBitSets(pPrecision.getLocationInstancePredicates()),
+          toBitSets(pPrecision.getLocalPredicates()),
+          toBitSets(pPrecision.getFunctionPredicates()),
+          toBitSet(pPrecision.getGlobalPredicates()));
+    }
+
+    private static <K> Map<K, BitSet> toBitSets(ImmutableSetMultimap<K, AbstractionPredicate> pPredicates) {
+      Map<K, BitSet> result = new HashMap<>();
+      for (Map.Entry<K, Collection<AbstractionPredicate>> entry : pPredicates.asMap().entrySet()) {
+        result.put(entry.getKey(), toBitSet(entry.getValue()));
+      }
+      return result;
+    }
+
+    private static BitSet toBitSet(Collection<AbstractionPredicate> pPredicates) {
+      BitSet result = new BitSet();
+      for (AbstractionPredicate p : pPredicates) {
+        result.set(p.getVariableNumber());
+      }
+      return result;
+    }
+
+    private ImmutableSet<AbstractionPredicate> getPredicates(CFANode loc, Integer locInstance) {
+      Pair<CFANode, Integer> key = Pair.of(loc, locInstance);
+      ImmutableSet<AbstractionPredicate> result = cache.get(key);
+      if (result != null) {
+        return result;
+      }
+
+      BitSet bits = (BitSet)globalPredicates.clone();
+      or(bits, functionPredicates.get(loc.getFunctionName()));
+      or(bits, localPredicates.get(loc));
+      or(bits, locationInstancePredicates.get(key));
+
+      ImmutableSet.Builder<AbstractionPredicate> predicates = ImmutableSet.builder();
+      for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+        predicates.add(predicatesById[id]);
+      }
+      result = predicates.build();
+
+      ImmutableSet<AbstractionPredicate> previous = cache.putIfAbsent(key, result);
+      return previous != null ? previous : result;
+    }
+
+    private static void or(BitSet pTarget, @Nullable BitSet pOther) {
+      if (pOther != null) {
+        pTarget.or(pOther);
+      }
+    }
+  }
+
   static ListMultimap<String, AbstractionPredicate> mergePredicatesPerFunction(
       Multimap<Pair<CFANode, Integer>, AbstractionPredicate> newPredicates) {
 
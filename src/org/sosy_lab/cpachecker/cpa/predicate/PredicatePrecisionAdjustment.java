@@ -26,12 +26,21 @@ package org.sosy_lab.cpachecker.cpa.predicate;
 import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.collect.PersistentMap;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
@@ -42,6 +51,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractionManager.AbstractionQuery;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState.ComputeAbstractionState;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionFormula;
@@ -55,6 +65,7 @@ import org.sosy_lab.solver.api.BooleanFormula;
 
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
 
 public class PredicatePrecisionAdjustment implements PrecisionAdjustment {
@@ -75,6 +86,11 @@ public class PredicatePrecisionAdjustment implements PrecisionAdjustment {
   private @Nullable InvariantGenerator invariantGenerator;
   private InvariantSupplier invariants;
 
+  // only present if abstractions are computed asynchronously
+  private @Nullable ParallelAbstractionPool parallelAbstractionPool = null;
+  private final Map<ComputeAbstractionState, PendingAbstraction> pendingAbstractions = new HashMap<>();
+  private final Map<Future<List<byte[]>>, PendingAbstraction> pendingAbstractionsByFuture = new HashMap<>();
+
   public PredicatePrecisionAdjustment(PredicateCPA pCpa,
       InvariantGenerator pInvariantGenerator) {
 
@@ -149,13 +165,51 @@ public class PredicatePrecisionAdjustment implements PrecisionAdjustment {
     try {
       Set<AbstractionPredicate> preds = precision.getPredicates(loc, newLocInstance);
 
-      // compute a new abstraction with a precision based on `preds`
-      newAbstractionFormula = formulaManager.buildAbstraction(
-          loc, abstractionFormula, pathFormula, preds);
+      if (parallelAbstractionPool != null) {
+        AbstractionQuery query = formulaManager.prepareAbstraction(
+            loc, abstractionFormula, pathFormula, preds);
+
+        if (query.getResult().isPresent()) {
+          newAbstractionFormula = query.getResult().get();
+        } else {
+          // the state stays as it is until the abstraction is completed
+          PendingAbstraction pending = new PendingAbstraction(element, query,
+              parallelAbstractionPool.submit(query), pathFormula, invariant, newLocInstance);
+          pendingAbstractions.put(element, pending);
+          pendingAbstractionsByFuture.put(pending.future, pending);
+          return Optional.of(PrecisionAdjustmentResult.create(
+              element, precision, PrecisionAdjustmentResult.Action.CONTINUE));
+        }
+
+      } else {
+        // compute a new abstraction with a precision based on `preds`
+        newAbstractionFormula = formulaManager.buildAbstraction(
+            loc, abstractionFormula, pathFormula, preds);
+      }
     } finally {
       computingAbstractionTime.stop();
     }
 
+    Optional<PredicateAbstractState> state =
+        makeAbstractionState(element, newAbstractionFormula, pathFormula, invariant, newLocInstance);
+    if (!state.isPresent()) {
+      return Optional.absent();
+    }
+    return Optional.of(PrecisionAdjustmentResult.create(
+        state.get(), precision, PrecisionAdjustmentResult.Action.CONTINUE));
+  }
+
+  /**
+   * Create the abstraction state for the given abstraction.
+   * @return The new state, or an absent value if the abstraction is false.
+   */
+  private Optional<PredicateAbstractState> makeAbstractionState(ComputeAbstractionState element,
+      AbstractionFormula pNewAbstractionFormula, PathFormula pathFormula,
+      @Nullable BooleanFormula invariant, int newLocInstance) {
+
+    AbstractionFormula newAbstractionFormula = pNewAbstractionFormula;
+    CFANode loc = element.getLocation();
+
     for (BooleanFormula constraint : element.getConstraints()) {
       // add constraint to the current abstraction, such that it can be used for further steps in the analysis.
       // We manually set the SSA-indices for the constraint with the indices available in the current (new) abstractionFormula.
@@ -187,13 +241,146 @@ public class PredicatePrecisionAdjustment implements PrecisionAdjustment {
     }
 
     // update abstraction locations map
-    abstractionLocations = abstractionLocations.putAndCopy(loc, newLocInstance);
+    PersistentMap<CFANode, Integer> abstractionLocations =
+        element.getAbstractionLocationsOnPath().putAndCopy(loc, newLocInstance);
 
-    PredicateAbstractState state =
+    return Optional.<PredicateAbstractState>of(
         PredicateAbstractState.mkAbstractionState(newPathFormula,
-            newAbstractionFormula, abstractionLocations);
-    return Optional.of(PrecisionAdjustmentResult.create(
-        state, precision, PrecisionAdjustmentResult.Action.CONTINUE));
+            newAbstractionFormula, abstractionLocations));
+  }
+
+  /**
+   * Let the abstractions be computed asynchronously by a pool of solvers.
+   * States that need an abstraction are returned unchanged by the precision adjustment
+   * (they are then pending, cf. {@link #isPendingAbstraction(PredicateAbstractState)}),
+   * and the caller is responsible for replacing them with the result of
+   * {@link #completeAbstraction(ComputeAbstractionState)} once the abstraction is done
+   * (cf. {@link #pollFinishedAbstraction(boolean)}).
+   * Pending states must not be expanded.
+   *
+   * @param pThreads The number of solvers and threads.
+   */
+  public void enableParallelAbstraction(int pThreads, Configuration pConfig,
+      ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
+    if (!formulaManager.supportsExternalAbstraction()) {
+      throw new InvalidConfigurationException(
+          "Parallel computation of abstractions is not supported for abstraction by quantifier elimination.");
+    }
+    parallelAbstractionPool = new ParallelAbstractionPool(pThreads, fmgr,
+        formulaManager.usesCartesianAbstraction(), formulaManager.usesBooleanAbstraction(),
+        pConfig, logger, pShutdownNotifier);
+  }
+
+  /**
+   * Stop the solvers for parallel abstraction, if it was enabled.
+   */
+  void close() throws Exception {
+    if (parallelAbstractionPool != null) {
+      parallelAbstractionPool.close();
+    }
+  }
+
+  public boolean isPendingAbstraction(PredicateAbstractState pState) {
+    return pendingAbstractions.containsKey(pState);
+  }
+
+  public boolean hasPendingAbstractions() {
+    return !pendingAbstractions.isEmpty();
+  }
+
+  /**
+   * Get a pending state whose abstraction computation is done.
+   * @param pWait Whether to wait for an abstraction to be done if there is none yet
+   *    (there needs to be at least one pending state in this case).
+   * @return A pending state that can be completed, or null if there is none and pWait is false.
+   */
+  public @Nullable ComputeAbstractionState pollFinishedAbstraction(boolean pWait)
+      throws InterruptedException {
+    while (true) {
+      Future<List<byte[]>> future = pWait
+          ? parallelAbstractionPool.take()
+          : parallelAbstractionPool.poll();
+      if (future == null) {
+        return null;
+      }
+      PendingAbstraction pending = pendingAbstractionsByFuture.get(future);
+      if (pending != null) {
+        return pending.state;
+      }
+      // cancelled
+    }
+  }
+
+  /**
+   * Create the abstraction state for a pending state,
+   * waiting for the abstraction computation if necessary.
+   * Afterwards, the state is no longer pending.
+   * @return The abstraction state, or an absent value if the abstraction is false.
+   */
+  public Optional<PredicateAbstractState> completeAbstraction(ComputeAbstractionState pState)
+      throws CPAException, InterruptedException {
+    PendingAbstraction pending = pendingAbstractions.remove(pState);
+    checkNotNull(pending, "State has no pending abstraction");
+    pendingAbstractionsByFuture.remove(pending.future);
+
+    totalPrecTime.start();
+    try {
+      List<byte[]> cubes;
+      try {
+        cubes = pending.future.get();
+      } catch (ExecutionException e) {
+        Throwable t = e.getCause();
+        Throwables.propagateIfPossible(t, SolverException.class, InterruptedException.class);
+        throw new UnexpectedCheckedException("abstraction computation", t);
+      }
+
+      AbstractionFormula newAbstractionFormula;
+      computingAbstractionTime.start();
+      try {
+        newAbstractionFormula = formulaManager.finishAbstraction(pending.query, cubes);
+      } finally {
+        computingAbstractionTime.stop();
+      }
+
+      return makeAbstractionState(pState, newAbstractionFormula,
+          pending.pathFormula, pending.invariant, pending.newLocInstance);
+
+    } catch (SolverException e) {
+      throw new CPAException("Solver Failure", e);
+    } finally {
+      totalPrecTime.stop();
+    }
+  }
+
+  /**
+   * Stop the abstraction computation for a pending state that is no longer needed.
+   */
+  public void cancelAbstraction(ComputeAbstractionState pState) {
+    PendingAbstraction pending = pendingAbstractions.remove(pState);
+    if (pending != null) {
+      pendingAbstractionsByFuture.remove(pending.future);
+      pending.future.cancel(true);
+    }
+  }
+
+  private static class PendingAbstraction {
+    private final ComputeAbstractionState state;
+    private final AbstractionQuery query;
+    private final Future<List<byte[]>> future;
+    private final PathFormula pathFormula;
+    private final @Nullable BooleanFormula invariant;
+    private final int newLocInstance;
+
+    private PendingAbstraction(ComputeAbstractionState pState, AbstractionQuery pQuery,
+        Future<List<byte[]>> pFuture, PathFormula pPathFormula,
+        @Nullable BooleanFormula pInvariant, int pNewLocInstance) {
+      state = pState;
+      query = pQuery;
+      future = pFuture;
+      pathFormula = pPathFormula;
+      invariant = pInvariant;
+      newLocInstance = pNewLocInstance;
+    }
   }
 
   private void extractInvariants() throws CPAException, InterruptedException {
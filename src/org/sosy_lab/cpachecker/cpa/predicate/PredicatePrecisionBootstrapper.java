@@ -40,6 +40,7 @@ import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateMapParser;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePrecisionStore;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
@@ -62,6 +63,7 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
 
   private final FormulaManagerView formulaManagerView;
   private final AbstractionManager abstractionManager;
+  private final PredicatePrecisionStore precisionStore;
 
   private final Configuration config;
   private final LogManager logger;
@@ -80,6 +82,8 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
     this.formulaManagerView = formulaManagerView;
 
     config.inject(this);
+
+    precisionStore = new PredicatePrecisionStore(config, cfa, logger, formulaManagerView, abstractionManager);
   }
 
   private PredicatePrecision internalPrepareInitialPredicates() throws InvalidConfigurationException {
@@ -106,6 +110,14 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
       }
     }
 
+    if (precisionStore.isEnabled()) {
+      try {
+        result = result.mergeWith(precisionStore.load());
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not read stored precision");
+      }
+    }
+
     return result;
   }
 
@@ -0,0 +1,105 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+
+public class PredicatePrecisionTest {
+
+  private CFANode loc1;
+  private CFANode loc2;
+  private AbstractionPredicate p0;
+  private AbstractionPredicate p1;
+  private AbstractionPredicate p2;
+  private AbstractionPredicate p3;
+
+  @Before
+  public void setUp() {
+    loc1 = new CFANode("f");
+    loc2 = new CFANode("g");
+    p0 = mockPredicate(0);
+    p1 = mockPredicate(1);
+    p2 = mockPredicate(2);
+    p3 = mockPredicate(3);
+  }
+
+  private static AbstractionPredicate mockPredicate(int variableNumber) {
+    AbstractionPredicate p = mock(AbstractionPredicate.class);
+    when(p.getVariableNumber()).thenReturn(variableNumber);
+    return p;
+  }
+
+  @Test
+  public void getPredicatesCombinesAllLevels() {
+    PredicatePrecision prec = new PredicatePrecision(
+        ImmutableSetMultimap.of(Pair.of(loc1, 1), p3),
+        ImmutableSetMultimap.of(loc1, p2),
+        ImmutableSetMultimap.of("f", p1),
+        ImmutableList.of(p0));
+
+    assertThat(prec.getPredicates(loc1, 1)).containsExactly(p0, p1, p2, p3);
+    assertThat(prec.getPredicates(loc1, 2)).containsExactly(p0, p1, p2);
+    assertThat(prec.getPredicates(loc2, 1)).containsExactly(p0);
+
+    // results are cached, but must not differ
+    assertThat(prec.getPredicates(loc1, 1)).containsExactly(p0, p1, p2, p3);
+  }
+
+  @Test
+  public void getPredicatesWithAmbiguousVariableNumbers() {
+    AbstractionPredicate other = mockPredicate(1);
+    PredicatePrecision prec = PredicatePrecision.empty()
+        .addLocalPredicates(ImmutableSetMultimap.of(loc1, p1, loc1, other));
+
+    assertThat(prec.getPredicates(loc1, 1)).containsExactly(p1, other);
+  }
+
+  @Test
+  public void mergeWith() {
+    PredicatePrecision prec1 = PredicatePrecision.empty()
+        .addLocalPredicates(ImmutableSetMultimap.of(loc1, p1));
+    PredicatePrecision prec2 = PredicatePrecision.empty()
+        .addGlobalPredicates(ImmutableList.of(p0))
+        .addLocalPredicates(ImmutableSetMultimap.of(loc2, p2));
+
+    assertThat(prec1.mergeWith(PredicatePrecision.empty())).isSameAs(prec1);
+    assertThat(PredicatePrecision.empty().mergeWith(prec1)).isSameAs(prec1);
+    assertThat(prec1.mergeWith(prec1)).isSameAs(prec1);
+
+    PredicatePrecision merged = prec1.mergeWith(prec2);
+    assertThat(merged.getPredicates(loc1, 1)).containsExactly(p0, p1);
+    assertThat(merged.getPredicates(loc2, 1)).containsExactly(p0, p2);
+    assertThat(merged).isEqualTo(prec2.mergeWith(prec1));
+  }
+}
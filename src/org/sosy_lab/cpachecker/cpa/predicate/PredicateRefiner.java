@@ -109,6 +109,7 @@ public abstract class PredicateRefiner implements Refiner {
         config,
         predicateCpa.getShutdownNotifier(),
         logger);
+    predicateCpa.registerResource(manager);
 
     PathChecker pathChecker = new PathChecker(
         config,
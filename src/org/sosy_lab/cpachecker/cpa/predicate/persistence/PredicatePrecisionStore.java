@@ -0,0 +1,391 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.*;
+import static org.sosy_lab.cpachecker.util.CFAUtils.leavingEdges;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+
+import com.google.common.base.Function;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * This class stores the predicates of a precision in a binary file
+ * and loads them again in a later run of the analysis,
+ * such that re-verifications of a changed program can start with the
+ * precision of the previous run.
+ *
+ * The predicates are grouped by the function they belong to, and each function
+ * is stored together with a hash of its CFA. When loading, only the predicates
+ * of functions whose CFA did not change are used. Locations inside a function
+ * are identified by their position in the function (ordered by node number)
+ * instead of their global node number, because the latter changes as soon as
+ * any function before this one is changed.
+ *
+ * File format (all numbers in the format of {@link DataOutputStream}):
+ *
+ * - a header with a magic number and the version of the format,
+ * - the predicates that are used globally,
+ * - an index with the name, the hash, the offset and the length of each function block,
+ * - the function blocks with function-wide, location-specific,
+ *   and location-instance-specific predicates.
+ *
+ * Each predicate is stored as a self-contained SMTLIB2 string
+ * with its declarations and an "(assert ...)" statement.
+ */
+@Options(prefix="cpa.predicate.incremental")
+public class PredicatePrecisionStore {
+
+  private static final int MAGIC = 0x50524543; // "PREC"
+  private static final int VERSION = 1;
+
+  @Option(secure=true, name="enable",
+      description="Load the predicates of functions that did not change since the last run"
+          + " from a file as initial precision, and store the final precision to this file.")
+  private boolean enabled = false;
+
+  @Option(secure=true, name="file",
+      description="File in which the precision is kept between runs of the analysis."
+          + " A relative path is resolved against the output directory,"
+          + " so later runs need to use the same output directory.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path storeFile = Paths.get("predicates.bin");
+
+  private final CFA cfa;
+  private final LogManager logger;
+  private final FormulaManagerView fmgr;
+  private final AbstractionManager amgr;
+
+  // lazily computed
+  private Map<String, FunctionInfo> functions = null;
+
+  private static final Function<Pair<CFANode, Integer>, String> GET_FUNCTION_OF_LOCATION =
+      new Function<Pair<CFANode, Integer>, String>() {
+        @Override
+        public String apply(Pair<CFANode, Integer> pLocation) {
+          return pLocation.getFirst().getFunctionName();
+        }
+      };
+
+  /** The nodes of a function ordered by node number, and the hash of the function. */
+  private static class FunctionInfo {
+    private final List<CFANode> nodes;
+    private final Map<CFANode, Integer> positions;
+    private final HashCode hash;
+
+    private FunctionInfo(List<CFANode> pNodes, Map<CFANode, Integer> pPositions, HashCode pHash) {
+      nodes = pNodes;
+      positions = pPositions;
+      hash = pHash;
+    }
+  }
+
+  public PredicatePrecisionStore(Configuration config, CFA pCfa, LogManager pLogger,
+      FormulaManagerView pFmgr, AbstractionManager pAmgr) throws InvalidConfigurationException {
+    config.inject(this);
+    cfa = checkNotNull(pCfa);
+    logger = checkNotNull(pLogger);
+    fmgr = checkNotNull(pFmgr);
+    amgr = checkNotNull(pAmgr);
+  }
+
+  public boolean isEnabled() {
+    return enabled && storeFile != null;
+  }
+
+  /**
+   * Load the predicates that were stored in a previous run,
+   * ignoring the predicates of all functions that changed in between.
+   * @return the loaded precision, or an empty precision if nothing was stored yet
+   */
+  public PredicatePrecision load() throws IOException {
+    if (!isEnabled() || !storeFile.exists()) {
+      return PredicatePrecision.empty();
+    }
+
+    byte[] content = storeFile.asByteSource().read();
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      logger.log(Level.WARNING, "Ignoring stored precision in", storeFile, "because it has an unknown format.");
+      return PredicatePrecision.empty();
+    }
+
+    Set<AbstractionPredicate> globalPredicates = readPredicates(in);
+    SetMultimap<String, AbstractionPredicate> functionPredicates = HashMultimap.create();
+    SetMultimap<CFANode, AbstractionPredicate> localPredicates = HashMultimap.create();
+    SetMultimap<Pair<CFANode, Integer>, AbstractionPredicate> locationInstancePredicates = HashMultimap.create();
+
+    int reusedFunctions = 0;
+    int changedFunctions = 0;
+    int numberOfFunctions = in.readInt();
+    for (int i = 0; i < numberOfFunctions; i++) {
+      String function = in.readUTF();
+      byte[] hash = new byte[in.readInt()];
+      in.readFully(hash);
+      int offset = in.readInt();
+      int length = in.readInt();
+
+      FunctionInfo info = getFunctions().get(function);
+      if (info == null || !info.hash.equals(HashCode.fromBytes(hash))) {
+        changedFunctions++;
+        continue;
+      }
+      reusedFunctions++;
+
+      // read only the block of this function
+      DataInputStream block = new DataInputStream(new ByteArrayInputStream(content, offset, length));
+      functionPredicates.putAll(function, readPredicates(block));
+      int numberOfLocations = block.readInt();
+      for (int j = 0; j < numberOfLocations; j++) {
+        CFANode node = info.nodes.get(block.readInt());
+        localPredicates.putAll(node, readPredicates(block));
+      }
+      int numberOfLocationInstances = block.readInt();
+      for (int j = 0; j < numberOfLocationInstances; j++) {
+        CFANode node = info.nodes.get(block.readInt());
+        int instance = block.readInt();
+        locationInstancePredicates.putAll(Pair.of(node, instance), readPredicates(block));
+      }
+    }
+
+    logger.log(Level.INFO, "Reusing the stored precision of", reusedFunctions, "functions,",
+        changedFunctions, "functions were changed or removed.");
+
+    return new PredicatePrecision(locationInstancePredicates, localPredicates,
+        functionPredicates, globalPredicates);
+  }
+
+  /**
+   * Store the given predicates, replacing the content of the file.
+   * The maps have the same meaning as in {@link PredicatePrecision}.
+   */
+  public void store(
+      SetMultimap<Pair<CFANode, Integer>, AbstractionPredicate> locationInstancePredicates,
+      SetMultimap<CFANode, AbstractionPredicate> localPredicates,
+      SetMultimap<String, AbstractionPredicate> functionPredicates,
+      Set<AbstractionPredicate> globalPredicates) throws IOException {
+
+    // write the function blocks first, because the index needs their offsets
+    Map<String, FunctionInfo> allFunctions = getFunctions();
+    Set<String> usedFunctions = Sets.newTreeSet(functionPredicates.keySet());
+    for (CFANode node : localPredicates.keySet()) {
+      usedFunctions.add(node.getFunctionName());
+    }
+    for (Pair<CFANode, Integer> location : locationInstancePredicates.keySet()) {
+      usedFunctions.add(location.getFirst().getFunctionName());
+    }
+    usedFunctions.retainAll(allFunctions.keySet());
+
+    ImmutableListMultimap<String, CFANode> localNodes =
+        Multimaps.index(localPredicates.keySet(), CFAUtils.GET_FUNCTION);
+    ImmutableListMultimap<String, Pair<CFANode, Integer>> instanceLocations =
+        Multimaps.index(locationInstancePredicates.keySet(), GET_FUNCTION_OF_LOCATION);
+
+    Map<String, byte[]> blocks = new HashMap<>();
+    for (String function : usedFunctions) {
+      FunctionInfo info = allFunctions.get(function);
+      ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream();
+      DataOutputStream block = new DataOutputStream(blockBuffer);
+
+      writePredicates(block, functionPredicates.get(function));
+      List<CFANode> nodes = localNodes.get(function);
+      block.writeInt(nodes.size());
+      for (CFANode node : nodes) {
+        block.writeInt(info.positions.get(node));
+        writePredicates(block, localPredicates.get(node));
+      }
+      List<Pair<CFANode, Integer>> locations = instanceLocations.get(function);
+      block.writeInt(locations.size());
+      for (Pair<CFANode, Integer> location : locations) {
+        block.writeInt(info.positions.get(location.getFirst()));
+        block.writeInt(location.getSecond());
+        writePredicates(block, locationInstancePredicates.get(location));
+      }
+
+      block.flush();
+      blocks.put(function, blockBuffer.toByteArray());
+    }
+
+    ByteArrayOutputStream headerBuffer = new ByteArrayOutputStream();
+    DataOutputStream header = new DataOutputStream(headerBuffer);
+    header.writeInt(MAGIC);
+    header.writeInt(VERSION);
+    writePredicates(header, globalPredicates);
+
+    // compute the size of the index to know where the blocks start
+    ByteArrayOutputStream indexBuffer = new ByteArrayOutputStream();
+    DataOutputStream index = new DataOutputStream(indexBuffer);
+    int offset = header.size() + indexSize(usedFunctions, allFunctions);
+    index.writeInt(usedFunctions.size());
+    for (String function : usedFunctions) {
+      byte[] hash = allFunctions.get(function).hash.asBytes();
+      index.writeUTF(function);
+      index.writeInt(hash.length);
+      index.write(hash);
+      index.writeInt(offset);
+      index.writeInt(blocks.get(function).length);
+      offset += blocks.get(function).length;
+    }
+
+    header.flush();
+    index.flush();
+
+    Files.createParentDirs(storeFile);
+    try (OutputStream out = storeFile.asByteSink().openBufferedStream()) {
+      headerBuffer.writeTo(out);
+      indexBuffer.writeTo(out);
+      for (String function : usedFunctions) {
+        out.write(blocks.get(function));
+      }
+    }
+  }
+
+  private static int indexSize(Collection<String> pFunctions, Map<String, FunctionInfo> pAllFunctions)
+      throws IOException {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(buffer);
+    out.writeInt(pFunctions.size());
+    for (String function : pFunctions) {
+      out.writeUTF(function);
+      out.writeInt(0);
+      out.write(pAllFunctions.get(function).hash.asBytes());
+      out.writeInt(0);
+      out.writeInt(0);
+    }
+    out.flush();
+    return out.size();
+  }
+
+  private void writePredicates(DataOutputStream out, Collection<AbstractionPredicate> predicates)
+      throws IOException {
+    out.writeInt(predicates.size());
+    for (AbstractionPredicate pred : predicates) {
+      Pair<String, List<String>> p = splitFormula(fmgr, pred.getSymbolicAtom());
+      byte[] smtString = (LINE_JOINER.join(p.getSecond()) + "\n" + p.getFirst())
+          .getBytes(StandardCharsets.UTF_8);
+      out.writeInt(smtString.length);
+      out.write(smtString);
+    }
+  }
+
+  private Set<AbstractionPredicate> readPredicates(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    Set<AbstractionPredicate> result = Sets.newHashSetWithExpectedSize(size);
+    for (int i = 0; i < size; i++) {
+      byte[] smtString = new byte[in.readInt()];
+      in.readFully(smtString);
+      try {
+        result.add(amgr.makePredicate(fmgr.parse(new String(smtString, StandardCharsets.UTF_8))));
+      } catch (IllegalArgumentException e) {
+        // a predicate is only a hint for the analysis, so we can ignore it
+        logger.logDebugException(e, "Could not parse stored predicate");
+      }
+    }
+    return result;
+  }
+
+  private Map<String, FunctionInfo> getFunctions() {
+    if (functions == null) {
+      functions = new HashMap<>();
+      ImmutableListMultimap<String, CFANode> nodesPerFunction = Multimaps.index(
+          Ordering.natural().sortedCopy(cfa.getAllNodes()), CFAUtils.GET_FUNCTION);
+
+      for (String function : nodesPerFunction.keySet()) {
+        ImmutableList<CFANode> nodes = nodesPerFunction.get(function);
+        Map<CFANode, Integer> positions = new HashMap<>();
+        for (CFANode node : nodes) {
+          positions.put(node, positions.size());
+        }
+        functions.put(function, new FunctionInfo(nodes, positions, hashFunction(nodes, positions)));
+      }
+    }
+    return functions;
+  }
+
+  /**
+   * Compute a hash of the CFA of a function that does not depend on the
+   * node numbers, such that it does not change if other functions are changed.
+   */
+  private static HashCode hashFunction(List<CFANode> nodes, Map<CFANode, Integer> positions) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (CFANode node : nodes) {
+      hasher.putInt(positions.get(node));
+      for (CFAEdge edge : leavingEdges(node)) {
+        CFANode successor = edge.getSuccessor();
+        hasher.putString(edge.getEdgeType().name(), StandardCharsets.UTF_8);
+        hasher.putString(edge.getDescription(), StandardCharsets.UTF_8);
+        Integer successorPosition = positions.get(successor);
+        if (successorPosition != null) {
+          hasher.putInt(successorPosition);
+        } else {
+          // edge to another function
+          hasher.putString(successor.getFunctionName(), StandardCharsets.UTF_8);
+        }
+      }
+    }
+    return hasher.hash();
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Files.DeleteOnCloseFile;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicatePrecision;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
+import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
+import org.sosy_lab.cpachecker.util.predicates.bdd.BDDManagerFactory;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.NumeralFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.solver.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.solver.test.SolverBasedTest0;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+
+public class PredicatePrecisionStoreTest extends SolverBasedTest0 {
+
+  private static final String PROGRAM = ""
+      + "int f(int x) { return x + 1; }\n"
+      + "int g(int y) { return y - %d; }\n"
+      + "int main() { int a = f(1); return g(a); }\n";
+
+  private DeleteOnCloseFile storeFile;
+  private Configuration storeConfig;
+  private FormulaManagerView fmgrv;
+  private AbstractionManager amgr;
+
+  private AbstractionPredicate globalPred;
+  private AbstractionPredicate functionPred;
+  private AbstractionPredicate localPred;
+  private AbstractionPredicate instancePredF;
+  private AbstractionPredicate instancePredG;
+
+  @Before
+  public void setUp() throws Exception {
+    storeFile = Files.createTempFile("predicates", ".bin");
+    storeConfig = Configuration.builder()
+        .copyFrom(config)
+        .setOption("cpa.predicate.incremental.enable", "true")
+        .setOption("cpa.predicate.incremental.file", storeFile.toPath().toString())
+        .build();
+
+    Solver solver = new Solver(factory, config, TestLogManager.getInstance());
+    fmgrv = solver.getFormulaManager();
+    RegionManager regionManager = new BDDManagerFactory(config, logger).createRegionManager();
+    amgr = new AbstractionManager(regionManager, fmgrv, config, logger, solver);
+
+    NumeralFormulaManagerView<IntegerFormula, IntegerFormula> ifmgr = fmgrv.getIntegerFormulaManager();
+    IntegerFormula x = ifmgr.makeVariable("x");
+    globalPred = amgr.makePredicate(ifmgr.equal(x, ifmgr.makeNumber(0)));
+    functionPred = amgr.makePredicate(ifmgr.greaterThan(x, ifmgr.makeNumber(1)));
+    localPred = amgr.makePredicate(ifmgr.greaterThan(x, ifmgr.makeNumber(2)));
+    instancePredF = amgr.makePredicate(ifmgr.greaterThan(x, ifmgr.makeNumber(3)));
+    instancePredG = amgr.makePredicate(ifmgr.greaterThan(x, ifmgr.makeNumber(4)));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    storeFile.close();
+  }
+
+  private PredicatePrecisionStore createStore(CFA cfa) throws Exception {
+    return new PredicatePrecisionStore(storeConfig, cfa, logger, fmgrv, amgr);
+  }
+
+  /**
+   * Store some predicates for the functions f and g of the given program.
+   */
+  private void storePredicates(CFA cfa) throws Exception {
+    CFANode entryF = cfa.getFunctionHead("f");
+    CFANode exitF = cfa.getFunctionHead("f").getExitNode();
+    CFANode exitG = cfa.getFunctionHead("g").getExitNode();
+
+    SetMultimap<Pair<CFANode, Integer>, AbstractionPredicate> locationInstancePredicates = HashMultimap.create();
+    locationInstancePredicates.put(Pair.of(exitF, 1), instancePredF);
+    locationInstancePredicates.put(Pair.of(exitG, 0), instancePredG);
+    SetMultimap<CFANode, AbstractionPredicate> localPredicates = HashMultimap.create();
+    localPredicates.put(entryF, localPred);
+    SetMultimap<String, AbstractionPredicate> functionPredicates = HashMultimap.create();
+    functionPredicates.put("g", functionPred);
+
+    createStore(cfa).store(locationInstancePredicates, localPredicates, functionPredicates,
+        ImmutableSet.of(globalPred));
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    storePredicates(TestDataTools.makeCFA(String.format(PROGRAM, 1)));
+
+    // parse again, such that the nodes are different objects
+    CFA cfa = TestDataTools.makeCFA(String.format(PROGRAM, 1));
+    PredicatePrecision precision = createStore(cfa).load();
+
+    CFANode entryF = cfa.getFunctionHead("f");
+    CFANode exitF = cfa.getFunctionHead("f").getExitNode();
+    CFANode exitG = cfa.getFunctionHead("g").getExitNode();
+    assertThat(precision.getGlobalPredicates()).containsExactly(globalPred);
+    assertThat(precision.getFunctionPredicates().get("g")).containsExactly(functionPred);
+    assertThat(precision.getLocalPredicates().get(entryF)).containsExactly(localPred);
+    assertThat(precision.getLocationInstancePredicates().get(Pair.of(exitF, 1))).containsExactly(instancePredF);
+    assertThat(precision.getLocationInstancePredicates().get(Pair.of(exitG, 0))).containsExactly(instancePredG);
+    assertThat(precision.getLocationInstancePredicates().size()).isEqualTo(2);
+  }
+
+  @Test
+  public void testChangedFunctionIsSkipped() throws Exception {
+    storePredicates(TestDataTools.makeCFA(String.format(PROGRAM, 1)));
+
+    // only g is changed
+    CFA cfa = TestDataTools.makeCFA(String.format(PROGRAM, 2));
+    PredicatePrecision precision = createStore(cfa).load();
+
+    CFANode entryF = cfa.getFunctionHead("f");
+    CFANode exitF = cfa.getFunctionHead("f").getExitNode();
+    assertThat(precision.getGlobalPredicates()).containsExactly(globalPred);
+    assertThat(precision.getFunctionPredicates().isEmpty()).isTrue();
+    assertThat(precision.getLocalPredicates().get(entryF)).containsExactly(localPred);
+    assertThat(precision.getLocationInstancePredicates().keySet()).containsExactly(Pair.of(exitF, 1));
+    assertThat(precision.getLocationInstancePredicates().get(Pair.of(exitF, 1))).containsExactly(instancePredF);
+  }
+}
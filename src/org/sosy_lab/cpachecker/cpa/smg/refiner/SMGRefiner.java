@@ -31,7 +31,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import org.sosy_lab.common.ShutdownNotifier;
@@ -206,13 +205,10 @@ public class SMGRefiner extends GenericRefiner<SMGState, SMGInterpolant> {
       refinementInformation.put(root, Collections.singletonList(precision));
     }
 
-    for (Entry<ARGState, List<Precision>> info : refinementInformation.entrySet()) {
-
-      Predicate<? super Precision> precisionType = VariableTrackingPrecision.isMatchingCPAClass(SMGCPA.class);
-      List<Predicate<? super Precision>> precisionTypes = new ArrayList<>(1);
-      precisionTypes.add(precisionType);
-      pReached.removeSubtree(info.getKey(), info.getValue(), precisionTypes);
-    }
+    Predicate<? super Precision> precisionType = VariableTrackingPrecision.isMatchingCPAClass(SMGCPA.class);
+    List<Predicate<? super Precision>> precisionTypes = new ArrayList<>(1);
+    precisionTypes.add(precisionType);
+    pReached.removeSubtrees(refinementInformation, precisionTypes);
 
 
   }
@@ -41,12 +41,14 @@ import org.sosy_lab.cpachecker.cpa.conditions.path.AssignmentsInPathCondition.Un
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.UseDefBasedInterpolator;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisEdgeInterpolator;
+import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisFeasibilityChecker;
 import org.sosy_lab.cpachecker.cpa.value.refiner.utils.ValueAnalysisInterpolantManager;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
 import org.sosy_lab.cpachecker.exceptions.RefinementFailedException.Reason;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.refinement.EdgeInterpolator;
 import org.sosy_lab.cpachecker.util.refinement.FeasibilityChecker;
 import org.sosy_lab.cpachecker.util.refinement.GenericPathInterpolator;
 import org.sosy_lab.cpachecker.util.refinement.GenericPrefixProvider;
@@ -82,6 +84,9 @@ public class ValueAnalysisPathInterpolator
   private UniqueAssignmentsInPathConditionState assignments = null;
 
   private final CFA cfa;
+  private final Configuration config;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
 
   private final ValueAnalysisInterpolantManager interpolantManager;
 
@@ -111,6 +116,9 @@ public class ValueAnalysisPathInterpolator
 
     pConfig.inject(this);
     cfa = pCfa;
+    config = pConfig;
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
     interpolantManager = ValueAnalysisInterpolantManager.getInstance();
   }
 
@@ -171,6 +179,21 @@ public class ValueAnalysisPathInterpolator
     return interpolants;
   }
 
+  @Override
+  protected Pair<EdgeInterpolator<ValueAnalysisState, ValueAnalysisInterpolant>, FeasibilityChecker<ValueAnalysisState>>
+      createIndependentInterpolator() throws InvalidConfigurationException {
+
+    StrongestPostOperator<ValueAnalysisState> strongestPostOp =
+        new ValueAnalysisStrongestPostOperator(logger, Configuration.builder().build(), cfa);
+    FeasibilityChecker<ValueAnalysisState> checker =
+        new ValueAnalysisFeasibilityChecker(strongestPostOp, logger, cfa, config);
+
+    EdgeInterpolator<ValueAnalysisState, ValueAnalysisInterpolant> edgeInterpolator =
+        new ValueAnalysisEdgeInterpolator(checker, strongestPostOp, config, logger, shutdownNotifier, cfa);
+
+    return Pair.of(edgeInterpolator, checker);
+  }
+
   @Override
   public String getName() {
     return getClass().getSimpleName();
@@ -32,7 +32,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -206,17 +205,15 @@ public class ValueAnalysisRefiner
       refinementInformation.put(root, precisions);
     }
 
-    for (Entry<ARGState, List<Precision>> info : refinementInformation.entrySet()) {
-      shutdownNotifier.shutdownIfNecessary();
-      List<Predicate<? super Precision>> precisionTypes = new ArrayList<>(2);
+    shutdownNotifier.shutdownIfNecessary();
+    List<Predicate<? super Precision>> precisionTypes = new ArrayList<>(2);
 
-      precisionTypes.add(VariableTrackingPrecision.isMatchingCPAClass(ValueAnalysisCPA.class));
-      if (predicatePrecisionIsAvailable) {
-        precisionTypes.add(Predicates.instanceOf(PredicatePrecision.class));
-      }
-
-      pReached.removeSubtree(info.getKey(), info.getValue(), precisionTypes);
+    precisionTypes.add(VariableTrackingPrecision.isMatchingCPAClass(ValueAnalysisCPA.class));
+    if (predicatePrecisionIsAvailable) {
+      precisionTypes.add(Predicates.instanceOf(PredicatePrecision.class));
     }
+
+    pReached.removeSubtrees(refinementInformation, precisionTypes);
   }
 
   private boolean isPredicatePrecisionAvailable(final ARGReachedSet pReached) {
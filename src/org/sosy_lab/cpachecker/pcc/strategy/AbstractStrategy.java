@@ -33,6 +33,7 @@ import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -48,6 +49,7 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -193,6 +195,12 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     protected int countIterations = 0;
     protected int proofSize = 0;
 
+    // checks done by helper threads of a parallel proof check, which have their own timers
+    private long helperTransferNanos = 0;
+    private int helperTransferCalls = 0;
+    private long helperStopNanos = 0;
+    private int helperStopCalls = 0;
+
     @Override
     public String getName() {
       return "Proof Checking Strategy Statistics";
@@ -218,6 +226,22 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
       countIterations++;
     }
 
+    /**
+     * Add the times of the successor and covering checks of a helper thread
+     * to the times of the successor and covering checks.
+     * The timers must not be running anymore.
+     */
+    public void addHelperTimers(Timer pTransferTimer, Timer pStopTimer) {
+      helperTransferNanos += pTransferTimer.getSumTime().asNanos();
+      helperTransferCalls += pTransferTimer.getNumberOfIntervals();
+      helperStopNanos += pStopTimer.getSumTime().asNanos();
+      helperStopCalls += pStopTimer.getNumberOfIntervals();
+    }
+
+    private static String formatSum(Timer pTimer, long pAdditionalNanos) {
+      return TimeSpan.ofNanos(pTimer.getSumTime().asNanos() + pAdditionalNanos).formatAs(TimeUnit.SECONDS);
+    }
+
     @Override
     public void printStatistics(PrintStream out, Result pResult,
         ReachedSet pReached) {
@@ -226,10 +250,12 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
       out.println("Number of proof elements:                     " + proofSize);
       out.println();
       out.println("  Time for preparing proof for checking:          " + preparationTimer);
-      out.println("  Time for abstract successor checks:     " + transferTimer + " (Calls: "
-          + transferTimer.getNumberOfIntervals() + ")");
-      out.println("  Time for covering checks:               " + stopTimer + " (Calls: "
-          + stopTimer.getNumberOfIntervals()
+      out.println("  Time for abstract successor checks:     "
+          + formatSum(transferTimer, helperTransferNanos) + " (Calls: "
+          + (transferTimer.getNumberOfIntervals() + helperTransferCalls) + ")");
+      out.println("  Time for covering checks:               "
+          + formatSum(stopTimer, helperStopNanos) + " (Calls: "
+          + (stopTimer.getNumberOfIntervals() + helperStopCalls)
           + ")");
       out.println(" Time for checking property:          "   + propertyCheckingTimer);
     }
@@ -82,6 +82,12 @@ public class PCCStrategyBuilder {
               }
             }
           }
+        } else if (paramTypes.length == 5) {
+          if (checkRequiredParameters(paramTypes)
+              && paramTypes[3] == PropertyCheckerCPA.class && paramTypes[4] == CFA.class
+              && (pCpa == null || pCpa instanceof PropertyCheckerCPA)) {
+            return (PCCStrategy) con.newInstance(pConfig, pLogger, pShutdownNotifier, pCpa, pCfa);
+          }
         }
       }
 
@@ -89,7 +95,8 @@ public class PCCStrategyBuilder {
           "Cannot create PCC Strategy "
               + pPccStrategy
               +
-              " if it does not provide a constructor (Configuration, LogManager, ShutdownNotifier, (PropertyCheckerCPA|ProofChecker)");
+              " if it does not provide a constructor (Configuration, LogManager, ShutdownNotifier, (PropertyCheckerCPA|ProofChecker)"
+              + " or (Configuration, LogManager, ShutdownNotifier, PropertyCheckerCPA, CFA)");
     } catch (SecurityException | InstantiationException | IllegalAccessException | IllegalArgumentException
         | InvocationTargetException e) {
       throw new UnsupportedOperationException(
@@ -177,7 +177,7 @@ public class ARG_CMCStrategy extends AbstractStrategy {
           // check current partial ARG
           logger.log(Level.INFO, "Start checking partial ARG ", i);
           if (roots[i] == null
-              || !checkPartialARG(factory.create(), roots[i], incompleteStates, i, cpa)) {
+              || !checkPartialARG(factory, roots[i], incompleteStates, i, cpa)) {
             logger.log(Level.FINE, "Checking of partial ARG ", i, " failed.");
             return false;
           }
@@ -302,7 +302,7 @@ public class ARG_CMCStrategy extends AbstractStrategy {
           // check current partial ARG
           logger.log(Level.INFO, "Start checking partial ARG ", i);
           if (!checkResult.get() || roots[i] == null
-              || !checkPartialARG(factory.create(), roots[i], incompleteStates, i, cpas[i])) {
+              || !checkPartialARG(factory, roots[i], incompleteStates, i, cpas[i])) {
             logger.log(Level.FINE, "Checking of partial ARG ", i, " failed.");
             return false;
           }
@@ -335,16 +335,17 @@ public class ARG_CMCStrategy extends AbstractStrategy {
     return false;
   }
 
-   private boolean checkPartialARG(ReachedSet pReachedSet, ARGState pRoot, List<ARGState> pIncompleteStates,
+   private boolean checkPartialARG(ReachedSetFactory pFactory, ARGState pRoot, List<ARGState> pIncompleteStates,
       int iterationNumber, ConfigurableProgramAnalysis cpa) throws CPAException, InterruptedException,
       InvalidConfigurationException {
     logger.log(Level.FINER, "Set up proof checking for partial ARG ", iterationNumber);
     // set up proof checker
     logger.log(Level.FINEST, "Initialize reached set");
+    ReachedSet reachedSet = pFactory.create();
     CFANode mainFun = AbstractStates.extractLocation(pRoot);
     if (mainFun == null) { throw new InvalidConfigurationException(
         "Require that ARG states contain location information."); }
-    pReachedSet.add(cpa.getInitialState(mainFun, StateSpacePartition.getDefaultPartition()),
+    reachedSet.add(cpa.getInitialState(mainFun, StateSpacePartition.getDefaultPartition()),
         cpa.getInitialPrecision(mainFun, StateSpacePartition.getDefaultPartition()));
 
     AbstractARGStrategy partialProofChecker;
@@ -353,10 +354,27 @@ public class ARG_CMCStrategy extends AbstractStrategy {
     // strengthening is required for assumption guiding CPA
     Preconditions.checkState(cpa instanceof PropertyCheckerCPA,
             "Conflicting configuration: Partial ARGs must be checked with CPA based strategy but toplevel CPA is not a PropertyCheckerCPA as needed");
-    partialProofChecker = new ARG_CPAStrategy(globalConfig, logger, shutdown, (PropertyCheckerCPA) cpa);
+    partialProofChecker = new ARG_CPAStrategy(globalConfig, logger, shutdown, (PropertyCheckerCPA) cpa,
+        buildHelperCPAs(pFactory, iterationNumber));
 
     logger.log(Level.FINER, "Start checking algorithm for partial ARG ", iterationNumber);
-    return partialProofChecker.checkCertificate(pReachedSet, pRoot, pIncompleteStates);
+    return partialProofChecker.checkCertificate(reachedSet, pRoot, pIncompleteStates);
+  }
+
+  /**
+   * Build one additional CPA instance for every helper thread of the parallel check of a partial ARG,
+   * because the CPAs are in general not thread-safe.
+   * The partial ARGs themselves are checked one after the other,
+   * because the CPA for a partial ARG uses the assumption automaton written after checking its predecessor.
+   */
+  private List<PropertyCheckerCPA> buildHelperCPAs(ReachedSetFactory pFactory, int iterationNumber)
+      throws InvalidConfigurationException, CPAException {
+    List<PropertyCheckerCPA> helperCPAs = new ArrayList<>(numThreads - 1);
+    for (int i = 1; i < numThreads; i++) {
+      logger.log(Level.FINEST, "Build CPA for helper thread", i, "of partial ARG check", iterationNumber);
+      helperCPAs.add((PropertyCheckerCPA) cpaBuilder.buildPartialCPA(iterationNumber, pFactory));
+    }
+    return helperCPAs;
   }
 
 }
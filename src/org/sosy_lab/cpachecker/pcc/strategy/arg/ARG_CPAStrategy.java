@@ -28,59 +28,376 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
 
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.core.CPABuilder;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
 import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.pcc.propertychecker.DefaultPropertyChecker;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Checks an ARG with the transfer relation and stop operator of the CPA wrapped by the ARG CPA.
+ *
+ * If more than one core is available for proof checking (option pcc.useCores),
+ * the states of the ARG are checked in parallel: every thread takes states from a shared worklist,
+ * checks them independently of the other states, and adds the successors (or the covering state)
+ * of every successfully checked state to the worklist.
+ * The first failure of a thread aborts the check of all threads.
+ * Each helper thread uses the transfer relation and stop operator of its own CPA instance,
+ * because those of the CPA are not thread-safe.
+ * These instances are built from the configuration if the strategy is created with the CFA,
+ * or they are given to the constructor.
+ * If there are fewer instances than helper threads, the ARG is checked sequentially.
+ */
 @Options(prefix="pcc.arg")
 public class ARG_CPAStrategy extends AbstractARGStrategy {
 
+  private static final long WORKLIST_POLL_INTERVAL_MS = 10;
+
   @Option(secure=true,
       name = "checkPropertyPerElement",
       description = "Enable if used property checker implements satisfiesProperty(AbstractState) and checked property is violated for a set iff an element in this set exists for which violates the property")
   private boolean singleCheck = false;
-  private List<AbstractState> visitedStates;
+  private Collection<AbstractState> visitedStates;
   private final StopOperator stop;
   private final TransferRelation transfer;
+  private final List<StopOperator> helperStops;
+  private final List<TransferRelation> helperTransfers;
+  private final ShutdownNotifier shutdownNotifier;
+
+  /**
+   * Create a strategy that builds one additional CPA instance for every helper thread
+   * of the parallel check in the same way as the main CPA.
+   * Without a CFA, the ARG is checked sequentially.
+   */
+  public ARG_CPAStrategy(final Configuration pConfig, final LogManager pLogger, final ShutdownNotifier pShutdownNotifier,
+      final PropertyCheckerCPA pCpa, @Nullable final CFA pCfa) throws InvalidConfigurationException {
+    this(pConfig, pLogger, pShutdownNotifier, pCpa, ImmutableList.<PropertyCheckerCPA>of());
+
+    if (pCpa != null && pCfa != null) {
+      ReachedSetFactory factory = new ReachedSetFactory(pConfig, pLogger);
+      for (int i = 1; i < numThreads; i++) {
+        logger.log(Level.FINEST, "Build CPA for helper thread", i, "of proof check");
+        addHelperCPA(buildHelperCPA(pConfig, pLogger, pShutdownNotifier, pCfa, factory));
+      }
+    }
+  }
 
+  /**
+   * Create a strategy that uses the given additional CPA instances in the helper threads
+   * of the parallel check, one instance per thread.
+   * The additional CPAs must be configured in the same way as the main CPA.
+   */
   public ARG_CPAStrategy(final Configuration pConfig, final LogManager pLogger, final ShutdownNotifier pShutdownNotifier,
-      final PropertyCheckerCPA pCpa) throws InvalidConfigurationException {
+      final PropertyCheckerCPA pCpa, final List<PropertyCheckerCPA> pHelperCpas) throws InvalidConfigurationException {
     super(pConfig, pLogger, pCpa == null ? new DefaultPropertyChecker() : pCpa.getPropChecker(), pShutdownNotifier);
     pConfig.inject(this);
+    shutdownNotifier = pShutdownNotifier;
     if (pCpa == null) {
       stop = null;
       transfer = null;
     } else {
-      if(!(pCpa.getWrappedCPAs().get(0) instanceof ARGCPA)) {
-        throw new InvalidConfigurationException("Expect that the property checker cpa wraps an ARG cpa");
-      }
-      stop = ((ARGCPA)pCpa.getWrappedCPAs().get(0)).getWrappedCPAs().get(0).getStopOperator();
-      transfer = ((ARGCPA)pCpa.getWrappedCPAs().get(0)).getWrappedCPAs().get(0).getTransferRelation();
+      ConfigurableProgramAnalysis checkedCPA = getCheckedCPA(pCpa);
+      stop = checkedCPA.getStopOperator();
+      transfer = checkedCPA.getTransferRelation();
+    }
+
+    helperStops = new ArrayList<>(pHelperCpas.size());
+    helperTransfers = new ArrayList<>(pHelperCpas.size());
+    for (PropertyCheckerCPA helperCpa : pHelperCpas) {
+      addHelperCPA(helperCpa);
+    }
+  }
+
+  private static PropertyCheckerCPA buildHelperCPA(final Configuration pConfig, final LogManager pLogger,
+      final ShutdownNotifier pShutdownNotifier, final CFA pCfa, final ReachedSetFactory pFactory)
+      throws InvalidConfigurationException {
+    ConfigurableProgramAnalysis cpa;
+    try {
+      cpa = new CPABuilder(pConfig, pLogger, pShutdownNotifier, pFactory).buildCPAWithSpecAutomatas(pCfa);
+    } catch (CPAException e) {
+      throw new InvalidConfigurationException("Cannot create CPA for helper thread of proof check", e);
+    }
+    if (!(cpa instanceof PropertyCheckerCPA)) {
+      throw new InvalidConfigurationException("Expect that the top CPA is a property checker cpa");
+    }
+    return (PropertyCheckerCPA) cpa;
+  }
+
+  private void addHelperCPA(final PropertyCheckerCPA pHelperCpa) throws InvalidConfigurationException {
+    ConfigurableProgramAnalysis checkedCPA = getCheckedCPA(pHelperCpa);
+    helperStops.add(checkedCPA.getStopOperator());
+    helperTransfers.add(checkedCPA.getTransferRelation());
+  }
+
+  private static ConfigurableProgramAnalysis getCheckedCPA(final PropertyCheckerCPA pCpa)
+      throws InvalidConfigurationException {
+    if(!(pCpa.getWrappedCPAs().get(0) instanceof ARGCPA)) {
+      throw new InvalidConfigurationException("Expect that the property checker cpa wraps an ARG cpa");
     }
+    return ((ARGCPA)pCpa.getWrappedCPAs().get(0)).getWrappedCPAs().get(0);
   }
 
   @Override
   protected void initChecking(final ARGState pRoot) {
     if (!singleCheck) {
-      visitedStates = new LinkedList<>();
+      visitedStates = numThreads > 1 ? new ConcurrentLinkedQueue<AbstractState>() : new LinkedList<AbstractState>();
     }
 
   }
 
+  @Override
+  protected boolean checkCertificate(final ReachedSet pReachedSet, final ARGState pRoot,
+      @Nullable final List<ARGState> pIncompleteStates) throws CPAException, InterruptedException {
+    if (numThreads <= 1 || transfer == null) {
+      return super.checkCertificate(pReachedSet, pRoot, pIncompleteStates);
+    }
+    if (helperTransfers.size() < numThreads - 1) {
+      logger.log(Level.INFO, "Proof check runs sequentially because only", helperTransfers.size(),
+          "CPA instances for", numThreads - 1, "helper threads are available.");
+      return super.checkCertificate(pReachedSet, pRoot, pIncompleteStates);
+    }
+
+    initChecking(pRoot);
+
+    logger.log(Level.INFO, "Parallel proof check algorithm started with", numThreads, "threads");
+
+    ARGState initialState = (ARGState) pReachedSet.popFromWaitlist();
+    Precision initialPrecision = pReachedSet.getPrecision(initialState);
+
+    logger.log(Level.FINE, "Checking root state");
+
+    if (!checkCovering(initialState, pRoot, initialPrecision)) {
+      return false;
+    }
+
+    ParallelCheck check = new ParallelCheck(pRoot, initialPrecision, pIncompleteStates);
+    ParallelCheck.Worker[] helpers = new ParallelCheck.Worker[numThreads - 1];
+    Thread[] helperThreads = new Thread[numThreads - 1];
+    boolean finished = false;
+    try {
+      for (int i = 0; i < helperThreads.length; i++) {
+        // timers are not thread-safe, so every helper thread measures its checks on its own
+        helpers[i] = check.new Worker(helperTransfers.get(i), helperStops.get(i), new Timer(), new Timer());
+        helperThreads[i] = Threads.newThread(helpers[i]);
+        helperThreads[i].start();
+      }
+
+      check.new Worker(transfer, stop, stats.getTransferTimer(), stats.getStopTimer()).run();
+      finished = true;
+
+    } finally {
+      if (!finished) {
+        // stop the helper threads if the main thread failed
+        check.abort();
+      }
+      for (Thread helper : helperThreads) {
+        if (helper != null) {
+          helper.join();
+        }
+      }
+      for (ParallelCheck.Worker helper : helpers) {
+        if (helper != null) {
+          stats.addHelperTimers(helper.transferTimer, helper.stopTimer);
+        }
+      }
+    }
+
+    Throwable failure = check.failure.get();
+    if (failure != null) {
+      Throwables.propagateIfPossible(failure, CPAException.class, InterruptedException.class);
+      throw new CPAException("Parallel proof checking failed", failure);
+    }
+
+    for (int i = 0; i < check.checkedStates.get(); i++) {
+      stats.increaseIteration();
+    }
+    if (check.failed.get()) {
+      return false;
+    }
+
+    // same result as the sequential check: all checked states are reached, none is waiting
+    pReachedSet.add(pRoot, initialPrecision);
+    for (ARGState state : check.seen) {
+      if (!pReachedSet.contains(state)) {
+        pReachedSet.add(state, initialPrecision);
+      }
+    }
+    while (pReachedSet.hasWaitingState()) {
+      pReachedSet.popFromWaitlist();
+    }
+    return isCheckSuccessful();
+  }
+
+  /**
+   * The data shared by all threads of a parallel check of one ARG.
+   * A state is added to the worklist at most once,
+   * and the check is finished if all states that were added to the worklist are checked.
+   */
+  private class ParallelCheck {
+
+    private final Precision precision;
+    private final @Nullable List<ARGState> incompleteStates;
+
+    private final BlockingQueue<ARGState> worklist = new LinkedBlockingQueue<>();
+    private final Collection<ARGState> seen =
+        Collections.newSetFromMap(new ConcurrentHashMap<ARGState, Boolean>());
+    // number of states that are in the worklist or currently checked
+    private final AtomicInteger unfinished = new AtomicInteger(0);
+    private final AtomicInteger checkedStates = new AtomicInteger(0);
+
+    // set on the first failure, stops all threads
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private ParallelCheck(final ARGState pRoot, final Precision pPrecision,
+        @Nullable final List<ARGState> pIncompleteStates) {
+      precision = pPrecision;
+      incompleteStates = pIncompleteStates;
+      addToWorklist(pRoot);
+    }
+
+    private void addToWorklist(final ARGState pState) {
+      if (seen.add(pState)) {
+        unfinished.incrementAndGet();
+        worklist.add(pState);
+      }
+    }
+
+    private void abort() {
+      failed.set(true);
+    }
+
+    private class Worker implements Runnable {
+
+      private final TransferRelation workerTransfer;
+      private final StopOperator workerStop;
+      private final Timer transferTimer;
+      private final Timer stopTimer;
+
+      private Worker(final TransferRelation pTransfer, final StopOperator pStop,
+          final Timer pTransferTimer, final Timer pStopTimer) {
+        workerTransfer = pTransfer;
+        workerStop = pStop;
+        transferTimer = pTransferTimer;
+        stopTimer = pStopTimer;
+      }
+
+      @Override
+      public void run() {
+        try {
+          while (!failed.get() && unfinished.get() > 0) {
+            shutdownNotifier.shutdownIfNecessary();
+
+            ARGState state = worklist.poll(WORKLIST_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if (state == null) {
+              // other threads are still checking states and may add their successors
+              continue;
+            }
+
+            try {
+              checkedStates.incrementAndGet();
+              if (!checkState(state)) {
+                abort();
+              }
+            } finally {
+              unfinished.decrementAndGet();
+            }
+          }
+        } catch (CPAException | InterruptedException | RuntimeException e) {
+          failure.compareAndSet(null, e);
+          abort();
+        }
+      }
+
+      private boolean checkState(final ARGState pState) throws CPAException, InterruptedException {
+        logger.log(Level.FINE, "Looking at state", pState);
+
+        if (!singleCheck) {
+          visitedStates.add(pState);
+        } else if (!propChecker.satisfiesProperty(pState)) {
+          logger.log(Level.INFO, "Property violation at state", pState);
+          return false;
+        }
+
+        if (pState.isCovered()) {
+          ARGState coveringState = pState.getCoveringState();
+          stopTimer.start();
+          try {
+            if (!isCoveringCycleFree(pState)) {
+              logger.log(Level.WARNING, "Found cycle in covering relation for state", pState);
+              return false;
+            }
+            if (!workerStop.stop(pState.getWrappedState(),
+                Collections.singleton(coveringState.getWrappedState()), precision)) {
+              logger.log(Level.WARNING, "State", pState, "is not covered by", coveringState);
+              return false;
+            }
+          } finally {
+            stopTimer.stop();
+          }
+          addToWorklist(coveringState);
+
+        } else {
+          Collection<ARGState> successors = pState.getChildren();
+          boolean successorsValid;
+          transferTimer.start();
+          try {
+            successorsValid = checkSuccessors(pState, successors, precision, workerTransfer, workerStop);
+          } finally {
+            transferTimer.stop();
+          }
+          if (!successorsValid) {
+            if (incompleteStates != null) {
+              synchronized (incompleteStates) {
+                incompleteStates.add(pState);
+              }
+              logger.log(Level.FINER, "State", pState, "is explored incompletely, will be recorded in the assumption automaton.");
+              return true;
+            }
+            logger.log(Level.WARNING, "State", pState, "has other successors than", successors);
+            return false;
+          }
+          for (ARGState successor : successors) {
+            addToWorklist(successor);
+          }
+        }
+        return true;
+      }
+    }
+  }
+
   @Override
   protected boolean checkCovering(final ARGState pCovered, final ARGState pCovering, final Precision pPrecision) throws CPAException, InterruptedException {
     return checkCoverWithStopOp(pCovered.getWrappedState(), Collections.singleton(pCovering.getWrappedState()), pPrecision);
@@ -122,16 +439,22 @@ public class ARG_CPAStrategy extends AbstractARGStrategy {
   @Override
   protected boolean checkSuccessors(final ARGState pPredecessor, final Collection<ARGState> pSuccessors,
       final Precision pPrecision) throws InterruptedException, CPAException {
+    return checkSuccessors(pPredecessor, pSuccessors, pPrecision, transfer, stop);
+  }
+
+  private static boolean checkSuccessors(final ARGState pPredecessor, final Collection<ARGState> pSuccessors,
+      final Precision pPrecision, final TransferRelation pTransfer, final StopOperator pStop)
+      throws InterruptedException, CPAException {
     Collection<AbstractState> wrappedSuccessors = new ArrayList<>(pSuccessors.size());
     for (ARGState succ: pSuccessors) {
       wrappedSuccessors.add(succ.getWrappedState());
     }
 
     Collection<? extends AbstractState> computedSuccessors =
-        transfer.getAbstractSuccessors(pPredecessor.getWrappedState(), pPrecision);
+        pTransfer.getAbstractSuccessors(pPredecessor.getWrappedState(), pPrecision);
 
      for (AbstractState succ : computedSuccessors) {
-       if (!checkCoverWithStopOp(succ, wrappedSuccessors, pPrecision)) {
+       if (!pStop.stop(succ, wrappedSuccessors, pPrecision)) {
          return false;
        }
      }
@@ -0,0 +1,229 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.arg;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.cpa.PropertyChecker.PropertyCheckerCPA;
+import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+
+import com.google.common.collect.ImmutableList;
+
+public class ARG_CPAStrategyTest {
+
+  private static final int CHILDREN = 16;
+  private static final int GRANDCHILDREN = 8;
+  private static final int HELPERS = 3;
+
+  /** A wrapped state with a name and the state that covers it (if any). */
+  private static class TestState implements AbstractState {
+
+    private final String name;
+    private TestState coveredBy = null;
+
+    private TestState(String pName) {
+      name = pName;
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /** A transfer relation that returns the successors that are given for each state. */
+  private static class TestTransferRelation implements TransferRelation {
+
+    private final Map<AbstractState, List<AbstractState>> successors;
+
+    private TestTransferRelation(Map<AbstractState, List<AbstractState>> pSuccessors) {
+      successors = pSuccessors;
+    }
+
+    @Override
+    public Collection<? extends AbstractState> getAbstractSuccessors(AbstractState pState,
+        Precision pPrecision) {
+      List<AbstractState> result = successors.get(pState);
+      return result == null ? Collections.<AbstractState>emptyList() : result;
+    }
+
+    @Override
+    public Collection<? extends AbstractState> getAbstractSuccessorsForEdge(AbstractState pState,
+        Precision pPrecision, CFAEdge pCfaEdge) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Collection<? extends AbstractState> strengthen(AbstractState pState,
+        List<AbstractState> pOtherStates, CFAEdge pCfaEdge, Precision pPrecision) {
+      return null;
+    }
+  }
+
+  /** A stop operator that covers states by themselves and by their covering state. */
+  private static final StopOperator STOP = new StopOperator() {
+    @Override
+    public boolean stop(AbstractState pState, Collection<AbstractState> pReached, Precision pPrecision) {
+      return pReached.contains(pState) || pReached.contains(((TestState) pState).coveredBy);
+    }
+  };
+
+  private ARGState initialState;
+  private ARGState root;
+  private ARGState lastGrandchild;
+  private List<ARGState> allStates;
+  private Map<AbstractState, List<AbstractState>> successors;
+
+  /**
+   * Builds an ARG where the root has {@link #CHILDREN} children,
+   * each of which has {@link #GRANDCHILDREN} children without successors,
+   * and every second child is covered by the first one.
+   */
+  @Before
+  public void setUp() {
+    successors = new HashMap<>();
+    allStates = new ArrayList<>();
+    root = addState("root", null);
+    ARGState firstChild = null;
+    for (int i = 0; i < CHILDREN; i++) {
+      ARGState child = addState("c" + i, root);
+      if (i % 2 == 1) {
+        cover(child, firstChild);
+        continue;
+      }
+      if (firstChild == null) {
+        firstChild = child;
+      }
+      for (int j = 0; j < GRANDCHILDREN; j++) {
+        lastGrandchild = addState("g" + i + "_" + j, child);
+      }
+    }
+  }
+
+  private ARGState addState(String pName, ARGState pParent) {
+    ARGState state = new ARGState(new TestState(pName), pParent);
+    allStates.add(state);
+    if (pParent != null) {
+      List<AbstractState> parentSuccessors = successors.get(pParent.getWrappedState());
+      if (parentSuccessors == null) {
+        parentSuccessors = new ArrayList<>();
+        successors.put(pParent.getWrappedState(), parentSuccessors);
+      }
+      parentSuccessors.add(state.getWrappedState());
+    }
+    return state;
+  }
+
+  private static void cover(ARGState pCovered, ARGState pCovering) {
+    ((TestState) pCovered.getWrappedState()).coveredBy = (TestState) pCovering.getWrappedState();
+    pCovered.setCovered(pCovering);
+  }
+
+  private PropertyCheckerCPA createCPA() throws Exception {
+    ConfigurableProgramAnalysis wrappedCpa = mock(ConfigurableProgramAnalysis.class);
+    when(wrappedCpa.getTransferRelation()).thenReturn(new TestTransferRelation(successors));
+    when(wrappedCpa.getStopOperator()).thenReturn(STOP);
+    ARGCPA argCpa = mock(ARGCPA.class);
+    when(argCpa.getWrappedCPAs()).thenReturn(ImmutableList.of(wrappedCpa));
+    return new PropertyCheckerCPA(argCpa, Configuration.defaultConfiguration());
+  }
+
+  private ReachedSet check(int pCores, boolean pExpectedResult) throws Exception {
+    Configuration config = Configuration.builder()
+        .setOption("pcc.useCores", Integer.toString(pCores))
+        .build();
+    List<PropertyCheckerCPA> helperCpas = new ArrayList<>();
+    for (int i = 0; i < HELPERS; i++) {
+      helperCpas.add(createCPA());
+    }
+    ARG_CPAStrategy strategy = new ARG_CPAStrategy(config, TestLogManager.getInstance(),
+        ShutdownNotifier.createDummy(), createCPA(), helperCpas);
+
+    ReachedSet reached = new ReachedSetFactory(config, TestLogManager.getInstance()).create();
+    initialState = new ARGState(root.getWrappedState(), null);
+    reached.add(initialState, SingletonPrecision.getInstance());
+
+    assertThat(strategy.checkCertificate(reached, root, null)).isEqualTo(pExpectedResult);
+    return reached;
+  }
+
+  private List<ARGState> allStatesAndInitialState() {
+    List<ARGState> result = new ArrayList<>(allStates);
+    result.add(initialState);
+    return result;
+  }
+
+  @Test
+  public void testSequentialCheck() throws Exception {
+    ReachedSet reached = check(1, true);
+    assertThat(reached).containsExactlyElementsIn(allStatesAndInitialState());
+    assertThat(reached.hasWaitingState()).isFalse();
+  }
+
+  @Test
+  public void testParallelCheck() throws Exception {
+    // runs sequentially on machines with only one core, with the same result
+    ReachedSet reached = check(HELPERS + 1, true);
+    assertThat(reached).containsExactlyElementsIn(allStatesAndInitialState());
+    assertThat(reached.hasWaitingState()).isFalse();
+  }
+
+  @Test
+  public void testParallelCheckWithMissingSuccessor() throws Exception {
+    // the transfer relation computes a successor that is not in the ARG
+    successors.put(lastGrandchild.getWrappedState(),
+        ImmutableList.<AbstractState>of(new TestState("missing")));
+    check(HELPERS + 1, false);
+  }
+
+  @Test
+  public void testParallelCheckWithWrongCovering() throws Exception {
+    // the covering state does not cover the wrapped state according to the stop operator
+    lastGrandchild.setCovered(root);
+    check(HELPERS + 1, false);
+  }
+}
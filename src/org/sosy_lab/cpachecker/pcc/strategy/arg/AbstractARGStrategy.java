@@ -194,7 +194,7 @@ public abstract class AbstractARGStrategy extends SequentialReadStrategy {
     }
   }
 
-  private boolean isCoveringCycleFree(ARGState pState) {
+  protected boolean isCoveringCycleFree(ARGState pState) {
     HashSet<ARGState> seen = new HashSet<>();
     seen.add(pState);
     while (pState.isCovered()) {
@@ -27,15 +27,22 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Predicates.*;
 import static com.google.common.collect.FluentIterable.from;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -77,14 +84,20 @@ import com.google.common.base.Equivalence.Wrapper;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Multiset;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
@@ -149,6 +162,14 @@ public class LiveVariables {
                     min=0)
     private TimeSpan partwiseLivenessCheckTime = TimeSpan.ofSeconds(20);
 
+    @Option(secure=true, description="Number of threads for collecting the liveness information"
+        + " in parallel. This is only used with the function-wise evaluation strategy"
+        + " (it is ignored for the global strategy), the functions are distributed"
+        + " among the threads according to their size. Function calls are not followed"
+        + " and no summaries of called functions are computed, as in the sequential"
+        + " function-wise analysis.")
+    private int threads = 1;
+
     public LiveVariablesConfiguration(Configuration config) throws InvalidConfigurationException {
       config.inject(this);
     }
@@ -399,17 +420,30 @@ public class LiveVariables {
     }
     ResourceLimitChecker limitChecker = new ResourceLimitChecker(liveVarsShutdown, limits);
 
-    Optional<AnalysisParts> parts = getNecessaryAnalysisComponents(cfa, logger, liveVarsShutdown.getNotifier(), config.evaluationStrategy);
     Multimap<CFANode, Wrapper<ASimpleDeclaration>> liveVariables = null;
 
-    limitChecker.start();
-
-    // create live variables
-    if (parts.isPresent()) {
-      liveVariables = addLiveVariablesFromCFA(cfa, logger, parts.get(), config.evaluationStrategy);
+    if (config.evaluationStrategy == EvaluationStrategy.GLOBAL && config.threads > 1) {
+      logger.log(Level.WARNING, "Live variables are collected sequentially,"
+          + " because liveVar.threads is supported only with the function-wise evaluation strategy.");
     }
 
-    limitChecker.cancel();
+    if (config.evaluationStrategy == EvaluationStrategy.FUNCTION_WISE && config.threads > 1) {
+      limitChecker.start();
+      liveVariables = addLiveVariablesInParallel(cfa, logger, liveVarsShutdown.getNotifier(), config.threads);
+      limitChecker.cancel();
+
+    } else {
+      Optional<AnalysisParts> parts = getNecessaryAnalysisComponents(cfa, logger, liveVarsShutdown.getNotifier(), config.evaluationStrategy);
+
+      limitChecker.start();
+
+      // create live variables
+      if (parts.isPresent()) {
+        liveVariables = addLiveVariablesFromCFA(cfa, logger, parts.get(), config.evaluationStrategy);
+      }
+
+      limitChecker.cancel();
+    }
 
     // when the analysis did not finish or could even not be created we return
     // an absent optional, but before we try the function-wise analysis if we
@@ -456,8 +490,6 @@ public class LiveVariables {
   private static Multimap<CFANode, Wrapper<ASimpleDeclaration>> addLiveVariablesFromCFA(final CFA pCfa, final LogManager logger,
                                               AnalysisParts analysisParts, EvaluationStrategy evaluationStrategy) {
 
-    Optional<LoopStructure> loopStructure = pCfa.getLoopStructure();
-
     // put all FunctionExitNodes into the waitlist
     final Collection<FunctionEntryNode> functionHeads;
     switch (evaluationStrategy) {
@@ -466,6 +498,114 @@ public class LiveVariables {
     default: throw new AssertionError("Unhandeld case statement: " + evaluationStrategy);
     }
 
+    addInitialStates(pCfa, analysisParts, functionHeads, Predicates.<CFANode>alwaysTrue());
+
+    logger.log(Level.INFO, "Starting live variables collection ...");
+    Multimap<CFANode, Wrapper<ASimpleDeclaration>> liveVariables = runAnalysis(logger, analysisParts);
+    logger.log(Level.INFO, "Stopping live variables collection ...");
+    return liveVariables;
+  }
+
+  /**
+   * Collect the live variables function-wise with several threads.
+   * The functions are distributed among the threads such that each thread
+   * gets roughly the same number of CFA nodes, and each thread runs its own analysis
+   * on its functions. This is possible because with the function-wise strategy
+   * the analysis does not follow function calls, so the results for different
+   * functions are independent of each other and can simply be combined.
+   * @return the live variables, or null if they could not be computed
+   */
+  private static Multimap<CFANode, Wrapper<ASimpleDeclaration>> addLiveVariablesInParallel(final CFA pCfa,
+      final LogManager logger, final ShutdownNotifier shutdownNotifier, final int threads) {
+
+    // count the nodes of each function as estimate for the effort of the analysis
+    final Multiset<String> functionSizes = HashMultiset.create();
+    for (CFANode node : pCfa.getAllNodes()) {
+      functionSizes.add(node.getFunctionName());
+    }
+    List<FunctionEntryNode> functionHeads = Ordering.<Integer>natural().reverse().onResultOf(
+        new Function<FunctionEntryNode, Integer>() {
+          @Override
+          public Integer apply(FunctionEntryNode pInput) {
+            return functionSizes.count(pInput.getFunctionName());
+          }
+        }).sortedCopy(pCfa.getAllFunctionHeads());
+
+    // greedily assign the largest remaining function to the group with the fewest nodes
+    int numberOfGroups = Math.min(threads, functionHeads.size());
+    List<List<FunctionEntryNode>> groups = new ArrayList<>(numberOfGroups);
+    int[] groupSizes = new int[numberOfGroups];
+    for (int i = 0; i < numberOfGroups; i++) {
+      groups.add(new ArrayList<FunctionEntryNode>());
+    }
+    for (FunctionEntryNode functionHead : functionHeads) {
+      int smallestGroup = 0;
+      for (int i = 1; i < numberOfGroups; i++) {
+        if (groupSizes[i] < groupSizes[smallestGroup]) {
+          smallestGroup = i;
+        }
+      }
+      groups.get(smallestGroup).add(functionHead);
+      groupSizes[smallestGroup] += functionSizes.count(functionHead.getFunctionName());
+    }
+
+    // the analyses are created sequentially, only running them is done in parallel
+    List<Callable<Multimap<CFANode, Wrapper<ASimpleDeclaration>>>> tasks = new ArrayList<>(numberOfGroups);
+    for (List<FunctionEntryNode> group : groups) {
+      Optional<AnalysisParts> parts = getNecessaryAnalysisComponents(pCfa, logger, shutdownNotifier, EvaluationStrategy.FUNCTION_WISE);
+      if (!parts.isPresent()) {
+        return null;
+      }
+      final AnalysisParts analysisParts = parts.get();
+      final Set<String> functionNames = from(group).transform(CFAUtils.GET_FUNCTION).toSet();
+      addInitialStates(pCfa, analysisParts, group, new Predicate<CFANode>() {
+          @Override
+          public boolean apply(CFANode pLoopHead) {
+            return functionNames.contains(pLoopHead.getFunctionName());
+          }
+        });
+      tasks.add(new Callable<Multimap<CFANode, Wrapper<ASimpleDeclaration>>>() {
+          @Override
+          public Multimap<CFANode, Wrapper<ASimpleDeclaration>> call() {
+            return runAnalysis(logger, analysisParts);
+          }
+        });
+    }
+
+    logger.log(Level.INFO, "Starting live variables collection with", numberOfGroups, "threads ...");
+    ExecutorService executor = Executors.newFixedThreadPool(numberOfGroups, Threads.threadFactoryBuilder().setDaemon(true).build());
+    try {
+      Multimap<CFANode, Wrapper<ASimpleDeclaration>> liveVariables = HashMultimap.create();
+      for (Future<Multimap<CFANode, Wrapper<ASimpleDeclaration>>> future : executor.invokeAll(tasks)) {
+        Multimap<CFANode, Wrapper<ASimpleDeclaration>> partialResult = future.get();
+        if (partialResult == null) {
+          return null;
+        }
+        liveVariables.putAll(partialResult);
+      }
+      logger.log(Level.INFO, "Stopping live variables collection ...");
+      return liveVariables;
+
+    } catch (InterruptedException e) {
+      logger.logUserException(Level.WARNING, e, "Could not compute live variables.");
+      return null;
+    } catch (ExecutionException e) {
+      // runAnalysis() does not throw checked exceptions
+      throw Throwables.propagate(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Add the exit nodes of the given functions and one head of each loop without exit
+   * (if it is accepted by the filter) as initial states of the analysis.
+   */
+  private static void addInitialStates(final CFA pCfa, AnalysisParts analysisParts,
+      Collection<FunctionEntryNode> functionHeads, Predicate<? super CFANode> loopHeadFilter) {
+
+    Optional<LoopStructure> loopStructure = pCfa.getLoopStructure();
+
     for (FunctionEntryNode node : functionHeads) {
       FunctionExitNode exitNode = node.getExitNode();
       if (pCfa.getAllNodes().contains(exitNode)) {
@@ -488,13 +628,22 @@ public class LiveVariables {
         // function calls inside have no outgoing edges
         if (from(l.getOutgoingEdges()).filter(not(instanceOf(FunctionCallEdge.class))).isEmpty()) {
           CFANode functionHead = l.getLoopHeads().iterator().next();
+          if (!loopHeadFilter.apply(functionHead)) {
+            continue;
+          }
           analysisParts.reachedSet.add(analysisParts.cpa.getInitialState(functionHead, StateSpacePartition.getDefaultPartition()),
                                        analysisParts.cpa.getInitialPrecision(functionHead, StateSpacePartition.getDefaultPartition()));
         }
       }
     }
+  }
 
-    logger.log(Level.INFO, "Starting live variables collection ...");
+  /**
+   * Run the analysis until the waitlist is empty.
+   * @return the live variables, or null if the analysis could not be finished
+   */
+  private static Multimap<CFANode, Wrapper<ASimpleDeclaration>> runAnalysis(final LogManager logger,
+      AnalysisParts analysisParts) {
     try {
       do {
         analysisParts.algorithm.run(analysisParts.reachedSet);
@@ -505,8 +654,6 @@ public class LiveVariables {
       return null;
     }
 
-    logger.log(Level.INFO, "Stopping live variables collection ...");
-
     LiveVariablesCPA liveVarCPA = ((WrapperCPA) analysisParts.cpa).retrieveWrappedCpa(LiveVariablesCPA.class);
 
     return liveVarCPA.getLiveVariables();
@@ -56,6 +56,9 @@ import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Maps;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -93,7 +96,8 @@ public final class AbstractionManager {
   private boolean multiplePartitions = false;
   private final LinkedList<Integer> randomListOfVarIDs = new LinkedList<>();
 
-  private final Map<Region, BooleanFormula> toConcreteCache;
+  // shared by all calls to toConcrete, bounded such that it does not keep all regions alive
+  private final Cache<Region, BooleanFormula> toConcreteCache;
 
   @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
       justification = "Class is not thread-safe, but concurrent read access to this variable is needed for the MBean")
@@ -101,6 +105,11 @@ public final class AbstractionManager {
 
   @Option(secure = true, name = "abs.useCache", description = "use caching of region to formula conversions")
   private boolean useCache = true;
+
+  @Option(secure = true, name = "abs.cacheSize",
+      description = "maximum number of regions whose formula is kept in the cache of region to formula conversions"
+          + " (the least recently used entries are removed first)")
+  private int cacheSize = 100000;
   private BooleanFormulaManagerView bfmgr;
 
   public AbstractionManager(RegionManager pRmgr, FormulaManagerView pFmgr,
@@ -118,7 +127,10 @@ public final class AbstractionManager {
     }
 
     if (useCache) {
-      toConcreteCache = new HashMap<>();
+      if (cacheSize <= 0) {
+        throw new InvalidConfigurationException("Size of region to formula cache needs to be positive, but is " + cacheSize);
+      }
+      toConcreteCache = CacheBuilder.newBuilder().maximumSize(cacheSize).recordStats().build();
     } else {
       toConcreteCache = null;
     }
@@ -301,12 +313,9 @@ public final class AbstractionManager {
       return ((SymbolicRegionManager)rmgr).toFormula(af);
     }
 
-    Map<Region, BooleanFormula> cache;
-    if (useCache) {
-      cache = toConcreteCache;
-    } else {
-      cache = new HashMap<>();
-    }
+    // The nodes of the current region are kept in a local map,
+    // because entries of the shared cache may be evicted while the conversion is running.
+    Map<Region, BooleanFormula> cache = new HashMap<>();
     Deque<Region> toProcess = new ArrayDeque<>();
 
     cache.put(rmgr.makeTrue(), bfmgr.makeBoolean(true));
@@ -319,6 +328,15 @@ public final class AbstractionManager {
         toProcess.pop();
         continue;
       }
+      if (useCache) {
+        BooleanFormula cached = toConcreteCache.getIfPresent(n);
+        if (cached != null) {
+          // the whole sub-DAG below n is already converted
+          cache.put(n, cached);
+          toProcess.pop();
+          continue;
+        }
+      }
       boolean childrenDone = true;
       BooleanFormula m1 = null;
       BooleanFormula m2 = null;
@@ -348,35 +366,41 @@ public final class AbstractionManager {
         AbstractionPredicate pred = absVarToPredicate.get(var);
         assert pred != null : var;
         BooleanFormula atom = pred.getSymbolicAtom();
+        BooleanFormula formula;
 
         if (bfmgr.isTrue(m1)) {
           if (bfmgr.isFalse(m2)) {
             // ITE(atom, true, false) <==> atom
-            cache.put(n, atom);
+            formula = atom;
           } else {
             // ITE(atom, true, m2) <==> (atom || m2)
-            cache.put(n, bfmgr.or(atom, m2));
+            formula = bfmgr.or(atom, m2);
           }
         } else if (bfmgr.isFalse(m1)) {
           if (bfmgr.isTrue(m2)) {
             // ITE(atom, false, true) <==> !atom
-            cache.put(n, bfmgr.not(atom));
+            formula = bfmgr.not(atom);
           } else {
             // ITE(atom, false, m2) <==> (!atom && m2)
-            cache.put(n, bfmgr.and(bfmgr.not(atom), m2));
+            formula = bfmgr.and(bfmgr.not(atom), m2);
           }
         } else {
           if (bfmgr.isTrue(m2)) {
             // ITE(atom, m1, true) <==> (!atom || m1)
-            cache.put(n, bfmgr.or(bfmgr.not(atom), m1));
+            formula = bfmgr.or(bfmgr.not(atom), m1);
           } else if (bfmgr.isFalse(m2)) {
             // ITE(atom, m1, false) <==> (atom && m1)
-            cache.put(n, bfmgr.and(atom, m1));
+            formula = bfmgr.and(atom, m1);
           } else {
             // ITE(atom, m1, m2)
-            cache.put(n, bfmgr.ifThenElse(atom, m1, m2));
+            formula = bfmgr.ifThenElse(atom, m1, m2);
           }
         }
+
+        cache.put(n, formula);
+        if (useCache) {
+          toConcreteCache.put(n, formula);
+        }
       }
     }
 
@@ -469,6 +493,14 @@ public final class AbstractionManager {
     int getNumberOfPredicates();
 
     String getPredicates();
+
+    long getToConcreteCacheSize();
+
+    long getToConcreteCacheHits();
+
+    long getToConcreteCacheMisses();
+
+    long getToConcreteCacheEvictions();
   }
 
   private class AbstractionPredicatesMBean extends AbstractMBean implements
@@ -491,5 +523,29 @@ public final class AbstractionManager {
       // TODO this may run into a ConcurrentModificationException
       return Joiner.on('\n').join(absVarToPredicate.values());
     }
+
+    @Override
+    public long getToConcreteCacheSize() {
+      return useCache ? toConcreteCache.size() : 0;
+    }
+
+    @Override
+    public long getToConcreteCacheHits() {
+      return getToConcreteCacheStats().hitCount();
+    }
+
+    @Override
+    public long getToConcreteCacheMisses() {
+      return getToConcreteCacheStats().missCount();
+    }
+
+    @Override
+    public long getToConcreteCacheEvictions() {
+      return getToConcreteCacheStats().evictionCount();
+    }
+
+    private CacheStats getToConcreteCacheStats() {
+      return useCache ? toConcreteCache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+    }
   }
 }
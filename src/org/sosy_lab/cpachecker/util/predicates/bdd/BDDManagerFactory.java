@@ -41,12 +41,14 @@ public class BDDManagerFactory {
       description = "Which BDD package should be used?"
       + "\n- java:   JavaBDD (default, no dependencies, many features)"
       + "\n- sylvan: Sylvan (only 64bit Linux, uses multiple threads)"
+      + "\n- concurrent: pure-Java BDD package of CPAchecker (no dependencies, uses multiple threads,"
+      + " reordering not supported)"
       + "\n- cudd:   CUDD (native library required, reordering not supported)"
       + "\n- micro:  MicroFactory (maximum number of BDD variables is 1024, slow, but less memory-comsumption)"
       + "\n- buddy:  Buddy (native library required)"
       + "\n- cal:    CAL (native library required)"
       + "\n- jdd:    JDD",
-      values = {"JAVA", "SYLVAN", "CUDD", "MICRO", "BUDDY", "CAL", "JDD"},
+      values = {"JAVA", "SYLVAN", "CONCURRENT", "CUDD", "MICRO", "BUDDY", "CAL", "JDD"},
       toUppercase = true)
   // documentation of the packages can be found at source of BDDFactory.init()
   private String bddPackage = "JAVA";
@@ -64,6 +66,8 @@ public class BDDManagerFactory {
   public RegionManager createRegionManager() throws InvalidConfigurationException {
     if (bddPackage.equals("SYLVAN")) {
       return new SylvanBDDRegionManager(config, logger);
+    } else if (bddPackage.equals("CONCURRENT")) {
+      return new ConcurrentBDDRegionManager(config, logger);
     } else {
       return new JavaBDDRegionManager(bddPackage, config, logger);
     }
@@ -0,0 +1,221 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The node storage of {@link ConcurrentBDDRegionManager}.
+ *
+ * BDD nodes are Java objects that are hash-consed in a unique table,
+ * such that two nodes represent the same function iff they are identical.
+ * The unique table is a chained hash table whose buckets are updated with CAS only,
+ * so {@link #makeNode(int, Node, Node)} may be called from many threads
+ * at the same time without any locking.
+ *
+ * Removing nodes ({@link #collect(Iterable)}) is not thread-safe
+ * and requires that no other operation on this table runs concurrently.
+ */
+final class ConcurrentBDDNodeTable {
+
+  /** The variable index of the two terminal nodes, it is below all other variables. */
+  static final int TERMINAL_VAR = Integer.MAX_VALUE;
+
+  static final class Node {
+
+    final int var;
+    final Node low;
+    final Node high;
+    final int hash;
+
+    // Chain pointer inside a bucket of the unique table.
+    // It is written before the node is published by a CAS on the bucket,
+    // and afterwards only while the table is exclusively owned by the garbage collection.
+    private Node next;
+
+    // The number of the last garbage collection that found this node to be reachable.
+    private int mark = 0;
+
+    private Node(int pVar, Node pLow, Node pHigh, int pHash) {
+      var = pVar;
+      low = pLow;
+      high = pHigh;
+      hash = pHash;
+    }
+
+    boolean isTerminal() {
+      return var == TERMINAL_VAR;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    // equals() is not overridden, nodes are canonical and compared by identity
+  }
+
+  private static final double MAX_LOAD_FACTOR = 0.75;
+
+  final Node zero = new Node(TERMINAL_VAR, null, null, 0);
+  final Node one = new Node(TERMINAL_VAR, null, null, 1);
+
+  // Replaced only during garbage collection.
+  private volatile AtomicReferenceArray<Node> buckets;
+  private final AtomicInteger size = new AtomicInteger(0);
+  private int currentMark = 0;
+
+  ConcurrentBDDNodeTable(int pInitialSize) {
+    checkArgument(pInitialSize > 0);
+    buckets = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(pInitialSize - 1, 1)) << 1);
+  }
+
+  /**
+   * Return the number of non-terminal nodes currently in the table.
+   */
+  int size() {
+    return size.get();
+  }
+
+  /**
+   * Return the number of nodes after which the table should be garbage collected.
+   * Until then, new nodes only make the bucket chains longer.
+   */
+  int getCollectionThreshold() {
+    return (int)(buckets.length() * MAX_LOAD_FACTOR);
+  }
+
+  /**
+   * Return the unique node for "if var then high else low".
+   * This method is lock-free and may be called concurrently.
+   */
+  Node makeNode(int var, Node low, Node high) {
+    if (low == high) {
+      return low;
+    }
+    assert var < low.var && var < high.var : "BDD variable order violated";
+
+    final int hash = hash(var, low, high);
+    final AtomicReferenceArray<Node> table = buckets;
+    final int index = hash & (table.length() - 1);
+
+    Node newNode = null;
+    Node scannedUntil = null;
+    while (true) {
+      Node head = table.get(index);
+
+      // Only the nodes added since the last iteration need to be scanned.
+      for (Node n = head; n != scannedUntil; n = n.next) {
+        if (n.hash == hash && n.var == var && n.low == low && n.high == high) {
+          return n;
+        }
+      }
+
+      if (newNode == null) {
+        newNode = new Node(var, low, high, hash);
+      }
+      newNode.next = head;
+      if (table.compareAndSet(index, head, newNode)) {
+        size.incrementAndGet();
+        return newNode;
+      }
+      scannedUntil = head;
+    }
+  }
+
+  private static int hash(int var, Node low, Node high) {
+    int h = var;
+    h = 31 * h + low.hash;
+    h = 31 * h + high.hash;
+    // spread bits, the bucket index is taken from the lower bits
+    h ^= (h >>> 20) ^ (h >>> 12);
+    return h ^ (h >>> 7) ^ (h >>> 4);
+  }
+
+  /**
+   * Remove all nodes that are not reachable from the given roots,
+   * and grow the unique table such that at least the same number of nodes
+   * can be added again before the next collection is necessary.
+   * The caller needs to guarantee that no other method of this table
+   * is called concurrently.
+   *
+   * @return the number of removed nodes
+   */
+  int collect(Iterable<Node> roots) {
+    currentMark++;
+    for (Node root : roots) {
+      mark(root);
+    }
+
+    AtomicReferenceArray<Node> oldTable = buckets;
+    int oldSize = size.get();
+    int newLength = oldTable.length();
+    int liveNodes = 0;
+
+    // first pass: count survivors to decide about the new table size
+    for (int i = 0; i < oldTable.length(); i++) {
+      for (Node n = oldTable.get(i); n != null; n = n.next) {
+        if (n.mark == currentMark) {
+          liveNodes++;
+        }
+      }
+    }
+    while (2L * liveNodes > newLength * MAX_LOAD_FACTOR && newLength < (1 << 30)) {
+      newLength <<= 1;
+    }
+
+    AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(newLength);
+    for (int i = 0; i < oldTable.length(); i++) {
+      Node n = oldTable.get(i);
+      while (n != null) {
+        Node next = n.next;
+        if (n.mark == currentMark) {
+          int index = n.hash & (newLength - 1);
+          n.next = newTable.get(index);
+          newTable.set(index, n);
+        } else {
+          n.next = null;
+        }
+        n = next;
+      }
+    }
+
+    buckets = newTable;
+    size.set(liveNodes);
+    return oldSize - liveNodes;
+  }
+
+  private void mark(Node root) {
+    Node n = root;
+    // recurse into the low child, loop into the high child
+    while (!n.isTerminal() && n.mark != currentMark) {
+      n.mark = currentMark;
+      mark(n.low);
+      n = n.high;
+    }
+  }
+}
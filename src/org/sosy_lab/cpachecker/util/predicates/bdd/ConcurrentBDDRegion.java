@@ -0,0 +1,83 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import org.sosy_lab.cpachecker.util.predicates.bdd.ConcurrentBDDNodeTable.Node;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+
+/**
+ * Regions represented using BDDs from {@link ConcurrentBDDRegionManager}.
+ */
+class ConcurrentBDDRegion implements Region {
+
+  private final Node node;
+  private final boolean isTrue;
+  private final boolean isFalse;
+
+  ConcurrentBDDRegion(Node pNode, boolean pIsTrue, boolean pIsFalse) {
+    node = pNode;
+    isTrue = pIsTrue;
+    isFalse = pIsFalse;
+  }
+
+  @Override
+  public boolean isTrue() {
+    return isTrue;
+  }
+
+  @Override
+  public boolean isFalse() {
+    return isFalse;
+  }
+
+  Node getNode() {
+    return node;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof ConcurrentBDDRegion) {
+      // nodes are canonical
+      return node == ((ConcurrentBDDRegion)o).node;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return node.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    if (isTrue) {
+      return "true";
+    } else if (isFalse) {
+      return "false";
+    } else {
+      return "BDD node " + Integer.toHexString(System.identityHashCode(node))
+          + " (var " + node.var + ")";
+    }
+  }
+}
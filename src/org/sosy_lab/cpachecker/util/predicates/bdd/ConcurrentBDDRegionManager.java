@@ -0,0 +1,867 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.FluentIterable.from;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
+
+import java.io.PrintStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.predicates.PredicateOrderingStrategy;
+import org.sosy_lab.cpachecker.util.predicates.bdd.ConcurrentBDDNodeTable.Node;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.solver.api.BooleanFormula;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicates;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * A BDD package written in pure Java that uses multiple threads.
+ *
+ * The nodes are stored in a lock-free unique table ({@link ConcurrentBDDNodeTable}),
+ * the results of operations are stored in a lossy cache that is shared between all threads,
+ * and the two cofactors of the top-most levels of an operation are computed in parallel
+ * with a {@link ForkJoinPool}.
+ *
+ * Garbage collection is done by marking all nodes that are reachable from
+ * {@link ConcurrentBDDRegion} objects that are still alive in Java,
+ * and removing all other nodes from the unique table.
+ * It is triggered when the unique table gets full and needs exclusive access,
+ * so all operations hold the read lock of {@link #gcLock} while they run.
+ * Code that keeps references to nodes in between operations
+ * (like {@link FormulaToRegionConverter}) needs to hold this lock as well.
+ */
+@Options(prefix = "bdd.concurrent")
+class ConcurrentBDDRegionManager implements RegionManager {
+
+  private static final Level LOG_LEVEL = Level.FINE;
+
+  // operation codes for the cache
+  private static final int AND = 0;
+  private static final int OR = 1;
+  private static final int XOR = 2;
+  private static final int BIIMP = 3;
+  private static final int IMP = 4;
+  private static final int EXISTS = 5;
+
+  @Option(secure = true, description = "Initial size of the BDD node table.")
+  @IntegerOption(min = 16)
+  private int initTableSize = 1 << 20;
+
+  @Option(secure = true, description = "Log2 size of the BDD operation cache.")
+  @IntegerOption(min = 4, max = 30)
+  private int cacheSize = 20;
+
+  @Option(secure = true, description = "Number of worker threads, 0 for automatic.")
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
+  @Option(secure = true,
+      description = "Number of levels at the top of a BDD operation in which the two branches"
+      + " are computed in parallel (0 disables parallel operations).")
+  @IntegerOption(min = 0)
+  private int parallelDepth = 6;
+
+  // Statistics
+  private final StatTimer gcTimer = new StatTimer("Time for BDD garbage collection");
+  private final StatInt freedNodes = new StatInt(StatKind.SUM, "Number of BDD nodes freed by GC");
+
+  private final LogManagerWithoutDuplicates logger;
+  private final ConcurrentBDDNodeTable nodes;
+  private final OperationCache cache;
+  private final ForkJoinPool pool;
+
+  private final ReentrantReadWriteLock gcLock = new ReentrantReadWriteLock();
+
+  // All regions that were handed out, needed as roots for garbage collection.
+  // Adding is lock-free, references that were cleared by the JVM are enqueued
+  // in clearedRegions and removed whenever a new region is handed out.
+  private final Set<Reference<ConcurrentBDDRegion>> liveRegions =
+      Collections.newSetFromMap(new ConcurrentHashMap<Reference<ConcurrentBDDRegion>, Boolean>());
+  private final ReferenceQueue<ConcurrentBDDRegion> clearedRegions = new ReferenceQueue<>();
+
+  private final ConcurrentBDDRegion trueFormula;
+  private final ConcurrentBDDRegion falseFormula;
+
+  private final AtomicInteger nextvar = new AtomicInteger(0);
+
+  ConcurrentBDDRegionManager(Configuration config, LogManager pLogger)
+      throws InvalidConfigurationException {
+    config.inject(this);
+    logger = new LogManagerWithoutDuplicates(pLogger);
+    if (threads == 0) {
+      threads = Runtime.getRuntime().availableProcessors();
+    }
+    if (threads == 1) {
+      parallelDepth = 0;
+    }
+
+    nodes = new ConcurrentBDDNodeTable(initTableSize);
+    cache = new OperationCache(cacheSize);
+    pool = (parallelDepth > 0) ? new ForkJoinPool(threads) : null;
+
+    trueFormula = new ConcurrentBDDRegion(nodes.one, true, false);
+    falseFormula = new ConcurrentBDDRegion(nodes.zero, false, true);
+  }
+
+  @Override
+  public void printStatistics(PrintStream out) {
+    gcLock.readLock().lock();
+    try {
+      writingStatisticsTo(out)
+          .put("Number of BDD nodes", nodes.size())
+          .put("Number of BDD worker threads", threads)
+          .putIfUpdatedAtLeastOnce(freedNodes)
+          .putIfUpdatedAtLeastOnce(gcTimer);
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Return how often the garbage collection ran so far.
+   */
+  int getNumberOfGarbageCollections() {
+    return gcTimer.getUpdateCount();
+  }
+
+  @Override
+  public String getVersion() {
+    return String.format("CPAchecker concurrent BDD package (%d threads)", threads);
+  }
+
+  /**
+   * Wrap a node in a region and register the region as root for garbage collection.
+   * Always use this method, and never the ConcurrentBDDRegion constructor directly.
+   * The caller needs to hold the read lock of {@link #gcLock}.
+   */
+  private ConcurrentBDDRegion wrap(Node node) {
+    if (node == nodes.one) {
+      return trueFormula;
+    } else if (node == nodes.zero) {
+      return falseFormula;
+    }
+    Reference<? extends ConcurrentBDDRegion> cleared;
+    while ((cleared = clearedRegions.poll()) != null) {
+      liveRegions.remove(cleared);
+    }
+
+    ConcurrentBDDRegion region = new ConcurrentBDDRegion(node, false, false);
+    liveRegions.add(new WeakReference<>(region, clearedRegions));
+    return region;
+  }
+
+  private static Node unwrap(Region region) {
+    return ((ConcurrentBDDRegion)region).getNode();
+  }
+
+  /**
+   * Run the garbage collection if the node table is full.
+   * Does nothing if the current thread holds the read lock of {@link #gcLock},
+   * this happens for example if atomToRegion in {@link #fromFormula} creates new predicates.
+   */
+  private void collectGarbageIfNecessary() {
+    if (nodes.size() <= nodes.getCollectionThreshold()
+        || gcLock.getReadHoldCount() > 0) {
+      return;
+    }
+
+    gcLock.writeLock().lock();
+    try {
+      if (nodes.size() <= nodes.getCollectionThreshold()) {
+        return; // another thread was faster
+      }
+      gcTimer.start();
+
+      List<Node> roots = new ArrayList<>();
+      for (Reference<ConcurrentBDDRegion> ref : liveRegions) {
+        ConcurrentBDDRegion region = ref.get();
+        if (region != null) {
+          roots.add(region.getNode());
+        }
+      }
+
+      // the cache may reference nodes that are removed
+      cache.clear();
+      int freed = nodes.collect(roots);
+      freedNodes.setNextValue(freed);
+
+      gcTimer.stop();
+      logger.log(LOG_LEVEL, "BDD garbage collection freed", freed, "nodes,",
+          nodes.size(), "nodes are still alive");
+    } finally {
+      gcLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Apply a binary operation and wrap the result.
+   */
+  private Region applyAndWrap(int op, Region pF1, Region pF2) {
+    collectGarbageIfNecessary();
+    gcLock.readLock().lock();
+    try {
+      return wrap(apply(op, unwrap(pF1), unwrap(pF2)));
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Apply a binary operation, in parallel if possible.
+   * The caller needs to hold the read lock of {@link #gcLock}.
+   */
+  private Node apply(int op, Node f1, Node f2) {
+    if (pool != null) {
+      return pool.invoke(new ApplyTask(op, f1, f2, 0));
+    } else {
+      return apply(op, f1, f2, parallelDepth);
+    }
+  }
+
+  @Override
+  public boolean entails(Region pF1, Region pF2) {
+    collectGarbageIfNecessary();
+    gcLock.readLock().lock();
+    try {
+      // check entailment using BDDs: create the BDD representing
+      // the implication, and check that it is the TRUE formula
+      return apply(IMP, unwrap(pF1), unwrap(pF2)) == nodes.one;
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Region makeTrue() {
+    return trueFormula;
+  }
+
+  @Override
+  public Region makeFalse() {
+    return falseFormula;
+  }
+
+  @Override
+  public Region createPredicate() {
+    // This method may be called while the current thread already holds the read lock
+    // (from atomToRegion in fromFormula). Then no garbage collection is done,
+    // and the read lock is acquired reentrantly, which never waits for a queued writer.
+    collectGarbageIfNecessary();
+    gcLock.readLock().lock();
+    try {
+      return wrap(nodes.makeNode(nextvar.getAndIncrement(), nodes.zero, nodes.one));
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Region makeNot(Region pF) {
+    return applyAndWrap(XOR, pF, trueFormula);
+  }
+
+  @Override
+  public Region makeAnd(Region pF1, Region pF2) {
+    return applyAndWrap(AND, pF1, pF2);
+  }
+
+  @Override
+  public Region makeOr(Region pF1, Region pF2) {
+    return applyAndWrap(OR, pF1, pF2);
+  }
+
+  @Override
+  public Region makeEqual(Region pF1, Region pF2) {
+    return applyAndWrap(BIIMP, pF1, pF2);
+  }
+
+  @Override
+  public Region makeUnequal(Region pF1, Region pF2) {
+    return applyAndWrap(XOR, pF1, pF2);
+  }
+
+  @Override
+  public Region makeIte(Region pF1, Region pF2, Region pF3) {
+    collectGarbageIfNecessary();
+    gcLock.readLock().lock();
+    try {
+      return wrap(ite(unwrap(pF1), unwrap(pF2), unwrap(pF3)));
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  private Node ite(Node f1, Node f2, Node f3) {
+    Node thenPart = apply(AND, f1, f2);
+    Node elsePart = apply(AND, apply(XOR, f1, nodes.one), f3);
+    return apply(OR, thenPart, elsePart);
+  }
+
+  @Override
+  public Region makeExists(Region pF1, Region... pF2) {
+    if (pF2.length == 0) {
+      return pF1;
+    }
+
+    collectGarbageIfNecessary();
+    gcLock.readLock().lock();
+    try {
+      // the variables are represented as a conjunction of positive literals
+      Node cube = nodes.one;
+      for (Region var : pF2) {
+        cube = apply(AND, cube, unwrap(var));
+      }
+
+      Node result;
+      if (pool != null) {
+        result = pool.invoke(new ExistsTask(unwrap(pF1), cube, 0));
+      } else {
+        result = exists(unwrap(pF1), cube, parallelDepth);
+      }
+      return wrap(result);
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Triple<Region, Region, Region> getIfThenElse(Region pF) {
+    Node f = unwrap(pF);
+    checkState(!f.isTerminal(), "Terminal BDD nodes have no condition.");
+
+    collectGarbageIfNecessary();
+    gcLock.readLock().lock();
+    try {
+      Region predicate = wrap(nodes.makeNode(f.var, nodes.zero, nodes.one));
+      Region fThen = wrap(f.high);
+      Region fElse = wrap(f.low);
+      return Triple.of(predicate, fThen, fElse);
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Set<Region> extractPredicates(Region pF) {
+    Set<Integer> vars = new TreeSet<>();
+    collectVariables(unwrap(pF), vars, new HashMap<Node, Boolean>());
+
+    collectGarbageIfNecessary();
+    gcLock.readLock().lock();
+    try {
+      ImmutableSet.Builder<Region> predicateBuilder = ImmutableSet.builder();
+      for (int var : vars) {
+        predicateBuilder.add(wrap(nodes.makeNode(var, nodes.zero, nodes.one)));
+      }
+      return predicateBuilder.build();
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  private static void collectVariables(Node f, Set<Integer> vars, Map<Node, Boolean> visited) {
+    if (f.isTerminal() || visited.put(f, Boolean.TRUE) != null) {
+      return;
+    }
+    vars.add(f.var);
+    collectVariables(f.low, vars, visited);
+    collectVariables(f.high, vars, visited);
+  }
+
+  @Override
+  public void setVarOrder(ArrayList<Integer> pOrder) {
+    logger.logOnce(Level.WARNING, "The concurrent BDD package does not support variable ordering,"
+        + " the given variable order is ignored.");
+  }
+
+  @Override
+  public void addVarBlock(Collection<Region> pPredicates, boolean pFixedOrder) {
+    logger.logOnce(Level.WARNING, "The concurrent BDD package does not support variable reordering,"
+        + " variable blocks are ignored.");
+  }
+
+  @Override
+  public void reorder(PredicateOrderingStrategy strategy) {
+    logger.logOnce(Level.WARNING, "The concurrent BDD package does not support variable reordering,"
+        + " the variables are not reordered.");
+  }
+
+  @Override
+  public RegionBuilder builder(ShutdownNotifier pShutdownNotifier) {
+    return new ConcurrentBDDRegionBuilder(pShutdownNotifier);
+  }
+
+  @Override
+  public Region fromFormula(BooleanFormula pF, FormulaManagerView fmgr,
+      Function<BooleanFormula, Region> atomToRegion) {
+    BooleanFormulaManagerView bfmgr = fmgr.getBooleanFormulaManager();
+    if (bfmgr.isFalse(pF)) {
+      return makeFalse();
+    }
+
+    if (bfmgr.isTrue(pF)) {
+      return makeTrue();
+    }
+
+    collectGarbageIfNecessary();
+    gcLock.readLock().lock();
+    try {
+      return wrap(new FormulaToRegionConverter(fmgr, atomToRegion).visit(pF));
+    } finally {
+      gcLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Return the result of an operation if one of the operands is a terminal node
+   * or both operands are equal, otherwise null.
+   */
+  private Node applyTrivialCase(int op, Node f1, Node f2) {
+    final Node zero = nodes.zero;
+    final Node one = nodes.one;
+
+    switch (op) {
+    case AND:
+      if (f1 == zero || f2 == zero) {
+        return zero;
+      } else if (f1 == one || f1 == f2) {
+        return f2;
+      } else if (f2 == one) {
+        return f1;
+      }
+      return null;
+    case OR:
+      if (f1 == one || f2 == one) {
+        return one;
+      } else if (f1 == zero || f1 == f2) {
+        return f2;
+      } else if (f2 == zero) {
+        return f1;
+      }
+      return null;
+    case XOR:
+      if (f1 == f2) {
+        return zero;
+      } else if (f1 == zero) {
+        return f2;
+      } else if (f2 == zero) {
+        return f1;
+      }
+      return null;
+    case BIIMP:
+      if (f1 == f2) {
+        return one;
+      } else if (f1 == one) {
+        return f2;
+      } else if (f2 == one) {
+        return f1;
+      }
+      return null;
+    case IMP:
+      if (f1 == zero || f2 == one || f1 == f2) {
+        return one;
+      } else if (f1 == one) {
+        return f2;
+      }
+      return null;
+    default:
+      throw new AssertionError("Unknown BDD operation " + op);
+    }
+  }
+
+  /**
+   * The recursive part of the apply algorithm.
+   * The branches are forked as separate tasks
+   * as long as depth is lower than {@link #parallelDepth},
+   * this is only allowed if the current thread belongs to {@link #pool}.
+   */
+  private Node apply(int op, Node f1, Node f2, int depth) {
+    Node result = applyTrivialCase(op, f1, f2);
+    if (result != null) {
+      return result;
+    }
+
+    result = cache.get(op, f1, f2);
+    if (result != null) {
+      return result;
+    }
+
+    final int var = Math.min(f1.var, f2.var);
+    final Node f1Low = (f1.var == var) ? f1.low : f1;
+    final Node f1High = (f1.var == var) ? f1.high : f1;
+    final Node f2Low = (f2.var == var) ? f2.low : f2;
+    final Node f2High = (f2.var == var) ? f2.high : f2;
+
+    final Node low;
+    final Node high;
+    if (depth < parallelDepth) {
+      ApplyTask highTask = new ApplyTask(op, f1High, f2High, depth + 1);
+      highTask.fork();
+      low = apply(op, f1Low, f2Low, depth + 1);
+      high = highTask.join();
+    } else {
+      low = apply(op, f1Low, f2Low, depth + 1);
+      high = apply(op, f1High, f2High, depth + 1);
+    }
+
+    result = nodes.makeNode(var, low, high);
+    cache.put(op, f1, f2, result);
+    return result;
+  }
+
+  /**
+   * The recursive part of existential quantification,
+   * cube is a conjunction of the positive literals of the quantified variables.
+   */
+  private Node exists(Node f, Node cube, int depth) {
+    while (!cube.isTerminal() && cube.var < f.var) {
+      cube = cube.high;
+    }
+    if (f.isTerminal() || cube.isTerminal()) {
+      return f;
+    }
+
+    Node result = cache.get(EXISTS, f, cube);
+    if (result != null) {
+      return result;
+    }
+
+    final Node low;
+    final Node high;
+    if (depth < parallelDepth) {
+      ExistsTask highTask = new ExistsTask(f.high, cube, depth + 1);
+      highTask.fork();
+      low = exists(f.low, cube, depth + 1);
+      high = highTask.join();
+    } else {
+      low = exists(f.low, cube, depth + 1);
+      high = exists(f.high, cube, depth + 1);
+    }
+
+    if (f.var == cube.var) {
+      result = apply(OR, low, high, depth + 1);
+    } else {
+      result = nodes.makeNode(f.var, low, high);
+    }
+    cache.put(EXISTS, f, cube, result);
+    return result;
+  }
+
+  private class ApplyTask extends RecursiveTask<Node> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int op;
+    private final Node f1;
+    private final Node f2;
+    private final int depth;
+
+    private ApplyTask(int pOp, Node pF1, Node pF2, int pDepth) {
+      op = pOp;
+      f1 = pF1;
+      f2 = pF2;
+      depth = pDepth;
+    }
+
+    @Override
+    protected Node compute() {
+      return apply(op, f1, f2, depth);
+    }
+  }
+
+  private class ExistsTask extends RecursiveTask<Node> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Node f;
+    private final Node cube;
+    private final int depth;
+
+    private ExistsTask(Node pF, Node pCube, int pDepth) {
+      f = pF;
+      cube = pCube;
+      depth = pDepth;
+    }
+
+    @Override
+    protected Node compute() {
+      return exists(f, cube, depth);
+    }
+  }
+
+  /**
+   * A lossy cache for the results of BDD operations,
+   * colliding entries simply overwrite each other.
+   * Entries are immutable objects with final fields only,
+   * so they can be safely read and written concurrently without locks
+   * (a racy read sees either the old or the new entry, and both are consistent).
+   */
+  private static final class OperationCache {
+
+    private static final class Entry {
+      private final int op;
+      private final Node f1;
+      private final Node f2;
+      private final Node result;
+
+      private Entry(int pOp, Node pF1, Node pF2, Node pResult) {
+        op = pOp;
+        f1 = pF1;
+        f2 = pF2;
+        result = pResult;
+      }
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+
+    private OperationCache(int log2Size) {
+      entries = new Entry[1 << log2Size];
+      mask = entries.length - 1;
+    }
+
+    private int index(int op, Node f1, Node f2) {
+      int h = op;
+      h = 31 * h + f1.hash;
+      h = 31 * h + f2.hash;
+      h ^= (h >>> 16);
+      return h & mask;
+    }
+
+    private Node get(int op, Node f1, Node f2) {
+      Entry e = entries[index(op, f1, f2)];
+      if (e != null && e.op == op && e.f1 == f1 && e.f2 == f2) {
+        return e.result;
+      }
+      return null;
+    }
+
+    private void put(int op, Node f1, Node f2, Node result) {
+      entries[index(op, f1, f2)] = new Entry(op, f1, f2, result);
+    }
+
+    /**
+     * Clear the cache, requires that no other thread accesses the cache.
+     */
+    private void clear() {
+      for (int i = 0; i < entries.length; i++) {
+        entries[i] = null;
+      }
+    }
+  }
+
+  private class ConcurrentBDDRegionBuilder implements RegionBuilder {
+
+    private final ShutdownNotifier shutdownNotifier;
+    // Same invariants as in JavaBDDRegionManager.BDDRegionBuilder:
+    // cubes contains a number of regions, whose disjunction makes up the result,
+    // and the cube at index i is one built from 2^i conjunctions.
+    // Regions are stored instead of nodes such that they are not garbage collected.
+    private final List<Region> cubes = new ArrayList<>();
+    private Region currentCube = null;
+
+    private ConcurrentBDDRegionBuilder(ShutdownNotifier pShutdownNotifier) {
+      shutdownNotifier = pShutdownNotifier;
+    }
+
+    @Override
+    public void startNewConjunction() {
+      checkState(currentCube == null);
+      currentCube = trueFormula;
+    }
+
+    @Override
+    public void addPositiveRegion(Region r) {
+      checkState(currentCube != null);
+      currentCube = makeAnd(currentCube, r);
+    }
+
+    @Override
+    public void addNegativeRegion(Region r) {
+      checkState(currentCube != null);
+      currentCube = makeAnd(currentCube, makeNot(r));
+    }
+
+    @Override
+    public void finishConjunction() {
+      checkState(currentCube != null);
+
+      for (int i = 0; i < cubes.size(); i++) {
+        Region cubeAtI = cubes.get(i);
+
+        if (cubeAtI == null) {
+          cubes.set(i, currentCube);
+          currentCube = null;
+          return;
+        } else {
+          currentCube = makeOr(currentCube, cubeAtI);
+          cubes.set(i, null);
+        }
+      }
+
+      if (currentCube != null) {
+        cubes.add(currentCube);
+        currentCube = null;
+      }
+    }
+
+    @Override
+    public Region getResult() throws InterruptedException {
+      checkState(currentCube == null);
+      Region result = falseFormula;
+      for (Region cube : from(cubes).filter(Predicates.notNull())) {
+        shutdownNotifier.shutdownIfNecessary();
+        result = makeOr(result, cube);
+      }
+      cubes.clear();
+      cubes.add(result);
+      return result;
+    }
+
+    @Override
+    public void close() {
+      checkState(currentCube == null);
+      cubes.clear();
+    }
+  }
+
+  /**
+   * Class for creating BDDs out of a formula.
+   * The intermediate nodes are not wrapped in regions,
+   * so the caller needs to hold the read lock of {@link #gcLock}
+   * while this class is used.
+   */
+  private class FormulaToRegionConverter extends
+      BooleanFormulaManagerView.BooleanFormulaVisitor<Node> {
+
+    private final Function<BooleanFormula, Region> atomToRegion;
+    private final Map<BooleanFormula, Node> cache = new HashMap<>();
+
+    FormulaToRegionConverter(FormulaManagerView pFmgr,
+        Function<BooleanFormula, Region> pAtomToRegion) {
+      super(pFmgr);
+      atomToRegion = pAtomToRegion;
+    }
+
+    @Override
+    protected Node visitTrue() {
+      return nodes.one;
+    }
+
+    @Override
+    protected Node visitFalse() {
+      return nodes.zero;
+    }
+
+    @Override
+    protected Node visitAtom(BooleanFormula pAtom) {
+      return unwrap(atomToRegion.apply(pAtom));
+    }
+
+    private Node convert(BooleanFormula pOperand) {
+      Node operand = cache.get(pOperand);
+      if (operand == null) {
+        operand = visit(pOperand);
+        cache.put(pOperand, operand);
+      }
+      return operand;
+    }
+
+    @Override
+    protected Node visitNot(BooleanFormula pOperand) {
+      return apply(XOR, convert(pOperand), nodes.one);
+    }
+
+    private Node visitMulti(int op, BooleanFormula... pOperands) {
+      Node result = convert(pOperands[0]);
+      for (int i = 1; i < pOperands.length; i++) {
+        result = apply(op, result, convert(pOperands[i]));
+      }
+      return result;
+    }
+
+    @Override
+    protected Node visitAnd(BooleanFormula... pOperands) {
+      return visitMulti(AND, pOperands);
+    }
+
+    @Override
+    protected Node visitOr(BooleanFormula... pOperands) {
+      return visitMulti(OR, pOperands);
+    }
+
+    @Override
+    protected Node visitEquivalence(BooleanFormula pOperand1,
+        BooleanFormula pOperand2) {
+      return apply(BIIMP, convert(pOperand1), convert(pOperand2));
+    }
+
+    @Override
+    protected Node visitImplication(BooleanFormula pOperand1,
+        BooleanFormula pOperand2) {
+      return apply(IMP, convert(pOperand1), convert(pOperand2));
+    }
+
+    @Override
+    protected Node visitIfThenElse(BooleanFormula pCondition,
+        BooleanFormula pThenFormula, BooleanFormula pElseFormula) {
+      return ite(convert(pCondition), convert(pThenFormula), convert(pElseFormula));
+    }
+  }
+}
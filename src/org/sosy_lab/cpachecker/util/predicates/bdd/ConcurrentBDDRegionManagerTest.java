@@ -0,0 +1,191 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+
+public class ConcurrentBDDRegionManagerTest {
+
+  private static final int VARS = 16;
+
+  private RegionManager rmgr;
+  private Region[] vars;
+
+  @Before
+  public void init() throws InvalidConfigurationException {
+    Configuration config = Configuration.builder()
+        .setOption("bdd.package", "CONCURRENT")
+        // small table and cache to trigger garbage collection and cache collisions
+        .setOption("bdd.concurrent.initTableSize", "16")
+        .setOption("bdd.concurrent.cacheSize", "4")
+        .setOption("bdd.concurrent.threads", "4")
+        .build();
+    rmgr = new BDDManagerFactory(config, TestLogManager.getInstance()).createRegionManager();
+
+    vars = new Region[VARS];
+    for (int i = 0; i < VARS; i++) {
+      vars[i] = rmgr.createPredicate();
+    }
+  }
+
+  @Test
+  public void testConstants() {
+    assertThat(rmgr.makeTrue().isTrue()).isTrue();
+    assertThat(rmgr.makeFalse().isFalse()).isTrue();
+    assertThat(rmgr.makeNot(rmgr.makeTrue())).isEqualTo(rmgr.makeFalse());
+    assertThat(vars[0].isTrue()).isFalse();
+    assertThat(vars[0].isFalse()).isFalse();
+  }
+
+  @Test
+  public void testCanonicity() {
+    Region a = vars[0];
+    Region b = vars[1];
+
+    // (a & b) | (a & !b) == a
+    Region r = rmgr.makeOr(rmgr.makeAnd(a, b), rmgr.makeAnd(a, rmgr.makeNot(b)));
+    assertThat(r).isEqualTo(a);
+
+    // a ^ b == !(a <=> b)
+    assertThat(rmgr.makeUnequal(a, b)).isEqualTo(rmgr.makeNot(rmgr.makeEqual(a, b)));
+
+    // ite(a, b, !b) == (a <=> b)
+    assertThat(rmgr.makeIte(a, b, rmgr.makeNot(b))).isEqualTo(rmgr.makeEqual(a, b));
+  }
+
+  @Test
+  public void testEntails() throws Exception {
+    Region ab = rmgr.makeAnd(vars[0], vars[1]);
+    assertThat(rmgr.entails(ab, vars[0])).isTrue();
+    assertThat(rmgr.entails(vars[0], ab)).isFalse();
+    assertThat(rmgr.entails(rmgr.makeFalse(), ab)).isTrue();
+  }
+
+  @Test
+  public void testExists() {
+    Region ab = rmgr.makeAnd(vars[0], vars[1]);
+    assertThat(rmgr.makeExists(ab, vars[1])).isEqualTo(vars[0]);
+    assertThat(rmgr.makeExists(ab, vars[0], vars[1]).isTrue()).isTrue();
+
+    Region xor = rmgr.makeUnequal(vars[2], vars[3]);
+    assertThat(rmgr.makeExists(xor, vars[3]).isTrue()).isTrue();
+  }
+
+  @Test
+  public void testExtractPredicates() {
+    Region r = rmgr.makeOr(vars[3], rmgr.makeAnd(vars[5], vars[7]));
+    assertThat(rmgr.extractPredicates(r)).containsExactly(vars[3], vars[5], vars[7]);
+  }
+
+  @Test
+  public void testLargeRegionsWithGarbageCollection() throws Exception {
+    // (v0 <=> v1) & (v2 <=> v3) & ... built twice in different orders,
+    // which creates many temporary nodes and forces several garbage collections
+    Region forward = rmgr.makeTrue();
+    for (int i = 0; i < VARS; i += 2) {
+      forward = rmgr.makeAnd(forward, rmgr.makeEqual(vars[i], vars[i + 1]));
+    }
+
+    Region backward = rmgr.makeTrue();
+    for (int i = VARS - 2; i >= 0; i -= 2) {
+      Region eq = rmgr.makeOr(
+          rmgr.makeAnd(vars[i], vars[i + 1]),
+          rmgr.makeAnd(rmgr.makeNot(vars[i]), rmgr.makeNot(vars[i + 1])));
+      backward = rmgr.makeAnd(eq, backward);
+    }
+
+    assertThat(backward).isEqualTo(forward);
+    assertThat(rmgr.entails(forward, rmgr.makeEqual(vars[4], vars[5]))).isTrue();
+  }
+
+  @Test
+  public void testGarbageCollectionRuns() throws Exception {
+    ConcurrentBDDRegionManager concurrentRmgr = (ConcurrentBDDRegionManager) rmgr;
+    Region a = rmgr.makeEqual(vars[0], vars[1]);
+
+    // many temporary regions that are not referenced anymore
+    for (int round = 0; round < 100; round++) {
+      Region tmp = rmgr.makeTrue();
+      for (int i = 0; i < VARS; i++) {
+        tmp = rmgr.makeOr(tmp, rmgr.makeAnd(vars[i], vars[(i + round) % VARS]));
+      }
+    }
+
+    assertThat(concurrentRmgr.getNumberOfGarbageCollections()).isGreaterThan(0);
+    // regions that are still referenced survive the collection
+    assertThat(a).isEqualTo(rmgr.makeEqual(vars[1], vars[0]));
+    assertThat(rmgr.entails(rmgr.makeAnd(vars[0], vars[1]), a)).isTrue();
+  }
+
+  @Test(timeout = 60000)
+  public void testConcurrentOperations() throws Exception {
+    final int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Region>> results = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int offset = t;
+        results.add(executor.submit(new Callable<Region>() {
+            @Override
+            public Region call() throws Exception {
+              // new predicates are created concurrently with operations and garbage collection
+              Region p = rmgr.createPredicate();
+              assertThat(rmgr.makeAnd(p, rmgr.makeNot(p)).isFalse()).isTrue();
+
+              Region r = rmgr.makeTrue();
+              for (int i = 0; i < VARS; i += 2) {
+                int j = (i + 2 * offset) % VARS;
+                r = rmgr.makeAnd(r, rmgr.makeEqual(vars[j], vars[j + 1]));
+              }
+              return r;
+            }
+          }));
+      }
+
+      Region expected = results.get(0).get();
+      for (Future<Region> result : results) {
+        assertThat(result.get()).isEqualTo(expected);
+      }
+    } finally {
+      executor.shutdownNow();
+      executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+}
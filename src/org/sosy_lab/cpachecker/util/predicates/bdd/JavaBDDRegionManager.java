@@ -33,6 +33,7 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -80,6 +81,9 @@ class JavaBDDRegionManager implements RegionManager {
   // Statistics
   private final StatInt cleanupQueueSize = new StatInt(StatKind.AVG, "Size of BDD node cleanup queue");
   private final StatTimer cleanupTimer = new StatTimer("Time for BDD node cleanup");
+  private final StatTimer dynamicReorderTimer = new StatTimer("Time for dynamic BDD reordering");
+  private final StatInt nodesBeforeReordering = new StatInt(StatKind.SUM, "Number of BDD nodes before dynamic reordering");
+  private final StatInt nodesAfterReordering = new StatInt(StatKind.SUM, "Number of BDD nodes after dynamic reordering");
   private final LogManager logger;
   private final BDDFactory factory;
   private final Region trueFormula;
@@ -105,6 +109,40 @@ class JavaBDDRegionManager implements RegionManager {
   @Option(secure = true,
       description = "Size of the BDD cache in relation to the node table size (set to 0 to use fixed BDD cache size).")
   private double cacheRatio = 0.1;
+
+  static enum DynamicReorderingMethod {
+    NONE(null),
+    SIFT(BDDFactory.REORDER_SIFT),
+    SIFTITE(BDDFactory.REORDER_SIFTITE),
+    WIN2(BDDFactory.REORDER_WIN2),
+    WIN2ITE(BDDFactory.REORDER_WIN2ITE),
+    WIN3(BDDFactory.REORDER_WIN3),
+    WIN3ITE(BDDFactory.REORDER_WIN3ITE);
+
+    private final BDDFactory.ReorderMethod method;
+
+    private DynamicReorderingMethod(BDDFactory.ReorderMethod pMethod) {
+      method = pMethod;
+    }
+  }
+
+  @Option(secure = true,
+      description = "Method for dynamic reordering of the BDD variables, which is triggered"
+      + " whenever the number of BDD nodes exceeds a threshold (NONE disables dynamic reordering).")
+  private DynamicReorderingMethod dynamicReordering = DynamicReorderingMethod.NONE;
+
+  @Option(secure = true,
+      description = "Number of BDD nodes at which dynamic reordering is triggered for the first time.")
+  @IntegerOption(min = 1)
+  private int reorderThreshold = 100000;
+
+  @Option(secure = true,
+      description = "After a dynamic reordering, the next one is triggered when the number of BDD nodes"
+      + " is larger than this factor times the number of nodes after the previous reordering.")
+  private double reorderGrowthFactor = 2.0;
+
+  private int nextReorderThreshold;
+
   private int nextvar = 0;
   private int varcount = 100;
 
@@ -130,6 +168,11 @@ class JavaBDDRegionManager implements RegionManager {
     if (cacheSize == 0) {
       cacheSize = (int)(initTableSize * cacheRatio);
     }
+    if (reorderGrowthFactor <= 1) {
+      throw new InvalidConfigurationException("Invalid value " + reorderGrowthFactor
+          + " for option bdd.javabdd.reorderGrowthFactor, needs to be larger than 1.");
+    }
+    nextReorderThreshold = reorderThreshold;
     factory =
         BDDFactory.init(bddPackage.toLowerCase(), initTableSize, cacheSize);
 
@@ -225,6 +268,15 @@ class JavaBDDRegionManager implements RegionManager {
           .putIf(cacheSize >= 0, "Size of BDD cache", cacheSize)
           .put(cleanupQueueSize)
           .put(cleanupTimer)
+          .putIf(dynamicReorderTimer.getUpdateCount() > 0,
+              "Number of dynamic BDD reorderings", dynamicReorderTimer.getUpdateCount())
+          .putIfUpdatedAtLeastOnce(dynamicReorderTimer)
+          .putIfUpdatedAtLeastOnce(nodesBeforeReordering)
+          .putIfUpdatedAtLeastOnce(nodesAfterReordering)
+          .putIf(nodesBeforeReordering.getValueSum() > 0,
+              "Reduction of BDD nodes by dynamic reordering",
+              100L * (nodesBeforeReordering.getValueSum() - nodesAfterReordering.getValueSum())
+                  / nodesBeforeReordering.getValueSum() + "%")
 
           .put(
               "Time for BDD garbage collection",
@@ -326,6 +378,8 @@ class JavaBDDRegionManager implements RegionManager {
    * Always use this method, and never the JavaBDDRegion constructor directly.
    */
   private JavaBDDRegion wrap(BDD bdd) {
+    reorderIfNecessary();
+
     JavaBDDRegion region = new JavaBDDRegion(bdd);
 
     PhantomReference<JavaBDDRegion> ref = new PhantomReference<>(region, referenceQueue);
@@ -334,6 +388,38 @@ class JavaBDDRegionManager implements RegionManager {
     return region;
   }
 
+  /**
+   * Reorder the BDD variables if the number of nodes has grown too much since
+   * the last reordering.
+   * The BDD objects stay valid during reordering, but this method should only be called
+   * when no operation is currently running, so we call it from {@link #wrap(BDD)}.
+   */
+  private void reorderIfNecessary() {
+    if (dynamicReordering == DynamicReorderingMethod.NONE) {
+      return;
+    }
+    int nodesBefore = factory.getNodeNum();
+    if (nodesBefore <= nextReorderThreshold) {
+      return;
+    }
+
+    dynamicReorderTimer.start();
+    try {
+      factory.reorder(dynamicReordering.method);
+    } finally {
+      dynamicReorderTimer.stop();
+    }
+
+    int nodesAfter = factory.getNodeNum();
+    nodesBeforeReordering.setNextValue(nodesBefore);
+    nodesAfterReordering.setNextValue(nodesAfter);
+    nextReorderThreshold = Math.max(reorderThreshold,
+        (int)Math.min(Integer.MAX_VALUE, nodesAfter * reorderGrowthFactor));
+
+    logger.log(Level.FINE, "Dynamic BDD reordering reduced number of nodes from",
+        nodesBefore, "to", nodesAfter);
+  }
+
   private BDD unwrap(Region region) {
     return ((JavaBDDRegion) region).getBDD();
   }
@@ -499,6 +585,33 @@ class JavaBDDRegionManager implements RegionManager {
     factory.setVarOrder(order);
   }
 
+  @Override
+  public void addVarBlock(Collection<Region> pPredicates, boolean pFixedOrder) {
+    if (pPredicates.isEmpty()) {
+      return;
+    }
+    // JavaBDD expects a range of variable indices that is also a range of levels
+    int firstVar = Integer.MAX_VALUE;
+    int lastVar = Integer.MIN_VALUE;
+    int firstLevel = Integer.MAX_VALUE;
+    int lastLevel = Integer.MIN_VALUE;
+    for (Region predicate : pPredicates) {
+      int var = unwrap(predicate).var();
+      int level = factory.var2Level(var);
+      firstVar = Math.min(firstVar, var);
+      lastVar = Math.max(lastVar, var);
+      firstLevel = Math.min(firstLevel, level);
+      lastLevel = Math.max(lastLevel, level);
+    }
+    int size = pPredicates.size();
+    if (lastVar - firstVar + 1 != size || lastLevel - firstLevel + 1 != size) {
+      logger.log(Level.WARNING, "Ignoring variable block for reordering because its",
+          size, "variables are not adjacent.");
+      return;
+    }
+    factory.addVarBlock(firstVar, lastVar, pFixedOrder);
+  }
+
   @Override
   public void reorder(PredicateOrderingStrategy strategy) {
     switch (strategy) {
@@ -32,6 +32,7 @@ import java.io.PrintStream;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -308,6 +309,10 @@ class SylvanBDDRegionManager implements RegionManager {
   public void setVarOrder(ArrayList<Integer> pOrder) {
   }
 
+  @Override
+  public void addVarBlock(Collection<Region> pPredicates, boolean pFixedOrder) {
+  }
+
   @Override
   public void reorder(PredicateOrderingStrategy strategy) {
   }
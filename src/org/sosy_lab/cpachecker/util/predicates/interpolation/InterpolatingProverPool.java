@@ -0,0 +1,195 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.interpolation;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverThreadPool;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverThreadPool.SolverTask;
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.InterpolatingProverEnvironment;
+
+import com.google.common.base.Throwables;
+
+/**
+ * A pool of independent SMT solvers that compute the interpolants
+ * of a single interpolation problem in parallel.
+ * This is only possible for strategies where the interpolation queries
+ * do not depend on each other, i.e., where each interpolant is computed
+ * for the partitions A=[start_of_A .. end_of_A] and B=rest of the same formula list.
+ *
+ * The solvers are provided by a {@link SolverThreadPool}.
+ * Each solver gets all formulas on its stack and computes the interpolants
+ * for every N-th position of the problem,
+ * the calling thread translates the formulas and the interpolants.
+ */
+final class InterpolatingProverPool implements AutoCloseable {
+
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final FormulaManagerView fmgr;
+
+  private final SolverThreadPool solvers;
+
+  final Timer totalTimer = new Timer();
+  final Timer translationTimer = new Timer();
+
+  InterpolatingProverPool(int pSize, FormulaManagerView pFmgr, Configuration pConfig,
+      LogManager pLogger, ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
+    checkArgument(pSize > 1);
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+    fmgr = pFmgr;
+
+    solvers = new SolverThreadPool(pSize, pConfig, pLogger, pShutdownNotifier);
+  }
+
+  @Override
+  public void close() throws Exception {
+    solvers.close();
+  }
+
+  /**
+   * Compute the interpolants for the partitions A=[startsOfA(i) .. i] and B=rest,
+   * for all i={0..n-2}, where n is the number of given formulas,
+   * which need to be unsatisfiable.
+   *
+   * @param pFormulas The formulas of the interpolation problem, in the order for the partitioning.
+   * @param pStartsOfA The start index of the A-partition for each interpolant.
+   * @return A list of (N-1) interpolants for N formulae, in the main solver context.
+   */
+  List<BooleanFormula> getInterpolants(final List<BooleanFormula> pFormulas,
+      final List<Integer> pStartsOfA) throws SolverException, InterruptedException {
+    checkArgument(pStartsOfA.size() == pFormulas.size() - 1);
+
+    totalTimer.start();
+    try {
+      translationTimer.start();
+      final List<String> dumpedFormulas = new ArrayList<>(pFormulas.size());
+      for (BooleanFormula f : pFormulas) {
+        dumpedFormulas.add(fmgr.dumpFormula(f).toString());
+      }
+      translationTimer.stop();
+
+      final int poolSize = Math.min(solvers.size(), pStartsOfA.size());
+      List<Future<List<String>>> futures = new ArrayList<>(poolSize);
+      for (int i = 0; i < poolSize; i++) {
+        final int firstPosition = i;
+        futures.add(solvers.submit(new SolverTask<List<String>>() {
+            @Override
+            public List<String> call(Solver pSolver) throws SolverException, InterruptedException {
+              return interpolate(pSolver, dumpedFormulas, pStartsOfA, firstPosition, poolSize);
+            }
+          }));
+      }
+
+      List<List<String>> dumpedInterpolants = new ArrayList<>(poolSize);
+      try {
+        for (Future<List<String>> future : futures) {
+          dumpedInterpolants.add(future.get());
+        }
+      } catch (ExecutionException e) {
+        Throwable t = e.getCause();
+        Throwables.propagateIfPossible(t, SolverException.class, InterruptedException.class);
+        throw new UnexpectedCheckedException("interpolation", t);
+      } finally {
+        for (Future<List<String>> future : futures) {
+          future.cancel(true);
+        }
+      }
+
+      // assemble the interpolants in the original order
+      translationTimer.start();
+      List<BooleanFormula> interpolants = new ArrayList<>(pStartsOfA.size());
+      for (int position = 0; position < pStartsOfA.size(); position++) {
+        String itp = dumpedInterpolants.get(position % poolSize).get(position / poolSize);
+        interpolants.add(fmgr.parse(itp));
+      }
+      translationTimer.stop();
+      return interpolants;
+
+    } finally {
+      totalTimer.stop();
+    }
+  }
+
+  /**
+   * Compute the interpolants for the positions firstPosition, firstPosition+step, ...
+   * with the given solver.
+   * @return The interpolants in SMT-LIB format.
+   */
+  private List<String> interpolate(Solver pSolver, List<String> pDumpedFormulas,
+      List<Integer> pStartsOfA, int pFirstPosition, int pStep)
+      throws SolverException, InterruptedException {
+    FormulaManagerView localFmgr = pSolver.getFormulaManager();
+    List<BooleanFormula> formulas = new ArrayList<>(pDumpedFormulas.size());
+    for (String f : pDumpedFormulas) {
+      formulas.add(localFmgr.parse(f));
+    }
+
+    try (InterpolatingProverEnvironment<?> itpProver = pSolver.newProverEnvironmentWithInterpolation()) {
+      return interpolate(itpProver, localFmgr, formulas, pStartsOfA, pFirstPosition, pStep);
+    }
+  }
+
+  private <T> List<String> interpolate(InterpolatingProverEnvironment<T> pItpProver,
+      FormulaManagerView pLocalFmgr, List<BooleanFormula> pFormulas,
+      List<Integer> pStartsOfA, int pFirstPosition, int pStep)
+      throws SolverException, InterruptedException {
+
+    List<T> itpGroupIds = new ArrayList<>(pFormulas.size());
+    for (BooleanFormula f : pFormulas) {
+      itpGroupIds.add(pItpProver.push(f));
+    }
+    if (!pItpProver.isUnsat()) {
+      throw new SolverException("Interpolation problem is satisfiable in solver of the pool");
+    }
+
+    List<String> interpolants = new ArrayList<>();
+    for (int end_of_A = pFirstPosition; end_of_A < pStartsOfA.size(); end_of_A += pStep) {
+      shutdownNotifier.shutdownIfNecessary();
+      int start_of_A = pStartsOfA.get(end_of_A);
+      logger.log(Level.ALL, "Looking for interpolant for formulas from", start_of_A, "to", end_of_A);
+
+      BooleanFormula itp = pItpProver.getInterpolant(itpGroupIds.subList(start_of_A, end_of_A + 1));
+      interpolants.add(pLocalFmgr.dumpFormula(itp).toString());
+    }
+    return interpolants;
+  }
+}
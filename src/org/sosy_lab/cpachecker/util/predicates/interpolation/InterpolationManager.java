@@ -95,7 +95,7 @@ import com.google.common.collect.Iterables;
 
 
 @Options(prefix="cpa.predicate.refinement")
-public final class InterpolationManager {
+public final class InterpolationManager implements AutoCloseable {
 
   private final Timer cexAnalysisTimer = new Timer();
   private final Timer satCheckTimer = new Timer();
@@ -117,6 +117,10 @@ public final class InterpolationManager {
     if (interpolantVerificationTimer.getNumberOfIntervals() > 0) {
       out.println("    Interpolant verification:         " + interpolantVerificationTimer);
     }
+    if (proverPool != null) {
+      out.println("    Interpolation with prover pool:   " + proverPool.totalTimer);
+      out.println("      Formula translation:            " + proverPool.translationTimer);
+    }
   }
 
 
@@ -178,7 +182,16 @@ public final class InterpolationManager {
   @Option(secure=true, description="Use a single SMT solver environment for several interpolation queries")
   private boolean reuseInterpolationEnvironment = false;
 
+  @Option(secure=true, description="Number of additional SMT solver instances that compute "
+      + "the interpolants of a counterexample in parallel (0 or 1 to disable). "
+      + "Only supported by the interpolation strategies SEQ_CPACHECKER and TREE_WELLSCOPED, "
+      + "where the interpolants do not depend on each other. "
+      + "Each instance has its own solver context, formulas are transferred in SMT-LIB format.")
+  private int parallelInterpolationProvers = 0;
+
   private final ExecutorService executor;
+  private final Configuration config;
+  private InterpolatingProverPool proverPool = null; // created lazily
   private final LoopStructure loopStructure;
   private final VariableClassification variableClassification;
 
@@ -200,6 +213,15 @@ public final class InterpolationManager {
     solver = pSolver;
     loopStructure = pLoopStructure.orNull();
     variableClassification = pVarClassification.orNull();
+    this.config = config;
+
+    if (parallelInterpolationProvers > 1
+        && strategy != InterpolationStrategy.SEQ_CPACHECKER
+        && strategy != InterpolationStrategy.TREE_WELLSCOPED) {
+      logger.log(Level.WARNING, "Parallel interpolation is not supported by the interpolation strategy",
+          strategy, "and will not be used.");
+      parallelInterpolationProvers = 0;
+    }
 
     if (itpTimeLimit.isEmpty()) {
       executor = null;
@@ -215,6 +237,17 @@ public final class InterpolationManager {
     }
   }
 
+  /**
+   * Stop the solvers for parallel interpolation, if they were created.
+   */
+  @Override
+  public void close() throws Exception {
+    if (proverPool != null) {
+      proverPool.close();
+      proverPool = null;
+    }
+  }
+
   public Appender dumpCounterexample(CounterexampleTraceInfo cex) {
     return fmgr.dumpFormula(bfmgr.and(cex.getCounterExampleFormulas()));
   }
@@ -891,6 +924,36 @@ public final class InterpolationManager {
       return itpProver.isUnsat();
     }
 
+    /**
+     * Return whether {@link #getInterpolantsFromProverPool(List, List)} is available.
+     */
+    public boolean hasProverPool() {
+      return parallelInterpolationProvers > 1;
+    }
+
+    /**
+     * Compute the interpolants for the partitions A=[startsOfA(i) .. i] and B=rest,
+     * for all i={0..n-2}, in parallel with a pool of independent solvers.
+     * This does not use {@link #itpProver}.
+     *
+     * @param pFormulas The formulas of the interpolation problem, in the order for the partitioning.
+     * @param pStartsOfA The start index of the A-partition for each interpolant.
+     * @return A list of (N-1) interpolants for N formulae.
+     */
+    public List<BooleanFormula> getInterpolantsFromProverPool(List<BooleanFormula> pFormulas,
+        List<Integer> pStartsOfA) throws SolverException, InterruptedException {
+      if (proverPool == null) {
+        try {
+          proverPool = new InterpolatingProverPool(parallelInterpolationProvers, fmgr, config,
+              logger, shutdownNotifier);
+        } catch (InvalidConfigurationException e) {
+          // the same configuration was already used successfully for the main solver
+          throw new AssertionError(e);
+        }
+      }
+      return proverPool.getInterpolants(pFormulas, pStartsOfA);
+    }
+
     private void close() {
       itpProver.close();
       itpProver = null;
@@ -190,6 +190,33 @@ public abstract class ITPStrategy<T> {
     return Lists.transform(l, Pair.<S> getProjectionToSecond());
   }
 
+  /**
+   * Precondition: The solver-stack contains all formulas and is UNSAT.
+   * Get the interpolants for the partitions A=[startsOfA(i) .. i] and B=rest, for i={0..n-2}.
+   * The interpolants do not depend on each other, so this uses the prover pool
+   * of the interpolator to compute them in parallel, if available.
+   */
+  protected final List<BooleanFormula> getInterpolantsFromSublists(
+      final InterpolationManager.Interpolator<T> interpolator,
+      final List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds,
+      final List<Integer> startsOfA)
+          throws InterruptedException, SolverException {
+    assert startsOfA.size() == formulasWithStatesAndGroupdIds.size() - 1;
+
+    if (interpolator.hasProverPool() && startsOfA.size() > 1) {
+      return interpolator.getInterpolantsFromProverPool(
+          Lists.transform(formulasWithStatesAndGroupdIds, Triple.<BooleanFormula> getProjectionToFirst()),
+          startsOfA);
+    }
+
+    final List<T> itpGroupsIds = projectToThird(formulasWithStatesAndGroupdIds);
+    final List<BooleanFormula> interpolants = Lists.newArrayListWithExpectedSize(startsOfA.size());
+    for (int end_of_A = 0; end_of_A < startsOfA.size(); end_of_A++) {
+      interpolants.add(getInterpolantFromSublist(interpolator.itpProver, itpGroupsIds, startsOfA.get(end_of_A), end_of_A));
+    }
+    return interpolants;
+  }
+
   /**
    * Precondition: The solver-stack contains all formulas and is UNSAT.
    * Get the interpolant between the Sublist of formulas and the other formulas on the solver-stack.
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.interpolation.strategy;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.sosy_lab.common.ShutdownNotifier;
@@ -35,8 +36,6 @@ import org.sosy_lab.solver.api.BooleanFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.InterpolationManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 
-import com.google.common.collect.Lists;
-
 public class SequentialInterpolation<T> extends ITPStrategy<T> {
 
   /**
@@ -53,15 +52,10 @@ public class SequentialInterpolation<T> extends ITPStrategy<T> {
       final InterpolationManager.Interpolator<T> interpolator,
       final List<Triple<BooleanFormula, AbstractState, T>> formulasWithStateAndGroupId)
       throws InterruptedException, SolverException {
-    final List<T> formulas = Lists.transform(formulasWithStateAndGroupId,
-        Triple.<T> getProjectionToThird());
-    final List<BooleanFormula> interpolants = Lists.newArrayListWithExpectedSize(formulas.size() - 1);
-    for (int end_of_A = 0; end_of_A < formulas.size() - 1; end_of_A++) {
-      // last iteration is left out because B would be empty
-      final int start_of_A = 0;
-      interpolants.add(getInterpolantFromSublist(interpolator.itpProver, formulas, start_of_A, end_of_A));
-    }
-    return interpolants;
+    // last iteration is left out because B would be empty
+    final int start_of_A = 0;
+    final List<Integer> startsOfA = Collections.nCopies(formulasWithStateAndGroupId.size() - 1, start_of_A);
+    return getInterpolantsFromSublists(interpolator, formulasWithStateAndGroupId, startsOfA);
   }
 
 }
@@ -23,7 +23,6 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.interpolation.strategy;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.sosy_lab.cpachecker.util.Pair;
@@ -56,12 +55,9 @@ public class WellScopedInterpolation<T> extends AbstractTreeInterpolation<T> {
           final List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds)
           throws InterruptedException, SolverException {
     final Pair<List<Triple<BooleanFormula, AbstractState, T>>, List<Integer>> p = buildTreeStructure(formulasWithStatesAndGroupdIds);
-    final List<BooleanFormula> itps = new ArrayList<>();
-    for (int end_of_A = 0; end_of_A < p.getFirst().size() - 1; end_of_A++) {
-      // last iteration is left out because B would be empty
-      final int start_of_A = p.getSecond().get(end_of_A);
-      itps.add(getInterpolantFromSublist(interpolator.itpProver, projectToThird(p.getFirst()), start_of_A, end_of_A));
-    }
+    // last iteration is left out because B would be empty
+    final List<Integer> startsOfA = p.getSecond().subList(0, p.getFirst().size() - 1);
+    final List<BooleanFormula> itps = getInterpolantsFromSublists(interpolator, p.getFirst(), startsOfA);
     return flattenTreeItps(formulasWithStatesAndGroupdIds, itps);
   }
 
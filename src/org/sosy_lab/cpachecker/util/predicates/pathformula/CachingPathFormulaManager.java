@@ -34,6 +34,9 @@ import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCCodeException;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CacheHandle;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CachePriority;
 import org.sosy_lab.solver.Model;
 import org.sosy_lab.solver.api.BooleanFormula;
 import org.sosy_lab.solver.api.Formula;
@@ -62,14 +65,25 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   private final PathFormula emptyFormula;
 
+  private final CacheHandle cacheHandle = MemoryGovernor.createCacheHandle(CachePriority.CHEAP);
+
   public CachingPathFormulaManager(PathFormulaManager pDelegate) {
     delegate = pDelegate;
     emptyFormula = delegate.makeEmptyPathFormula();
   }
 
+  private void clearCachesIfNecessary() {
+    if (cacheHandle.shouldClear()) {
+      andFormulaWithConditionsCache.clear();
+      andFormulaCache.clear();
+      orFormulaCache.clear();
+      emptyFormulaCache.clear();
+    }
+  }
+
   @Override
   public Pair<PathFormula, ErrorConditions> makeAndWithErrorConditions(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
-
+    clearCachesIfNecessary();
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
     Pair<PathFormula, ErrorConditions> result = andFormulaWithConditionsCache.get(formulaCacheKey);
     if (result == null) {
@@ -87,6 +101,7 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public PathFormula makeAnd(PathFormula pOldFormula, CFAEdge pEdge) throws CPATransferException, InterruptedException {
+    clearCachesIfNecessary();
     final Pair<CFAEdge, PathFormula> formulaCacheKey = Pair.of(pEdge, pOldFormula);
     PathFormula result = andFormulaCache.get(formulaCacheKey);
     if (result == null) {
@@ -104,6 +119,7 @@ public class CachingPathFormulaManager implements PathFormulaManager {
 
   @Override
   public PathFormula makeOr(PathFormula pF1, PathFormula pF2) throws InterruptedException {
+    clearCachesIfNecessary();
     final Pair<PathFormula, PathFormula> formulaCacheKey = Pair.of(pF1, pF2);
 
     PathFormula result = orFormulaCache.get(formulaCacheKey);
@@ -131,6 +147,7 @@ public class CachingPathFormulaManager implements PathFormulaManager {
     if (pOldFormula.getFormula() == null) {
       return delegate.makeEmptyPathFormula(pOldFormula);
     }
+    clearCachesIfNecessary();
     PathFormula result = emptyFormulaCache.get(pOldFormula);
     if (result == null) {
       result = delegate.makeEmptyPathFormula(pOldFormula);
@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -251,6 +252,11 @@ public class NamedRegionManager implements RegionManager {
   public void setVarOrder(ArrayList<Integer> pOrder) {
   }
 
+  @Override
+  public void addVarBlock(Collection<Region> pPredicates, boolean pFixedOrder) {
+    delegate.addVarBlock(pPredicates, pFixedOrder);
+  }
+
   @Override
   public void reorder(PredicateOrderingStrategy strategy) {
   }
@@ -25,6 +25,7 @@ package org.sosy_lab.cpachecker.util.predicates.regions;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Set;
 
 import org.sosy_lab.cpachecker.util.Triple;
@@ -100,6 +101,18 @@ public interface RegionManager extends RegionCreator {
    */
   public void setVarOrder(ArrayList<Integer> pOrder);
 
+  /**
+   * Declares that the given predicates should stay adjacent in the variable order
+   * when the variables are reordered, i.e., reordering moves them only as one block.
+   * The predicates need to be adjacent in the current variable order,
+   * otherwise this call may be ignored.
+   * Implementations that do not support reordering ignore this call.
+   *
+   * @param predicates the predicates (created with {@link #createPredicate()}) of the block.
+   * @param fixedOrder whether the order of the predicates inside the block should be kept.
+   */
+  public void addVarBlock(Collection<Region> predicates, boolean fixedOrder);
+
   /**
    * Reorders the bdd variables with the provided strategy.
    *
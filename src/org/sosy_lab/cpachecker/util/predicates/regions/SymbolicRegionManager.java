@@ -28,6 +28,7 @@ import static com.google.common.collect.FluentIterable.from;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Set;
 
 import org.sosy_lab.common.ShutdownNotifier;
@@ -252,6 +253,10 @@ public class SymbolicRegionManager implements RegionManager {
     return fmgr.getVersion();
   }
 
+  @Override
+  public void addVarBlock(Collection<Region> pPredicates, boolean pFixedOrder) {
+  }
+
   @Override
   public void reorder(PredicateOrderingStrategy strategy) {
   }
@@ -55,6 +55,9 @@ import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
 import org.sosy_lab.cpachecker.util.predicates.smt.ReplaceBitvectorWithNumeralAndFunctionTheory.ReplaceBitvectorEncodingOptions;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CacheHandle;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CachePriority;
 import org.sosy_lab.solver.SolverException;
 import org.sosy_lab.solver.api.ArrayFormula;
 import org.sosy_lab.solver.api.BitvectorFormula;
@@ -928,6 +931,15 @@ public class FormulaManagerView {
   // cache for uninstantiating terms (see uninstantiate() below)
   private final Map<Formula, Formula> uninstantiateCache = new HashMap<>();
 
+  private final CacheHandle cacheHandle = MemoryGovernor.createCacheHandle(CachePriority.CHEAP);
+
+  private void clearCachesIfNecessary() {
+    if (cacheHandle.shouldClear()) {
+      arithCache.clear();
+      uninstantiateCache.clear();
+    }
+  }
+
   /**
    * Only use inside this package and for solver-specific classes
    * when creating a {@link Model}.
@@ -954,6 +966,7 @@ public class FormulaManagerView {
    * @return    Uninstantiated formula
    */
   public <F extends Formula> F uninstantiate(F f) {
+    clearCachesIfNecessary();
     return wrap(getFormulaType(f),
         myFreeVariableNodeTransformer(unwrap(f), uninstantiateCache,
             new Function<String, String>() {
@@ -1106,6 +1119,7 @@ public class FormulaManagerView {
    * Extract all atoms of a given boolean formula.
    */
   public Collection<BooleanFormula> extractAtoms(BooleanFormula f, boolean splitArithEqualities) {
+    clearCachesIfNecessary();
     return myExtractAtoms(f, splitArithEqualities,
         new Predicate<BooleanFormula>() {
           @Override
@@ -0,0 +1,132 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import org.sosy_lab.solver.Model;
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BasicProverEnvironment;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.Formula;
+
+/**
+ * Wrapper for a prover environment that is leased from a {@link ProverEnvironmentPool}.
+ * Instead of closing the underlying environment, {@link #close()} pops all
+ * levels that were pushed by the user and returns the environment to the pool.
+ * If constraints were added without a push, the environment cannot be reset
+ * and is closed instead.
+ */
+class PooledBasicProverEnvironment<T, P extends BasicProverEnvironment<T>> implements BasicProverEnvironment<T> {
+
+  protected final P delegate;
+  private final ProverEnvironmentPool.Slot<? super P> slot;
+
+  private int level = 0;
+  private boolean dirty = false;
+  private boolean closed = false;
+
+  PooledBasicProverEnvironment(P pDelegate, ProverEnvironmentPool.Slot<? super P> pSlot) {
+    delegate = pDelegate;
+    slot = pSlot;
+  }
+
+  protected final void checkOpen() {
+    checkState(!closed, "Prover environment was already returned to the pool");
+  }
+
+  @Override
+  public T push(BooleanFormula f) {
+    checkOpen();
+    T result = delegate.push(f);
+    level++;
+    return result;
+  }
+
+  @Override
+  public void push() {
+    checkOpen();
+    delegate.push();
+    level++;
+  }
+
+  @Override
+  public void pop() {
+    checkOpen();
+    checkState(level > 0, "Cannot pop below the base level of a pooled prover environment");
+    delegate.pop();
+    level--;
+  }
+
+  @Override
+  public T addConstraint(BooleanFormula constraint) {
+    checkOpen();
+    if (level == 0) {
+      // this constraint cannot be removed again
+      dirty = true;
+    }
+    return delegate.addConstraint(constraint);
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    checkOpen();
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    checkOpen();
+    return delegate.getModel();
+  }
+
+  @Override
+  public <E extends Formula> E evaluate(E f) {
+    checkOpen();
+    return delegate.evaluate(f);
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    slot.resetTimer.start();
+    try {
+      while (level > 0 && !dirty) {
+        delegate.pop();
+        level--;
+      }
+    } catch (RuntimeException e) {
+      // the solver is in an unknown state, do not use it again
+      dirty = true;
+    } finally {
+      slot.resetTimer.stop();
+    }
+
+    slot.giveBack(delegate, dirty);
+  }
+}
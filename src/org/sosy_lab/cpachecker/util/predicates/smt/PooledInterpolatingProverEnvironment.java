@@ -0,0 +1,70 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import java.util.List;
+import java.util.Set;
+
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.InterpolatingProverEnvironmentWithAssumptions;
+
+/**
+ * {@link InterpolatingProverEnvironmentWithAssumptions} that is returned
+ * to a {@link ProverEnvironmentPool} when it is closed.
+ */
+class PooledInterpolatingProverEnvironment<T>
+    extends PooledBasicProverEnvironment<T, InterpolatingProverEnvironmentWithAssumptions<T>>
+    implements InterpolatingProverEnvironmentWithAssumptions<T> {
+
+  PooledInterpolatingProverEnvironment(InterpolatingProverEnvironmentWithAssumptions<T> pDelegate,
+      ProverEnvironmentPool.Slot<? super InterpolatingProverEnvironmentWithAssumptions<T>> pSlot) {
+    super(pDelegate, pSlot);
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(List<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    checkOpen();
+    return delegate.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public BooleanFormula getInterpolant(List<T> formulasOfA) throws SolverException {
+    checkOpen();
+    return delegate.getInterpolant(formulasOfA);
+  }
+
+  @Override
+  public List<BooleanFormula> getSeqInterpolants(List<Set<T>> partitionedFormulas) {
+    checkOpen();
+    return delegate.getSeqInterpolants(partitionedFormulas);
+  }
+
+  @Override
+  public List<BooleanFormula> getTreeInterpolants(List<Set<T>> partitionedFormulas, int[] startOfSubTree) {
+    checkOpen();
+    return delegate.getTreeInterpolants(partitionedFormulas, startOfSubTree);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import java.util.List;
+
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.ProverEnvironment;
+
+/**
+ * {@link ProverEnvironment} that is returned to a {@link ProverEnvironmentPool}
+ * when it is closed.
+ */
+class PooledProverEnvironment
+    extends PooledBasicProverEnvironment<Void, ProverEnvironment>
+    implements ProverEnvironment {
+
+  PooledProverEnvironment(ProverEnvironment pDelegate, ProverEnvironmentPool.Slot<ProverEnvironment> pSlot) {
+    super(pDelegate, pSlot);
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    checkOpen();
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public <T> T allSat(AllSatCallback<T> callback, List<BooleanFormula> important)
+      throws InterruptedException, SolverException {
+    checkOpen();
+    return delegate.allSat(callback, important);
+  }
+}
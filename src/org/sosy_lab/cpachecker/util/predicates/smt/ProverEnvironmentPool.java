@@ -0,0 +1,158 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.AbstractStatistics;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.solver.api.BasicProverEnvironment;
+import org.sosy_lab.solver.api.InterpolatingProverEnvironmentWithAssumptions;
+import org.sosy_lab.solver.api.ProverEnvironment;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Pool of prover environments of a {@link Solver}.
+ * Environments that are closed by the user are reset to their base level
+ * and kept for the next request of the same kind,
+ * which is much cheaper than creating a new environment in the solver.
+ *
+ * Like {@link Solver}, this class is not thread-safe.
+ */
+final class ProverEnvironmentPool extends AbstractStatistics {
+
+  /**
+   * The idle environments of one kind (i.e., with the same options)
+   * together with the statistics of their use.
+   */
+  static final class Slot<P extends BasicProverEnvironment<?>> {
+
+    private final String name;
+    private final int maxIdle;
+    private final Deque<P> idle = new ArrayDeque<>();
+    private boolean closed = false;
+
+    private final StatCounter leases = new StatCounter("Leases");
+    private final StatCounter created = new StatCounter("Created environments");
+    private final StatCounter discarded = new StatCounter("Discarded environments");
+    private final StatTimer leaseTimer = new StatTimer("Time for leasing");
+    final StatTimer resetTimer = new StatTimer("Time for resetting");
+
+    private Slot(String pName, int pMaxIdle) {
+      name = pName;
+      maxIdle = pMaxIdle;
+    }
+
+    /**
+     * Get an idle environment, or create a new one if there is none.
+     */
+    P lease(Supplier<? extends P> factory) {
+      leaseTimer.start();
+      try {
+        leases.inc();
+        P prover = idle.poll();
+        if (prover == null) {
+          created.inc();
+          prover = factory.get();
+        }
+        return prover;
+      } finally {
+        leaseTimer.stop();
+      }
+    }
+
+    /**
+     * Return an environment that was reset to its base level.
+     * @param dirty whether the environment could not be reset and needs to be closed
+     */
+    void giveBack(P prover, boolean dirty) {
+      if (dirty || closed || idle.size() >= maxIdle) {
+        discarded.inc();
+        prover.close();
+      } else {
+        idle.push(prover);
+      }
+    }
+
+    private void closeIdle() {
+      closed = true;
+      for (P prover : idle) {
+        prover.close();
+      }
+      idle.clear();
+    }
+  }
+
+  final Slot<ProverEnvironment> provers;
+  final Slot<ProverEnvironment> proversWithModels;
+  final Slot<ProverEnvironment> proversWithUnsatCores;
+  final Slot<InterpolatingProverEnvironmentWithAssumptions<?>> interpolatingProvers;
+
+  private final List<Slot<?>> slots;
+
+  ProverEnvironmentPool(int pMaxIdle) {
+    provers = new Slot<>("Prover environments", pMaxIdle);
+    proversWithModels = new Slot<>("Prover environments with model generation", pMaxIdle);
+    proversWithUnsatCores = new Slot<>("Prover environments with unsat-core generation", pMaxIdle);
+    interpolatingProvers = new Slot<>("Interpolating prover environments", pMaxIdle);
+    slots = ImmutableList.<Slot<?>>of(provers, proversWithModels, proversWithUnsatCores, interpolatingProvers);
+  }
+
+  /**
+   * Close all idle environments.
+   * Environments that are still leased are closed when they are given back.
+   */
+  void close() {
+    for (Slot<?> slot : slots) {
+      slot.closeIdle();
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "Prover-environment pool";
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, ReachedSet pReached) {
+    for (Slot<?> slot : slots) {
+      if (slot.leases.getValue() > 0) {
+        put(pOut, 0, slot.name, "");
+        put(pOut, 1, slot.leases);
+        put(pOut, 1, slot.created);
+        put(pOut, 1, slot.discarded);
+        put(pOut, 1, slot.leaseTimer);
+        put(pOut, 1, slot.resetTimer);
+      }
+    }
+  }
+}
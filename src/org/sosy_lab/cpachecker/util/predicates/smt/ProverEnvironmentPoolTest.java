@@ -0,0 +1,133 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.ProverEnvironment;
+
+import com.google.common.base.Supplier;
+
+public class ProverEnvironmentPoolTest {
+
+  private final BooleanFormula f = mock(BooleanFormula.class);
+
+  /** Creates a new mocked environment for each call and remembers it. */
+  private static class MockProverFactory implements Supplier<ProverEnvironment> {
+    private final List<ProverEnvironment> created = new ArrayList<>();
+
+    @Override
+    public ProverEnvironment get() {
+      ProverEnvironment prover = mock(ProverEnvironment.class);
+      created.add(prover);
+      return prover;
+    }
+  }
+
+  private static ProverEnvironment lease(ProverEnvironmentPool.Slot<ProverEnvironment> slot,
+      MockProverFactory factory) {
+    return new PooledProverEnvironment(slot.lease(factory), slot);
+  }
+
+  @Test
+  public void testPopToBaseLevel() {
+    ProverEnvironmentPool.Slot<ProverEnvironment> slot = new ProverEnvironmentPool(4).provers;
+    MockProverFactory factory = new MockProverFactory();
+
+    ProverEnvironment pe = lease(slot, factory);
+    pe.push(f);
+    pe.push();
+    pe.addConstraint(f);
+    pe.pop();
+    pe.close();
+
+    assertThat(factory.created).hasSize(1);
+    ProverEnvironment delegate = factory.created.get(0);
+    verify(delegate, times(2)).push(any(BooleanFormula.class));
+    verify(delegate, times(2)).pop();
+    verify(delegate, never()).close();
+
+    // the environment is reused
+    ProverEnvironment pe2 = lease(slot, factory);
+    assertThat(factory.created).hasSize(1);
+    pe2.push(f);
+    pe2.close();
+    verify(delegate, times(3)).pop();
+    verify(delegate, never()).close();
+  }
+
+  @Test
+  public void testDirtyEnvironmentIsDiscarded() {
+    ProverEnvironmentPool.Slot<ProverEnvironment> slot = new ProverEnvironmentPool(4).provers;
+    MockProverFactory factory = new MockProverFactory();
+
+    // a constraint on the base level cannot be removed
+    ProverEnvironment pe = lease(slot, factory);
+    pe.addConstraint(f);
+    pe.close();
+    verify(factory.created.get(0)).close();
+
+    // a failing pop leaves the environment in an unknown state
+    pe = lease(slot, factory);
+    assertThat(factory.created).hasSize(2);
+    doThrow(new IllegalStateException()).when(factory.created.get(1)).pop();
+    pe.push(f);
+    pe.close();
+    verify(factory.created.get(1)).close();
+
+    lease(slot, factory).close();
+    assertThat(factory.created).hasSize(3);
+    verify(factory.created.get(2), never()).close();
+  }
+
+  @Test
+  public void testMaxIdle() {
+    ProverEnvironmentPool pool = new ProverEnvironmentPool(1);
+    ProverEnvironmentPool.Slot<ProverEnvironment> slot = pool.provers;
+    MockProverFactory factory = new MockProverFactory();
+
+    ProverEnvironment pe1 = lease(slot, factory);
+    ProverEnvironment pe2 = lease(slot, factory);
+    assertThat(factory.created).hasSize(2);
+    pe1.close();
+    pe2.close();
+
+    // only one environment is kept
+    verify(factory.created.get(0), never()).close();
+    verify(factory.created.get(1)).close();
+
+    // closing the pool closes the idle environments,
+    // and environments that are given back afterwards
+    ProverEnvironment pe3 = lease(slot, factory);
+    pool.close();
+    pe3.close();
+    verify(factory.created.get(0)).close();
+  }
+}
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.smt;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -33,6 +34,8 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.InterpolatingProverWithAssumptionsWrapper;
 import org.sosy_lab.cpachecker.util.predicates.interpolation.SeparateInterpolatingProverEnvironment;
 import org.sosy_lab.cpachecker.util.predicates.matching.SmtAstMatcher;
@@ -40,6 +43,9 @@ import org.sosy_lab.cpachecker.util.predicates.matching.SmtAstMatcherImpl;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingBasicProverEnvironment.UFCheckingProverOptions;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingInterpolatingProverEnvironmentWithAssumptions;
 import org.sosy_lab.cpachecker.util.predicates.ufCheckingProver.UFCheckingProverEnvironment;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CacheHandle;
+import org.sosy_lab.cpachecker.util.resources.MemoryGovernor.CachePriority;
 import org.sosy_lab.solver.FormulaManagerFactory;
 import org.sosy_lab.solver.SolverException;
 import org.sosy_lab.solver.api.BooleanFormula;
@@ -55,6 +61,7 @@ import org.sosy_lab.solver.logging.LoggingOptEnvironment;
 import org.sosy_lab.solver.logging.LoggingProverEnvironment;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
 import com.google.common.base.Verify;
 import com.google.common.collect.Maps;
 
@@ -70,7 +77,7 @@ import com.google.common.collect.Maps;
  * or using different SMT solvers for different tasks such as solving and interpolation.
  */
 @Options(deprecatedPrefix="cpa.predicate.solver", prefix="solver")
-public final class Solver implements AutoCloseable {
+public final class Solver implements AutoCloseable, StatisticsProvider {
 
   @Option(secure=true, name="useLogger",
       description="log some solver actions, this may be slow!")
@@ -81,6 +88,16 @@ public final class Solver implements AutoCloseable {
   private boolean checkUFs = false;
   private final UFCheckingProverOptions ufCheckingProverOptions;
 
+  @Option(secure=true, name="pooling.enable",
+      description="Keep closed prover environments in a pool and reuse them"
+          + " (after popping all their levels) instead of creating new ones.")
+  private boolean poolProverEnvironments = false;
+
+  @Option(secure=true, name="pooling.maxIdle",
+      description="Maximal number of idle prover environments of each kind in the pool.")
+  private int maxIdleProverEnvironments = 4;
+  private final ProverEnvironmentPool proverPool;
+
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManagerView bfmgr;
 
@@ -88,6 +105,7 @@ public final class Solver implements AutoCloseable {
   private final FormulaManager interpolationFormulaManager;
 
   private final Map<BooleanFormula, Boolean> unsatCache = Maps.newHashMap();
+  private final CacheHandle unsatCacheHandle = MemoryGovernor.createCacheHandle(CachePriority.EXPENSIVE);
 
   private final LogManager logger;
 
@@ -119,6 +137,12 @@ public final class Solver implements AutoCloseable {
     } else {
       ufCheckingProverOptions = null;
     }
+
+    if (poolProverEnvironments) {
+      proverPool = new ProverEnvironmentPool(maxIdleProverEnvironments);
+    } else {
+      proverPool = null;
+    }
   }
 
   /**
@@ -145,6 +169,9 @@ public final class Solver implements AutoCloseable {
    * This creates a fresh, new, environment in the solver.
    * This environment needs to be closed after it is used by calling {@link ProverEnvironment#close()}.
    * It is recommended to use the try-with-resources syntax.
+   *
+   * If pooling is enabled, the environment may have been used before
+   * and is only returned to the pool when it is closed.
    */
   public ProverEnvironment newProverEnvironment() {
     return newProverEnvironment(false, false);
@@ -174,8 +201,26 @@ public final class Solver implements AutoCloseable {
     return newProverEnvironment(false, true);
   }
 
-  private ProverEnvironment newProverEnvironment(boolean generateModels, boolean generateUnsatCore) {
-    ProverEnvironment pe = solvingFormulaManager.newProverEnvironment(generateModels, generateUnsatCore);
+  private ProverEnvironment newProverEnvironment(final boolean generateModels, final boolean generateUnsatCore) {
+    ProverEnvironment pe;
+    if (proverPool != null) {
+      ProverEnvironmentPool.Slot<ProverEnvironment> slot;
+      if (generateModels) {
+        slot = proverPool.proversWithModels;
+      } else if (generateUnsatCore) {
+        slot = proverPool.proversWithUnsatCores;
+      } else {
+        slot = proverPool.provers;
+      }
+      pe = new PooledProverEnvironment(slot.lease(new Supplier<ProverEnvironment>() {
+          @Override
+          public ProverEnvironment get() {
+            return solvingFormulaManager.newProverEnvironment(generateModels, generateUnsatCore);
+          }
+        }), slot);
+    } else {
+      pe = solvingFormulaManager.newProverEnvironment(generateModels, generateUnsatCore);
+    }
 
     if (useLogger) {
       pe = new LoggingProverEnvironment(logger, pe);
@@ -195,6 +240,37 @@ public final class Solver implements AutoCloseable {
    * It is recommended to use the try-with-resources syntax.
    */
   public InterpolatingProverEnvironmentWithAssumptions<?> newProverEnvironmentWithInterpolation() {
+    InterpolatingProverEnvironmentWithAssumptions<?> ipeA;
+    if (proverPool != null) {
+      ProverEnvironmentPool.Slot<InterpolatingProverEnvironmentWithAssumptions<?>> slot = proverPool.interpolatingProvers;
+      ipeA = newPooledProverEnvironment(slot.lease(new Supplier<InterpolatingProverEnvironmentWithAssumptions<?>>() {
+          @Override
+          public InterpolatingProverEnvironmentWithAssumptions<?> get() {
+            return newUnpooledProverEnvironmentWithInterpolation();
+          }
+        }), slot);
+    } else {
+      ipeA = newUnpooledProverEnvironmentWithInterpolation();
+    }
+
+    if (useLogger) {
+      ipeA = new LoggingInterpolatingProverEnvironment<>(logger, ipeA);
+    }
+
+    if (checkUFs) {
+      ipeA = new UFCheckingInterpolatingProverEnvironmentWithAssumptions<>(logger, ipeA, fmgr, ufCheckingProverOptions);
+    }
+
+    return ipeA;
+  }
+
+  private static <T> InterpolatingProverEnvironmentWithAssumptions<T> newPooledProverEnvironment(
+      InterpolatingProverEnvironmentWithAssumptions<T> ipe,
+      ProverEnvironmentPool.Slot<InterpolatingProverEnvironmentWithAssumptions<?>> slot) {
+    return new PooledInterpolatingProverEnvironment<>(ipe, slot);
+  }
+
+  private InterpolatingProverEnvironmentWithAssumptions<?> newUnpooledProverEnvironmentWithInterpolation() {
     InterpolatingProverEnvironment<?> ipe = interpolationFormulaManager.newProverEnvironmentWithInterpolation(
         false);
 
@@ -214,14 +290,6 @@ public final class Solver implements AutoCloseable {
       ipeA = new SeparateInterpolatingProverEnvironment<>(solvingFormulaManager, interpolationFormulaManager, ipeA);
     }
 
-    if (useLogger) {
-      ipeA = new LoggingInterpolatingProverEnvironment<>(logger, ipeA);
-    }
-
-    if (checkUFs) {
-      ipeA = new UFCheckingInterpolatingProverEnvironmentWithAssumptions<>(logger, ipeA, fmgr, ufCheckingProverOptions);
-    }
-
     return ipeA;
   }
 
@@ -256,6 +324,9 @@ public final class Solver implements AutoCloseable {
       trivialSatChecks++;
       return true;
     }
+    if (unsatCacheHandle.shouldClear()) {
+      unsatCache.clear();
+    }
     Boolean result = unsatCache.get(f);
     if (result != null) {
       cachedSatChecks++;
@@ -342,6 +413,13 @@ public final class Solver implements AutoCloseable {
     return isUnsat(f);
   }
 
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (proverPool != null) {
+      pStatsCollection.add(proverPool);
+    }
+  }
+
   /**
    * Close this solver instance and all underlying formula managers.
    * This instance and any instance retrieved from it (including all {@link Formula}s)
@@ -349,6 +427,10 @@ public final class Solver implements AutoCloseable {
    */
   @Override
   public void close() throws Exception {
+    if (proverPool != null) {
+      proverPool.close();
+    }
+
     // Reliably close both formula managers and re-throw exceptions,
     // such that no exception gets lost and both managers get closed.
     // Taken from https://stackoverflow.com/questions/24705055/wrapping-multiple-autocloseables
@@ -0,0 +1,166 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2014  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.smt;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.solver.SolverException;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * A fixed number of independent {@link Solver}s together with one thread per solver,
+ * for running solver queries in parallel to the analysis.
+ *
+ * Each solver has its own solver context and is used by at most one task at a time,
+ * so no thread-safety of the solver is required.
+ * A task gets an idle solver when it starts and returns it when it finishes,
+ * so tasks of a previous (aborted) call that are still running never share a solver
+ * with new tasks.
+ * Formulas cannot be shared between solver contexts,
+ * callers transfer them in SMT-LIB format
+ * ({@link FormulaManagerView#dumpFormula} and {@link FormulaManagerView#parse}).
+ *
+ * The pool needs to be closed by its owner,
+ * which stops the threads and closes the solvers.
+ */
+public final class SolverThreadPool implements AutoCloseable {
+
+  /**
+   * A task that is run by a thread of the pool with one of the solvers of the pool.
+   */
+  public interface SolverTask<T> {
+    T call(Solver pSolver) throws SolverException, InterruptedException;
+  }
+
+  private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+  private final ImmutableList<Solver> solvers;
+  private final BlockingQueue<Solver> idleSolvers;
+  private final ExecutorService executor;
+
+  public SolverThreadPool(int pSize, Configuration pConfig, LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
+    checkArgument(pSize > 0);
+
+    ImmutableList.Builder<Solver> pool = ImmutableList.builder();
+    for (int i = 0; i < pSize; i++) {
+      pool.add(Solver.create(pConfig, pLogger, pShutdownNotifier));
+    }
+    solvers = pool.build();
+    idleSolvers = new LinkedBlockingQueue<>(solvers);
+
+    // daemon threads, such that a pool that is not closed does not prevent termination
+    executor = Executors.newFixedThreadPool(pSize, Threads.threadFactoryBuilder().setDaemon(true).build());
+  }
+
+  public int size() {
+    return solvers.size();
+  }
+
+  /**
+   * Run a task asynchronously with an idle solver of the pool.
+   */
+  public <T> Future<T> submit(SolverTask<T> pTask) {
+    return executor.submit(withIdleSolver(pTask));
+  }
+
+  /**
+   * Run a task asynchronously with an idle solver of the pool,
+   * and add its future to the given queue when it is done
+   * (like {@link java.util.concurrent.ExecutorCompletionService}).
+   */
+  public <T> Future<T> submit(SolverTask<T> pTask, final BlockingQueue<? super Future<T>> pDoneQueue) {
+    FutureTask<T> future = new FutureTask<T>(withIdleSolver(pTask)) {
+        @Override
+        protected void done() {
+          pDoneQueue.add(this);
+        }
+      };
+    executor.execute(future);
+    return future;
+  }
+
+  private <T> Callable<T> withIdleSolver(final SolverTask<T> pTask) {
+    return new Callable<T>() {
+        @Override
+        public T call() throws SolverException, InterruptedException {
+          Solver solver = idleSolvers.take();
+          try {
+            return pTask.call(solver);
+          } finally {
+            idleSolvers.add(solver);
+          }
+        }
+      };
+  }
+
+  /**
+   * Stop all threads and close all solvers.
+   * Running tasks are interrupted, and their solvers are only closed
+   * if they finish within a short time, because a solver may not be closed while it is used.
+   * The pool may not be used anymore afterwards.
+   */
+  @Override
+  public void close() throws Exception {
+    executor.shutdownNow();
+    try {
+      executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } finally {
+      Exception failure = null;
+      List<Solver> unusedSolvers = new ArrayList<>(solvers.size());
+      idleSolvers.drainTo(unusedSolvers);
+      for (Solver solver : unusedSolvers) {
+        try {
+          solver.close();
+        } catch (Exception e) {
+          if (failure == null) {
+            failure = e;
+          } else {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+}
@@ -32,8 +32,16 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -59,6 +67,8 @@ import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 
 /**
@@ -77,6 +87,16 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
   @Option(secure=true, description="which prefix of an actual counterexample trace should be used for interpolation")
   private PrefixPreference prefixPreference = PrefixPreference.DOMAIN_GOOD_SHORT;
 
+  @Option(secure=true, description="interpolate all infeasible sliced prefixes concurrently "
+      + "and select one of them (according to the prefix preference) based on the actual interpolants, "
+      + "instead of selecting a prefix before interpolation "
+      + "(only supported by some analyses, e.g., value analysis)")
+  private boolean parallelPrefixInterpolation = false;
+
+  @Option(secure=true, description="number of threads for parallel prefix interpolation "
+      + "(0 for number of available processors)")
+  private int parallelPrefixInterpolationThreads = 0;
+
   /**
    * the offset in the path from where to cut-off the subtree, and restart the analysis
    */
@@ -90,6 +110,7 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
   private final StatInt totalPrefixes               = new StatInt(StatKind.SUM, "Number of sliced prefixes");
   private final StatTimer prefixExtractionTime      = new StatTimer("Extracting infeasible sliced prefixes");
   private final StatTimer prefixSelectionTime       = new StatTimer("Selecting infeasible sliced prefixes");
+  private final StatTimer parallelInterpolationTime = new StatTimer("Interpolating sliced prefixes in parallel");
 
   private final CFA cfa;
   private final LogManager logger;
@@ -100,6 +121,24 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
   private final GenericPrefixProvider<S> prefixProvider;
   private final InterpolantManager<S, I> interpolantManager;
 
+  // independent interpolators for parallel prefix interpolation, created lazily
+  private final List<Pair<EdgeInterpolator<S, I>, FeasibilityChecker<S>>> workers = new ArrayList<>();
+  private boolean parallelPrefixInterpolationSupported = true;
+
+  /**
+   * The result of interpolating a single (sliced) prefix.
+   */
+  private class PrefixInterpolation {
+    private final Map<ARGState, I> interpolants;
+    private int offset = -1;
+    private final List<Integer> queries = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+
+    private PrefixInterpolation(int pSize) {
+      interpolants = new LinkedHashMap<>(pSize);
+    }
+  }
+
   public GenericPathInterpolator(
       final EdgeInterpolator<S, I> pEdgeInterpolator,
       final FeasibilityChecker<S> pFeasibilityChecker,
@@ -132,7 +171,22 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
 
     interpolationOffset = -1;
 
-    ARGPath errorPathPrefix = performRefinementSelection(errorPath, interpolant);
+    ARGPath errorPathPrefix;
+    if (parallelPrefixInterpolation && prefixPreference != PrefixPreference.NONE) {
+      List<InfeasiblePrefix> infeasiblePrefixes = extractInfeasibleSlicedPrefixes(errorPath, interpolant);
+
+      if (infeasiblePrefixes.size() > 1 && createWorkers(infeasiblePrefixes.size())) {
+        Pair<ARGPath, Map<ARGState, I>> result =
+            performParallelPrefixInterpolation(infeasiblePrefixes, interpolant);
+        propagateFalseInterpolant(errorPath, result.getFirst(), result.getSecond());
+        return result.getSecond();
+      }
+
+      errorPathPrefix = selectPrefix(errorPath, infeasiblePrefixes);
+
+    } else {
+      errorPathPrefix = performRefinementSelection(errorPath, interpolant);
+    }
 
     timerInterpolation.start();
 
@@ -166,12 +220,16 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
 
     List<InfeasiblePrefix> infeasilbePrefixes = extractInfeasibleSlicedPrefixes(pErrorPath, pInterpolant);
 
-    if(!infeasilbePrefixes.isEmpty()) {
-      totalPrefixes.setNextValue(infeasilbePrefixes.size());
+    return selectPrefix(pErrorPath, infeasilbePrefixes);
+  }
+
+  private ARGPath selectPrefix(ARGPath pErrorPath, List<InfeasiblePrefix> pInfeasiblePrefixes) {
+    if(!pInfeasiblePrefixes.isEmpty()) {
+      totalPrefixes.setNextValue(pInfeasiblePrefixes.size());
 
       prefixSelectionTime.start();
       PrefixSelector selector = new PrefixSelector(cfa.getVarClassification(), cfa.getLoopStructure());
-      pErrorPath = selector.selectSlicedPrefix(prefixPreference, infeasilbePrefixes).getPath();
+      pErrorPath = selector.selectSlicedPrefix(prefixPreference, pInfeasiblePrefixes).getPath();
       logger.logf(Level.FINER, "Sliced prefix selected:\n %s", pErrorPath);
       prefixSelectionTime.stop();
     }
@@ -179,6 +237,123 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
     return pErrorPath;
   }
 
+  /**
+   * This method interpolates all infeasible sliced prefixes of the error path concurrently,
+   * each with its own {@link EdgeInterpolator} and {@link FeasibilityChecker},
+   * and selects the prefix according to the prefix preference,
+   * using the actual interpolants of each prefix instead of approximated ones.
+   *
+   * The workers need to be created with {@link #createWorkers(int)} before.
+   *
+   * @return the selected prefix and its interpolants
+   */
+  private Pair<ARGPath, Map<ARGState, I>> performParallelPrefixInterpolation(
+      final List<InfeasiblePrefix> infeasiblePrefixes,
+      final I pInterpolant
+  ) throws CPAException, InterruptedException {
+
+    totalPrefixes.setNextValue(infeasiblePrefixes.size());
+
+    List<PrefixInterpolation> results;
+    parallelInterpolationTime.start();
+    timerInterpolation.start();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers.size(), infeasiblePrefixes.size()));
+    try {
+      List<Future<PrefixInterpolation>> futures = new ArrayList<>(infeasiblePrefixes.size());
+      for (int i = 0; i < infeasiblePrefixes.size(); i++) {
+        final ARGPath prefix = infeasiblePrefixes.get(i).getPath();
+        // prefixes are assigned round-robin, a worker never runs in two threads at the same time
+        final int workerIndex = i % workers.size();
+        futures.add(executor.submit(new Callable<PrefixInterpolation>() {
+            @Override
+            public PrefixInterpolation call() throws CPAException, InterruptedException {
+              Pair<EdgeInterpolator<S, I>, FeasibilityChecker<S>> worker = workers.get(workerIndex);
+              synchronized (worker) {
+                ARGPath slicedPrefix = sliceErrorPath(prefix, worker.getSecond());
+                return interpolateEdges(slicedPrefix, pInterpolant, worker.getFirst());
+              }
+            }
+          }));
+      }
+
+      results = new ArrayList<>(futures.size());
+      for (Future<PrefixInterpolation> future : futures) {
+        results.add(future.get());
+      }
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("parallel prefix interpolation", cause);
+
+    } finally {
+      executor.shutdownNow();
+      timerInterpolation.stop();
+      parallelInterpolationTime.stop();
+    }
+
+    // select the prefix based on the interpolants that were actually computed
+    prefixSelectionTime.start();
+    ImmutableList.Builder<InfeasiblePrefix> interpolatedPrefixes = ImmutableList.builder();
+    for (int i = 0; i < results.size(); i++) {
+      interpolatedPrefixes.add(InfeasiblePrefix.buildForInterpolants(
+          infeasiblePrefixes.get(i).getPath(), results.get(i).interpolants.values()));
+    }
+    List<InfeasiblePrefix> candidates = interpolatedPrefixes.build();
+    PrefixSelector selector = new PrefixSelector(cfa.getVarClassification(), cfa.getLoopStructure());
+    InfeasiblePrefix selected = selector.selectSlicedPrefix(prefixPreference, candidates);
+    PrefixInterpolation result = results.get(candidates.indexOf(selected));
+    logger.logf(Level.FINER, "Sliced prefix selected after interpolation:\n %s", selected.getPath());
+    prefixSelectionTime.stop();
+
+    recordInterpolation(result);
+    return Pair.of(selected.getPath(), result.interpolants);
+  }
+
+  /**
+   * Create the independent interpolators for parallel prefix interpolation if necessary.
+   * @return whether parallel prefix interpolation is possible
+   */
+  private boolean createWorkers(int pNumberOfPrefixes) throws CPAException {
+    if (!parallelPrefixInterpolationSupported) {
+      return false;
+    }
+
+    int threads = parallelPrefixInterpolationThreads > 0
+        ? parallelPrefixInterpolationThreads
+        : Runtime.getRuntime().availableProcessors();
+    threads = Math.min(threads, pNumberOfPrefixes);
+
+    try {
+      while (workers.size() < threads) {
+        Pair<EdgeInterpolator<S, I>, FeasibilityChecker<S>> worker = createIndependentInterpolator();
+        if (worker == null) {
+          logger.log(Level.WARNING, "Parallel prefix interpolation is not supported by", getName());
+          parallelPrefixInterpolationSupported = false;
+          return false;
+        }
+        workers.add(worker);
+      }
+    } catch (InvalidConfigurationException e) {
+      throw new CPAException("Could not create interpolator for parallel prefix interpolation", e);
+    }
+    return true;
+  }
+
+  /**
+   * Create a new {@link EdgeInterpolator} and {@link FeasibilityChecker}
+   * that share no mutable state with the ones of this instance
+   * (in particular, they need their own {@link StrongestPostOperator}),
+   * such that they can be used concurrently for parallel prefix interpolation.
+   * Sub-classes that support parallel prefix interpolation need to override this method.
+   *
+   * @return a pair of new instances, or null if this is not supported
+   */
+  protected @Nullable Pair<EdgeInterpolator<S, I>, FeasibilityChecker<S>> createIndependentInterpolator()
+      throws InvalidConfigurationException {
+    return null;
+  }
+
   private List<InfeasiblePrefix> extractInfeasibleSlicedPrefixes(
       final ARGPath pErrorPath,
       final I pInterpolant
@@ -209,9 +384,25 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
       I pInterpolant
   ) throws InterruptedException, CPAException {
 
-    pErrorPathPrefix = sliceErrorPath(pErrorPathPrefix);
+    pErrorPathPrefix = sliceErrorPath(pErrorPathPrefix, checker);
+
+    PrefixInterpolation result = interpolateEdges(pErrorPathPrefix, pInterpolant, interpolator);
+    recordInterpolation(result);
+    return result.interpolants;
+  }
 
-    Map<ARGState, I> pathInterpolants = new LinkedHashMap<>(pErrorPathPrefix.size());
+  /**
+   * This method performs interpolation on each edge of the given (already sliced) path.
+   * It does not modify any state of this instance,
+   * such that it can be called concurrently with different interpolators.
+   */
+  private PrefixInterpolation interpolateEdges(
+      final ARGPath pErrorPathPrefix,
+      I pInterpolant,
+      final EdgeInterpolator<S, I> pInterpolator
+  ) throws InterruptedException, CPAException {
+
+    PrefixInterpolation result = new PrefixInterpolation(pErrorPathPrefix.size());
 
     PathIterator pathIterator = pErrorPathPrefix.pathIterator();
     Deque<S> callstack = new ArrayDeque<>();
@@ -221,24 +412,24 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
 
       // interpolate at each edge as long as the previous interpolant is not false
       if (!pInterpolant.isFalse()) {
-        pInterpolant = interpolator.deriveInterpolant(pErrorPathPrefix,
-                                                     pathIterator.getOutgoingEdge(),
-                                                     callstack,
-                                                     pathIterator.getIndex(),
-                                                     pInterpolant);
+        pInterpolant = pInterpolator.deriveInterpolant(pErrorPathPrefix,
+                                                      pathIterator.getOutgoingEdge(),
+                                                      callstack,
+                                                      pathIterator.getIndex(),
+                                                      pInterpolant);
       }
 
-      totalInterpolationQueries.setNextValue(interpolator.getNumberOfInterpolationQueries());
+      result.queries.add(pInterpolator.getNumberOfInterpolationQueries());
 
-      if (!pInterpolant.isTrivial() && interpolationOffset == -1) {
-        interpolationOffset = pathIterator.getIndex();
+      if (!pInterpolant.isTrivial() && result.offset == -1) {
+        result.offset = pathIterator.getIndex();
       }
 
-      sizeOfInterpolant.setNextValue(pInterpolant.getSize());
+      result.sizes.add(pInterpolant.getSize());
 
       pathIterator.advance();
 
-      pathInterpolants.put(pathIterator.getAbstractState(), pInterpolant);
+      result.interpolants.put(pathIterator.getAbstractState(), pInterpolant);
 
       if (!pathIterator.hasNext()) {
         assert pInterpolant.isFalse()
@@ -246,15 +437,29 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
       }
     }
 
-    return pathInterpolants;
+    return result;
+  }
+
+  /**
+   * This method updates the interpolation offset and the statistics
+   * with the result of the interpolation that is used for refinement.
+   */
+  private void recordInterpolation(PrefixInterpolation pResult) {
+    interpolationOffset = pResult.offset;
+    for (int queries : pResult.queries) {
+      totalInterpolationQueries.setNextValue(queries);
+    }
+    for (int size : pResult.sizes) {
+      sizeOfInterpolant.setNextValue(size);
+    }
   }
 
   /**
    * This utility method checks if the given path is feasible.
    */
-  private boolean isFeasible(ARGPath slicedErrorPathPrefix)
+  private boolean isFeasible(ARGPath slicedErrorPathPrefix, FeasibilityChecker<S> pChecker)
       throws CPAException, InterruptedException {
-    return checker.isFeasible(slicedErrorPathPrefix);
+    return pChecker.isFeasible(slicedErrorPathPrefix);
   }
 
   /**
@@ -265,7 +470,7 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
    * @throws InterruptedException
    * @throws CPAException
    */
-  private ARGPath sliceErrorPath(final ARGPath pErrorPathPrefix)
+  private ARGPath sliceErrorPath(final ARGPath pErrorPathPrefix, final FeasibilityChecker<S> pChecker)
       throws CPAException, InterruptedException {
 
     if (!isPathSlicingPossible(pErrorPathPrefix)) {
@@ -328,7 +533,7 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
 
     ARGPath slicedErrorPathPrefix = new ARGPath(pErrorPathPrefix.asStatesList(), abstractEdges);
 
-    return (isFeasible(slicedErrorPathPrefix))
+    return (isFeasible(slicedErrorPathPrefix, pChecker))
         ? pErrorPathPrefix
         : slicedErrorPathPrefix;
 
@@ -374,6 +579,7 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
         .put(totalPrefixes);
     writer.put(prefixExtractionTime);
     writer.put(prefixSelectionTime);
+    writer.putIfUpdatedAtLeastOnce(parallelInterpolationTime);
   }
 
   /**
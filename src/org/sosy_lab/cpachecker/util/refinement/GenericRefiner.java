@@ -351,6 +351,7 @@ public abstract class GenericRefiner<S extends ForgetfulState<?>, I extends Inte
     writer.put(refinementCounter)
         .put(numberOfTargets)
         .put(refinementTime);
+    argCpa.printSubtreeRemovalStatistics(writer);
 
     pathExtractor.printStatistics(pOut, pResult, pReached);
     interpolator.printStatistics(pOut, pResult, pReached);
@@ -93,6 +93,21 @@ public class InfeasiblePrefix {
     return new InfeasiblePrefix(pInfeasiblePrefix, simpleInterpolantSequence);
   }
 
+  /**
+   * Build an infeasible prefix from the interpolants that were actually computed for it,
+   * independent of the abstract domain.
+   */
+  public static InfeasiblePrefix buildForInterpolants(final ARGPath pInfeasiblePrefix,
+      final Iterable<? extends Interpolant<?>> pInterpolantSequence) {
+
+    List<Set<String>> simpleInterpolantSequence = new ArrayList<>();
+    for (Interpolant<?> itp : pInterpolantSequence) {
+      simpleInterpolantSequence.add(FluentIterable.from(itp.getMemoryLocations()).transform(MemoryLocation.FROM_MEMORYLOCATION_TO_STRING).toSet());
+    }
+
+    return new InfeasiblePrefix(pInfeasiblePrefix, simpleInterpolantSequence);
+  }
+
   public Set<String> extractSetOfVariables() {
     return FluentIterable.from(interpolantSequence).transformAndConcat(new Function<Set<String>, Iterable<String>>() {
       @Override
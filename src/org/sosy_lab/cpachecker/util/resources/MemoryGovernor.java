@@ -0,0 +1,273 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.resources;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * This class reacts to a nearly exhausted heap before an {@link OutOfMemoryError} occurs.
+ * It listens for notifications of the JVM that the usage of the heap after a garbage collection
+ * exceeds a threshold, and then progressively asks all caches to clear themselves
+ * (first those that are cheap to rebuild, then the expensive ones).
+ * If this does not help, it requests a shutdown of the analysis,
+ * such that statistics and partial results can still be written.
+ *
+ * Caches do not need to be registered anywhere, because clearing them
+ * from the notification thread would not be thread-safe.
+ * Instead, each cache gets a {@link CacheHandle} from {@link #createCacheHandle(CachePriority)}
+ * and polls {@link CacheHandle#shouldClear()} whenever it is accessed
+ * by the thread that owns it.
+ * The state of the governor is global because the heap is shared by the whole JVM.
+ */
+public final class MemoryGovernor {
+
+  /**
+   * The order in which caches are cleared under memory pressure.
+   */
+  public static enum CachePriority {
+    /** Caches whose content can be recomputed cheaply (e.g., formula-manipulation caches). */
+    CHEAP,
+
+    /** Caches whose content is expensive to recompute (e.g., results of solver calls). */
+    EXPENSIVE,
+  }
+
+  /**
+   * Handle of a single cache, which tells the cache when it should be cleared.
+   * The handle is not thread-safe and should be used only by the thread that owns the cache.
+   */
+  public static final class CacheHandle {
+
+    private final int level;
+    private int seenEpoch;
+
+    private CacheHandle(CachePriority pPriority) {
+      level = pPriority.ordinal() + 1;
+      seenEpoch = epoch;
+    }
+
+    /**
+     * Check whether the cache should be cleared now.
+     * This is cheap (two reads of volatile fields) and can be called on every cache access.
+     * It returns true at most once per request of the governor.
+     */
+    public boolean shouldClear() {
+      int currentEpoch = epoch;
+      if (currentEpoch != seenEpoch) {
+        seenEpoch = currentEpoch;
+        if (pressureLevel >= level) {
+          clearedCaches.incrementAndGet();
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  // Global state, changed only while holding the lock of MemoryGovernor.class.
+  // The number of the current request for clearing caches, incremented with every request.
+  private static volatile int epoch = 0;
+  // All caches with a priority <= this level should be cleared.
+  private static volatile int pressureLevel = 0;
+  private static final AtomicInteger clearedCaches = new AtomicInteger(0);
+
+  private static final int MAX_CACHE_LEVEL = CachePriority.values().length;
+
+  // Time the threads get to reach their next cache access and clear their caches
+  // before the next notification may escalate further.
+  private static final long ESCALATION_DELAY = TimeUnit.SECONDS.toNanos(2);
+
+  // If there was no notification for this time, the previous memory pressure is assumed
+  // to be over and the next notification starts again with the cheap caches.
+  private static final long RELAX_PERIOD = TimeUnit.SECONDS.toNanos(60);
+
+  /**
+   * Create a new handle for a cache with the given priority.
+   */
+  public static CacheHandle createCacheHandle(CachePriority pPriority) {
+    return new CacheHandle(checkNotNull(pPriority));
+  }
+
+  @Options(prefix="limits.heap")
+  private static class MemoryGovernorOptions {
+
+    @Option(secure=true, name="governor",
+        description="Clear caches when the heap is nearly exhausted, "
+          + "and stop the analysis gracefully (with statistics) if this is not sufficient.")
+    private boolean enabled = false;
+
+    @Option(secure=true,
+        description="Fraction of the maximal size of the old generation that may be used "
+          + "after a garbage collection before the memory governor becomes active.")
+    private double threshold = 0.9;
+  }
+
+  private final LogManager logger;
+  private final ShutdownManager shutdownManager;
+  private final double threshold;
+  private final ImmutableList<MemoryPoolMXBean> pools;
+  private final NotificationListener listener = new NotificationListener() {
+      @Override
+      public void handleNotification(Notification pNotification, Object pHandback) {
+        if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(pNotification.getType())) {
+          handleMemoryPressure();
+        }
+      }
+    };
+
+  private long timeOfLastEscalation = 0;
+
+  private MemoryGovernor(LogManager pLogger, ShutdownManager pShutdownManager, double pThreshold) {
+    logger = pLogger;
+    shutdownManager = pShutdownManager;
+    threshold = pThreshold;
+
+    ImmutableList.Builder<MemoryPoolMXBean> heapPools = ImmutableList.builder();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      // Only the old generation supports usage thresholds, and it is what matters.
+      // (The young generation supports only collection thresholds.)
+      if (pool.getType() == MemoryType.HEAP
+          && pool.isUsageThresholdSupported()
+          && pool.isCollectionUsageThresholdSupported()
+          && pool.getUsage().getMax() > 0) {
+        heapPools.add(pool);
+      }
+    }
+    pools = heapPools.build();
+  }
+
+  /**
+   * Create an instance of this class from some configuration options.
+   * The returned instance is not started yet.
+   * @return An instance, or null if the governor is disabled.
+   */
+  public static MemoryGovernor fromConfiguration(Configuration config, LogManager logger,
+      ShutdownManager shutdownManager) throws InvalidConfigurationException {
+    MemoryGovernorOptions options = new MemoryGovernorOptions();
+    config.inject(options);
+
+    if (!options.enabled) {
+      return null;
+    }
+    if (options.threshold <= 0 || options.threshold >= 1) {
+      throw new InvalidConfigurationException(
+          "Option limits.heap.threshold needs to be between 0 and 1, but is " + options.threshold);
+    }
+    return new MemoryGovernor(logger, shutdownManager, options.threshold);
+  }
+
+  /**
+   * Start listening for notifications about memory usage.
+   */
+  public void start() {
+    if (pools.isEmpty()) {
+      logger.log(Level.WARNING, "Your Java VM does not support notifications about memory usage, "
+          + "memory governor disabled.");
+      return;
+    }
+
+    for (MemoryPoolMXBean pool : pools) {
+      pool.setCollectionUsageThreshold((long)(pool.getUsage().getMax() * threshold));
+    }
+    ((NotificationEmitter)ManagementFactory.getMemoryMXBean()).addNotificationListener(listener, null, null);
+  }
+
+  /**
+   * Stop listening for notifications, without requesting a shutdown.
+   */
+  public void cancel() {
+    if (pools.isEmpty()) {
+      return;
+    }
+    try {
+      ((NotificationEmitter)ManagementFactory.getMemoryMXBean()).removeNotificationListener(listener);
+    } catch (ListenerNotFoundException e) {
+      // not started
+    }
+  }
+
+  private void handleMemoryPressure() {
+    synchronized (MemoryGovernor.class) {
+      long now = System.nanoTime();
+      if (pressureLevel > 0 && now - timeOfLastEscalation < ESCALATION_DELAY) {
+        // the caches did not yet get the chance to react to the last request
+        return;
+      }
+      if (pressureLevel > 0 && now - timeOfLastEscalation > RELAX_PERIOD) {
+        pressureLevel = 0;
+      }
+      timeOfLastEscalation = now;
+
+      if (pressureLevel < MAX_CACHE_LEVEL) {
+        pressureLevel++;
+        epoch++;
+        logger.log(Level.WARNING, "Heap is nearly exhausted, clearing",
+            CachePriority.values()[pressureLevel - 1].name().toLowerCase(), "caches",
+            "(" + clearedCaches.get() + " caches cleared so far).");
+
+      } else {
+        shutdownManager.requestShutdown(getReason());
+      }
+    }
+  }
+
+  private String getReason() {
+    StringBuilder sb = new StringBuilder("The heap is nearly exhausted even after clearing ");
+    sb.append(clearedCaches.get()).append(" caches (usage of ");
+    List<MemoryPoolMXBean> poolList = pools;
+    for (int i = 0; i < poolList.size(); i++) {
+      MemoryPoolMXBean pool = poolList.get(i);
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(pool.getName()).append(": ")
+        .append(pool.getCollectionUsage().getUsed() >> 20).append("MB of ")
+        .append(pool.getUsage().getMax() >> 20).append("MB");
+    }
+    return sb.append(").").toString();
+  }
+}
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util.statistics;
 
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 
 
@@ -46,6 +47,10 @@ public class StatTimer extends AbstractStatValue {
     timer.stop();
   }
 
+  public TimeSpan getSumTime() {
+    return timer.getSumTime();
+  }
+
   @Override
   public int getUpdateCount() {
     return timer.getNumberOfIntervals();
@@ -0,0 +1,337 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.sosy_lab.common.io.Files;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+/**
+ * This class is a runnable that periodically writes a snapshot of all statistics
+ * to a file while the analysis is running.
+ * To use it, instantiate it, and let a {@link Thread} run it.
+ * Call {@link Thread#interrupt()} when you want to stop it,
+ * a last snapshot is written before the thread terminates.
+ *
+ * Each snapshot is one line of JSON with the current time, the heap usage,
+ * the size of the reached set and the waitlist,
+ * and the values of all timers and counters of the registered {@link Statistics}.
+ * The latter are found by reflection: starting from each {@link Statistics} object,
+ * we read all fields of type {@link Timer}, {@link AbstractStatValue},
+ * and atomic numbers, all primitive numeric fields of the {@link Statistics} objects,
+ * and we follow references to other objects of CPAchecker up to a small depth
+ * (because many statistics objects just reference the components with the actual counters).
+ *
+ * Reading is done without any synchronization, so the analysis threads
+ * are not slowed down, but the values of a snapshot may be slightly inconsistent.
+ * Collections are never traversed, because they may be modified concurrently.
+ */
+public class StatisticsSnapshotExporter implements Runnable {
+
+  private static final int MAX_DEPTH = 3;
+
+  private static final String CPACHECKER_PACKAGE = "org.sosy_lab.cpachecker.";
+
+  private final ImmutableList<Statistics> statistics;
+  private final ReachedSet reached;
+  private final Path outputFile;
+  private final long interval;
+  private final LogManager logger;
+  private final Timer timer = new Timer();
+
+  // only accessed by the thread running this instance
+  private final Map<Class<?>, List<Field>> relevantFields = new HashMap<>();
+
+  /**
+   * Instantiate this exporter.
+   * You need to call {@link Thread#start()} afterwards to start writing snapshots.
+   */
+  public StatisticsSnapshotExporter(Collection<Statistics> pStatistics, ReachedSet pReached,
+      Path pOutputFile, TimeSpan pInterval, LogManager pLogger) {
+    statistics = ImmutableList.copyOf(pStatistics);
+    reached = pReached;
+    outputFile = pOutputFile;
+    interval = pInterval.asMillis();
+    logger = pLogger;
+  }
+
+  @Override
+  public void run() {
+    timer.start();
+    try (Writer out = Files.openOutputFile(outputFile)) {
+      boolean interrupted = false;
+      while (!interrupted) { // call Thread#interrupt() to stop it
+        try {
+          Thread.sleep(interval);
+        } catch (InterruptedException e) {
+          interrupted = true; // write one last snapshot
+        }
+
+        StringBuilder line = new StringBuilder();
+        writeSnapshot(line);
+        line.append('\n');
+        out.write(line.toString());
+        out.flush();
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write statistics snapshots to file");
+    }
+  }
+
+  private void writeSnapshot(StringBuilder out) {
+    out.append("{\"time\":");
+    appendSeconds(out, timer.getSumTime());
+
+    MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+    out.append(",\"heap\":{\"used\":").append(heap.getUsed())
+       .append(",\"committed\":").append(heap.getCommitted())
+       .append(",\"max\":").append(heap.getMax())
+       .append('}');
+
+    if (reached != null) {
+      out.append(",\"reached\":{");
+      try {
+        out.append("\"size\":").append(reached.size())
+           .append(",\"waitlist\":").append(reached.getWaitlist().size());
+      } catch (RuntimeException e) {
+        // the reached set is not thread-safe, ignore this snapshot of it
+        logger.logDebugException(e, "Could not read reached-set size for statistics snapshot");
+      }
+      out.append('}');
+    }
+
+    out.append(",\"statistics\":{");
+    boolean first = true;
+    for (Statistics stats : statistics) {
+      String name = stats.getName();
+      if (name == null || name.isEmpty()) {
+        name = stats.getClass().getSimpleName();
+      }
+
+      StringBuilder values = new StringBuilder();
+      try {
+        collectValues(stats, "", 0, values, Sets.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+      } catch (RuntimeException e) {
+        logger.logDebugException(e, "Could not read statistics for snapshot");
+        continue;
+      }
+      if (values.length() > 0) {
+        if (!first) {
+          out.append(',');
+        }
+        first = false;
+        appendString(out, name);
+        out.append(":{").append(values).append('}');
+      }
+    }
+    out.append("}}");
+  }
+
+  /**
+   * Append the values of all relevant fields of an object in the form "path":value.
+   */
+  private void collectValues(Object obj, String prefix, int depth, StringBuilder out,
+      Set<Object> visited) {
+    if (!visited.add(obj)) {
+      return;
+    }
+    boolean isStatisticsObject = obj instanceof Statistics;
+
+    for (Field field : getRelevantFields(obj.getClass())) {
+      Object value;
+      try {
+        value = field.get(obj);
+      } catch (IllegalAccessException e) {
+        throw new AssertionError(e);
+      }
+      if (value == null) {
+        continue;
+      }
+      String path = prefix + field.getName();
+
+      if (value instanceof Timer) {
+        Timer t = (Timer)value;
+        appendKey(out, path);
+        out.append("{\"time\":");
+        appendSeconds(out, t.getSumTime());
+        out.append(",\"count\":").append(t.getNumberOfIntervals()).append('}');
+
+      } else if (value instanceof StatTimer) {
+        StatTimer t = (StatTimer)value;
+        appendKey(out, path);
+        out.append("{\"time\":");
+        appendSeconds(out, t.getSumTime());
+        out.append(",\"count\":").append(t.getUpdateCount()).append('}');
+
+      } else if (value instanceof StatCounter) {
+        appendKey(out, path);
+        out.append(((StatCounter)value).getValue());
+
+      } else if (value instanceof StatInt) {
+        StatInt v = (StatInt)value;
+        appendKey(out, path);
+        out.append("{\"sum\":").append(v.getValueSum())
+           .append(",\"count\":").append(v.getValueCount())
+           .append(",\"max\":").append(v.getMaxValue()).append('}');
+
+      } else if (value instanceof AtomicInteger || value instanceof AtomicLong) {
+        appendKey(out, path);
+        out.append(((Number)value).longValue());
+
+      } else if (field.getType().isPrimitive()) {
+        if (isStatisticsObject && value instanceof Number) {
+          appendKey(out, path);
+          appendNumber(out, (Number)value);
+        }
+
+      } else if (depth < MAX_DEPTH) {
+        collectValues(value, path + ".", depth + 1, out, visited);
+      }
+    }
+  }
+
+  /**
+   * Return all fields of a class (including inherited fields) that either
+   * hold a value we export or reference another object of CPAchecker
+   * that we should look into.
+   */
+  private List<Field> getRelevantFields(Class<?> cls) {
+    List<Field> result = relevantFields.get(cls);
+    if (result != null) {
+      return result;
+    }
+
+    result = new ArrayList<>();
+    for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+          continue;
+        }
+        if (isRelevantType(field.getType())) {
+          try {
+            field.setAccessible(true);
+          } catch (SecurityException e) {
+            continue;
+          }
+          result.add(field);
+        }
+      }
+    }
+    relevantFields.put(cls, result);
+    return result;
+  }
+
+  private static boolean isRelevantType(Class<?> type) {
+    if (type.isPrimitive()) {
+      return type != boolean.class && type != char.class;
+    }
+    if (Timer.class.isAssignableFrom(type)
+        || AbstractStatValue.class.isAssignableFrom(type)
+        || type == AtomicInteger.class
+        || type == AtomicLong.class) {
+      return true;
+    }
+    // references to other components that may contain statistics,
+    // but never collections or abstract states, which are large and may change concurrently
+    return !type.isArray()
+        && type.getName().startsWith(CPACHECKER_PACKAGE)
+        && !Iterable.class.isAssignableFrom(type)
+        && !Map.class.isAssignableFrom(type)
+        && !AbstractState.class.isAssignableFrom(type);
+  }
+
+  private static void appendKey(StringBuilder out, String key) {
+    if (out.length() > 0) {
+      out.append(',');
+    }
+    appendString(out, key);
+    out.append(':');
+  }
+
+  private static void appendSeconds(StringBuilder out, TimeSpan time) {
+    // JSON always uses '.' as decimal separator, independent of the default locale
+    out.append(String.format(Locale.ROOT, "%.3f", time.asMillis() / 1000.0));
+  }
+
+  private static void appendNumber(StringBuilder out, Number value) {
+    double d = value.doubleValue();
+    if (Double.isNaN(d) || Double.isInfinite(d)) {
+      // not representable in JSON
+      out.append("null");
+    } else {
+      out.append(value);
+    }
+  }
+
+  private static void appendString(StringBuilder out, String s) {
+    out.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+      case '"':
+        out.append("\\\"");
+        break;
+      case '\\':
+        out.append("\\\\");
+        break;
+      case '\n':
+        out.append("\\n");
+        break;
+      default:
+        if (c < 0x20) {
+          out.append(String.format(Locale.ROOT, "\\u%04x", (int)c));
+        } else {
+          out.append(c);
+        }
+      }
+    }
+    out.append('"');
+  }
+}
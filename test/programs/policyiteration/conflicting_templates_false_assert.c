@@ -0,0 +1,18 @@
+#include<assert.h>
+extern _Bool __VERIFIER_nondet_bool();
+
+int main() {
+  int x = 0;
+  int y = 10;
+  while (__VERIFIER_nondet_bool()) {
+    if (x < 10) {
+      x++;
+      y--;
+    }
+  }
+
+  // x + y == 10 holds in the loop, so the upper bounds of x and y
+  // are not reached in the same state.
+  // Both bounds have to be 10 nonetheless.
+  assert(y != 10);
+}